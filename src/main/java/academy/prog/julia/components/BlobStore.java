@@ -0,0 +1,84 @@
+package academy.prog.julia.components;
+
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed storage of binary files (certificate PDFs, task answer archives).
+ *
+ * A file is identified by the SHA-256 hash of its content, so storing the same content twice
+ * keeps a single copy. Entities keep only the hash and the size of their file.
+ */
+public interface BlobStore {
+
+    /**
+     * Stores the content read from a stream. The stream is consumed but not closed.
+     *
+     * @param content the content to store
+     * @return the hash and the size of the stored content
+     * @throws IOException if the content can't be read or stored
+     */
+    Blob write(InputStream content) throws IOException;
+
+    /**
+     * Stores a byte array.
+     *
+     * @param content the content to store
+     * @return the hash and the size of the stored content
+     * @throws IOException if the content can't be stored
+     */
+    default Blob write(byte[] content) throws IOException {
+        return write(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Opens a stored file for reading. The caller must close the stream.
+     *
+     * @param hash the SHA-256 hash of the content
+     * @return the stream of the content
+     * @throws IOException if there is no such file or it can't be read
+     */
+    InputStream openStream(String hash) throws IOException;
+
+    /**
+     * Reads a stored file into memory.
+     *
+     * @param hash the SHA-256 hash of the content
+     * @return the content
+     * @throws IOException if there is no such file or it can't be read
+     */
+    default byte[] read(String hash) throws IOException {
+        try (InputStream in = openStream(hash)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns a stored file as a {@link Resource}, so it can be streamed to an HTTP response,
+     * including byte ranges, without reading it into memory.
+     *
+     * @param hash the SHA-256 hash of the content
+     * @return the resource of the content; it may not exist
+     */
+    Resource getResource(String hash);
+
+    /**
+     * Checks whether a file is stored.
+     *
+     * @param hash the SHA-256 hash of the content
+     * @return true if the file exists
+     */
+    boolean exists(String hash);
+
+    /**
+     * A reference to stored content.
+     *
+     * @param hash the SHA-256 hash of the content as a lowercase hex string
+     * @param size the size of the content in bytes
+     */
+    record Blob(String hash, long size) {}
+
+}
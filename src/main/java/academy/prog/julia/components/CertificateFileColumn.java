@@ -0,0 +1,86 @@
+package academy.prog.julia.components;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Tells whether the 'file' column of the 'certificates' table accepts null.
+ *
+ * The baseline schema declares the column NOT NULL, and only migration V9 relaxes it.
+ * Until a database has run V9, certificates keep their file in the column as well as in the
+ * {@link BlobStore}, and the files already stored there are not moved.
+ * The column is read from the database metadata once; the schema only changes on startup.
+ */
+@Component
+public class CertificateFileColumn {
+
+    private static final Logger LOGGER = LogManager.getLogger(CertificateFileColumn.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean nullable;
+
+    /**
+     * Constructs the component.
+     *
+     * @param jdbcTemplate the {@code JdbcTemplate} used to read the database metadata
+     */
+    public CertificateFileColumn(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Checks whether certificates may be saved without their file in the 'file' column.
+     *
+     * @return true if the column accepts null, false if it doesn't or the metadata could not be read
+     */
+    public boolean isNullable() {
+        Boolean value = nullable;
+
+        if (value == null) {
+            try {
+                value = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                        isNullable(connection.getMetaData(), connection.getCatalog())
+                );
+            } catch (DataAccessException e) {
+                LOGGER.error("Failed to read the 'file' column of the certificates table", e);
+                return false;
+            }
+
+            if (!Boolean.TRUE.equals(value)) {
+                LOGGER.warn("The 'file' column of the certificates table is NOT NULL (migration V9 not applied), certificate files are kept in it");
+            }
+
+            nullable = value;
+        }
+
+        return value;
+    }
+
+    private static Boolean isNullable(
+            DatabaseMetaData metaData,
+            String catalog
+    ) throws SQLException {
+        // Table names are stored in lower case by MySQL and in upper case by H2
+        for (String table : List.of("certificates", "CERTIFICATES")) {
+            try (ResultSet columns = metaData.getColumns(catalog, null, table, null)) {
+                while (columns.next()) {
+                    if ("file".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                        return columns.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
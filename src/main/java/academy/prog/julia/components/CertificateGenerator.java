@@ -4,116 +4,195 @@ import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.User;
 import academy.prog.julia.repos.CertificateRepository;
 import academy.prog.julia.repos.UserRepository;
+import academy.prog.julia.services.SseService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 
 /**
  * Component for generating certificates for users.
- * This class communicates with an external microservice to generate PDF certificates
- * and stores them in the database.
+ * The PDF certificates are produced by the configured {@link CertificateRenderer} without transaction,
+ * and stored in the blob store and the database.
  */
 @Component
 public class CertificateGenerator {
 
     private static final Logger LOGGER = LogManager.getLogger(CertificateGenerator.class);
 
-    private final RestTemplate restTemplate;
+    private final CertificateRenderer certificateRenderer;
     private final CertificateRepository certificateRepository;
     private final UserRepository userRepository;
-
-    /**
-     * The URL of the microservice that generates the certificates.
-     * This value is injected from the application.properties file.
-     */
-    @Value("${certificate.generator.url}")
-    private String microserviceUrl;
+    private final CertificatePreviewStore certificatePreviewStore;
+    private final BlobStore blobStore;
+    private final CertificateFileColumn certificateFileColumn;
+    private final SseService sseService;
 
     /**
      * Constructor for CertificateGenerator.
      *
-     * @param restTemplate           RestTemplate instance for making HTTP requests.
+     * @param certificateRenderer    Renderer producing the PDF files of the certificates.
      * @param certificateRepository  Repository for accessing certificates in the database.
      * @param userRepository         Repository for accessing users in the database.
+     * @param certificatePreviewStore Store of the rendered previews of the certificates.
+     * @param blobStore              Store of the certificate files.
+     * @param certificateFileColumn  Tells whether the files may be left out of the certificates table.
+     * @param sseService             Service notifying the clients of the user about the issued certificate.
      */
     public CertificateGenerator(
-            RestTemplate restTemplate,
+            CertificateRenderer certificateRenderer,
             CertificateRepository certificateRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            CertificatePreviewStore certificatePreviewStore,
+            BlobStore blobStore,
+            CertificateFileColumn certificateFileColumn,
+            SseService sseService
     ) {
-        this.restTemplate = restTemplate;
+        this.certificateRenderer = certificateRenderer;
         this.certificateRepository = certificateRepository;
         this.userRepository = userRepository;
+        this.certificatePreviewStore = certificatePreviewStore;
+        this.blobStore = blobStore;
+        this.certificateFileColumn = certificateFileColumn;
+        this.sseService = sseService;
+    }
+
+    @Lookup
+    public CertificateGenerator getSelf() {
+        return null;
     }
 
     /**
      * Generates a certificate for the specified user and course, if it does not already exist.
+     * The certificate is rendered without transaction and saved in a short one.
+     * The event stream of the user is notified once the certificate is committed.
      *
      * @param user       The user for whom the certificate is to be generated.
      * @param courseName The name of the course for which the certificate is being generated.
      * @param userId     The ID of the user.
      */
-    @Transactional
     public void generateCertificate(User user, String courseName, Long userId) {
+        RenderedCertificate renderedCertificate = renderCertificate(user, courseName, userId);
+
+        if (renderedCertificate != null) {
+            getSelf().saveCertificate(renderedCertificate);
+        }
+    }
+
+    /**
+     * Renders the certificate of the specified user and course and writes it to the blob store,
+     * if the certificate does not already exist. Must not be called in a transaction:
+     * rendering is slow and would hold a database connection all along.
+     *
+     * @param user       The user for whom the certificate is to be generated.
+     * @param courseName The name of the course for which the certificate is being generated.
+     * @param userId     The ID of the user.
+     * @return the rendered certificate to save, or null if there is nothing to save.
+     */
+    public RenderedCertificate renderCertificate(User user, String courseName, Long userId) {
 
         if (user == null || courseName == null || userId == null) {
             LOGGER.error("Invalid input: user, courseName, and userId must not be null.");
-            return;
+            return null;
         }
 
         Certificate existingCertificate = certificateRepository.findByGroupNameAndUserId(courseName, userId);
         if (existingCertificate != null) {
             LOGGER.info("Certificate already exists for courseName: {} and userId: {}", courseName, userId);
-            return;
+            return null;
         }
 
-        Map<String, String> requestData = new HashMap<>();
         String studentName = user.getName() + " " + user.getSurname();
-        requestData.put("name", studentName);
-        requestData.put("course", courseName);
-        requestData.put("user_id", String.valueOf(userId));
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(requestData, headers);
-
-        ResponseEntity<byte[]> responseEntity = restTemplate.exchange(
-                microserviceUrl,
-                HttpMethod.POST,
-                requestEntity,
-                byte[].class
-        );
-
-        if (responseEntity.getStatusCode().is2xxSuccessful()) {
-            byte[] pdfBytes = responseEntity.getBody();
-
-            String certificateId = generateCertificateId();
-
-            Certificate certificate = new Certificate(pdfBytes);
-            certificate.setUniqueId(certificateId);
-            certificate.setGroupName(courseName);
-            certificate.setFile(pdfBytes);
-
-            User userWithId = userRepository.findById(userId).orElse(null);
-
-            if (userWithId != null) {
-                certificate.setUser(userWithId);
-                certificateRepository.save(certificate);
-            } else {
-                LOGGER.info("User with id {} not found!", userId);
-            }
-        } else {
-            LOGGER.error("Error getting certificate: {}", responseEntity.getStatusCode());
+        String certificateId = generateCertificateId();
+
+        byte[] pdfBytes = certificateRenderer.render(studentName, courseName, userId, certificateId);
+
+        if (pdfBytes == null) {
+            LOGGER.error("Certificate was not rendered for courseName: {} and userId: {}", courseName, userId);
+            return null;
         }
+
+        BlobStore.Blob blob;
+
+        try {
+            blob = blobStore.write(pdfBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store certificate file", e);
+        }
+
+        return new RenderedCertificate(certificateId, courseName, userId, pdfBytes, blob);
+    }
+
+    /**
+     * Saves a rendered certificate, unless a certificate of the same user and course was saved meanwhile.
+     * The previews are rendered and the event stream of the user is notified once the certificate is committed.
+     *
+     * @param renderedCertificate The certificate returned by {@link #renderCertificate}.
+     * @return true if the certificate was saved.
+     */
+    @Transactional
+    public boolean saveCertificate(RenderedCertificate renderedCertificate) {
+        String certificateId = renderedCertificate.certificateId();
+        String courseName = renderedCertificate.courseName();
+        Long userId = renderedCertificate.userId();
+
+        if (certificateRepository.findByGroupNameAndUserId(courseName, userId) != null) {
+            LOGGER.info("Certificate already exists for courseName: {} and userId: {}", courseName, userId);
+            return false;
+        }
+
+        User userWithId = userRepository.findById(userId).orElse(null);
+
+        if (userWithId == null) {
+            LOGGER.info("User with id {} not found!", userId);
+            return false;
+        }
+
+        Certificate certificate = new Certificate();
+        certificate.setUniqueId(certificateId);
+        certificate.setGroupName(courseName);
+        certificate.setFileHash(renderedCertificate.blob().hash());
+        certificate.setFileSize(renderedCertificate.blob().size());
+
+        if (!certificateFileColumn.isNullable()) {
+            certificate.setFile(renderedCertificate.pdfBytes());
+        }
+
+        certificate.setUser(userWithId);
+        certificateRepository.save(certificate);
+        createPreviewsAfterCommit(certificateId, renderedCertificate.pdfBytes());
+        sseService.notifyUser(userId, "Certificate " + certificateId + " was issued for " + courseName);
+
+        return true;
+    }
+
+    /**
+     * Renders the previews of a new certificate once it is committed,
+     * so the transaction isn't held open during rasterization.
+     *
+     * @param certificateId The unique identifier of the certificate.
+     * @param pdfBytes      The PDF file of the certificate.
+     */
+    private void createPreviewsAfterCommit(String certificateId, byte[] pdfBytes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            certificatePreviewStore.createPreviews(certificateId, pdfBytes);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                certificatePreviewStore.createPreviews(certificateId, pdfBytes);
+            }
+        });
     }
 
     /**
@@ -129,4 +208,22 @@ public class CertificateGenerator {
 
         return randomId;
     }
-}
\ No newline at end of file
+
+    /**
+     * A rendered certificate, already written to the blob store and waiting to be saved.
+     *
+     * @param certificateId The unique identifier of the certificate.
+     * @param courseName    The name of the course.
+     * @param userId        The ID of the user.
+     * @param pdfBytes      The PDF file of the certificate.
+     * @param blob          The file of the certificate in the blob store.
+     */
+    public record RenderedCertificate(
+            String certificateId,
+            String courseName,
+            Long userId,
+            byte[] pdfBytes,
+            BlobStore.Blob blob
+    ) {}
+
+}
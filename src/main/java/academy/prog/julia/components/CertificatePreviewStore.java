@@ -0,0 +1,410 @@
+package academy.prog.julia.components;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Store of the rendered PNG previews of certificates.
+ *
+ * Previews are rendered once, when the certificate is created (or on the first request for
+ * older certificates), and written to a directory on disk. Recently viewed previews are kept
+ * in a size-bounded in-memory LRU cache in front of the disk, so repeat views cost neither
+ * a database read nor rasterization.
+ *
+ * Every preview has a version (its creation time) used for the ETag and Last-Modified headers.
+ * Certificates are never changed, so a preview stays valid for as long as it exists.
+ */
+@Component
+public class CertificatePreviewStore {
+
+    private static final Logger LOGGER = LogManager.getLogger(CertificatePreviewStore.class);
+
+    // Unique IDs are generated hex strings; anything else must not reach the file system
+    private static final Pattern CERTIFICATE_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Path directory;
+    private final long maxCacheBytes;
+
+    // Access-ordered map: iteration starts with the least recently used preview
+    private final LinkedHashMap<String, Preview> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+
+    // Certificates being rendered, so concurrent requests for a new certificate rasterize it once
+    private final Map<String, CompletableFuture<Map<Size, Preview>>> rendering = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the store.
+     *
+     * @param directory     the directory the previews are written to
+     * @param maxCacheBytes the maximum total size of the previews kept in memory
+     */
+    public CertificatePreviewStore(
+            @Value("${certificate.preview.directory:certificate-previews}") String directory,
+            @Value("${certificate.preview.cache-max-bytes:67108864}") long maxCacheBytes
+    ) {
+        this.directory = Paths.get(directory);
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Returns the preview of a certificate, rendering it from the PDF file if it doesn't exist yet.
+     *
+     * @param certificateId the unique ID of the certificate
+     * @param size          the requested resolution
+     * @param pdfLoader     loads the PDF file of the certificate; called only if the preview doesn't exist
+     * @return the preview
+     * @throws IOException if the PDF file can't be rendered
+     */
+    public Preview getPreview(
+            String certificateId,
+            Size size,
+            Supplier<byte[]> pdfLoader
+    ) throws IOException {
+        validateCertificateId(certificateId);
+        String key = cacheKey(certificateId, size);
+
+        Preview preview = getCached(key);
+
+        if (preview != null) {
+            return preview;
+        }
+
+        preview = readFromDisk(certificateId, size);
+
+        if (preview == null) {
+            preview = renderOnce(certificateId, pdfLoader).get(size);
+        }
+
+        putCached(key, preview);
+
+        return preview;
+    }
+
+    /**
+     * Renders and stores the previews of a new certificate in all resolutions.
+     * Failures are only logged: the previews are rendered again on the first request.
+     *
+     * @param certificateId the unique ID of the certificate
+     * @param pdf           the PDF file of the certificate
+     */
+    public void createPreviews(
+            String certificateId,
+            byte[] pdf
+    ) {
+        try {
+            validateCertificateId(certificateId);
+            renderOnce(certificateId, () -> pdf);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to create previews of certificate {}", certificateId, e);
+        }
+    }
+
+    /**
+     * Returns the total size of the previews kept in memory.
+     *
+     * @return the size of the cached previews in bytes
+     */
+    public synchronized long getCacheBytes() {
+        return cacheBytes;
+    }
+
+    /**
+     * Renders the previews of a certificate unless another thread is already rendering them,
+     * in which case its result is awaited.
+     */
+    private Map<Size, Preview> renderOnce(
+            String certificateId,
+            Supplier<byte[]> pdfLoader
+    ) throws IOException {
+        CompletableFuture<Map<Size, Preview>> future = new CompletableFuture<>();
+        CompletableFuture<Map<Size, Preview>> running = rendering.putIfAbsent(certificateId, future);
+
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            future.complete(renderAndWrite(certificateId, pdfLoader.get()));
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            rendering.remove(certificateId, future);
+        }
+
+        return await(future);
+    }
+
+    /**
+     * Rasterizes the first page once at the highest resolution, scales it down to the other
+     * resolutions and writes all previews to disk.
+     */
+    private Map<Size, Preview> renderAndWrite(
+            String certificateId,
+            byte[] pdf
+    ) throws IOException {
+        // HTTP dates have a resolution of one second
+        long version = System.currentTimeMillis() / 1000 * 1000;
+        Map<Size, Preview> previews = new EnumMap<>(Size.class);
+
+        try (PDDocument document = PDDocument.load(pdf)) {
+            List<Size> sizes = new ArrayList<>(List.of(Size.values()));
+            sizes.sort(Comparator.comparingInt(Size::getDpi).reversed());
+
+            BufferedImage image = new PDFRenderer(document).renderImageWithDPI(0, sizes.get(0).getDpi());
+            int imageDpi = sizes.get(0).getDpi();
+
+            for (Size size : sizes) {
+                if (size.getDpi() != imageDpi) {
+                    // Scale from the previous, larger image: halving steps keep the quality of small previews
+                    image = scale(image, (double) size.getDpi() / imageDpi);
+                    imageDpi = size.getDpi();
+                }
+
+                byte[] png = toPng(image);
+                Preview preview = new Preview(png, eTag(certificateId, size, version), version);
+                previews.put(size, preview);
+
+                write(certificateId, size, preview);
+            }
+        }
+
+        return previews;
+    }
+
+    private Preview readFromDisk(
+            String certificateId,
+            Size size
+    ) {
+        Path path = path(certificateId, size);
+
+        try {
+            long version = Files.getLastModifiedTime(path).toMillis() / 1000 * 1000;
+            return new Preview(Files.readAllBytes(path), eTag(certificateId, size, version), version);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read preview {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a preview through a temporary file, so a concurrent reader never sees a partial image.
+     */
+    private void write(
+            String certificateId,
+            Size size,
+            Preview preview
+    ) {
+        Path path = path(certificateId, size);
+
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, certificateId, ".tmp");
+
+            try {
+                Files.write(temporary, preview.image());
+                Files.setLastModifiedTime(temporary, FileTime.fromMillis(preview.lastModified()));
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write preview {}", path, e);
+        }
+    }
+
+    private synchronized Preview getCached(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void putCached(
+            String key,
+            Preview preview
+    ) {
+        if (preview.image().length > maxCacheBytes) {
+            return;
+        }
+
+        Preview previous = cache.put(key, preview);
+        cacheBytes += preview.image().length - (previous == null ? 0 : previous.image().length);
+
+        Iterator<Preview> leastRecentlyUsed = cache.values().iterator();
+
+        while (cacheBytes > maxCacheBytes && leastRecentlyUsed.hasNext()) {
+            cacheBytes -= leastRecentlyUsed.next().image().length;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private Path path(
+            String certificateId,
+            Size size
+    ) {
+        return directory.resolve(certificateId + "-" + size.getName() + ".png");
+    }
+
+    private static String cacheKey(
+            String certificateId,
+            Size size
+    ) {
+        return certificateId + "-" + size.getName();
+    }
+
+    private static String eTag(
+            String certificateId,
+            Size size,
+            long version
+    ) {
+        return "\"" + certificateId + "-" + size.getName() + "-" + Long.toHexString(version) + "\"";
+    }
+
+    private static void validateCertificateId(String certificateId) {
+        if (certificateId == null || !CERTIFICATE_ID.matcher(certificateId).matches()) {
+            throw new NoSuchElementException("Certificate not found!");
+        }
+    }
+
+    private static BufferedImage scale(
+            BufferedImage source,
+            double factor
+    ) {
+        BufferedImage image = source;
+
+        // Halve until the remaining factor is at least 1/2, bilinear scaling loses details below that
+        while (factor < 0.5) {
+            image = resize(image, image.getWidth() / 2, image.getHeight() / 2);
+            factor *= 2;
+        }
+
+        return resize(image, (int) Math.round(image.getWidth() * factor), (int) Math.round(image.getHeight() * factor));
+    }
+
+    private static BufferedImage resize(
+            BufferedImage source,
+            int width,
+            int height
+    ) {
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, image.getWidth(), image.getHeight(), null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return image;
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static Map<Size, Preview> await(CompletableFuture<Map<Size, Preview>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering certificate preview", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    /**
+     * Resolution of a preview.
+     */
+    public enum Size {
+        THUMBNAIL("thumbnail", 36),
+        DPI_150("150", 150),
+        DPI_300("300", 300);
+
+        private final String name;
+        private final int dpi;
+
+        Size(
+                String name,
+                int dpi
+        ) {
+            this.name = name;
+            this.dpi = dpi;
+        }
+
+        /**
+         * Returns the name of the resolution used in requests.
+         *
+         * @return the name of the resolution
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the resolution in dots per inch.
+         *
+         * @return the DPI of the preview
+         */
+        public int getDpi() {
+            return dpi;
+        }
+
+        /**
+         * Finds a resolution by its name.
+         *
+         * @param name the name of the resolution, e.g. "thumbnail" or "300"
+         * @return the resolution
+         * @throws IllegalArgumentException if there is no resolution with this name
+         */
+        public static Size fromName(String name) {
+            for (Size size : values()) {
+                if (size.name.equalsIgnoreCase(name)) {
+                    return size;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown preview size: " + name);
+        }
+    }
+
+    /**
+     * A rendered PNG preview with its version.
+     *
+     * @param image        the PNG image
+     * @param eTag         the entity tag of the preview
+     * @param lastModified the creation time of the preview in milliseconds
+     */
+    public record Preview(byte[] image, String eTag, long lastModified) {}
+
+}
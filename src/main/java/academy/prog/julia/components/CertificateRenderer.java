@@ -0,0 +1,28 @@
+package academy.prog.julia.components;
+
+/**
+ * Renders the PDF file of a certificate.
+ *
+ * The implementation is selected with the {@code certificate.renderer} property:
+ * {@code remote} (default) calls the external 'cert_gen' service,
+ * {@code pdfbox} renders the certificate in-process.
+ */
+public interface CertificateRenderer {
+
+    /**
+     * Renders a certificate.
+     *
+     * @param studentName   the full name of the student
+     * @param courseName    the name of the completed course
+     * @param userId        the ID of the user
+     * @param certificateId the unique ID of the certificate
+     * @return the PDF file, or {@code null} if the certificate could not be rendered
+     */
+    byte[] render(
+            String studentName,
+            String courseName,
+            Long userId,
+            String certificateId
+    );
+
+}
@@ -0,0 +1,173 @@
+package academy.prog.julia.components;
+
+import academy.prog.julia.dto.ChatPrincipalDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the principals of Telegram chats, so the bot doesn't load the user for every message.
+ *
+ * The cache is bounded by entry count (least recently used chats are dropped first) and every entry
+ * expires some time after it was loaded, which limits how long a change made outside
+ * {@code UserService} (e.g. directly in the database) stays unnoticed. Changes made by
+ * {@code UserService} evict the affected entries once they are committed.
+ */
+@Component
+public class ChatPrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Access-ordered map: iteration starts with the least recently used chat
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructs the cache.
+     *
+     * @param maxSize    the maximum number of cached chats
+     * @param ttlSeconds the number of seconds after loading when an entry expires
+     */
+    public ChatPrincipalCache(
+            @Value("${telegram.principal-cache.max-size:10000}") int maxSize,
+            @Value("${telegram.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this(maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the cache with a custom clock.
+     *
+     * @param maxSize   the maximum number of cached chats
+     * @param ttlMillis the number of milliseconds after loading when an entry expires
+     * @param clock     the source of the current time in milliseconds
+     */
+    ChatPrincipalCache(
+            int maxSize,
+            long ttlMillis,
+            LongSupplier clock
+    ) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached principal of a chat.
+     *
+     * @param chatId the Telegram chat ID
+     * @return the principal, or null if not cached or expired
+     */
+    public synchronized ChatPrincipalDTO get(String chatId) {
+        Entry entry = cache.get(chatId);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= clock.getAsLong()) {
+            cache.remove(chatId);
+            return null;
+        }
+
+        return entry.principal;
+    }
+
+    /**
+     * Caches the principal of a chat, dropping the least recently used chat if the cache is full.
+     *
+     * @param chatId    the Telegram chat ID
+     * @param principal the principal of the user of the chat
+     */
+    public synchronized void put(
+            String chatId,
+            ChatPrincipalDTO principal
+    ) {
+        cache.put(chatId, new Entry(principal, clock.getAsLong() + ttlMillis));
+
+        Iterator<Entry> iterator = cache.values().iterator();
+
+        while (cache.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evicts a chat.
+     *
+     * @param chatId the Telegram chat ID, ignored if null
+     */
+    public synchronized void evictChat(String chatId) {
+        if (chatId != null) {
+            cache.remove(chatId);
+        }
+    }
+
+    /**
+     * Evicts all the chats of a user.
+     *
+     * @param userId the ID of the user
+     */
+    public synchronized void evictUser(Long userId) {
+        cache.values().removeIf(entry -> entry.principal.id().equals(userId));
+    }
+
+    /**
+     * Evicts a chat now and once the current transaction completes.
+     * The second eviction drops what a concurrent message cached from the data as it was before the commit.
+     *
+     * @param chatId the Telegram chat ID, ignored if null
+     */
+    public void evictChatAfterCompletion(String chatId) {
+        evictChat(chatId);
+        afterCompletion(() -> evictChat(chatId));
+    }
+
+    /**
+     * Evicts all the chats of a user now and once the current transaction completes.
+     * The second eviction drops what a concurrent message cached from the data as it was before the commit.
+     *
+     * @param userId the ID of the user
+     */
+    public void evictUserAfterCompletion(Long userId) {
+        evictUser(userId);
+        afterCompletion(() -> evictUser(userId));
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of cached chats, expired ones included.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * A principal with its expiration time.
+     */
+    private record Entry(ChatPrincipalDTO principal, long expiresAt) {}
+
+}
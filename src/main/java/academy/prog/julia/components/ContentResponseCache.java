@@ -0,0 +1,247 @@
+package academy.prog.julia.components;
+
+import academy.prog.julia.dto.LessonsDTO;
+import academy.prog.julia.json_responses.LessonDetailResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the course content responses shared by all students: the lesson listing of a course
+ * and the details of a lesson. Nothing user-specific is cached here; progress is served separately.
+ *
+ * Every course and lesson has a content version, bumped when a course import changes it.
+ * Responses are cached under the version they were built for, so a bump makes the old responses
+ * unreachable without having to find them; they are dropped as the least recently used entries
+ * once the cache is full. A response built while a bump happens is stored under the old version
+ * and never served.
+ *
+ * The versions also make the entity tags of the responses, so clients can revalidate them
+ * without any database access. Tags include the startup time of the instance, as versions restart
+ * from 0 and must not match a tag handed out before a restart.
+ *
+ * Versions are kept in memory: every instance of the application has its own cache, and a course import
+ * only bumps the versions on the instance that ran it. Responses and entity tags therefore also belong to
+ * a period of ttl-seconds: once it ends they are built and tagged again, so the other instances serve
+ * changed content after at most one period plus the expiry of the second-level cache (ehcache.xml).
+ */
+@Component
+public class ContentResponseCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final long epoch;
+
+    // Versions are taken from one sequence, so a bumped version is never reused
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> courseVersions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lessonVersions = new ConcurrentHashMap<>();
+
+    // Access-ordered map: iteration starts with the least recently used response
+    private final LinkedHashMap<Key, Object> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructs the cache.
+     *
+     * @param maxEntries the maximum number of cached responses
+     * @param ttlSeconds how long a response and its entity tag are used, 0 to keep them until a version bump
+     */
+    public ContentResponseCache(
+            @Value("${content.response-cache.max-entries:2000}") int maxEntries,
+            @Value("${content.response-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the cache with a custom clock.
+     *
+     * @param maxEntries the maximum number of cached responses
+     * @param ttl        how long a response and its entity tag are used, zero to keep them until a version bump
+     * @param clock      the source of the current time in milliseconds
+     */
+    ContentResponseCache(
+            int maxEntries,
+            Duration ttl,
+            LongSupplier clock
+    ) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.epoch = clock.getAsLong();
+    }
+
+    /**
+     * Returns the lesson listing of a course, built by the loader if not cached for the current version.
+     *
+     * @param courseId the ID of the course
+     * @param loader   builds the listing from the database
+     * @return the lessons of the course
+     */
+    public List<LessonsDTO> getCourseLessons(
+            Long courseId,
+            Supplier<List<LessonsDTO>> loader
+    ) {
+        return getOrLoad(new Key(Kind.COURSE_LESSONS, courseId, getCourseVersion(courseId), period()), loader);
+    }
+
+    /**
+     * Returns the details of a lesson, built by the loader if not cached for the current version.
+     *
+     * @param lessonId the ID of the lesson
+     * @param loader   builds the details from the database
+     * @return the details of the lesson
+     */
+    public LessonDetailResponse getLessonDetails(
+            Long lessonId,
+            Supplier<LessonDetailResponse> loader
+    ) {
+        return getOrLoad(new Key(Kind.LESSON_DETAILS, lessonId, getLessonVersion(lessonId), period()), loader);
+    }
+
+    /**
+     * Returns the strong entity tag of the lesson listing of a course.
+     *
+     * @param courseId the ID of the course
+     * @return the quoted entity tag of the current version and period
+     */
+    public String getCourseLessonsETag(Long courseId) {
+        return eTag(Kind.COURSE_LESSONS, courseId, getCourseVersion(courseId));
+    }
+
+    /**
+     * Returns the strong entity tag of the details of a lesson.
+     *
+     * @param lessonId the ID of the lesson
+     * @return the quoted entity tag of the current version and period
+     */
+    public String getLessonDetailsETag(Long lessonId) {
+        return eTag(Kind.LESSON_DETAILS, lessonId, getLessonVersion(lessonId));
+    }
+
+    /**
+     * Returns the content version of a course.
+     *
+     * @param courseId the ID of the course
+     * @return the version, 0 if the course was not changed since startup
+     */
+    public long getCourseVersion(Long courseId) {
+        return courseVersions.getOrDefault(courseId, 0L);
+    }
+
+    /**
+     * Returns the content version of a lesson.
+     *
+     * @param lessonId the ID of the lesson
+     * @return the version, 0 if the lesson was not changed since startup
+     */
+    public long getLessonVersion(Long lessonId) {
+        return lessonVersions.getOrDefault(lessonId, 0L);
+    }
+
+    /**
+     * Bumps the content versions of changed courses and lessons. Must be called once the change is committed,
+     * otherwise a response could be built from the data as it was before the commit under the new version.
+     *
+     * @param courseIds the IDs of the courses whose lesson listing changed
+     * @param lessonIds the IDs of the lessons whose details changed
+     */
+    public void bumpVersions(
+            Collection<Long> courseIds,
+            Collection<Long> lessonIds
+    ) {
+        long version = versionSequence.incrementAndGet();
+
+        courseIds.forEach(courseId -> courseVersions.put(courseId, version));
+        lessonIds.forEach(lessonId -> lessonVersions.put(lessonId, version));
+    }
+
+    /**
+     * Returns the number of cached responses, including those of old versions not dropped yet.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the cached response of a key, or builds and caches it. The loader runs without lock,
+     * so concurrent misses of the same key may build the response more than once.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getOrLoad(
+            Key key,
+            Supplier<T> loader
+    ) {
+        synchronized (this) {
+            Object cached = cache.get(key);
+
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
+
+        T value = loader.get();
+
+        if (value != null) {
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the current period of ttl-seconds, always 0 if responses don't expire.
+     */
+    private long period() {
+        return ttlMillis > 0 ? clock.getAsLong() / ttlMillis : 0;
+    }
+
+    private String eTag(
+            Kind kind,
+            Long id,
+            long version
+    ) {
+        return "\"" + kind.name().toLowerCase() + "-" + id + "-" + Long.toHexString(epoch) + "-" + Long.toHexString(version)
+                + "-" + Long.toHexString(period()) + "\"";
+    }
+
+    private synchronized void put(
+            Key key,
+            Object value
+    ) {
+        cache.put(key, value);
+
+        Iterator<Object> iterator = cache.values().iterator();
+
+        while (cache.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The kinds of cached responses.
+     */
+    private enum Kind {
+        COURSE_LESSONS,
+        LESSON_DETAILS
+    }
+
+    /**
+     * The key of a response: its kind, the ID of the course or lesson, the content version and the period.
+     */
+    private record Key(Kind kind, Long id, long version, long period) {}
+
+}
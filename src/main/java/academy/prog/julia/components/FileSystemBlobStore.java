@@ -0,0 +1,109 @@
+package academy.prog.julia.components;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BlobStore} keeping the files in a local directory.
+ *
+ * Files are stored as {@code <directory>/ab/cd/<hash>}, so no directory holds too many entries.
+ * Content is written to a temporary file while its hash is calculated, then moved to its final
+ * name atomically; if the same content is already stored, the temporary file is dropped.
+ * Stored files are never modified, so concurrent readers and writers need no locking.
+ *
+ * This is the default store ({@code blob.store=filesystem}).
+ */
+@Component
+@ConditionalOnProperty(name = "blob.store", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+
+    /**
+     * Constructs the store.
+     *
+     * @param directory the root directory of the stored files
+     */
+    public FileSystemBlobStore(@Value("${blob.store.directory:blobs}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    public Blob write(InputStream content) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "upload", ".tmp");
+
+        try {
+            MessageDigest digest = sha256();
+            long size;
+
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temporary), digest)) {
+                size = content.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path path = path(hash);
+
+            if (!Files.exists(path)) {
+                Files.createDirectories(path.getParent());
+
+                try {
+                    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently with the same content
+                }
+            }
+
+            return new Blob(hash, size);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public InputStream openStream(String hash) throws IOException {
+        return Files.newInputStream(path(hash));
+    }
+
+    @Override
+    public Resource getResource(String hash) {
+        return new FileSystemResource(path(hash));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(path(hash));
+    }
+
+    private Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+}
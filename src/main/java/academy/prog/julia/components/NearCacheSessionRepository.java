@@ -0,0 +1,585 @@
+package academy.prog.julia.components;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Session repository keeping the sessions of the JDBC store in memory, so an authenticated request
+ * doesn't have to read {@code SPRING_SESSION} and {@code SPRING_SESSION_ATTRIBUTES}.
+ *
+ * Every request works on its own copy of the session: attribute values are copied on first read and
+ * the changes are recorded. When the request ends, the changes are applied to the cached session and
+ * written to the store in one transaction; a request that only read the session writes nothing,
+ * unless the last access time stored in the database is older than the touch interval.
+ *
+ * Consistency between instances is set by the time-to-live: a cached session is read again from the store
+ * once it was loaded longer ago, so a change made by another instance (a logout included) is noticed
+ * after that time at most. A time-to-live of 0 reads the store on every request. A session may also be
+ * deleted by the cleanup of the store up to one touch interval before it would expire.
+ *
+ * The repository also keeps the most recent session of each principal seen by this instance,
+ * so the session of a user can be validated without querying the store.
+ */
+public class NearCacheSessionRepository implements SessionRepository<NearCacheSessionRepository.CachedSession> {
+
+    private static final Logger LOGGER = LogManager.getLogger(NearCacheSessionRepository.class);
+
+    private final SessionRepository<Session> delegate;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long touchIntervalMillis;
+    private final LongSupplier clock;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+
+    // Access-ordered map: iteration starts with the least recently used session
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, PrincipalSession> principalSessions = new HashMap<>();
+    // Sessions deleted within the time-to-live, with the deletion time: a request still holding one must not cache it again
+    private final Map<String, Long> deletedSessions = new HashMap<>();
+
+    /**
+     * Constructs the repository.
+     *
+     * @param delegate      the store of the sessions
+     * @param maxEntries    the maximum number of cached sessions
+     * @param ttl           how long a cached session is used without reading the store
+     * @param touchInterval how long the last access time may be kept in memory only
+     */
+    public NearCacheSessionRepository(
+            SessionRepository<Session> delegate,
+            int maxEntries,
+            Duration ttl,
+            Duration touchInterval
+    ) {
+        this(delegate, maxEntries, ttl, touchInterval, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the repository with a custom clock.
+     *
+     * @param delegate      the store of the sessions
+     * @param maxEntries    the maximum number of cached sessions
+     * @param ttl           how long a cached session is used without reading the store
+     * @param touchInterval how long the last access time may be kept in memory only
+     * @param clock         the source of the current time in milliseconds
+     */
+    NearCacheSessionRepository(
+            SessionRepository<Session> delegate,
+            int maxEntries,
+            Duration ttl,
+            Duration touchInterval,
+            LongSupplier clock
+    ) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.touchIntervalMillis = touchInterval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a new session; nothing is written until it is saved.
+     *
+     * @return the new session
+     */
+    @Override
+    public CachedSession createSession() {
+        Entry entry = new Entry(delegate.createSession(), clock.getAsLong(), true);
+        return new CachedSession(entry);
+    }
+
+    /**
+     * Writes the changes of the session to the store, if there are any or the stored last access time
+     * is older than the touch interval, and caches the result.
+     *
+     * @param session the session used by the request
+     */
+    @Override
+    public void save(CachedSession session) {
+        Entry entry = session.entry;
+        String oldId = session.loadedId;
+        String newId;
+        String principalName;
+        Instant creationTime;
+
+        synchronized (entry) {
+            if (isDeleted(oldId)) {
+                // Deleted (e.g. by a logout) while the request used it: there is nothing left to update
+                session.changedAttributes.clear();
+                return;
+            }
+
+            for (String name : session.changedAttributes) {
+                entry.session.setAttribute(name, session.attributes.get(name));
+            }
+
+            if (session.maxInactiveInterval != null) {
+                entry.session.setMaxInactiveInterval(session.maxInactiveInterval);
+            }
+
+            if (session.lastAccessedTime != null) {
+                entry.session.setLastAccessedTime(session.lastAccessedTime);
+            }
+
+            boolean touched = entry.session.getLastAccessedTime().toEpochMilli() - entry.storedLastAccessedTime
+                    >= touchIntervalMillis;
+            boolean dirty = entry.isNew || !oldId.equals(entry.session.getId()) || !session.changedAttributes.isEmpty()
+                    || session.maxInactiveInterval != null || touched;
+
+            session.changedAttributes.clear();
+            session.maxInactiveInterval = null;
+            session.lastAccessedTime = null;
+
+            if (!dirty) {
+                return;
+            }
+
+            try {
+                delegate.save(entry.session);
+            } catch (RuntimeException e) {
+                // The cached session holds changes that are not stored, so it must not be used again
+                evict(oldId);
+                throw e;
+            }
+
+            entry.isNew = false;
+            entry.storedLastAccessedTime = entry.session.getLastAccessedTime().toEpochMilli();
+            entry.principalName = resolvePrincipalName(entry.session);
+
+            newId = entry.session.getId();
+            principalName = entry.principalName;
+            creationTime = entry.session.getCreationTime();
+        }
+
+        synchronized (this) {
+            if (!oldId.equals(newId)) {
+                cache.remove(oldId);
+            }
+
+            if (isDeleted(oldId) || isDeleted(newId)) {
+                // Deleted while being written: the write updated no row, so the session must not come back
+                cache.remove(newId);
+                return;
+            }
+
+            Entry cached = cache.get(newId);
+
+            if (cached != null && cached != entry) {
+                // Another request loaded the session again meanwhile; its copy misses these changes
+                cache.remove(newId);
+            } else if (ttlMillis > 0) {
+                put(newId, entry);
+            }
+
+            if (principalName != null && ttlMillis > 0) {
+                indexPrincipal(principalName, newId, creationTime.toEpochMilli());
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the session, read from the store if it is not cached or the cached one is too old.
+     *
+     * @param id the session ID
+     * @return the session, or null if it doesn't exist or is expired
+     */
+    @Override
+    public CachedSession findById(String id) {
+        Entry entry = getFreshEntry(id);
+
+        if (entry == null) {
+            Session session = delegate.findById(id);
+
+            if (session == null) {
+                evict(id);
+                return null;
+            }
+
+            entry = new Entry(session, clock.getAsLong(), false);
+            entry.principalName = resolvePrincipalName(session);
+
+            if (ttlMillis > 0) {
+                synchronized (this) {
+                    if (isDeleted(id)) {
+                        return null;
+                    }
+
+                    put(id, entry);
+
+                    if (entry.principalName != null) {
+                        indexPrincipal(entry.principalName, id, session.getCreationTime().toEpochMilli());
+                    }
+                }
+            }
+        }
+
+        synchronized (entry) {
+            if (entry.session.isExpired()) {
+                deleteById(id);
+                return null;
+            }
+
+            return new CachedSession(entry);
+        }
+    }
+
+    /**
+     * Deletes a session from the store and from the cache. The session is remembered as deleted for
+     * the time-to-live, so a request still holding it can't put it back into the cache when it ends.
+     *
+     * @param id the session ID
+     */
+    @Override
+    public void deleteById(String id) {
+        synchronized (this) {
+            long now = clock.getAsLong();
+
+            deletedSessions.values().removeIf(deletedAt -> deletedAt + ttlMillis <= now);
+
+            if (ttlMillis > 0) {
+                deletedSessions.put(id, now);
+            }
+
+            evict(id);
+        }
+
+        delegate.deleteById(id);
+    }
+
+    /**
+     * Returns the principal name of a cached session.
+     *
+     * @param sessionId the session ID
+     * @return the principal name, or null if the session is not cached, too old or not authenticated
+     */
+    public String findCachedPrincipalName(String sessionId) {
+        Entry entry = getFreshEntry(sessionId);
+
+        if (entry == null) {
+            return null;
+        }
+
+        synchronized (entry) {
+            return entry.principalName;
+        }
+    }
+
+    /**
+     * Returns the most recently created session of a principal seen by this instance.
+     *
+     * @param principalName the principal name
+     * @return the session ID, or null if no session of the principal was seen within the time-to-live
+     */
+    public synchronized String findCachedSessionIdByPrincipalName(String principalName) {
+        PrincipalSession principalSession = principalSessions.get(principalName);
+
+        if (principalSession == null) {
+            return null;
+        }
+
+        if (principalSession.indexedAt + ttlMillis <= clock.getAsLong()) {
+            principalSessions.remove(principalName);
+            return null;
+        }
+
+        return principalSession.sessionId;
+    }
+
+    /**
+     * Records the most recent session of a principal as read from the store.
+     *
+     * @param principalName the principal name
+     * @param sessionId     the session ID
+     * @param creationTime  the creation time of the session in milliseconds
+     */
+    public synchronized void cachePrincipalSession(
+            String principalName,
+            String sessionId,
+            long creationTime
+    ) {
+        if (ttlMillis > 0 && !isDeleted(sessionId)) {
+            indexPrincipal(principalName, sessionId, creationTime);
+        }
+    }
+
+    /**
+     * Returns the number of cached sessions.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private Entry getFreshEntry(String id) {
+        synchronized (this) {
+            Entry entry = cache.get(id);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry.loadedAt + ttlMillis <= clock.getAsLong()) {
+                cache.remove(id);
+                return null;
+            }
+
+            return entry;
+        }
+    }
+
+    private synchronized boolean isDeleted(String id) {
+        Long deletedAt = deletedSessions.get(id);
+        return deletedAt != null && deletedAt + ttlMillis > clock.getAsLong();
+    }
+
+    private synchronized void evict(String id) {
+        cache.remove(id);
+        principalSessions.values().removeIf(principalSession -> principalSession.sessionId.equals(id));
+    }
+
+    private void put(
+            String id,
+            Entry entry
+    ) {
+        cache.put(id, entry);
+
+        Iterator<Entry> iterator = cache.values().iterator();
+
+        while (cache.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void indexPrincipal(
+            String principalName,
+            String sessionId,
+            long creationTime
+    ) {
+        PrincipalSession current = principalSessions.get(principalName);
+
+        if (current == null || current.sessionId.equals(sessionId) || current.creationTime <= creationTime
+                || current.indexedAt + ttlMillis <= clock.getAsLong()) {
+            principalSessions.put(principalName, new PrincipalSession(sessionId, creationTime, clock.getAsLong()));
+        }
+
+        // Bounded like the sessions: principals are dropped with no order once there are too many
+        Iterator<String> iterator = principalSessions.keySet().iterator();
+
+        while (principalSessions.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Resolves the principal name of a session the way the JDBC store indexes it.
+     */
+    private static String resolvePrincipalName(Session session) {
+        String principalName = session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+
+        if (principalName != null) {
+            return principalName;
+        }
+
+        Object securityContext = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+
+        if (securityContext instanceof SecurityContext context) {
+            Authentication authentication = context.getAuthentication();
+            return authentication != null ? authentication.getName() : null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a copy of an attribute value, so requests sharing a cached session don't share its objects.
+     */
+    private Object copy(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return deserializer.convert(serializer.convert(value));
+        } catch (RuntimeException e) {
+            LOGGER.debug("Session attribute of type {} can't be copied, sharing it", value.getClass().getName());
+            return value;
+        }
+    }
+
+    /**
+     * A session loaded from the store, shared by the requests using it. Guarded by its own lock.
+     */
+    private static final class Entry {
+
+        private final Session session;
+        private final long loadedAt;
+        private boolean isNew;
+        private long storedLastAccessedTime;
+        private String principalName;
+
+        private Entry(
+                Session session,
+                long loadedAt,
+                boolean isNew
+        ) {
+            this.session = session;
+            this.loadedAt = loadedAt;
+            this.isNew = isNew;
+            this.storedLastAccessedTime = session.getLastAccessedTime().toEpochMilli();
+        }
+    }
+
+    /**
+     * The most recent session of a principal, with the time it was indexed.
+     */
+    private record PrincipalSession(String sessionId, long creationTime, long indexedAt) {}
+
+    /**
+     * The copy of a session used by one request, recording its changes until it is saved.
+     */
+    public final class CachedSession implements Session {
+
+        private final Entry entry;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final Set<String> attributeNames;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private final String loadedId;
+        private String id;
+        private final Instant creationTime;
+        private final Instant storedLastAccessedTime;
+        private final Duration storedMaxInactiveInterval;
+        private Instant lastAccessedTime;
+        private Duration maxInactiveInterval;
+
+        private CachedSession(Entry entry) {
+            this.entry = entry;
+            this.attributeNames = new HashSet<>(entry.session.getAttributeNames());
+            this.loadedId = entry.session.getId();
+            this.id = loadedId;
+            this.creationTime = entry.session.getCreationTime();
+            this.storedLastAccessedTime = entry.session.getLastAccessedTime();
+            this.storedMaxInactiveInterval = entry.session.getMaxInactiveInterval();
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Changes the ID of the session. The cached session takes the new ID at once, as the store does
+         * on save; the session stays cached under the old ID until it is saved.
+         */
+        @Override
+        public String changeSessionId() {
+            synchronized (entry) {
+                id = entry.session.changeSessionId();
+            }
+
+            return id;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttribute(String attributeName) {
+            if (!attributeNames.contains(attributeName)) {
+                return null;
+            }
+
+            if (!attributes.containsKey(attributeName)) {
+                Object value;
+
+                synchronized (entry) {
+                    value = entry.session.getAttribute(attributeName);
+                }
+
+                attributes.put(attributeName, copy(value));
+            }
+
+            return (T) attributes.get(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return new HashSet<>(attributeNames);
+        }
+
+        @Override
+        public void setAttribute(
+                String attributeName,
+                Object attributeValue
+        ) {
+            if (attributeValue == null) {
+                removeAttribute(attributeName);
+                return;
+            }
+
+            attributes.put(attributeName, attributeValue);
+            attributeNames.add(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            attributes.put(attributeName, null);
+            attributeNames.remove(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.lastAccessedTime = lastAccessedTime;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return lastAccessedTime != null ? lastAccessedTime : storedLastAccessedTime;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            this.maxInactiveInterval = interval;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return maxInactiveInterval != null ? maxInactiveInterval : storedMaxInactiveInterval;
+        }
+
+        @Override
+        public boolean isExpired() {
+            Duration interval = getMaxInactiveInterval();
+            return !interval.isNegative()
+                    && Instant.ofEpochMilli(clock.getAsLong()).isAfter(getLastAccessedTime().plus(interval));
+        }
+    }
+
+}
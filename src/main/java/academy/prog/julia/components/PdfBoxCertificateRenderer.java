@@ -0,0 +1,242 @@
+package academy.prog.julia.components;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link CertificateRenderer} drawing the certificate in-process with PDFBox,
+ * using the same template, fonts and layout as the 'cert_gen' service.
+ *
+ * The background image is decoded and compressed once: the page with the background is kept
+ * as a ready PDF and every certificate starts from a copy of it. The fonts are parsed once per
+ * rendering thread and only the glyphs used are embedded, so rendering a certificate takes
+ * a few milliseconds and needs no external process.
+ *
+ * Enabled with {@code certificate.renderer=pdfbox}.
+ */
+@Component
+@ConditionalOnProperty(name = "certificate.renderer", havingValue = "pdfbox")
+public class PdfBoxCertificateRenderer implements CertificateRenderer {
+
+    private static final float POINTS_PER_MM = 72 / 25.4f;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    // Layout of the template in millimeters from the top left corner, as in 'cert_gen'
+    private static final float TEXT_WIDTH = 150;
+    private static final float LINE_HEIGHT = 10;
+
+    private final byte[] template;
+    private final byte[] boldFont;
+    private final byte[] regularFont;
+    private final byte[] mediumFont;
+
+    // TrueTypeFont is not thread-safe, so every rendering thread parses its own copy once
+    private final ThreadLocal<Fonts> fonts = ThreadLocal.withInitial(this::parseFonts);
+
+    /**
+     * Constructs the renderer and prepares the template page.
+     *
+     * @param background  the background image of the certificate (A4, landscape)
+     * @param boldFont    the TrueType font of the name and the course
+     * @param regularFont the TrueType font of the date
+     * @param mediumFont  the TrueType font of the certificate ID
+     * @throws IOException if the template or a font can't be read
+     */
+    public PdfBoxCertificateRenderer(
+            @Value("${certificate.pdfbox.template:file:cert_gen/static/img/template1.png}") Resource background,
+            @Value("${certificate.pdfbox.font.bold:file:cert_gen/static/fonts/Geometria-Bold.ttf}") Resource boldFont,
+            @Value("${certificate.pdfbox.font.regular:file:cert_gen/static/fonts/Geometria-Regular.ttf}") Resource regularFont,
+            @Value("${certificate.pdfbox.font.medium:file:cert_gen/static/fonts/Geometria-Medium.ttf}") Resource mediumFont
+    ) throws IOException {
+        this.template = createTemplate(readAllBytes(background));
+        this.boldFont = readAllBytes(boldFont);
+        this.regularFont = readAllBytes(regularFont);
+        this.mediumFont = readAllBytes(mediumFont);
+
+        // Fail on startup rather than on the first certificate if a font is broken
+        parseFonts();
+    }
+
+    @Override
+    public byte[] render(
+            String studentName,
+            String courseName,
+            Long userId,
+            String certificateId
+    ) {
+        Fonts threadFonts = fonts.get();
+
+        try (PDDocument document = PDDocument.load(template)) {
+            PDPage page = document.getPage(0);
+            float pageHeight = page.getMediaBox().getHeight();
+
+            PDFont bold = PDType0Font.load(document, threadFonts.bold(), true);
+            PDFont regular = PDType0Font.load(document, threadFonts.regular(), true);
+            PDFont medium = PDType0Font.load(document, threadFonts.medium(), true);
+
+            try (PDPageContentStream content = new PDPageContentStream(
+                    document, page, PDPageContentStream.AppendMode.APPEND, true, true)
+            ) {
+                writeText(content, pageHeight, bold, 34, 93.6f, 87, studentName);
+                writeText(content, pageHeight, bold, 26, 93.5f, 125, courseName);
+                writeText(content, pageHeight, regular, 18, 98, 163, LocalDate.now().format(DATE_FORMAT));
+
+                float idWidth = textWidth(medium, 8.2f, certificateId);
+                writeLine(content, pageHeight, medium, 8.2f, 247 - idWidth / 2, 44.9f, certificateId);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render certificate " + certificateId, e);
+        }
+    }
+
+    /**
+     * Writes a text wrapped by words into lines of the template text width.
+     */
+    private static void writeText(
+            PDPageContentStream content,
+            float pageHeight,
+            PDFont font,
+            float fontSize,
+            float x,
+            float y,
+            String text
+    ) throws IOException {
+        float lineY = y;
+
+        for (String line : wrap(font, fontSize, text)) {
+            writeLine(content, pageHeight, font, fontSize, x, lineY, line);
+            lineY += LINE_HEIGHT;
+        }
+    }
+
+    /**
+     * Writes a single line. The coordinates are the top left corner of the line in millimeters;
+     * the baseline is placed as in FPDF cells, so the layout matches the 'cert_gen' certificates.
+     */
+    private static void writeLine(
+            PDPageContentStream content,
+            float pageHeight,
+            PDFont font,
+            float fontSize,
+            float x,
+            float y,
+            String text
+    ) throws IOException {
+        float baseline = y + LINE_HEIGHT / 2 + 0.3f * fontSize / POINTS_PER_MM;
+
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.newLineAtOffset(x * POINTS_PER_MM, pageHeight - baseline * POINTS_PER_MM);
+        content.showText(text);
+        content.endText();
+    }
+
+    /**
+     * Splits a text into lines fitting the template text width. A word longer than the width gets its own line.
+     */
+    private static List<String> wrap(
+            PDFont font,
+            float fontSize,
+            String text
+    ) throws IOException {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+
+        for (String word : text.trim().split("\\s+")) {
+            String candidate = line.isEmpty() ? word : line + " " + word;
+
+            if (line.isEmpty() || textWidth(font, fontSize, candidate) <= TEXT_WIDTH) {
+                line.setLength(0);
+                line.append(candidate);
+            } else {
+                lines.add(line.toString());
+                line.setLength(0);
+                line.append(word);
+            }
+        }
+
+        lines.add(line.toString());
+
+        return lines;
+    }
+
+    /**
+     * Returns the width of a text in millimeters.
+     */
+    private static float textWidth(
+            PDFont font,
+            float fontSize,
+            String text
+    ) throws IOException {
+        return font.getStringWidth(text) / 1000 * fontSize / POINTS_PER_MM;
+    }
+
+    /**
+     * Creates a one-page landscape A4 document with the background image.
+     */
+    private static byte[] createTemplate(byte[] background) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()));
+            document.addPage(page);
+
+            PDImageXObject image = PDImageXObject.createFromByteArray(document, background, "template");
+
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(image, 0, 0, page.getMediaBox().getWidth(), page.getMediaBox().getHeight());
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private Fonts parseFonts() {
+        try {
+            return new Fonts(parseFont(boldFont), parseFont(regularFont), parseFont(mediumFont));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load certificate fonts", e);
+        }
+    }
+
+    private static TrueTypeFont parseFont(byte[] font) throws IOException {
+        return new TTFParser().parse(new ByteArrayInputStream(font));
+    }
+
+    private static byte[] readAllBytes(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * The parsed fonts of a rendering thread.
+     */
+    private record Fonts(TrueTypeFont bold, TrueTypeFont regular, TrueTypeFont medium) {}
+
+}
@@ -0,0 +1,74 @@
+package academy.prog.julia.components;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link CertificateRenderer} calling the external 'cert_gen' microservice over HTTP.
+ *
+ * This is the default renderer.
+ */
+@Component
+@ConditionalOnProperty(name = "certificate.renderer", havingValue = "remote", matchIfMissing = true)
+public class RemoteCertificateRenderer implements CertificateRenderer {
+
+    private static final Logger LOGGER = LogManager.getLogger(RemoteCertificateRenderer.class);
+
+    private final RestTemplate restTemplate;
+
+    /**
+     * The URL of the microservice that generates the certificates.
+     * This value is injected from the application.properties file.
+     */
+    @Value("${certificate.generator.url}")
+    private String microserviceUrl;
+
+    /**
+     * Constructs the renderer.
+     *
+     * @param restTemplate RestTemplate instance for making HTTP requests.
+     */
+    public RemoteCertificateRenderer(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public byte[] render(
+            String studentName,
+            String courseName,
+            Long userId,
+            String certificateId
+    ) {
+        Map<String, String> requestData = new HashMap<>();
+        requestData.put("name", studentName);
+        requestData.put("course", courseName);
+        requestData.put("user_id", String.valueOf(userId));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(requestData, headers);
+
+        ResponseEntity<byte[]> responseEntity = restTemplate.exchange(
+                microserviceUrl,
+                HttpMethod.POST,
+                requestEntity,
+                byte[].class
+        );
+
+        if (!responseEntity.getStatusCode().is2xxSuccessful()) {
+            LOGGER.error("Error getting certificate: {}", responseEntity.getStatusCode());
+            return null;
+        }
+
+        return responseEntity.getBody();
+    }
+
+}
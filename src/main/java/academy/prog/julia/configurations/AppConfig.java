@@ -3,7 +3,7 @@ package academy.prog.julia.configurations;
 import academy.prog.julia.model.Invite;
 import academy.prog.julia.model.UserRole;
 import academy.prog.julia.repos.InviteRepository;
-import academy.prog.julia.repos.UserRepository;
+import academy.prog.julia.services.UserSearchService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,7 +14,7 @@ public class AppConfig {
     @Bean
     public CommandLineRunner runner(
             InviteRepository inviteRepository,
-            UserRepository userRepository
+            UserSearchService userSearchService
     ) {
         return args -> {
             // Создаем новый инвайт для роли ADMIN
@@ -29,7 +29,7 @@ public class AppConfig {
             System.out.println("\n\n===== INVITE CODE: " + invite.getCode() + " =====\n\n");
 
             // (Опционально) пример запроса пользователя по email
-            userRepository.findByEmailLike("qqq@bbb.com");
+            userSearchService.findByEmail("qqq@bbb.com");
         };
     }
 }
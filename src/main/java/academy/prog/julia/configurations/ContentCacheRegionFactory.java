@@ -0,0 +1,41 @@
+package academy.prog.julia.configurations;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Hibernate region factory storing the second-level cache in Ehcache, configured by {@code ehcache.xml}.
+ *
+ * Every session factory gets its own cache manager instead of the JCache default one,
+ * since Hibernate closes the cache manager with the session factory: with a shared manager,
+ * closing one application context (as the tests do) would break the cache of the others.
+ */
+public class ContentCacheRegionFactory extends JCacheRegionFactory {
+
+    private static final String CONFIGURATION = "ehcache.xml";
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        ClassLoader classLoader = ContentCacheRegionFactory.class.getClassLoader();
+        URL configuration = classLoader.getResource(CONFIGURATION);
+
+        if (configuration == null) {
+            throw new CacheException("Cache configuration not found: " + CONFIGURATION);
+        }
+
+        try {
+            return new EhcacheCachingProvider().getCacheManager(configuration.toURI(), classLoader);
+        } catch (URISyntaxException e) {
+            throw new CacheException("Invalid cache configuration: " + configuration, e);
+        }
+    }
+
+}
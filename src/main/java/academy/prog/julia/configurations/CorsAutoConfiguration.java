@@ -1,5 +1,6 @@
 package academy.prog.julia.configurations;
 
+import academy.prog.julia.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -58,6 +59,9 @@ public class CorsAutoConfiguration {
         List<String> allowedHeaders = getAllowedHeaders();
         configuration.setAllowedHeaders(allowedHeaders);
 
+        List<String> exposedHeaders = getExposedHeaders();
+        configuration.setExposedHeaders(exposedHeaders);
+
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
 
@@ -102,6 +106,19 @@ public class CorsAutoConfiguration {
                 "x-ijt");
     }
 
+    /**
+     * Retrieves the list of response headers exposed to the browser from the configuration properties.
+     *
+     * @return a list of exposed headers, or the keyset pagination cursor header if none are specified.
+     */
+    private List<String> getExposedHeaders() {
+        List<String> exposedHeaders = properties.getExposedHeaders();
+        if (!exposedHeaders.isEmpty()) {
+            return exposedHeaders;
+        }
+        return Collections.singletonList(PageCursor.NEXT_CURSOR_HEADER);
+    }
+
     /**
      * Retrieves the list of allowed HTTP methods from the configuration properties.
      *
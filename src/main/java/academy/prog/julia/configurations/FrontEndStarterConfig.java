@@ -4,6 +4,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -55,9 +56,11 @@ public class FrontEndStarterConfig {
      * Starts the Python server depending on the OS.
      * If running on Windows, attempts to start with a .bat file or PowerShell.
      * On Linux/Mac, it will use a shell script.
+     * Not started when certificates are rendered in-process ({@code certificate.renderer=pdfbox}).
      * @return a command line runner for Python server startup.
      */
     @Bean
+    @ConditionalOnProperty(name = "certificate.renderer", havingValue = "remote", matchIfMissing = true)
     public CommandLineRunner pythonServerStart() {
         return args -> {
             String os = System.getProperty("os.name").toLowerCase();
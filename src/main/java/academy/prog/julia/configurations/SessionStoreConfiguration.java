@@ -0,0 +1,127 @@
+package academy.prog.julia.configurations;
+
+import academy.prog.julia.components.NearCacheSessionRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.session.JdbcSessionDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.session.JdbcSessionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration of the HTTP session store: the Spring Session JDBC store with an in-memory cache in front of it.
+ *
+ * Defining the session repository here replaces the auto-configured JDBC store, so this class also
+ * initializes its schema and cleans up expired sessions, using the {@code spring.session.jdbc.*} properties.
+ */
+@Configuration
+@EnableSpringHttpSession
+@EnableConfigurationProperties(JdbcSessionProperties.class)
+public class SessionStoreConfiguration {
+
+    private final ObjectProvider<JdbcIndexedSessionRepository> jdbcSessionRepository;
+
+    /**
+     * Constructor for injecting dependencies.
+     *
+     * @param jdbcSessionRepository the JDBC store of the sessions, resolved when expired sessions are cleaned up
+     */
+    public SessionStoreConfiguration(ObjectProvider<JdbcIndexedSessionRepository> jdbcSessionRepository) {
+        this.jdbcSessionRepository = jdbcSessionRepository;
+    }
+
+    /**
+     * The JDBC store of the sessions. HTTP sessions only use it through the cache.
+     *
+     * @param jdbcTemplate       the template used for the session tables
+     * @param transactionManager the transaction manager; every write runs in its own transaction
+     * @param properties         the {@code spring.session.jdbc.*} properties
+     * @param timeout            the time after which an unused session expires
+     * @return the JDBC session repository
+     */
+    @Bean
+    public JdbcIndexedSessionRepository jdbcSessionRepository(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            JdbcSessionProperties properties,
+            @Value("${spring.session.timeout:${server.servlet.session.timeout:30m}}") Duration timeout
+    ) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(jdbcTemplate, transactionTemplate);
+        repository.setTableName(properties.getTableName());
+        repository.setDefaultMaxInactiveInterval(timeout);
+        repository.setFlushMode(properties.getFlushMode());
+        repository.setSaveMode(properties.getSaveMode());
+
+        return repository;
+    }
+
+    /**
+     * The session repository used for HTTP sessions, primary over the JDBC store it caches.
+     *
+     * @param jdbcSessionRepository the JDBC store of the sessions
+     * @param maxEntries            the maximum number of cached sessions
+     * @param ttlSeconds            how long a cached session is used before reading it again, 0 to read it on every request
+     * @param touchIntervalSeconds  how long the last access time of a session may be kept in memory only
+     * @return the caching session repository
+     */
+    @Bean
+    @Primary
+    @SuppressWarnings("unchecked")
+    public NearCacheSessionRepository sessionRepository(
+            JdbcIndexedSessionRepository jdbcSessionRepository,
+            @Value("${session.near-cache.max-entries:10000}") int maxEntries,
+            @Value("${session.near-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${session.near-cache.touch-interval-seconds:60}") long touchIntervalSeconds
+    ) {
+        // The sessions of the JDBC store have a package-private type, so they are used as plain sessions
+        SessionRepository<Session> delegate = (SessionRepository<Session>) (SessionRepository<?>) jdbcSessionRepository;
+
+        return new NearCacheSessionRepository(
+                delegate,
+                maxEntries,
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(touchIntervalSeconds)
+        );
+    }
+
+    /**
+     * Creates the session tables if {@code spring.session.jdbc.initialize-schema} asks for it.
+     *
+     * @param dataSource the data source of the session tables
+     * @param properties the {@code spring.session.jdbc.*} properties
+     * @return the schema initializer
+     */
+    @Bean
+    public JdbcSessionDataSourceScriptDatabaseInitializer jdbcSessionDataSourceScriptDatabaseInitializer(
+            DataSource dataSource,
+            JdbcSessionProperties properties
+    ) {
+        return new JdbcSessionDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+
+    /**
+     * Deletes the expired sessions from the JDBC store.
+     */
+    @Scheduled(cron = "${spring.session.jdbc.cleanup-cron:0 * * * * *}")
+    public void cleanUpExpiredSessions() {
+        jdbcSessionRepository.getObject().cleanUpExpiredSessions();
+    }
+
+}
@@ -1,10 +1,12 @@
 package academy.prog.julia.controllers;
 
+import academy.prog.julia.dto.CacheRegionStatsDTO;
 import academy.prog.julia.dto.UserForAdminFindingDTO;
 import academy.prog.julia.exceptions.BadRequestException;
 import academy.prog.julia.exceptions.UserNotFoundException;
 import academy.prog.julia.model.*;
 import academy.prog.julia.services.AdminService;
+import academy.prog.julia.services.ContentCacheService;
 import academy.prog.julia.services.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,10 +21,16 @@ public class AdminController {
 
     private final UserService userService;
     private final AdminService adminService;
+    private final ContentCacheService contentCacheService;
 
-    public AdminController(UserService userService, AdminService adminService) {
+    public AdminController(
+            UserService userService,
+            AdminService adminService,
+            ContentCacheService contentCacheService
+    ) {
         this.userService = userService;
         this.adminService = adminService;
+        this.contentCacheService = contentCacheService;
     }
 
     @GetMapping("/findByEmail")
@@ -100,4 +108,9 @@ public class AdminController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    @GetMapping("/contentCacheStats")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getContentCacheStats() {
+        return ResponseEntity.ok(contentCacheService.getRegionStatistics());
+    }
 }
\ No newline at end of file
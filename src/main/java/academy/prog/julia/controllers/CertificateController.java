@@ -1,13 +1,17 @@
 package academy.prog.julia.controllers;
 
+import academy.prog.julia.components.CertificatePreviewStore;
 import academy.prog.julia.json_responses.CertificateResponse;
 import academy.prog.julia.services.CertificateService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Base64;
 import java.util.List;
@@ -32,24 +36,84 @@ public class CertificateController {
 
     /**
      * Endpoint to retrieve a certificate by its ID.
-     * This method fetches the certificate file data as a byte array using the provided certificate ID.
+     * This method fetches the certificate preview using the provided certificate ID.
+     * Responds with 304 Not Modified if the client already has the current preview.
      *
      * @param certificateId the ID of the certificate to be retrieved
-     * @return ResponseEntity containing the certificate file data as a IMAGE_PNG file
+     * @param size          the resolution of the preview: "thumbnail", "150" or "300" (default)
+     * @param request       the current request, used for the conditional request headers
+     * @return ResponseEntity containing the certificate IMAGE_PNG file encoded in Base64
      */
     @GetMapping("/{id}")
-    public ResponseEntity<String> getCertificate(@PathVariable("id") String certificateId) {
-        byte[] image = certificateService.getCertificateById(certificateId);
+    public ResponseEntity<String> getCertificate(
+            @PathVariable("id") String certificateId,
+            @RequestParam(value = "size", defaultValue = "300") String size,
+            WebRequest request
+    ) {
+        CertificatePreviewStore.Preview preview =
+                certificateService.getCertificatePreview(certificateId, CertificatePreviewStore.Size.fromName(size));
 
-        String base64Image = Base64.getEncoder().encodeToString(image);
-        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(base64Image);
+        if (request.checkNotModified(preview.eTag(), preview.lastModified())) {
+            return null;
+        }
+
+        String base64Image = Base64.getEncoder().encodeToString(preview.image());
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(base64Image);
     }
 
+    /**
+     * Endpoint to retrieve a certificate preview as a PNG image, e.g. for thumbnails and shared links.
+     * Responds with 304 Not Modified if the client already has the current preview.
+     *
+     * @param certificateId the ID of the certificate to be retrieved
+     * @param size          the resolution of the preview: "thumbnail", "150" or "300" (default)
+     * @param request       the current request, used for the conditional request headers
+     * @return ResponseEntity containing the IMAGE_PNG file
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getCertificateImage(
+            @PathVariable("id") String certificateId,
+            @RequestParam(value = "size", defaultValue = "300") String size,
+            WebRequest request
+    ) {
+        CertificatePreviewStore.Preview preview =
+                certificateService.getCertificatePreview(certificateId, CertificatePreviewStore.Size.fromName(size));
+
+        if (request.checkNotModified(preview.eTag(), preview.lastModified())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(preview.image());
+    }
+
+    /**
+     * Endpoint to retrieve the certificates of a user.
+     * Responds with 304 Not Modified if the client already has the current list.
+     *
+     * @param userId  the ID of the user
+     * @param request the current request, used for the conditional request headers
+     * @return ResponseEntity containing the certificates of the user
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<CertificateResponse>> getAllUserCertificates(@PathVariable("userId") String userId) {
+    public ResponseEntity<List<CertificateResponse>> getAllUserCertificates(
+            @PathVariable("userId") String userId,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(certificateService.getCertificatesETag(userId))) {
+            return null;
+        }
+
         List<CertificateResponse> certificates = certificateService.getAllCertificatesByUserId(userId);
 
-        return ResponseEntity.ok().body(certificates);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(certificates);
     }
 
 }
\ No newline at end of file
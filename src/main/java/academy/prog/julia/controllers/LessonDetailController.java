@@ -1,11 +1,12 @@
 package academy.prog.julia.controllers;
 
-import academy.prog.julia.dto.LessonDetailDTO;
 import academy.prog.julia.json_responses.LessonDetailResponse;
 import academy.prog.julia.services.LessonsService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for managing lesson details.
@@ -28,24 +29,33 @@ public class LessonDetailController {
     /**
      * Endpoint to retrieve detailed information about a lesson.
      * This method checks if the current user is enrolled in the course before providing lesson details.
+     * Responds with 304 Not Modified, without loading the lesson, if the user is enrolled
+     * and the client already has the current details.
      *
      * @param lessonId the ID of the lesson to retrieve
      * @param currentUserId the ID of the current user making the request
+     * @param request the current request, used for the conditional request headers
      * @return ResponseEntity containing lesson details if the user is authorized, otherwise returns a FORBIDDEN status
      */
     @GetMapping("/lessons/{lessonId}")
     public ResponseEntity<LessonDetailResponse> getLessonDetails(
             @PathVariable Long lessonId,
-            @RequestParam Long currentUserId
+            @RequestParam Long currentUserId,
+            WebRequest request
     ) {
-        LessonDetailDTO lessonDetailDTO = lessonsService.getLessonDetails(lessonId);
-        if (lessonsService.isUserInCourse(currentUserId, lessonId)) {
-            LessonDetailResponse lessonDetailResponse = LessonDetailResponse.fromDTO(lessonDetailDTO);
-
-            return ResponseEntity.ok(lessonDetailResponse);
-        } else {
+        if (!lessonsService.isUserInCourse(currentUserId, lessonId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+
+        if (request.checkNotModified(lessonsService.getLessonDetailsETag(lessonId))) {
+            return null;
+        }
+
+        LessonDetailResponse lessonDetailResponse = lessonsService.getLessonDetails(lessonId);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(lessonDetailResponse);
     }
 
 }
@@ -5,6 +5,7 @@ import academy.prog.julia.services.LessonsService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,19 +28,23 @@ public class LessonsController {
 
     /**
      * Endpoint to fetch all lessons for a given course.
+     * Responds with 304 Not Modified, without loading the lessons, if the user is a member of the course
+     * and the client already has the current lessons.
      *
      * @param courseId the ID of the course for which lessons are requested
      * @param sessionId the session ID used to verify the user's identity
      * @param session the HTTP session to store session-related information
+     * @param request the current request, used for the conditional request headers
      * @return ResponseEntity containing a list of lessons or an error message if unauthorized
      */
     @GetMapping("/{courseId}/lessons")
     public ResponseEntity<List<LessonsResponse>> getCourseLessons(
             @PathVariable Long courseId,
             @RequestHeader("Authorization") String sessionId,
-            HttpSession session
+            HttpSession session,
+            WebRequest request
     ) {
-        return lessonsService.getLessonsForCourse(courseId, sessionId, session);
+        return lessonsService.getLessonsForCourse(courseId, sessionId, session, request);
     }
 
 }
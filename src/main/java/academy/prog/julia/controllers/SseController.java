@@ -1,39 +1,125 @@
 package academy.prog.julia.controllers;
 
+import academy.prog.julia.model.User;
+import academy.prog.julia.services.GroupService;
 import academy.prog.julia.services.SseService;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST controller for handling Server-Sent Events (SSE).
  * Uses SseService to manage emitters and send notifications to the frontend.
+ *
+ * The events of a user are only streamed to that user, and the events of a group only to its members,
+ * identified by the user signed in to the session.
  */
 @RestController
 public class SseController {
 
     private final SseService sseService;
+    private final GroupService groupService;
 
     /**
-     * Constructor to inject the SseService.
+     * Constructor to inject the SseService and GroupService.
      *
      * @param sseService service for managing SSE emitters and notifications
+     * @param groupService service for checking the membership of groups
      */
-    public SseController(SseService sseService) {
+    public SseController(
+            SseService sseService,
+            GroupService groupService
+    ) {
         this.sseService = sseService;
+        this.groupService = groupService;
     }
 
     /**
-     * Endpoint for establishing an SSE connection.
+     * Endpoint for establishing an SSE connection to the admin dashboard events.
      * Returns an SseEmitter that allows the frontend to receive real-time updates.
      *
+     * @param lastEventId the ID of the last event received before a reconnect, used to replay missed events
      * @param response HttpServletResponse to set headers for cross-origin requests
      * @return SseEmitter for the client connection
      */
     @GetMapping(value = "/sse", produces = "text/event-stream")
-    public SseEmitter streamSseMvc(HttpServletResponse response) {
-        return sseService.createEmitter(response);
+    public SseEmitter streamSseMvc(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response
+    ) {
+        return sseService.createEmitter(response, SseService.ADMIN_TOPIC, lastEventId);
+    }
+
+    /**
+     * Endpoint for establishing an SSE connection to the events of a user (graded task answers, issued certificates).
+     *
+     * @param userId the ID of the user
+     * @param lastEventId the ID of the last event received before a reconnect, used to replay missed events
+     * @param authentication the authentication of the session
+     * @param response HttpServletResponse to set headers for cross-origin requests
+     * @return SseEmitter for the client connection
+     * @throws AccessDeniedException if the session doesn't belong to the user
+     */
+    @GetMapping(value = "/sse/users/{userId}", produces = "text/event-stream")
+    public SseEmitter streamUserEvents(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication,
+            HttpServletResponse response
+    ) {
+        User user = getSignedInUser(authentication);
+
+        if (!userId.equals(user.getId())) {
+            throw new AccessDeniedException("The events of user " + userId + " are not available to user " + user.getId());
+        }
+
+        return sseService.createEmitter(response, SseService.userTopic(userId), lastEventId);
+    }
+
+    /**
+     * Endpoint for establishing an SSE connection to the events of a group (broadcasts, added or updated lessons).
+     *
+     * @param groupId the ID of the group
+     * @param lastEventId the ID of the last event received before a reconnect, used to replay missed events
+     * @param authentication the authentication of the session
+     * @param response HttpServletResponse to set headers for cross-origin requests
+     * @return SseEmitter for the client connection
+     * @throws AccessDeniedException if the signed-in user is not a member of the group
+     */
+    @GetMapping(value = "/sse/groups/{groupId}", produces = "text/event-stream")
+    public SseEmitter streamGroupEvents(
+            @PathVariable Long groupId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication,
+            HttpServletResponse response
+    ) {
+        User user = getSignedInUser(authentication);
+
+        if (!groupService.isStudentInGroup(user.getId(), groupId)) {
+            throw new AccessDeniedException("User " + user.getId() + " is not a member of group " + groupId);
+        }
+
+        return sseService.createEmitter(response, SseService.groupTopic(groupId), lastEventId);
+    }
+
+    /**
+     * Returns the user signed in to the session.
+     *
+     * @param authentication the authentication of the session, null for anonymous requests
+     * @return the signed-in user
+     * @throws AccessDeniedException if no user is signed in
+     */
+    private User getSignedInUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new AccessDeniedException("Not signed in");
+        }
+
+        return user;
     }
 
 }
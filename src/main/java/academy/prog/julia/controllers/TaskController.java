@@ -122,6 +122,23 @@ public class TaskController {
                 taskService.getLessonProgressAdLessonProgressResponse(userId, lessonId);
         return ResponseEntity.ok(response);
     }
-    
+
+    /**
+     * Retrieves the progress of a specific user for every lesson of a specific course in one response.
+     *
+     * @param userId the ID of the user
+     * @param courseId the ID of the course
+     * @return ResponseEntity containing the user's progress for each lesson of the course
+     */
+    @GetMapping("/progress/{userId}/course/{courseId}")
+    public ResponseEntity<List<LessonProgressResponse>> viewCourseLessonsProgress(
+            @PathVariable Long userId,
+            @PathVariable Long courseId
+    ) {
+        List<LessonProgressResponse> responses =
+                taskService.getCourseLessonsProgressAsLessonProgressResponses(userId, courseId);
+        return ResponseEntity.ok(responses);
+    }
+
 }
 
@@ -36,15 +36,24 @@ public class TaskGroupController {
      * Retrieves a list of pending tasks without filtering by group name.
      * The result is paginated, with the ability to specify the page and size of the results.
      *
+     * When a cursor is given, the page following the cursor is returned instead of the numbered page,
+     * and the cursor of the next page, if any, is returned in the {@code X-Next-Cursor} header.
+     *
      * @param page The page number (optional).
      * @param size The number of items per page (optional).
+     * @param cursor The cursor of the page, empty for the first page (optional).
      * @return A paginated list of pending tasks.
      */
     @GetMapping("/pending")
     public ResponseEntity<List<TasksGroupResponseDTO>> findPendingTasks(
             @RequestParam("page") Optional<Integer> page,
-            @RequestParam("size") Optional<Integer> size)
+            @RequestParam("size") Optional<Integer> size,
+            @RequestParam("cursor") Optional<String> cursor)
     {
+        if (cursor.isPresent()) {
+            return taskGroupService.findTasksByGroupNameAfter(null, cursor.get(), size).toResponseEntity();
+        }
+
         return ResponseEntity.ok(taskGroupService.findTasksByGroupName(null, page, size));
     }
 
@@ -52,17 +61,26 @@ public class TaskGroupController {
      * Retrieves a list of pending tasks filtered by the specified group name.
      * The result is paginated, with the ability to specify the page and size of the results.
      *
+     * When a cursor is given, the page following the cursor is returned instead of the numbered page,
+     * and the cursor of the next page, if any, is returned in the {@code X-Next-Cursor} header.
+     *
      * @param groupName The name of the task group to filter by.
      * @param page The page number (optional).
      * @param size The number of items per page (optional).
+     * @param cursor The cursor of the page, empty for the first page (optional).
      * @return A paginated list of pending tasks for the specified group.
      */
     @GetMapping("/pending/{groupName}")
     public ResponseEntity<List<TasksGroupResponseDTO>> findPendingTasksByGroupId(
             @PathVariable String groupName,
             @RequestParam("page") Optional<Integer> page,
-            @RequestParam("size") Optional<Integer> size)
+            @RequestParam("size") Optional<Integer> size,
+            @RequestParam("cursor") Optional<String> cursor)
     {
+        if (cursor.isPresent()) {
+            return taskGroupService.findTasksByGroupNameAfter(groupName, cursor.get(), size).toResponseEntity();
+        }
+
         return ResponseEntity.ok(taskGroupService.findTasksByGroupName(groupName, page, size));
     }
 
@@ -5,12 +5,15 @@ import academy.prog.julia.dto.TaskSubmissionDTO;
 import academy.prog.julia.dto.TestSubmissionDTO;
 import academy.prog.julia.json_requests.TaskAnswerRequest;
 import academy.prog.julia.services.TeacherService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -50,6 +53,23 @@ public class TeacherController {
         return teacherService.getAllTasksSubmissionDTO(page, size, teacherId);
     }
 
+    /**
+     * Retrieves the task submissions of a teacher page by page with a cursor (keyset pagination).
+     * The cursor of the next page, if any, is returned in the {@code X-Next-Cursor} header.
+     *
+     * @param cursor the cursor returned with the previous page (default empty, the first page).
+     * @param size the number of records per page (default 10).
+     * @return a page of task submissions.
+     */
+    @GetMapping("tasksSubmissionByTeacherId/{teacherId}/cursor")
+    public ResponseEntity<List<TaskSubmissionDTO>> getTasksSubmissionAfter(
+            @PathVariable("teacherId") Long teacherId,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return teacherService.getTasksSubmissionDTOAfter(cursor, size, teacherId);
+    }
+
     /**
      * Retrieves a paginated list of all test submissions.
      *
@@ -99,6 +119,7 @@ public class TeacherController {
 
     /**
      * Downloads a ZIP file containing a student's submission for a specific task.
+     * Supports Range requests and conditional requests with If-None-Match.
      *
      * @param taskId        the ID of the task for which the ZIP is to be downloaded.
      * @param studentName   the student's first name.
@@ -106,9 +127,9 @@ public class TeacherController {
      * @param studentEmail  the student's email address.
      * @param groupName     the name of the group the student belongs to.
      * @param sessionId     the authorization token of the current session.
-     * @return a ByteArrayResource containing the ZIP file data.
+     * @return a Resource streaming the ZIP file data.
      */
-    public ResponseEntity<ByteArrayResource> downloadZip(
+    public ResponseEntity<Resource> downloadZip(
             @PathVariable Long taskId,
             @RequestParam(value = "studentName") String studentName,
             @RequestParam(value = "studentSurname") String studentSurname,
@@ -119,4 +140,24 @@ public class TeacherController {
         return teacherService.downloadZip(taskId, studentName, studentSurname, studentEmail, groupName, sessionId);
     }
 
+    /**
+     * Downloads one ZIP file containing the submissions of all students for a specific task.
+     * The archive is streamed to the response while it is being written.
+     *
+     * @param taskId    the ID of the task.
+     * @param groupName the name of the group to export, or all groups if not specified.
+     * @param sessionId the authorization token of the current session.
+     * @param response  the response the ZIP file is written to.
+     * @throws IOException if the ZIP file can't be written.
+     */
+    @GetMapping("/tasks/{taskId}/download-all-zp")
+    public void downloadAllZips(
+            @PathVariable Long taskId,
+            @RequestParam(value = "groupName", required = false) String groupName,
+            @RequestHeader("Authorization") String sessionId,
+            HttpServletResponse response
+    ) throws IOException {
+        teacherService.downloadAllZips(taskId, groupName, sessionId, response);
+    }
+
 }
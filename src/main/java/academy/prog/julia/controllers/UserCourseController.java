@@ -5,6 +5,7 @@ import academy.prog.julia.services.UserCourseService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,19 +30,22 @@ public class UserCourseController {
 
     /**
      * Retrieves the courses for a specific user, validating the session authorization.
+     * Responds with 304 Not Modified if the client already has the current list.
      *
      * @param userId - ID of the user whose courses are being fetched.
      * @param sessionId - The session ID from the request header for authorization.
      * @param session - HttpSession object for session management.
+     * @param request - The current request, used for the conditional request headers.
      * @return ResponseEntity containing a list of UserCoursesResponse or an unauthorized message if validation fails.
      */
     @GetMapping("/{userId}")
     public ResponseEntity<List<UserCoursesResponse>> getUserCourses(
             @PathVariable Long userId,
             @RequestHeader("Authorization") String sessionId,
-            HttpSession session
+            HttpSession session,
+            WebRequest request
     ) {
-        return userCourseService.getUserCoursesWithSessionValidation(userId, sessionId, session);
+        return userCourseService.getUserCoursesWithSessionValidation(userId, sessionId, session, request);
     }
 
 }
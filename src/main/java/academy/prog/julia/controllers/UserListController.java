@@ -39,16 +39,24 @@ public class UserListController {
 
     /**
      * Fetches a paginated list of users based on a valid random URL.
+     * When a cursor is given, the users following the cursor are returned instead of the numbered page,
+     * and the cursor of the next page, if any, is returned in the {@code X-Next-Cursor} header.
      *
      * @param randomURL - Randomly generated URL that must be valid for user retrieval.
      * @param page      - The page number for pagination (default is 0).
+     * @param cursor    - The cursor of the page, empty for the first page (optional).
      * @return A response containing the list of users or an error if the URL is invalid.
      */
     @GetMapping("/{randomURL}/userlist")
     public ResponseEntity<Map<String, List<UserDTO>>> showUsers(
             @PathVariable String randomURL,
-            @RequestParam(required = false, defaultValue = "0") int page
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return userListService.getUsersForRandomURLFromUserListService(randomURL, cursor);
+        }
+
         return userListService.getUsersForRandomURLFromUserListService(randomURL, page);
     }
 
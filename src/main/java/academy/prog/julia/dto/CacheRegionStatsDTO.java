@@ -0,0 +1,18 @@
+package academy.prog.julia.dto;
+
+/**
+ * Data Transfer Object (DTO) holding the statistics of a second-level cache region.
+ *
+ * @param region           the name of the region (entity class or collection role)
+ * @param hits             the number of lookups found in the region
+ * @param misses           the number of lookups not found in the region, read from the database instead
+ * @param puts             the number of entries put in the region
+ * @param elementsInMemory the number of entries currently in the region
+ */
+public record CacheRegionStatsDTO(
+        String region,
+        long hits,
+        long misses,
+        long puts,
+        long elementsInMemory
+) {}
@@ -0,0 +1,37 @@
+package academy.prog.julia.dto;
+
+import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserRole;
+
+/**
+ * Data Transfer Object (DTO) holding what the Telegram bot needs to know about the user of a chat
+ * before executing a command: who the user is, the role and whether the account may be used.
+ *
+ * @param id     the ID of the user
+ * @param role   the role of the user
+ * @param banned whether the user is blocked
+ * @param active whether the account of the user is active
+ */
+public record ChatPrincipalDTO(
+        Long id,
+        UserRole role,
+        boolean banned,
+        boolean active
+) {
+
+    /**
+     * Creates the principal of a user.
+     *
+     * @param user the user
+     * @return the principal of the user
+     */
+    public static ChatPrincipalDTO fromUser(User user) {
+        return new ChatPrincipalDTO(
+                user.getId(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getBannedStatus()),
+                Boolean.TRUE.equals(user.getActive())
+        );
+    }
+
+}
@@ -0,0 +1,32 @@
+package academy.prog.julia.dto;
+
+import academy.prog.julia.utils.PageCursor;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Data Transfer Object (DTO) holding a keyset page and the cursor of the following page.
+ * The content is sent as the response body and the cursor in the {@link PageCursor#NEXT_CURSOR_HEADER} header,
+ * so the body has the same shape as the page-number variant of the endpoint.
+ *
+ * @param content    the content of the page
+ * @param nextCursor the cursor of the next page, or null if the page is the last one
+ * @param <T>        the type of the content
+ */
+public record CursorPageDTO<T>(T content, String nextCursor) {
+
+    /**
+     * Builds the 200 OK response of the page.
+     *
+     * @return the response with the content as body and the next cursor as header, if any
+     */
+    public ResponseEntity<T> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (nextCursor != null) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, nextCursor);
+        }
+
+        return response.body(content);
+    }
+
+}
@@ -0,0 +1,10 @@
+package academy.prog.julia.dto;
+
+/**
+ * Data Transfer Object (DTO) pairing an entity with the name of one of its groups.
+ * Loaded by projection queries, one row per group, without loading the groups themselves.
+ *
+ * @param ownerId   the ID of the entity (task, test) the group belongs to
+ * @param groupName the name of the group
+ */
+public record GroupNameDTO(Long ownerId, String groupName) {}
@@ -0,0 +1,186 @@
+package academy.prog.julia.dto;
+
+import java.util.Objects;
+
+/**
+ * Immutable Data Transfer Object (DTO) holding aggregated task answer counters of a user for one lesson.
+ *
+ * Instances are built directly by the aggregate JPQL queries in {@code TaskAnswerRepository},
+ * so a whole course can be evaluated with a single query grouped by lesson.
+ */
+public class LessonProgressStatsDTO {
+
+    private final Long lessonId;
+    private final long tasks;
+    private final long answered;
+    private final long passed;
+    private final long correction;
+    private final long submitted;
+
+    /**
+     * Constructs a LessonProgressStatsDTO with the specified counters.
+     * Null counters (e.g. SUM over an empty group) are treated as zero.
+     *
+     * @param lessonId the unique identifier of the lesson (must not be null)
+     * @param tasks the number of tasks in the lesson
+     * @param answered the number of tasks the user has answered
+     * @param passed the number of passed answers
+     * @param correction the number of answers sent back for correction
+     * @param submitted the number of answers waiting for review
+     */
+    public LessonProgressStatsDTO(
+            Long lessonId,
+            Long tasks,
+            Long answered,
+            Long passed,
+            Long correction,
+            Long submitted
+    ) {
+        this.lessonId = Objects.requireNonNull(lessonId, "lessonId cannot be null");
+        this.tasks = Objects.requireNonNullElse(tasks, 0L);
+        this.answered = Objects.requireNonNullElse(answered, 0L);
+        this.passed = Objects.requireNonNullElse(passed, 0L);
+        this.correction = Objects.requireNonNullElse(correction, 0L);
+        this.submitted = Objects.requireNonNullElse(submitted, 0L);
+    }
+
+    /**
+     * Returns the unique identifier of the lesson.
+     *
+     * @return the lesson's unique identifier
+     */
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    /**
+     * Returns the number of tasks in the lesson.
+     *
+     * @return the number of tasks
+     */
+    public long getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the number of tasks the user has answered.
+     *
+     * @return the number of answered tasks
+     */
+    public long getAnswered() {
+        return answered;
+    }
+
+    /**
+     * Returns the number of passed answers.
+     *
+     * @return the number of passed answers
+     */
+    public long getPassed() {
+        return passed;
+    }
+
+    /**
+     * Returns the number of answers sent back for correction.
+     *
+     * @return the number of answers needing correction
+     */
+    public long getCorrection() {
+        return correction;
+    }
+
+    /**
+     * Returns the number of answers waiting for review.
+     *
+     * @return the number of submitted answers
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Converts the counters into the lesson progress status and percentage shown to the student.
+     * The status is {@code null} when the only answers of the lesson are neither passed, submitted
+     * nor sent for correction (their flags are not set).
+     *
+     * @return a LessonProgressDTO describing the lesson progress
+     */
+    public LessonProgressDTO toLessonProgressDTO() {
+        String lessonProgress;
+
+        if (tasks == 0) {
+            lessonProgress = "No tasks";
+        } else if (passed == tasks) {
+            lessonProgress = "All passed";
+        } else if (answered == 0) {
+            lessonProgress = "Not started";
+        } else if (correction > 0) {
+            lessonProgress = "Need correction";
+        } else if (submitted > 0 || passed > 0) {
+            lessonProgress = "In progress";
+        } else {
+            lessonProgress = null;
+        }
+
+        int lessonPercent = tasks == 0 ? 0 : (int) (passed * 100 / tasks);
+
+        return new LessonProgressDTO(lessonId, lessonProgress, lessonPercent);
+    }
+
+    /**
+     * Checks whether two LessonProgressStatsDTO objects are equal based on their field values.
+     *
+     * @param o the object to compare with the current instance
+     * @return true if both objects are of the same class and have matching field values, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LessonProgressStatsDTO that = (LessonProgressStatsDTO) o;
+
+        return tasks == that.tasks &&
+                answered == that.answered &&
+                passed == that.passed &&
+                correction == that.correction &&
+                submitted == that.submitted &&
+                Objects.equals(lessonId, that.lessonId)
+        ;
+    }
+
+    /**
+     * Generates a hash code for the LessonProgressStatsDTO object based on its field values.
+     *
+     * @return an integer hash code representing the object
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                lessonId,
+                tasks,
+                answered,
+                passed,
+                correction,
+                submitted
+        );
+    }
+
+    /**
+     * Returns a string representation of the LessonProgressStatsDTO object.
+     *
+     * @return a string representation of the LessonProgressStatsDTO
+     */
+    @Override
+    public String toString() {
+        return "LessonProgressStatsDTO{" +
+                "lessonId=" + lessonId +
+                ", tasks=" + tasks +
+                ", answered=" + answered +
+                ", passed=" + passed +
+                ", correction=" + correction +
+                ", submitted=" + submitted +
+                '}'
+        ;
+    }
+
+}
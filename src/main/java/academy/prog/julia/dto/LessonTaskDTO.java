@@ -0,0 +1,156 @@
+package academy.prog.julia.dto;
+
+import academy.prog.julia.model.ExpectedResult;
+import academy.prog.julia.model.Task;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable Data Transfer Object (DTO) for a task shown in the lesson details.
+ *
+ * It has the same JSON properties as the {@code Task} entity, so the details can be cached
+ * and shared by all students without keeping entities.
+ */
+public class LessonTaskDTO {
+
+    private final Long id;
+    private final String name;
+    private final String descriptionUrl;
+    private final LocalDate deadline;
+    private final Boolean active;
+    private final ExpectedResult expectedResult;
+
+    /**
+     * Constructs a new immutable LessonTaskDTO.
+     *
+     * @param id             the ID of the task
+     * @param name           the name of the task
+     * @param descriptionUrl the URL of the task description
+     * @param deadline       the deadline of the task
+     * @param active         whether the task is active
+     * @param expectedResult the kind of answer expected for the task
+     */
+    public LessonTaskDTO(
+            Long id,
+            String name,
+            String descriptionUrl,
+            LocalDate deadline,
+            Boolean active,
+            ExpectedResult expectedResult
+    ) {
+        this.id = id;
+        this.name = name;
+        this.descriptionUrl = descriptionUrl;
+        this.deadline = deadline;
+        this.active = active;
+        this.expectedResult = expectedResult;
+    }
+
+    /**
+     * Creates a LessonTaskDTO from a Task entity.
+     *
+     * @param task the task entity
+     * @return the DTO, or null if the task is null
+     */
+    public static LessonTaskDTO fromTask(Task task) {
+        if (task == null) {
+            return null;
+        }
+
+        return new LessonTaskDTO(
+                task.getId(),
+                task.getName(),
+                task.getDescriptionUrl(),
+                task.getDeadline(),
+                task.getActive(),
+                task.getExpectedResult()
+        );
+    }
+
+    /**
+     * Retrieves the ID of the task.
+     *
+     * @return the ID of the task
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the name of the task.
+     *
+     * @return the name of the task
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the URL of the task description.
+     *
+     * @return the description URL
+     */
+    public String getDescriptionUrl() {
+        return descriptionUrl;
+    }
+
+    /**
+     * Retrieves the deadline of the task.
+     *
+     * @return the deadline
+     */
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Retrieves whether the task is active.
+     *
+     * @return true if the task is active
+     */
+    public Boolean getActive() {
+        return active;
+    }
+
+    /**
+     * Retrieves the kind of answer expected for the task.
+     *
+     * @return the expected result
+     */
+    public ExpectedResult getExpectedResult() {
+        return expectedResult;
+    }
+
+    /**
+     * Checks whether two LessonTaskDTO objects are equal based on their field values.
+     *
+     * @param o the object to compare with
+     * @return true if the objects are equal, otherwise false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LessonTaskDTO that = (LessonTaskDTO) o;
+
+        return Objects.equals(id, that.id) &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(descriptionUrl, that.descriptionUrl) &&
+                Objects.equals(deadline, that.deadline) &&
+                Objects.equals(active, that.active) &&
+                expectedResult == that.expectedResult
+        ;
+    }
+
+    /**
+     * Computes the hash code based on the field values.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, descriptionUrl, deadline, active, expectedResult);
+    }
+
+}
@@ -0,0 +1,19 @@
+package academy.prog.julia.dto;
+
+/**
+ * Data Transfer Object (DTO) describing the stored ZIP file of a task answer for a bulk export.
+ * Carries no file content, so a whole batch can be loaded cheaply.
+ *
+ * @param taskAnswerId  the ID of the task answer
+ * @param name          the name of the student
+ * @param surname       the surname of the student
+ * @param email         the email of the student
+ * @param zipAnswerHash the hash of the ZIP file in the blob store, or null if it is still stored in the database
+ */
+public record TaskAnswerArchiveDTO(
+        Long taskAnswerId,
+        String name,
+        String surname,
+        String email,
+        String zipAnswerHash
+) {}
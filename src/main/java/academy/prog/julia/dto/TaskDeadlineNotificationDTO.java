@@ -0,0 +1,157 @@
+package academy.prog.julia.dto;
+
+import java.util.Objects;
+
+/**
+ * Immutable Data Transfer Object (DTO) describing one (user, task, group) tuple for a deadline notification.
+ *
+ * Instances are built directly by a single JPQL query in {@code TaskRepository} that returns every
+ * task with an approaching deadline which a student has not submitted yet, together with the
+ * group through which the task was assigned.
+ */
+public class TaskDeadlineNotificationDTO {
+
+    private final Long userId;
+    private final String telegramChatId;
+    private final Long taskId;
+    private final String taskName;
+    private final String lessonName;
+    private final String groupName;
+
+    /**
+     * Constructs a new immutable TaskDeadlineNotificationDTO.
+     *
+     * @param userId the unique identifier of the student (must not be null)
+     * @param telegramChatId the Telegram chat ID of the student
+     * @param taskId the unique identifier of the task (must not be null)
+     * @param taskName the name of the task
+     * @param lessonName the name of the lesson the task belongs to
+     * @param groupName the name of the group the student and the lesson share
+     */
+    public TaskDeadlineNotificationDTO(
+            Long userId,
+            String telegramChatId,
+            Long taskId,
+            String taskName,
+            String lessonName,
+            String groupName
+    ) {
+        this.userId = Objects.requireNonNull(userId, "userId cannot be null");
+        this.telegramChatId = telegramChatId;
+        this.taskId = Objects.requireNonNull(taskId, "taskId cannot be null");
+        this.taskName = taskName;
+        this.lessonName = lessonName;
+        this.groupName = groupName;
+    }
+
+    /**
+     * Returns the unique identifier of the student.
+     *
+     * @return the student's unique identifier
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns the Telegram chat ID of the student.
+     *
+     * @return the Telegram chat ID
+     */
+    public String getTelegramChatId() {
+        return telegramChatId;
+    }
+
+    /**
+     * Returns the unique identifier of the task.
+     *
+     * @return the task's unique identifier
+     */
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Returns the name of the task.
+     *
+     * @return the task name
+     */
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * Returns the name of the lesson the task belongs to.
+     *
+     * @return the lesson name
+     */
+    public String getLessonName() {
+        return lessonName;
+    }
+
+    /**
+     * Returns the name of the group the student and the lesson share.
+     *
+     * @return the group name
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
+    /**
+     * Checks whether two TaskDeadlineNotificationDTO objects are equal based on their field values.
+     *
+     * @param o the object to compare with the current instance
+     * @return true if both objects are of the same class and have matching field values, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaskDeadlineNotificationDTO that = (TaskDeadlineNotificationDTO) o;
+
+        return Objects.equals(userId, that.userId) &&
+                Objects.equals(telegramChatId, that.telegramChatId) &&
+                Objects.equals(taskId, that.taskId) &&
+                Objects.equals(taskName, that.taskName) &&
+                Objects.equals(lessonName, that.lessonName) &&
+                Objects.equals(groupName, that.groupName)
+        ;
+    }
+
+    /**
+     * Generates a hash code for the TaskDeadlineNotificationDTO object based on its field values.
+     *
+     * @return an integer hash code representing the object
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                userId,
+                telegramChatId,
+                taskId,
+                taskName,
+                lessonName,
+                groupName
+        );
+    }
+
+    /**
+     * Returns a string representation of the TaskDeadlineNotificationDTO object.
+     *
+     * @return a string representation of the TaskDeadlineNotificationDTO
+     */
+    @Override
+    public String toString() {
+        return "TaskDeadlineNotificationDTO{" +
+                "userId=" + userId +
+                ", telegramChatId='" + telegramChatId + '\'' +
+                ", taskId=" + taskId +
+                ", taskName='" + taskName + '\'' +
+                ", lessonName='" + lessonName + '\'' +
+                ", groupName='" + groupName + '\'' +
+                '}'
+        ;
+    }
+
+}
@@ -0,0 +1,86 @@
+package academy.prog.julia.dto;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) for one row of the teacher submission page: a task answer with its task
+ * and student, and one of the groups of the student. Built by a JPQL constructor query, so the page is
+ * read without loading any entity.
+ *
+ * @param taskId               the ID of the task
+ * @param taskName             the name of the task
+ * @param descriptionUrl       the URL of the task description
+ * @param answerId             the ID of the task answer
+ * @param answerUrl            the URL of the answer
+ * @param courseId             the ID of the course
+ * @param lessonId             the ID of the lesson
+ * @param lessonNum            the number of the lesson
+ * @param course               the name of the course
+ * @param isPassed             whether the task is passed
+ * @param isCorrection         whether the task needs correction
+ * @param messageForCorrection the feedback for the correction
+ * @param isRead               whether the answer was read
+ * @param submittedDate        the date of the submission
+ * @param userId               the ID of the student
+ * @param name                 the name of the student
+ * @param surname              the surname of the student
+ * @param phone                the phone of the student
+ * @param email                the email of the student
+ * @param telegramChatId       the Telegram chat ID of the student
+ * @param groupName            the name of one group of the student, or null if the student has no group
+ */
+public record TaskSubmissionRowDTO(
+        Long taskId,
+        String taskName,
+        String descriptionUrl,
+        Long answerId,
+        String answerUrl,
+        Long courseId,
+        Long lessonId,
+        Integer lessonNum,
+        String course,
+        Boolean isPassed,
+        Boolean isCorrection,
+        String messageForCorrection,
+        Boolean isRead,
+        Date submittedDate,
+        Long userId,
+        String name,
+        String surname,
+        String phone,
+        String email,
+        String telegramChatId,
+        String groupName
+) {
+
+    /**
+     * Creates the TaskAnswerDTO of this row.
+     *
+     * @param studentGroups the names of all groups of the student
+     * @return the TaskAnswerDTO
+     */
+    public TaskAnswerDTO toTaskAnswerDTO(Set<String> studentGroups) {
+        UserFromAnswerTaskDTO student = new UserFromAnswerTaskDTO(
+                userId, name, surname, phone, email, telegramChatId, studentGroups
+        );
+
+        return new TaskAnswerDTO(
+                answerId,
+                answerUrl,
+                courseId,
+                lessonId,
+                lessonNum,
+                taskId,
+                taskName,
+                course,
+                descriptionUrl,
+                isPassed,
+                isCorrection,
+                messageForCorrection,
+                isRead,
+                submittedDate,
+                student
+        );
+    }
+}
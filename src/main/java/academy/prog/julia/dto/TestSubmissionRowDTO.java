@@ -0,0 +1,56 @@
+package academy.prog.julia.dto;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Data Transfer Object (DTO) for one row of the teacher test submission page: a test answer with its
+ * student, and one of the groups of the student. Built by a JPQL constructor query, so the page is
+ * read without loading any entity.
+ *
+ * @param testId         the ID of the test
+ * @param answerId       the ID of the test answer
+ * @param course         the name of the course
+ * @param attempt        the number of the attempt
+ * @param isPassed       whether the test is passed
+ * @param totalScore     the total score of the answer
+ * @param submittedDate  the date of the submission
+ * @param userId         the ID of the student
+ * @param name           the name of the student
+ * @param surname        the surname of the student
+ * @param phone          the phone of the student
+ * @param email          the email of the student
+ * @param telegramChatId the Telegram chat ID of the student
+ * @param groupName      the name of one group of the student, or null if the student has no group
+ */
+public record TestSubmissionRowDTO(
+        Long testId,
+        Long answerId,
+        String course,
+        Integer attempt,
+        Boolean isPassed,
+        String totalScore,
+        Date submittedDate,
+        Long userId,
+        String name,
+        String surname,
+        String phone,
+        String email,
+        String telegramChatId,
+        String groupName
+) {
+
+    /**
+     * Creates the TestAnswerDTO of this row.
+     *
+     * @param studentGroups the names of all groups of the student
+     * @return the TestAnswerDTO
+     */
+    public TestAnswerDTO toTestAnswerDTO(Set<String> studentGroups) {
+        UserFromAnswerTaskDTO student = new UserFromAnswerTaskDTO(
+                userId, name, surname, phone, email, telegramChatId, studentGroups
+        );
+
+        return new TestAnswerDTO(answerId, course, attempt, isPassed, totalScore, submittedDate, student);
+    }
+}
@@ -0,0 +1,11 @@
+package academy.prog.julia.dto;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Data Transfer Object (DTO) for the ZIP file of a task answer ready to be downloaded.
+ *
+ * @param file the content of the ZIP file, streamed when the response is written
+ * @param eTag the entity tag of the content, or null if it is unknown
+ */
+public record ZipAnswerFileDTO(Resource file, String eTag) {}
@@ -6,6 +6,7 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -16,6 +17,7 @@ import java.io.IOException;
  *
  * This class handles exceptions that occur in the SseController, specifically related to Server-Sent Events (SSE).
  * It captures IOExceptions that may occur when sending SSE data and returns an appropriate error response to the client.
+ * Streams that the session may not read are refused with 403 Forbidden.
  *
  * @Order(7) sets the order of this advice, ensuring it has a higher precedence compared to other advice with
  *           higher order values.
@@ -45,4 +47,22 @@ public class SseExceptionHandler {
         ;
     }
 
+    /**
+     * Handles AccessDeniedException for the user and group streams.
+     *
+     * The response has no body, since the client only accepts an event stream.
+     *
+     * @param ex the AccessDeniedException thrown
+     * @return a ResponseEntity with HTTP 403 Forbidden status
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Void> handleAccessDeniedException(AccessDeniedException ex) {
+        LOGGER.warn("SSE stream refused: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .build()
+        ;
+    }
+
 }
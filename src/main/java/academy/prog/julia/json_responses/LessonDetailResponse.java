@@ -1,25 +1,30 @@
 package academy.prog.julia.json_responses;
 
 import academy.prog.julia.dto.LessonDetailDTO;
+import academy.prog.julia.dto.LessonTaskDTO;
 import academy.prog.julia.dto.TestDTOForLessonDetailResponseWithTestAnswers;
 import academy.prog.julia.dto.TestQuestionDTOForTestDTOForLessonDetailResponse;
-import academy.prog.julia.model.Task;
 import academy.prog.julia.model.Test;
 import academy.prog.julia.model.TestQuestionFromGoogleDocs;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Represents the response object containing detailed information about a lesson.
+ *
+ * A response built by {@link #fromDTO} holds no entities and no Hibernate collections,
+ * so it can be cached and serialized by several requests at once.
  */
 public class LessonDetailResponse {
 
     private String name;
     private String descriptionUrl;
     private String videoUrl;
-    private List<Task> tasks;
+    private List<LessonTaskDTO> tasks;
     private List<TestDTOForLessonDetailResponseWithTestAnswers> tests;
 
     /**
@@ -44,7 +49,7 @@ public class LessonDetailResponse {
             String name,
             String descriptionUrl,
             String videoUrl,
-            List<Task> tasks,
+            List<LessonTaskDTO> tasks,
             List<TestDTOForLessonDetailResponseWithTestAnswers> tests
     ) {
         this.name = name;
@@ -84,9 +89,9 @@ public class LessonDetailResponse {
     /**
      * Retrieves the list of tasks associated with the lesson.
      *
-     * @return a {@link List} of {@link Task} objects representing the tasks for the lesson
+     * @return a {@link List} of {@link LessonTaskDTO} objects representing the tasks for the lesson
      */
-    public List<Task> getTasks() {
+    public List<LessonTaskDTO> getTasks() {
         return tasks;
     }
 
@@ -102,6 +107,8 @@ public class LessonDetailResponse {
 
     /**
      * Converts a LessonDetailDTO object to a LessonDetailResponse object.
+     * Must be called while the lesson's tests can still load their questions, i.e. in the transaction
+     * that loaded the lesson; the tasks, questions, options and answers are copied.
      *
      * @param lessonDetailDTO the DTO containing lesson details
      * @return a LessonDetailResponse object
@@ -117,7 +124,7 @@ public class LessonDetailResponse {
                 lessonDetailDTO.getName(),
                 lessonDetailDTO.getDescriptionUrl(),
                 lessonDetailDTO.getVideoUrl(),
-                List.copyOf(lessonDetailDTO.getTasks()),
+                lessonDetailDTO.getTasks().stream().map(LessonTaskDTO::fromTask).toList(),
                 List.copyOf(testDtoWithAnswers)
         );
     }
@@ -169,7 +176,7 @@ public class LessonDetailResponse {
             TestQuestionDTOForTestDTOForLessonDetailResponse newTest =
                     new TestQuestionDTOForTestDTOForLessonDetailResponse(
                         question.getId(), question.getQuestion(),
-                        question.getOptions(), question.getCorrectAnswers()
+                        copyOf(question.getOptions()), copyOf(question.getCorrectAnswers())
                     );
 
             convertedSet.add(newTest);
@@ -178,4 +185,8 @@ public class LessonDetailResponse {
         return convertedSet;
     }
 
+    private static List<String> copyOf(List<String> values) {
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
 }
@@ -17,7 +17,10 @@ import java.util.Objects;
  *
  */
 @Entity
-@Table(name = "certificates")
+@Table(
+        name = "certificates",
+        indexes = @Index(name = "IDX_certificates_group_user", columnList = "group_name, user_id")
+)
 public class Certificate implements Serializable {
 
     /**
@@ -46,12 +49,28 @@ public class Certificate implements Serializable {
     /**
      * Binary data for the certificate file.
      *
-     * This field is a large object (@Lob), specifies a maximum length of 10 MB and cannot be null.
+     * This field is a large object (@Lob) with a maximum length of 10 MB.
+     * New certificates keep the file in the {@code BlobStore} and leave this field empty;
+     * it only holds the files of certificates not yet moved to the blob store.
      */
     @Lob
-    @Column(length = 10240000, nullable = false)
+    @Column(length = 10240000)
     private byte[] file;
 
+    /**
+     * SHA-256 hash of the certificate file in the {@code BlobStore}.
+     *
+     * This field is null while the file is still stored in the 'file' column.
+     */
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    /**
+     * Size of the certificate file in bytes.
+     */
+    @Column(name = "file_size")
+    private Long fileSize;
+
     /**
      * User associated with this certificate.
      *
@@ -140,6 +159,42 @@ public class Certificate implements Serializable {
         this.file = file;
     }
 
+    /**
+     * Gets the hash of the certificate file in the blob store.
+     *
+     * @return The SHA-256 hash of the file, or null if the file is stored in the database
+     */
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    /**
+     * Sets the hash of the certificate file in the blob store.
+     *
+     * @param fileHash The SHA-256 hash to set
+     */
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    /**
+     * Gets the size of the certificate file.
+     *
+     * @return The size of the file in bytes
+     */
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Sets the size of the certificate file.
+     *
+     * @param fileSize The size to set in bytes
+     */
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
     /**
      * Gets the user associated with this certificate.
      *
@@ -2,6 +2,8 @@ package academy.prog.julia.model;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 /**
  * Represents a task related to certificate processing in the database.
  *
@@ -10,7 +12,13 @@ import jakarta.persistence.*;
  * @Entity marks this class as a JPA entity to be managed by Hibernate
  */
 @Entity
-@Table(name = "certificate_tasks")
+@Table(
+        name = "certificate_tasks",
+        indexes = {
+                @Index(name = "IDX_certificate_tasks_generation", columnList = "is_generated, next_attempt_at"),
+                @Index(name = "IDX_certificate_tasks_sending", columnList = "is_generated, is_send")
+        }
+)
 public class CertificateTask {
 
     /**
@@ -53,6 +61,30 @@ public class CertificateTask {
     @Column(name = "send_error")
     private String sendError;
 
+    /**
+     * Number of failed generation attempts.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Time before which the generation is not retried after a failure.
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Time until which the task is claimed by a generation worker.
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    /**
+     * Identifier of the application instance that claimed the task.
+     */
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
     /**
      * Default constructor required by JPA.
      *
@@ -191,4 +223,76 @@ public class CertificateTask {
         this.sendError = sendError;
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the number of failed generation attempts.
+     *
+     * @return The number of failed attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of failed generation attempts.
+     *
+     * @param attempts The number of failed attempts
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the time before which the generation is not retried.
+     *
+     * @return The time of the next attempt
+     */
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    /**
+     * Sets the time before which the generation is not retried.
+     *
+     * @param nextAttemptAt The time of the next attempt
+     */
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * Gets the time until which the task is claimed by a generation worker.
+     *
+     * @return The end of the lease
+     */
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    /**
+     * Sets the time until which the task is claimed by a generation worker.
+     *
+     * @param lockedUntil The end of the lease
+     */
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    /**
+     * Gets the identifier of the application instance that claimed the task.
+     *
+     * @return The instance identifier
+     */
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    /**
+     * Sets the identifier of the application instance that claimed the task.
+     *
+     * @param lockedBy The instance identifier
+     */
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+}
@@ -4,6 +4,8 @@ import academy.prog.julia.utils.EntityUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mysql.cj.xdevapi.Client;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -19,9 +21,11 @@ import java.util.Set;
  * This class maps to the 'study_groups' table and defines the structure of study group data.
  *
  * @Entity marks this class as a JPA entity to be managed by Hibernate
+ * @Cache stores the groups in the second-level cache, they change only when a course is imported
  */
 @Entity
 @Table(name = "study_groups")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Group implements Serializable {
 
     /**
@@ -51,10 +55,10 @@ public class Group implements Serializable {
      * Set of users associated with this study group.
      *
      * The 'clients' field represents a many-to-many relationship between Group and User entities,
-     * fetch type EAGER - data always have adding to model during call it.
+     * fetch type LAZY - data is loaded only when the collection is accessed.
      * This field is marked to be ignored by JSON serialization.
      */
-    @ManyToMany(fetch = FetchType.EAGER, mappedBy = "groups")
+    @ManyToMany(fetch = FetchType.LAZY, mappedBy = "groups")
     @JsonIgnore
     private Set<User> clients = new HashSet<>();
 
@@ -62,10 +66,11 @@ public class Group implements Serializable {
      * Set of lessons associated with this study group.
      *
      * The 'lessons' field represents a many-to-many relationship between Group and Lesson entities,
-     * fetch type EAGER - data always have adding to model during call it.
+     * fetch type LAZY - data is loaded only when the collection is accessed.
      * This field is marked to be ignored by JSON serialization.
      */
-    @ManyToMany(fetch = FetchType.EAGER, mappedBy = "groups")
+    @ManyToMany(fetch = FetchType.LAZY, mappedBy = "groups")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     private Set<Lesson> lessons = new HashSet<>();
 
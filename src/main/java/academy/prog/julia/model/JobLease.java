@@ -0,0 +1,79 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the lease of a background job that must run on one application instance at a time.
+ *
+ * This class maps to the 'job_lease' table. An instance holds the lease of a job while 'locked_until'
+ * is in the future; a lease that is not extended expires, e.g. when the instance crashed.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(name = "job_lease")
+public class JobLease {
+
+    /**
+     * Name of the job.
+     */
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    /**
+     * Time until which the job is leased.
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    /**
+     * Identifier of the application instance holding the lease.
+     */
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public JobLease() {}
+
+    /**
+     * Creates a job lease that is not held by any instance.
+     *
+     * @param name The name of the job
+     */
+    public JobLease(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the job.
+     *
+     * @return The name of the job
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the time until which the job is leased.
+     *
+     * @return The end of the lease
+     */
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    /**
+     * Gets the identifier of the application instance holding the lease.
+     *
+     * @return The instance identifier
+     */
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+}
@@ -3,6 +3,8 @@ package academy.prog.julia.model;
 import academy.prog.julia.utils.EntityUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -16,8 +18,16 @@ import java.util.Set;
  * This class maps to the 'lesson' table in the database.
  *
  * @Entity marks this class as a JPA entity to be managed by Hibernate
+ * @NamedEntityGraph defines the fetch plan loading the tasks of lessons listed with their tasks
+ * @Cache stores the lessons with their groups, tasks and tests in the second-level cache, they change only when a course is imported
  */
 @Entity
+@Table(
+        name = "lesson",
+        indexes = @Index(name = "IDX_lesson_spreadsheet_sheet", columnList = "spreadsheetid, sheet_number")
+)
+@NamedEntityGraph(name = Lesson.GRAPH_TASKS, attributeNodes = @NamedAttributeNode("tasks"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Lesson implements Serializable {
 
     /**
@@ -26,6 +36,11 @@ public class Lesson implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Fetch plan loading the tasks of the lesson (course lessons, progress).
+     */
+    public static final String GRAPH_TASKS = "Lesson.tasks";
+
     /**
      * Unique identifier for the lesson.
      *
@@ -54,31 +69,36 @@ public class Lesson implements Serializable {
     /**
      * Collection of tasks associated with the lesson.
      * Mapped by the 'lesson' field in the Task entity.
-     * Fetch type is EAGER, meaning tasks are loaded immediately.
+     * Fetch type is LAZY, meaning tasks are loaded when they are accessed.
      */
-    @OneToMany(mappedBy = "lesson", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "lesson", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     private Set<Task> tasks = new HashSet<>();
 
     /**
      * Collection of tests associated with the lesson.
      * Mapped by the 'lesson' field in the Test entity.
-     * Fetch type is EAGER, meaning tests are loaded immediately.
+     * Fetch type is LAZY, meaning tests are loaded when they are accessed.
      */
-    @OneToMany(mappedBy = "lesson", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "lesson", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     private Set<Test> tests = new HashSet<>();
 
     /**
      * Many-to-many relationship with groups.
      * A lesson can be associated with many groups, and a group can have many lessons.
+     * Fetch type is LAZY, meaning groups are loaded when they are accessed.
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "lesson_group",
             joinColumns = @JoinColumn(name = "lesson_id"),
-            inverseJoinColumns = @JoinColumn(name = "group_id")
+            inverseJoinColumns = @JoinColumn(name = "group_id"),
+            indexes = @Index(name = "IDX_lesson_group_group_lesson", columnList = "group_id, lesson_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnore
     private Set<Group> groups = new HashSet<>();
 
@@ -86,12 +106,14 @@ public class Lesson implements Serializable {
      * ID of the Google spreadsheet associated with the lesson.
      * This field stores the URL of the spreadsheet.
      */
+    @Column(name = "spreadsheetid")
     private String spreadsheetID;
 
     /**
      * Number of the spreadsheet page associated with the lesson.
      * All lessons currently have number 0(zero) - it's first letter of Google sheet.
      */
+    @Column(name = "sheet_number")
     private Integer sheetNumber;
 
     /**
@@ -274,8 +296,6 @@ public class Lesson implements Serializable {
                 ", name='" + name + '\'' +
                 ", descriptionUrl='" + descriptionUrl + '\'' +
                 ", videoUrl='" + videoUrl + '\'' +
-                ", tasks=" + tasks +
-                ", tests=" + tests +
                 ", spreadsheetID='" + spreadsheetID + '\'' +
                 ", sheetNumber=" + sheetNumber +
                 '}'
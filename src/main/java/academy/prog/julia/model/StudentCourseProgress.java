@@ -0,0 +1,177 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Represents the precomputed task progress of a student for a whole course (group).
+ *
+ * This class maps to the 'student_course_progress' table. The counters are the sums of the
+ * student's {@link StudentLessonProgress} rows over the lessons of the course.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(
+        name = "student_course_progress",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "course_id"})
+)
+public class StudentCourseProgress {
+
+    /**
+     * Unique identifier of the record.
+     *
+     * This field is auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the student.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The ID of the course (group).
+     */
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    /**
+     * The number of tasks of the course the student has answered.
+     */
+    @Column(name = "answered", nullable = false)
+    private int answered;
+
+    /**
+     * The number of passed answers.
+     */
+    @Column(name = "passed", nullable = false)
+    private int passed;
+
+    /**
+     * The date when the counters were last recalculated.
+     */
+    @Column(name = "updated_date")
+    private Date updatedDate;
+
+    /**
+     * Default constructor required by JPA.
+     *
+     * Initializes a new instance of the StudentCourseProgress class.
+     */
+    public StudentCourseProgress() {}
+
+    /**
+     * Gets the unique identifier of the record.
+     *
+     * @return The value of id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the record.
+     *
+     * @param id The value to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the student.
+     *
+     * @return The value of userId
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the student.
+     *
+     * @param userId The value to set
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the ID of the course (group).
+     *
+     * @return The value of courseId
+     */
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * Sets the ID of the course (group).
+     *
+     * @param courseId The value to set
+     */
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    /**
+     * Gets the number of tasks of the course the student has answered.
+     *
+     * @return The value of answered
+     */
+    public int getAnswered() {
+        return answered;
+    }
+
+    /**
+     * Sets the number of tasks of the course the student has answered.
+     *
+     * @param answered The value to set
+     */
+    public void setAnswered(int answered) {
+        this.answered = answered;
+    }
+
+    /**
+     * Gets the number of passed answers.
+     *
+     * @return The value of passed
+     */
+    public int getPassed() {
+        return passed;
+    }
+
+    /**
+     * Sets the number of passed answers.
+     *
+     * @param passed The value to set
+     */
+    public void setPassed(int passed) {
+        this.passed = passed;
+    }
+
+    /**
+     * Gets the date when the counters were last recalculated.
+     *
+     * @return The value of updatedDate
+     */
+    public Date getUpdatedDate() {
+        return updatedDate;
+    }
+
+    /**
+     * Sets the date when the counters were last recalculated.
+     *
+     * @param updatedDate The value to set
+     */
+    public void setUpdatedDate(Date updatedDate) {
+        this.updatedDate = updatedDate;
+    }
+
+}
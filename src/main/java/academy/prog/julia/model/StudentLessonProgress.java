@@ -0,0 +1,225 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Represents the precomputed task progress of a student for a single lesson.
+ *
+ * This class maps to the 'student_lesson_progress' table. The counters are updated in the same
+ * transaction that submits or grades a task answer, so progress reads don't scan 'task_answer'.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(
+        name = "student_lesson_progress",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "lesson_id"})
+)
+public class StudentLessonProgress {
+
+    /**
+     * Unique identifier of the record.
+     *
+     * This field is auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the student.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The ID of the lesson.
+     */
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    /**
+     * The number of tasks of the lesson the student has answered.
+     */
+    @Column(name = "answered", nullable = false)
+    private int answered;
+
+    /**
+     * The number of passed answers.
+     */
+    @Column(name = "passed", nullable = false)
+    private int passed;
+
+    /**
+     * The number of answers sent back for correction.
+     */
+    @Column(name = "correction", nullable = false)
+    private int correction;
+
+    /**
+     * The number of answers waiting for review.
+     */
+    @Column(name = "submitted", nullable = false)
+    private int submitted;
+
+    /**
+     * The date when the counters were last recalculated.
+     */
+    @Column(name = "updated_date")
+    private Date updatedDate;
+
+    /**
+     * Default constructor required by JPA.
+     *
+     * Initializes a new instance of the StudentLessonProgress class.
+     */
+    public StudentLessonProgress() {}
+
+    /**
+     * Gets the unique identifier of the record.
+     *
+     * @return The value of id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the record.
+     *
+     * @param id The value to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the student.
+     *
+     * @return The value of userId
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the student.
+     *
+     * @param userId The value to set
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the ID of the lesson.
+     *
+     * @return The value of lessonId
+     */
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    /**
+     * Sets the ID of the lesson.
+     *
+     * @param lessonId The value to set
+     */
+    public void setLessonId(Long lessonId) {
+        this.lessonId = lessonId;
+    }
+
+    /**
+     * Gets the number of tasks of the lesson the student has answered.
+     *
+     * @return The value of answered
+     */
+    public int getAnswered() {
+        return answered;
+    }
+
+    /**
+     * Sets the number of tasks of the lesson the student has answered.
+     *
+     * @param answered The value to set
+     */
+    public void setAnswered(int answered) {
+        this.answered = answered;
+    }
+
+    /**
+     * Gets the number of passed answers.
+     *
+     * @return The value of passed
+     */
+    public int getPassed() {
+        return passed;
+    }
+
+    /**
+     * Sets the number of passed answers.
+     *
+     * @param passed The value to set
+     */
+    public void setPassed(int passed) {
+        this.passed = passed;
+    }
+
+    /**
+     * Gets the number of answers sent back for correction.
+     *
+     * @return The value of correction
+     */
+    public int getCorrection() {
+        return correction;
+    }
+
+    /**
+     * Sets the number of answers sent back for correction.
+     *
+     * @param correction The value to set
+     */
+    public void setCorrection(int correction) {
+        this.correction = correction;
+    }
+
+    /**
+     * Gets the number of answers waiting for review.
+     *
+     * @return The value of submitted
+     */
+    public int getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Sets the number of answers waiting for review.
+     *
+     * @param submitted The value to set
+     */
+    public void setSubmitted(int submitted) {
+        this.submitted = submitted;
+    }
+
+    /**
+     * Gets the date when the counters were last recalculated.
+     *
+     * @return The value of updatedDate
+     */
+    public Date getUpdatedDate() {
+        return updatedDate;
+    }
+
+    /**
+     * Sets the date when the counters were last recalculated.
+     *
+     * @param updatedDate The value to set
+     */
+    public void setUpdatedDate(Date updatedDate) {
+        this.updatedDate = updatedDate;
+    }
+
+}
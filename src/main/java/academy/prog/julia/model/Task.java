@@ -3,6 +3,8 @@ package academy.prog.julia.model;
 import academy.prog.julia.utils.EntityUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -16,8 +18,14 @@ import java.util.Set;
  * This class maps to the 'task' table in the database.
  *
  * @Entity marks this class as a JPA entity to be managed by Hibernate.
+ * @Cache stores the tasks (not their students and answers) in the second-level cache, they change only when a course is imported
  */
 @Entity
+@Table(
+        name = "task",
+        indexes = @Index(name = "IDX_task_deadline_lesson", columnList = "deadline, lesson_id")
+)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Task implements Serializable {
 
     /**
@@ -69,7 +77,8 @@ public class Task implements Serializable {
     @JoinTable(
             name = "task_students",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "student_id"))
+            inverseJoinColumns = @JoinColumn(name = "student_id"),
+            indexes = @Index(name = "IDX_task_students_student_task", columnList = "student_id, task_id"))
     @JsonIgnore
     private Set<User> students;
 
@@ -16,6 +16,14 @@ import java.util.Objects;
  * @Entity marks this class as a JPA entity to be managed by Hibernate.
  */
 @Entity
+@Table(
+        name = "task_answer",
+        indexes = {
+                @Index(name = "IDX_task_answer_task_user", columnList = "task_id, user_id"),
+                @Index(name = "IDX_task_answer_user_task", columnList = "user_id, task_id"),
+                @Index(name = "IDX_task_answer_pending", columnList = "is_passed, submitted_date")
+        }
+)
 public class TaskAnswer implements Serializable {
 
     /**
@@ -61,6 +69,7 @@ public class TaskAnswer implements Serializable {
     /**
      * Flag indicating if the task is passed.
      */
+    @Column(name = "is_passed")
     private Boolean isPassed;
 
     /**
@@ -82,18 +91,34 @@ public class TaskAnswer implements Serializable {
     /**
      * Date when the task was submitted.
      */
+    @Column(name = "submitted_date")
     private Date submittedDate;
 
     /**
      * File with the answer in ZIP format.
      * This field is lazily loaded to optimize performance.
      * Max size 1 MB
+     * New archives are kept in the {@code BlobStore}; this field only holds
+     * the archives not yet moved to the blob store.
      */
     @Lob
     @Basic(fetch = FetchType.LAZY)
     @Column(length = 1048576)
     private byte[] zipAnswerFile;
 
+    /**
+     * SHA-256 hash of the ZIP file in the {@code BlobStore}.
+     * Null if there is no archive or it is still stored in the 'zipAnswerFile' column.
+     */
+    @Column(name = "zip_answer_hash", length = 64)
+    private String zipAnswerHash;
+
+    /**
+     * Size of the ZIP file in bytes.
+     */
+    @Column(name = "zip_answer_size")
+    private Long zipAnswerSize;
+
     /**
      * Many-to-one relationship with the user who submitted the answer.
      * This field is ignored by JSON serialization to avoid infinite recursion.
@@ -414,6 +439,42 @@ public class TaskAnswer implements Serializable {
         this.zipAnswerFile = zipAnswerFile;
     }
 
+    /**
+     * Gets the hash of the ZIP file in the blob store.
+     *
+     * @return The SHA-256 hash of the archive, or null if it isn't in the blob store
+     */
+    public String getZipAnswerHash() {
+        return zipAnswerHash;
+    }
+
+    /**
+     * Sets the hash of the ZIP file in the blob store.
+     *
+     * @param zipAnswerHash The SHA-256 hash to set
+     */
+    public void setZipAnswerHash(String zipAnswerHash) {
+        this.zipAnswerHash = zipAnswerHash;
+    }
+
+    /**
+     * Gets the size of the ZIP file.
+     *
+     * @return The size of the archive in bytes
+     */
+    public Long getZipAnswerSize() {
+        return zipAnswerSize;
+    }
+
+    /**
+     * Sets the size of the ZIP file.
+     *
+     * @param zipAnswerSize The size to set in bytes
+     */
+    public void setZipAnswerSize(Long zipAnswerSize) {
+        this.zipAnswerSize = zipAnswerSize;
+    }
+
     /**
      * Provides a string representation of the TaskAnswer.
      * The string includes the ID and answer URL.
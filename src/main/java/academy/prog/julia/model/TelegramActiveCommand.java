@@ -0,0 +1,148 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Represents a Telegram command in progress, stored by the JDBC store of the active commands.
+ *
+ * This class maps to the 'telegram_active_command' table, so the table is created and validated
+ * with the other tables of the schema. The rows are read and written by
+ * {@code JdbcActiveCommandStore} with plain SQL: the attributes are the serialized attributes
+ * of the command and 'expires_at' is the expiry time in epoch milliseconds.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(
+        name = "telegram_active_command",
+        indexes = @Index(name = "IDX_telegram_active_command_expires_at", columnList = "expires_at")
+)
+public class TelegramActiveCommand {
+
+    /**
+     * The ID of the Telegram chat running the command.
+     */
+    @Id
+    @Column(name = "chat_id")
+    private Long chatId;
+
+    /**
+     * The name of the command.
+     */
+    @Column(name = "command_name", nullable = false)
+    private String commandName;
+
+    /**
+     * The index of the current state of the command.
+     */
+    @Column(name = "state_index", nullable = false)
+    private int stateIndex;
+
+    /**
+     * The serialized attributes of the command.
+     */
+    @Column(name = "attributes", columnDefinition = "blob")
+    private byte[] attributes;
+
+    /**
+     * The time when the command expires, in epoch milliseconds.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public TelegramActiveCommand() {}
+
+    /**
+     * Gets the ID of the Telegram chat running the command.
+     *
+     * @return The value of chatId
+     */
+    public Long getChatId() {
+        return chatId;
+    }
+
+    /**
+     * Sets the ID of the Telegram chat running the command.
+     *
+     * @param chatId The value to set
+     */
+    public void setChatId(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    /**
+     * Gets the name of the command.
+     *
+     * @return The value of commandName
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Sets the name of the command.
+     *
+     * @param commandName The value to set
+     */
+    public void setCommandName(String commandName) {
+        this.commandName = commandName;
+    }
+
+    /**
+     * Gets the index of the current state of the command.
+     *
+     * @return The value of stateIndex
+     */
+    public int getStateIndex() {
+        return stateIndex;
+    }
+
+    /**
+     * Sets the index of the current state of the command.
+     *
+     * @param stateIndex The value to set
+     */
+    public void setStateIndex(int stateIndex) {
+        this.stateIndex = stateIndex;
+    }
+
+    /**
+     * Gets the serialized attributes of the command.
+     *
+     * @return The value of attributes
+     */
+    public byte[] getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Sets the serialized attributes of the command.
+     *
+     * @param attributes The value to set
+     */
+    public void setAttributes(byte[] attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Gets the time when the command expires, in epoch milliseconds.
+     *
+     * @return The value of expiresAt
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets the time when the command expires, in epoch milliseconds.
+     *
+     * @param expiresAt The value to set
+     */
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+}
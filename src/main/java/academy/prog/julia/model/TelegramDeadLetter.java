@@ -0,0 +1,199 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Represents an outgoing Telegram message that could not be delivered.
+ *
+ * This class maps to the 'telegram_dead_letter' table. A message is stored here when Telegram
+ * rejects it permanently (e.g. the user blocked the bot) or when all delivery attempts failed,
+ * so it is not lost silently and can be inspected or resent later.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(name = "telegram_dead_letter")
+public class TelegramDeadLetter {
+
+    /**
+     * Unique identifier of the record.
+     *
+     * This field is auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the Telegram chat the message was addressed to.
+     */
+    @Column(name = "chat_id", nullable = false)
+    private Long chatId;
+
+    /**
+     * The text of the message.
+     */
+    @Column(name = "text", columnDefinition = "TEXT")
+    private String text;
+
+    /**
+     * The number of delivery attempts made.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * The error code returned by Telegram, if any.
+     */
+    @Column(name = "error_code")
+    private Integer errorCode;
+
+    /**
+     * The description of the last delivery error.
+     */
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    /**
+     * The date when the message was moved to the dead-letter table.
+     */
+    @Column(name = "created_date")
+    private Date createdDate;
+
+    /**
+     * Default constructor required by JPA.
+     *
+     * Initializes a new instance of the TelegramDeadLetter class.
+     */
+    public TelegramDeadLetter() {}
+
+    /**
+     * Gets the unique identifier of the record.
+     *
+     * @return The value of id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the record.
+     *
+     * @param id The value to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the Telegram chat the message was addressed to.
+     *
+     * @return The value of chatId
+     */
+    public Long getChatId() {
+        return chatId;
+    }
+
+    /**
+     * Sets the ID of the Telegram chat the message was addressed to.
+     *
+     * @param chatId The value to set
+     */
+    public void setChatId(Long chatId) {
+        this.chatId = chatId;
+    }
+
+    /**
+     * Gets the text of the message.
+     *
+     * @return The value of text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Sets the text of the message.
+     *
+     * @param text The value to set
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets the number of delivery attempts made.
+     *
+     * @return The value of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of delivery attempts made.
+     *
+     * @param attempts The value to set
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the error code returned by Telegram.
+     *
+     * @return The value of errorCode
+     */
+    public Integer getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Sets the error code returned by Telegram.
+     *
+     * @param errorCode The value to set
+     */
+    public void setErrorCode(Integer errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Gets the description of the last delivery error.
+     *
+     * @return The value of errorMessage
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Sets the description of the last delivery error.
+     *
+     * @param errorMessage The value to set
+     */
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Gets the date when the message was moved to the dead-letter table.
+     *
+     * @return The value of createdDate
+     */
+    public Date getCreatedDate() {
+        return createdDate;
+    }
+
+    /**
+     * Sets the date when the message was moved to the dead-letter table.
+     *
+     * @param createdDate The value to set
+     */
+    public void setCreatedDate(Date createdDate) {
+        this.createdDate = createdDate;
+    }
+
+}
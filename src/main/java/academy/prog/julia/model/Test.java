@@ -3,6 +3,8 @@ package academy.prog.julia.model;
 import academy.prog.julia.utils.EntityUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -17,8 +19,10 @@ import java.util.Set;
  * This class maps to the 'test' table in the database.
  *
  * @Entity marks this class as a JPA entity to be managed by Hibernate.
+ * @Cache stores the tests (not their answers and questions) in the second-level cache, they change only when a course is imported
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Test implements Serializable {
 
     /**
@@ -16,6 +16,10 @@ import java.util.Objects;
  * @Entity marks this class as a JPA entity to be managed by Hibernate.
  */
 @Entity
+@Table(
+        name = "test_answer",
+        indexes = @Index(name = "IDX_test_answer_test_user", columnList = "test_id, user_id")
+)
 public class TestAnswer implements Serializable {
 
     /**
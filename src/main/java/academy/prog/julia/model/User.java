@@ -40,10 +40,24 @@ import java.util.*;
  *   Defines the column used for distinguishing between different subclasses in the table.
  * - @DiscriminatorValue("0"): Specifies the discriminator value for this base class, which is used
  *   to identify records of this type(it`s ROLE STUDENT)
+ * - @NamedEntityGraphs: Fetch plans loading the lazy collections a use case needs together with the user.
  *
  */
 @Entity
-@Table(name = "clients")
+@Table(
+        name = "clients",
+        indexes = {
+                @Index(name = "IDX_clients_telegram_chatid", columnList = "telegram_chatid"),
+                @Index(name = "IDX_clients_banned_active", columnList = "is_banned, is_active")
+        }
+)
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = User.GRAPH_GROUPS, attributeNodes = @NamedAttributeNode("groups")),
+        @NamedEntityGraph(name = User.GRAPH_CONTACTS, attributeNodes = {
+                @NamedAttributeNode("phones"),
+                @NamedAttributeNode("emails")
+        })
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "role", discriminatorType = DiscriminatorType.INTEGER)
 @DiscriminatorValue("0")
@@ -60,6 +74,16 @@ public class User implements UserDetails, Serializable {
      */
     public static final int DISCRIMINATOR_VALUE = 0;
 
+    /**
+     * Fetch plan loading the groups of the user (notifications, student lists).
+     */
+    public static final String GRAPH_GROUPS = "User.groups";
+
+    /**
+     * Fetch plan loading the additional phones and emails of the user (admin lists).
+     */
+    public static final String GRAPH_CONTACTS = "User.contacts";
+
     private static final Logger LOGGER = LogManager.getLogger(User.class);
 
     /**
@@ -180,18 +204,18 @@ public class User implements UserDetails, Serializable {
 
     /**
      * A set of phone numbers associated with the user.
-     * This collection is eagerly fetched and its elements are unique.
+     * This collection is lazily fetched and its elements are unique.
      */
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "client_phones", joinColumns = @JoinColumn(name = "client_id"))
     @Column(name = "phone", unique = true)
     private Set<String> phones = new HashSet<>();
 
     /**
      * A set of email addresses associated with the user.
-     * This collection is eagerly fetched and its elements are unique.
+     * This collection is lazily fetched and its elements are unique.
      */
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "client_emails", joinColumns = @JoinColumn(name = "client_id"))
     @Column(name = "email", unique = true)
     private Set<String> emails = new HashSet<>();
@@ -199,13 +223,14 @@ public class User implements UserDetails, Serializable {
     /**
      * A many-to-many relationship with groups.
      * This collection represents the groups the user is associated with.
-     * The collection is eagerly fetched and ignored during JSON serialization.
+     * The collection is lazily fetched and ignored during JSON serialization.
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "client_course",
             joinColumns = @JoinColumn(name = "client_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id"))
+            inverseJoinColumns = @JoinColumn(name = "course_id"),
+            indexes = @Index(name = "IDX_client_course_course_client", columnList = "course_id, client_id"))
     @JsonIgnore
     private Set<Group> groups = new HashSet<>();
 
@@ -227,9 +252,9 @@ public class User implements UserDetails, Serializable {
     /**
      * A many-to-many relationship with tasks.
      * This collection represents the tasks assigned to the user.
-     * The collection is eagerly fetched and ignored during JSON serialization.
+     * The collection is lazily fetched and ignored during JSON serialization.
      */
-    @ManyToMany(fetch = FetchType.EAGER, mappedBy = "students")
+    @ManyToMany(fetch = FetchType.LAZY, mappedBy = "students")
     @JsonIgnore
     private Set<Task> tasks;
 
@@ -262,6 +287,7 @@ public class User implements UserDetails, Serializable {
     /**
      * Indicates whether the user is active.
      */
+    @Column(name = "is_active")
     private Boolean isActive;
 
     /**
@@ -810,6 +836,7 @@ public class User implements UserDetails, Serializable {
 
     /**
      * Checks if this user is equal to another object.
+     * Only the user's own columns are compared, so putting users into sets never loads their lazy collections.
      *
      * @param o The object to compare to.
      * @return True if the objects are equal; otherwise, false.
@@ -827,9 +854,7 @@ public class User implements UserDetails, Serializable {
                 Objects.equals(telegramChatId, user.telegramChatId) &&
                 Objects.equals(phone, user.phone) &&
                 Objects.equals(email, user.email) &&
-                Objects.equals(uniqueId, user.uniqueId) &&
-                Objects.equals(phones, user.phones) &&
-                Objects.equals(emails, user.emails)
+                Objects.equals(uniqueId, user.uniqueId)
         ;
     }
 
@@ -848,9 +873,7 @@ public class User implements UserDetails, Serializable {
                 telegramChatId,
                 phone,
                 email,
-                uniqueId,
-                phones,
-                emails
+                uniqueId
         );
     }
 
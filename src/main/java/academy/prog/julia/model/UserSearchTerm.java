@@ -0,0 +1,171 @@
+package academy.prog.julia.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Represents one search term of a user.
+ *
+ * This class maps to the 'client_search_terms' table. Every suffix of the normalized phones and emails
+ * of a user is stored as a term, so a substring search becomes a prefix search on the term index
+ * instead of a {@code LIKE '%x%'} scan of 'clients', 'client_phones' and 'client_emails'.
+ *
+ * @Entity marks this class as a JPA entity to be managed by Hibernate
+ */
+@Entity
+@Table(
+        name = "client_search_terms",
+        indexes = {
+                @Index(name = "IDX_client_search_terms_lookup", columnList = "search_field, term, client_id"),
+                @Index(name = "IDX_client_search_terms_client", columnList = "client_id")
+        }
+)
+public class UserSearchTerm {
+
+    /**
+     * The maximum length of a term.
+     */
+    public static final int MAX_TERM_LENGTH = 255;
+
+    /**
+     * The field of the user a term is built from.
+     */
+    public enum SearchField {
+        /**
+         * The digits of a phone of the user.
+         */
+        PHONE,
+
+        /**
+         * An email of the user, in lower case.
+         */
+        EMAIL,
+
+        /**
+         * Marks a user as indexed, with an empty term. Stored for every indexed user,
+         * so a user without any phone or email is not indexed again by every background run.
+         */
+        INDEXED
+    }
+
+    /**
+     * Unique identifier of the record.
+     *
+     * This field is auto-generated by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The ID of the user the term belongs to.
+     */
+    @Column(name = "client_id", nullable = false)
+    private Long userId;
+
+    /**
+     * The field of the user the term is built from.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "search_field", nullable = false, length = 16)
+    private SearchField searchField;
+
+    /**
+     * The term, a suffix of the normalized field value.
+     */
+    @Column(name = "term", nullable = false, length = MAX_TERM_LENGTH)
+    private String term;
+
+    /**
+     * Default constructor required by JPA.
+     *
+     * Initializes a new instance of the UserSearchTerm class.
+     */
+    public UserSearchTerm() {}
+
+    /**
+     * Creates a search term of a user.
+     *
+     * @param userId      the ID of the user
+     * @param searchField the field the term is built from
+     * @param term        the term
+     */
+    public UserSearchTerm(Long userId, SearchField searchField, String term) {
+        this.userId = userId;
+        this.searchField = searchField;
+        this.term = term;
+    }
+
+    /**
+     * Gets the unique identifier of the record.
+     *
+     * @return The value of id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the record.
+     *
+     * @param id The value to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the user the term belongs to.
+     *
+     * @return The value of userId
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user the term belongs to.
+     *
+     * @param userId The value to set
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the field of the user the term is built from.
+     *
+     * @return The value of searchField
+     */
+    public SearchField getSearchField() {
+        return searchField;
+    }
+
+    /**
+     * Sets the field of the user the term is built from.
+     *
+     * @param searchField The value to set
+     */
+    public void setSearchField(SearchField searchField) {
+        this.searchField = searchField;
+    }
+
+    /**
+     * Gets the term.
+     *
+     * @return The value of term
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * Sets the term.
+     *
+     * @param term The value to set
+     */
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+}
@@ -2,6 +2,7 @@ package academy.prog.julia.repos;
 
 import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -48,4 +49,23 @@ public interface CertificateRepository extends JpaRepository<Certificate, Long>
 
     List<Certificate> findByUserId(Long userId);
 
-}
\ No newline at end of file
+    /**
+     * Finds the IDs of the certificates of a user. Certificates are never changed once issued,
+     * so the IDs are enough to tell whether the certificate list of the user changed.
+     *
+     * @param userId the unique ID of the user
+     * @return the IDs of the certificates of the user, in ascending order
+     */
+    @Query("SELECT c.id FROM Certificate c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Finds the IDs of the certificates whose files are still stored in the database.
+     *
+     * @param pageable a {@code Pageable} object to limit the batch size
+     * @return the IDs of the certificates to move to the blob store
+     */
+    @Query("SELECT c.id FROM Certificate c WHERE c.fileHash IS NULL AND c.file IS NOT NULL ORDER BY c.id")
+    List<Long> findIdsWithFileInDatabase(Pageable pageable);
+
+}
@@ -1,9 +1,17 @@
 package academy.prog.julia.repos;
 
 import academy.prog.julia.model.CertificateTask;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CertificateTaskRepository extends JpaRepository<CertificateTask, Long> {
@@ -14,6 +22,48 @@ public interface CertificateTaskRepository extends JpaRepository<CertificateTask
      */
     @Query("SELECT c FROM CertificateTask c WHERE c.isGenerated = false AND c.userId IS NOT NULL")
     List<CertificateTask> findCertificateTasksToGenerate();
+    /**
+     * Locks certificate tasks that are ready for generation, skipping the rows locked by other transactions.
+     * <p>
+     * A task is ready if it is not generated, its retry delay has passed and it is not leased by a worker.
+     * The lock timeout hint {@code -2} makes Hibernate append {@code FOR UPDATE SKIP LOCKED},
+     * so several application instances can claim tasks at the same time without waiting for each other.
+     *
+     * @param now      the current time
+     * @param pageable the maximum number of tasks to claim
+     * @return a list of locked certificate tasks
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+    SELECT c FROM CertificateTask c
+    WHERE c.isGenerated = false AND c.userId IS NOT NULL
+    AND (c.nextAttemptAt IS NULL OR c.nextAttemptAt <= :now)
+    AND (c.lockedUntil IS NULL OR c.lockedUntil < :now)
+    ORDER BY c.id
+""")
+    List<CertificateTask> findCertificateTasksToClaim(@Param("now") LocalDateTime now, Pageable pageable);
+    /**
+     * Extends the lease of a claimed task if it is still leased by the given instance.
+     * <p>
+     * A task whose lease expired keeps its owner until another instance claims it,
+     * so the lease can be renewed as long as no other instance took the task over.
+     *
+     * @param id          the ID of the certificate task
+     * @param owner       the identifier of the instance
+     * @param lockedUntil the new end of the lease
+     * @return 1 if the lease was renewed, 0 if the task is generated or leased by another instance
+     */
+    @Modifying
+    @Query("""
+    UPDATE CertificateTask c SET c.lockedUntil = :lockedUntil
+    WHERE c.id = :id AND c.lockedBy = :owner AND c.isGenerated = false
+""")
+    int renewLease(
+            @Param("id") Long id,
+            @Param("owner") String owner,
+            @Param("lockedUntil") LocalDateTime lockedUntil
+    );
     /**
      * Finds certificate tasks that have been generated but not yet sent.
      *
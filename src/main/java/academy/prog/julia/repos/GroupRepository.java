@@ -48,6 +48,25 @@ public interface GroupRepository extends JpaRepository<Group, Long> { //інте
      */
     @Query("SELECT g FROM Group g JOIN g.lessons l WHERE l.id = :lessonId")
     List<Group> findAllByLessonId(@Param("lessonId") Long lessonId);
+    /**
+     * Checks whether a user (client) is a member of a group, without loading the members of the group.
+     *
+     * @param groupId the ID of the group
+     * @param userId  the ID of the user
+     * @return true if the user is a member of the group
+     */
+    @Query("SELECT COUNT(g) > 0 FROM Group g JOIN g.clients c WHERE g.id = :groupId AND c.id = :userId")
+    boolean isClientOfGroup(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    /**
+     * Checks whether a user (client) is a member of any group containing a lesson,
+     * without loading the groups or their members.
+     *
+     * @param lessonId the ID of the lesson
+     * @param userId   the ID of the user
+     * @return true if the user is a member of a group of the lesson
+     */
+    @Query("SELECT COUNT(g) > 0 FROM Group g JOIN g.lessons l JOIN g.clients c WHERE l.id = :lessonId AND c.id = :userId")
+    boolean isClientOfLessonGroup(@Param("lessonId") Long lessonId, @Param("userId") Long userId);
     /**
      * Finds all groups that a specific user (client) belongs to.
      * <p>
@@ -0,0 +1,49 @@
+package academy.prog.julia.repos;
+
+import academy.prog.julia.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for managing {@code JobLease} entities.
+ * <p>
+ * This interface provides the leases that keep a background job on one application instance at a time.
+ */
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    /**
+     * Leases a job to an instance if it is free, expired or already held by the same instance.
+     * The conditional update is atomic, so only one of several instances gets the lease.
+     *
+     * @param name        the name of the job
+     * @param owner       the identifier of the instance
+     * @param now         the current time
+     * @param lockedUntil the end of the lease
+     * @return 1 if the instance holds the lease, 0 if another instance holds it
+     */
+    @Modifying
+    @Query("""
+    UPDATE JobLease j SET j.lockedUntil = :lockedUntil, j.lockedBy = :owner
+    WHERE j.name = :name
+    AND (j.lockedUntil IS NULL OR j.lockedUntil < :now OR j.lockedBy = :owner)
+""")
+    int acquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("lockedUntil") LocalDateTime lockedUntil
+    );
+
+    /**
+     * Releases the lease of a job if it is held by the instance.
+     *
+     * @param name  the name of the job
+     * @param owner the identifier of the instance
+     */
+    @Modifying
+    @Query("UPDATE JobLease j SET j.lockedUntil = NULL, j.lockedBy = NULL WHERE j.name = :name AND j.lockedBy = :owner")
+    void release(@Param("name") String name, @Param("owner") String owner);
+}
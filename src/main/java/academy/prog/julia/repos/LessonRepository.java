@@ -1,7 +1,9 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.dto.LessonProgressStatsDTO;
 import academy.prog.julia.model.Lesson;
 import academy.prog.julia.model.Test;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,8 +28,52 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
      * returns a list of distinct lessons for a given group.
      *
      * @param groupId the ID of the group to find lessons for
-     * @return a list of distinct lessons associated with the specified group
+     * @return a list of distinct lessons associated with the specified group, with their tasks loaded
      */
+    @EntityGraph(Lesson.GRAPH_TASKS)
     @Query("SELECT DISTINCT l FROM Lesson l JOIN l.groups g WHERE g.id = :groupId")
     List<Lesson> findCourseLessons(@Param("groupId") Long groupId);
+
+    /**
+     * Counts the tasks of every lesson associated with a specific group.
+     * <p>
+     * The answer counters of the returned objects are always zero; they only carry the number of tasks
+     * and are merged with the precomputed student progress.
+     *
+     * @param groupId the ID of the group (course)
+     * @return a list with the number of tasks of each lesson of the group
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.LessonProgressStatsDTO(l.id, COUNT(t.id), 0L, 0L, 0L, 0L)
+    FROM Lesson l
+    JOIN l.groups g
+    LEFT JOIN l.tasks t
+    WHERE g.id = :groupId
+    GROUP BY l.id
+""")
+    List<LessonProgressStatsDTO> findCourseLessonsTaskCounts(@Param("groupId") Long groupId);
+
+    /**
+     * Counts the tasks of a specific lesson.
+     *
+     * @param lessonId the ID of the lesson
+     * @return a list with the number of tasks of the lesson, or an empty list if the lesson does not exist
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.LessonProgressStatsDTO(l.id, COUNT(t.id), 0L, 0L, 0L, 0L)
+    FROM Lesson l
+    LEFT JOIN l.tasks t
+    WHERE l.id = :lessonId
+    GROUP BY l.id
+""")
+    List<LessonProgressStatsDTO> findLessonTaskCount(@Param("lessonId") Long lessonId);
+
+    /**
+     * Finds the IDs of all groups (courses) a lesson belongs to.
+     *
+     * @param lessonId the ID of the lesson
+     * @return a list of group IDs
+     */
+    @Query("SELECT g.id FROM Lesson l JOIN l.groups g WHERE l.id = :lessonId")
+    List<Long> findGroupIdsByLessonId(@Param("lessonId") Long lessonId);
 }
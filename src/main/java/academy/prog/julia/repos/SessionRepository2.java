@@ -1,55 +1,87 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.components.NearCacheSessionRepository;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 /**
  * Repository class for managing session-related data using {@code JdbcTemplate}.
  * <p>
  * This class provides methods to query session information such as retrieving the session ID by principal name
  * or retrieving the principal name by session ID.
+ * <p>
+ * Lookups are answered from the session cache when it holds the answer, and otherwise
+ * from the indexes of {@code SPRING_SESSION} on {@code SESSION_ID} and {@code PRINCIPAL_NAME}.
  */
 @Repository
 public class SessionRepository2 {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NearCacheSessionRepository sessionCache;
     /**
      * Constructor for {@code SessionRepository2}.
      *
      * @param jdbcTemplate the {@code JdbcTemplate} used for interacting with the database
+     * @param sessionCache the cache of the HTTP sessions
      */
-    public SessionRepository2(JdbcTemplate jdbcTemplate) {
+    public SessionRepository2(
+            JdbcTemplate jdbcTemplate,
+            NearCacheSessionRepository sessionCache
+    ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.sessionCache = sessionCache;
     }
     /**
      * Retrieves the most recent session ID for a given principal name.
      * <p>
-     * This method queries the {@code SPRING_SESSION} table and fetches the session ID associated
-     * with the specified principal name, ordered by creation time in descending order, and returns
-     * the most recent session ID.
+     * The session is taken from the session cache if this instance saw a session of the principal recently.
+     * Otherwise the sessions of the principal are found with the {@code PRINCIPAL_NAME} index of
+     * the {@code SPRING_SESSION} table and the most recently created one is returned and cached.
      *
      * @param principalName the name of the principal (user) whose session ID is being retrieved
      * @return the session ID of the most recent session for the given principal name, or {@code null} if no session is found
      */
     public String getSessionIdByPrincipalName(String principalName) {
-        String sql = "SELECT SESSION_ID FROM SPRING_SESSION WHERE PRINCIPAL_NAME = ? ORDER BY CREATION_TIME DESC LIMIT 1";
-        List<String> sessionIdList = jdbcTemplate.queryForList(sql, String.class, principalName);
-        return sessionIdList.isEmpty() ? null : sessionIdList.get(0);
+        String cachedSessionId = sessionCache.findCachedSessionIdByPrincipalName(principalName);
+
+        if (cachedSessionId != null) {
+            return cachedSessionId;
+        }
+
+        String sql = "SELECT SESSION_ID, CREATION_TIME FROM SPRING_SESSION WHERE PRINCIPAL_NAME = ? " +
+                "ORDER BY CREATION_TIME DESC LIMIT 1";
+        List<Map<String, Object>> sessions = jdbcTemplate.queryForList(sql, principalName);
+
+        if (sessions.isEmpty()) {
+            return null;
+        }
+
+        String sessionId = (String) sessions.get(0).get("SESSION_ID");
+        long creationTime = ((Number) sessions.get(0).get("CREATION_TIME")).longValue();
+        sessionCache.cachePrincipalSession(principalName, sessionId, creationTime);
+
+        return sessionId;
     }
     /**
      * Retrieves the principal name associated with a given session ID.
      * <p>
-     * This method queries the {@code SPRING_SESSION} table and fetches the principal name
-     * associated with the specified session ID, ordered by creation time in descending order, and
-     * returns the principal name.
+     * The principal name is taken from the session cache if the session is cached, otherwise it is read
+     * from the {@code SPRING_SESSION} table by its unique {@code SESSION_ID} index.
      *
      * @param sessionId the session ID whose associated principal name is being retrieved
      * @return the principal name associated with the given session ID, or {@code null} if no principal is found
      */
     public String getPrincipalNameBySessionId(String sessionId) {
-        String sql = "SELECT PRINCIPAL_NAME FROM SPRING_SESSION WHERE SESSION_ID = ? ORDER BY CREATION_TIME DESC LIMIT 1";
+        String cachedPrincipalName = sessionCache.findCachedPrincipalName(sessionId);
+
+        if (cachedPrincipalName != null) {
+            return cachedPrincipalName;
+        }
+
+        String sql = "SELECT PRINCIPAL_NAME FROM SPRING_SESSION WHERE SESSION_ID = ?";
         List<String> principalNameList = jdbcTemplate.queryForList(sql, String.class, sessionId);
         return principalNameList.isEmpty() ? null : principalNameList.get(0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package academy.prog.julia.repos;
+
+import academy.prog.julia.model.StudentCourseProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@code StudentCourseProgress} entities.
+ * <p>
+ * This interface provides access to the precomputed per-course progress counters of students.
+ */
+public interface StudentCourseProgressRepository extends JpaRepository<StudentCourseProgress, Long> {
+    /**
+     * Finds the progress counters of a student for a specific course.
+     *
+     * @param userId   the ID of the student
+     * @param courseId the ID of the course (group)
+     * @return an {@code Optional} containing the counters, or empty if the student has not answered any task of the course
+     */
+    Optional<StudentCourseProgress> findByUserIdAndCourseId(Long userId, Long courseId);
+
+    /**
+     * Finds and locks the progress counters of a student for a specific course until the end of the transaction,
+     * so concurrent refreshes of the same counters are applied one after another.
+     *
+     * @param userId   the ID of the student
+     * @param courseId the ID of the course (group)
+     * @return an {@code Optional} containing the locked counters, or empty if they don't exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<StudentCourseProgress> findWithLockByUserIdAndCourseId(Long userId, Long courseId);
+
+    /**
+     * Finds the students having progress counters for a course.
+     *
+     * @param courseId the ID of the course (group)
+     * @return the IDs of the students
+     */
+    @Query("SELECT p.userId FROM StudentCourseProgress p WHERE p.courseId = :courseId")
+    List<Long> findUserIdsByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,74 @@
+package academy.prog.julia.repos;
+
+import academy.prog.julia.model.StudentLessonProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@code StudentLessonProgress} entities.
+ * <p>
+ * This interface provides access to the precomputed per-lesson progress counters of students.
+ */
+public interface StudentLessonProgressRepository extends JpaRepository<StudentLessonProgress, Long> {
+    /**
+     * Finds the progress counters of a student for a specific lesson.
+     *
+     * @param userId   the ID of the student
+     * @param lessonId the ID of the lesson
+     * @return an {@code Optional} containing the counters, or empty if the student has not answered any task of the lesson
+     */
+    Optional<StudentLessonProgress> findByUserIdAndLessonId(Long userId, Long lessonId);
+
+    /**
+     * Finds and locks the progress counters of a student for a specific lesson until the end of the transaction,
+     * so concurrent refreshes of the same counters are applied one after another.
+     *
+     * @param userId   the ID of the student
+     * @param lessonId the ID of the lesson
+     * @return an {@code Optional} containing the locked counters, or empty if they don't exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<StudentLessonProgress> findWithLockByUserIdAndLessonId(Long userId, Long lessonId);
+
+    /**
+     * Finds the progress counters of a student for every lesson of a course.
+     *
+     * @param userId   the ID of the student
+     * @param courseId the ID of the course (group)
+     * @return a list of counters of the lessons of the course the student has answered
+     */
+    @Query("""
+    SELECT p FROM StudentLessonProgress p
+    WHERE p.userId = :userId
+    AND p.lessonId IN (SELECT l.id FROM Lesson l JOIN l.groups g WHERE g.id = :courseId)
+""")
+    List<StudentLessonProgress> findCourseLessonsProgress(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    /**
+     * Finds the students having progress counters for any lesson of a course.
+     *
+     * @param courseId the ID of the course (group)
+     * @return the IDs of the students
+     */
+    @Query("""
+    SELECT DISTINCT p.userId FROM StudentLessonProgress p
+    WHERE p.lessonId IN (SELECT l.id FROM Lesson l JOIN l.groups g WHERE g.id = :courseId)
+""")
+    List<Long> findUserIdsByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Deletes the progress counters of every student for a lesson.
+     *
+     * @param lessonId the ID of the lesson
+     */
+    @Modifying
+    @Query("DELETE FROM StudentLessonProgress p WHERE p.lessonId = :lessonId")
+    void deleteByLessonId(@Param("lessonId") Long lessonId);
+}
@@ -1,16 +1,28 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.dto.LessonProgressStatsDTO;
+import academy.prog.julia.dto.TaskAnswerArchiveDTO;
+import academy.prog.julia.dto.TaskSubmissionRowDTO;
 import academy.prog.julia.model.TaskAnswer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 
 public interface TaskAnswerRepository extends JpaRepository<TaskAnswer, Long> {
+    /**
+     * Fetch plan of the pending answers listed on the teacher dashboard: the single-valued associations
+     * of an answer, which would otherwise be loaded with one more query per page.
+     */
+    String[] PENDING_ANSWERS_GRAPH = {"task", "task.lesson", "user"};
+
     /**
      * Finds a task answer by task ID and user ID.
      *
@@ -42,11 +54,13 @@ public interface TaskAnswerRepository extends JpaRepository<TaskAnswer, Long> {
      * Finds pending task answers that were submitted before the task deadline and are not yet passed.
      * <p>
      * This method retrieves task answers where the submission date is less than or equal to the task's
-     * deadline, and the task answer has not yet passed.
+     * deadline, and the task answer has not yet passed. The tasks, their lessons and the students are
+     * fetched in the same query, which is possible with paging as they are single-valued.
      *
      * @param pageable a {@code Pageable} object to support pagination
      * @return a page of pending task answers that have not passed and were submitted before the deadline
      */
+    @EntityGraph(PENDING_ANSWERS_GRAPH)
     @Query("SELECT ta FROM TaskAnswer ta JOIN ta.task t WHERE ta.submittedDate <= t.deadline AND ta.isPassed = false")
     Page<TaskAnswer> findPendingTask(Pageable pageable);
     /**
@@ -59,6 +73,167 @@ public interface TaskAnswerRepository extends JpaRepository<TaskAnswer, Long> {
      * @param groupName the name of the group
      * @return a page of pending task answers for the specified group that have not passed and were submitted before the deadline
      */
+    @EntityGraph(PENDING_ANSWERS_GRAPH)
     @Query("SELECT ta FROM TaskAnswer ta JOIN ta.task t JOIN ta.user u JOIN u.groups g WHERE ta.submittedDate <= t.deadline AND ta.isPassed = false AND g.name = :groupName")
     Page<TaskAnswer> findPendingTaskByGroup(Pageable pageable, @Param("groupName") String groupName);
+    /**
+     * Finds the next pending task answers after the given ID (keyset pagination).
+     * <p>
+     * Same filter as {@link #findPendingTask(Pageable)}, without the count query and the offset scan.
+     *
+     * @param afterId  the last ID of the previous page, 0 for the first page
+     * @param pageable a {@code Pageable} object to limit the page size
+     * @return the pending task answers, in ascending order of ID
+     */
+    @EntityGraph(PENDING_ANSWERS_GRAPH)
+    @Query("SELECT ta FROM TaskAnswer ta JOIN ta.task t WHERE ta.submittedDate <= t.deadline AND ta.isPassed = false AND ta.id > :afterId ORDER BY ta.id")
+    List<TaskAnswer> findPendingTaskAfter(@Param("afterId") Long afterId, Pageable pageable);
+    /**
+     * Finds the next pending task answers of a group after the given ID (keyset pagination).
+     * <p>
+     * Same filter as {@link #findPendingTaskByGroup(Pageable, String)}, without the count query and the offset scan.
+     *
+     * @param groupName the name of the group
+     * @param afterId   the last ID of the previous page, 0 for the first page
+     * @param pageable  a {@code Pageable} object to limit the page size
+     * @return the pending task answers for the specified group, in ascending order of ID
+     */
+    @EntityGraph(PENDING_ANSWERS_GRAPH)
+    @Query("SELECT ta FROM TaskAnswer ta JOIN ta.task t JOIN ta.user u JOIN u.groups g WHERE ta.submittedDate <= t.deadline AND ta.isPassed = false AND g.name = :groupName AND ta.id > :afterId ORDER BY ta.id")
+    List<TaskAnswer> findPendingTaskByGroupAfter(
+            @Param("groupName") String groupName,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Aggregates the task answer counters of a user for a single lesson.
+     *
+     * @param userId   the ID of the user (student)
+     * @param lessonId the ID of the lesson
+     * @return the counters of the lesson, or an empty list if the lesson does not exist
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.LessonProgressStatsDTO(
+        l.id,
+        COUNT(t.id),
+        COUNT(ta.id),
+        SUM(CASE WHEN ta.isPassed = true THEN 1 ELSE 0 END),
+        SUM(CASE WHEN ta.isPassed = true THEN 0 WHEN ta.isCorrection = true THEN 1 ELSE 0 END),
+        SUM(CASE WHEN ta.isPassed = false AND ta.isCorrection = false THEN 1 ELSE 0 END)
+    )
+    FROM Lesson l
+    LEFT JOIN l.tasks t
+    LEFT JOIN TaskAnswer ta ON ta.task = t AND ta.user.id = :userId
+    WHERE l.id = :lessonId
+    GROUP BY l.id
+""")
+    List<LessonProgressStatsDTO> findLessonProgressStats(@Param("userId") Long userId, @Param("lessonId") Long lessonId);
+
+    /**
+     * Finds the distinct (user ID, lesson ID) pairs that have at least one task answer.
+     * <p>
+     * Used to rebuild the precomputed student progress; each element is an array of {@code [userId, lessonId]}.
+     *
+     * @param pageable a {@code Pageable} object to support batching
+     * @return a slice of (user ID, lesson ID) pairs
+     */
+    @Query("""
+    SELECT DISTINCT ta.user.id, t.lesson.id FROM TaskAnswer ta JOIN ta.task t
+    WHERE ta.user IS NOT NULL AND t.lesson IS NOT NULL
+    ORDER BY ta.user.id, t.lesson.id
+""")
+    Slice<Object[]> findAnsweredUserLessonPairs(Pageable pageable);
+
+    /**
+     * Finds the IDs of the task answers whose ZIP files are still stored in the database.
+     *
+     * @param pageable a {@code Pageable} object to limit the batch size
+     * @return the IDs of the task answers to move to the blob store
+     */
+    @Query("SELECT ta.id FROM TaskAnswer ta WHERE ta.zipAnswerHash IS NULL AND ta.zipAnswerFile IS NOT NULL ORDER BY ta.id")
+    List<Long> findIdsWithZipAnswerFileInDatabase(Pageable pageable);
+
+    /**
+     * Finds the next passed task answers with a GitHub repository URL but no ZIP archive (keyset pagination).
+     * <p>
+     * Used to download again the archives lost from the download queue; each element is an array of
+     * {@code [taskAnswerId, answerUrl]}.
+     *
+     * @param afterId  the last ID of the previous batch, 0 for the first batch
+     * @param pageable a {@code Pageable} object to limit the batch size
+     * @return the IDs and answer URLs of the task answers, in ascending order of ID
+     */
+    @Query("""
+    SELECT ta.id, ta.answerUrl FROM TaskAnswer ta
+    WHERE ta.isPassed = true
+      AND ta.zipAnswerHash IS NULL
+      AND ta.zipAnswerFile IS NULL
+      AND ta.answerUrl LIKE 'https://github.com/%'
+      AND ta.id > :afterId
+    ORDER BY ta.id
+""")
+    List<Object[]> findPassedWithoutZipAnswerAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the answers of the given tasks with their tasks and students, without loading any entity.
+     * <p>
+     * A student in several groups is returned once per group.
+     *
+     * @param taskIds the IDs of the tasks
+     * @return the submission rows of the tasks, ordered by answer ID
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.TaskSubmissionRowDTO(
+        t.id, t.name, t.descriptionUrl,
+        ta.id, ta.answerUrl, ta.courseId, ta.lessonId, ta.lessonNum, ta.course,
+        ta.isPassed, ta.isCorrection, ta.messageForCorrection, ta.isRead, ta.submittedDate,
+        u.id, u.name, u.surname, u.phone, u.email, u.telegramChatId, g.name)
+    FROM TaskAnswer ta
+    JOIN ta.task t
+    JOIN ta.user u
+    LEFT JOIN u.groups g
+    WHERE t.id IN :taskIds
+    ORDER BY ta.id
+    """)
+    List<TaskSubmissionRowDTO> findSubmissionRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Finds the next batch of task answers of a task having a ZIP file, ordered by ID.
+     * <p>
+     * Used as a keyset cursor: each call continues after the last ID of the previous batch,
+     * so the rows are read in short queries and no connection is held between batches.
+     *
+     * @param taskId    the ID of the task
+     * @param groupName the name of the group of the students, or null for all groups
+     * @param afterId   the last ID of the previous batch, 0 for the first batch
+     * @param pageable  a {@code Pageable} object to limit the batch size
+     * @return the task answers with ZIP files, without the file contents
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.TaskAnswerArchiveDTO(ta.id, u.name, u.surname, u.email, ta.zipAnswerHash)
+    FROM TaskAnswer ta
+    JOIN ta.user u
+    WHERE ta.task.id = :taskId
+      AND ta.id > :afterId
+      AND (ta.zipAnswerHash IS NOT NULL OR ta.zipAnswerFile IS NOT NULL)
+      AND (:groupName IS NULL OR u.id IN (SELECT gu.id FROM User gu JOIN gu.groups g WHERE g.name = :groupName))
+    ORDER BY ta.id
+    """)
+    List<TaskAnswerArchiveDTO> findArchivesByTaskId(
+            @Param("taskId") Long taskId,
+            @Param("groupName") String groupName,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Finds the ZIP file of a task answer still stored in the database, without loading the entity.
+     *
+     * @param taskAnswerId the ID of the task answer
+     * @return the ZIP file, or null if it isn't stored in the database
+     */
+    @Query("SELECT ta.zipAnswerFile FROM TaskAnswer ta WHERE ta.id = :taskAnswerId")
+    byte[] findZipAnswerFileById(@Param("taskAnswerId") Long taskAnswerId);
+
 }
@@ -1,5 +1,7 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.dto.GroupNameDTO;
+import academy.prog.julia.dto.TaskDeadlineNotificationDTO;
 import academy.prog.julia.model.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -24,18 +27,44 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id AND t.deadline = :deadLine")
     List<Task> findAllActiveTaskByUserIdWithDeadLine(@Param("id") Long userId, @Param("deadLine") LocalDate deadLine);
     /**
-     * Finds all tasks associated with a teacher (user) by their ID.
+     * Finds the IDs of the tasks of the groups of a teacher (user), ordered by ID.
      * <p>
-     * This method joins the {@code Task}, {@code Lesson}, {@code Group}, and {@code User} entities
-     * to retrieve tasks associated with the teacher (user), filtering by user ID.
-     * The result is paginated.
+     * Only the IDs are paged, so the submission page doesn't load any task entity;
+     * the answers and groups of the page are then read with projection queries.
      *
      * @param userId   the ID of the teacher (user)
      * @param pageable a {@code Pageable} object to support pagination
-     * @return a page of tasks associated with the specified teacher
+     * @return a page of the IDs of the tasks associated with the specified teacher
+     */
+    @Query(
+            value = "SELECT DISTINCT t.id FROM Task t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id ORDER BY t.id",
+            countQuery = "SELECT COUNT(DISTINCT t.id) FROM Task t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id"
+    )
+    Page<Long> findTaskIdsByTeacherId(@Param("id") Long userId, Pageable pageable);
+
+    /**
+     * Finds the IDs of the next tasks of the groups of a teacher (user) after the given ID (keyset pagination).
+     *
+     * @param userId   the ID of the teacher (user)
+     * @param afterId  the last ID of the previous page, 0 for the first page
+     * @param pageable a {@code Pageable} object to limit the page size
+     * @return the IDs of the tasks associated with the specified teacher, in ascending order
+     */
+    @Query("SELECT DISTINCT t.id FROM Task t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id AND t.id > :afterId ORDER BY t.id")
+    List<Long> findTaskIdsByTeacherIdAfter(
+            @Param("id") Long userId,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Finds the names of the groups of the lessons of the given tasks.
+     *
+     * @param taskIds the IDs of the tasks
+     * @return one row per task and group
      */
-    @Query("SELECT t FROM Task t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id")
-    Page<Task> findTaskByTeacherId(@Param("id") Long userId, Pageable pageable);
+    @Query("SELECT new academy.prog.julia.dto.GroupNameDTO(t.id, g.name) FROM Task t JOIN t.lesson l JOIN l.groups g WHERE t.id IN :taskIds")
+    List<GroupNameDTO> findGroupNamesByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 
 
     @Query("""
@@ -47,5 +76,30 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 """)
     List<Task> findExpiredTasks(@Param("now") LocalDate now, @Param("userId") Long userId);
 
+    /**
+     * Finds every (user, task, group) tuple that needs a deadline notification in a single query.
+     * <p>
+     * The result contains active, non-banned users with a Telegram chat ID, and the tasks of their groups
+     * whose deadline is within the given window and which the user either has not answered yet
+     * or has to correct. Rows are ordered by user and task so they can be grouped into messages in one pass.
+     *
+     * @param from the first deadline date of the window (inclusive)
+     * @param to   the last deadline date of the window (inclusive)
+     * @return a list of notification tuples
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.TaskDeadlineNotificationDTO(u.id, u.telegramChatId, t.id, t.name, l.name, g.name)
+    FROM Task t
+    JOIN t.lesson l
+    JOIN l.groups g
+    JOIN g.clients u
+    LEFT JOIN TaskAnswer ta ON ta.task = t AND ta.user = u
+    WHERE t.deadline BETWEEN :from AND :to
+    AND u.isBanned = false AND u.isActive = true
+    AND u.telegramChatId IS NOT NULL
+    AND (ta.id IS NULL OR (ta.isPassed = false AND ta.isCorrection = true))
+    ORDER BY u.id, t.deadline, t.id, g.name
+""")
+    List<TaskDeadlineNotificationDTO> findTaskDeadlineNotifications(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
 }
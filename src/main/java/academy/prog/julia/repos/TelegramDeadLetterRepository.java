@@ -0,0 +1,12 @@
+package academy.prog.julia.repos;
+
+import academy.prog.julia.model.TelegramDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for managing {@code TelegramDeadLetter} entities.
+ * <p>
+ * This interface provides access to the outgoing Telegram messages that could not be delivered.
+ */
+public interface TelegramDeadLetterRepository extends JpaRepository<TelegramDeadLetter, Long> {
+}
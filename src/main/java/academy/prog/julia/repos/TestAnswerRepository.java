@@ -1,7 +1,13 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.dto.TestSubmissionRowDTO;
 import academy.prog.julia.model.TestAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TestAnswerRepository extends JpaRepository<TestAnswer, Long> {
     /**
@@ -12,4 +18,25 @@ public interface TestAnswerRepository extends JpaRepository<TestAnswer, Long> {
      * @return the test answer associated with the specified test ID and student ID
      */
     TestAnswer findByTestIdAndUserId(Long testId, Long studentId);
+
+    /**
+     * Finds the answers of the given tests with their students, without loading any entity.
+     * <p>
+     * A student in several groups is returned once per group.
+     *
+     * @param testIds the IDs of the tests
+     * @return the submission rows of the tests, ordered by answer ID
+     */
+    @Query("""
+    SELECT new academy.prog.julia.dto.TestSubmissionRowDTO(
+        t.id, ta.id, ta.course, ta.attempt, ta.isPassed, ta.totalScore, ta.submittedDate,
+        u.id, u.name, u.surname, u.phone, u.email, u.telegramChatId, g.name)
+    FROM TestAnswer ta
+    JOIN ta.test t
+    JOIN ta.user u
+    LEFT JOIN u.groups g
+    WHERE t.id IN :testIds
+    ORDER BY ta.id
+    """)
+    List<TestSubmissionRowDTO> findSubmissionRowsByTestIdIn(@Param("testIds") Collection<Long> testIds);
 }
@@ -1,13 +1,16 @@
 package academy.prog.julia.repos;
 
+import academy.prog.julia.dto.GroupNameDTO;
 import academy.prog.julia.model.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,22 +31,35 @@ public interface TestRepository extends JpaRepository<Test, Long> {
      * @param userId    the ID of the user (client)
      * @param deadLine  the deadline of the test
      * @param mandatory the flag indicating whether the test is mandatory
-     * @return a list of tests assigned to the specified user with the given deadline and mandatory flag
+     * @return a list of tests assigned to the specified user with the given deadline and mandatory flag,
+     *         with their lessons and the groups of the lessons loaded
      */
+    @EntityGraph(attributePaths = {"lesson", "lesson.groups"})
     @Query("SELECT t FROM Test t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id AND t.deadline = :deadLine AND t.mandatory = :mandatory")
     List<Test> findAllTestsByUserIdWithDeadLineAndMandatory(@Param("id") Long userId, @Param("deadLine") LocalDate deadLine, @Param("mandatory") boolean mandatory);
 
     /**
-     * Finds all tests associated with a teacher (user) by their ID.
+     * Finds the IDs of the tests of the groups of a teacher (user), ordered by ID.
      * <p>
-     * This method joins the {@code Test}, {@code Lesson}, {@code Group}, and {@code User} entities
-     * to retrieve tests associated with the teacher (user), filtered by user ID. The results
-     * are paginated.
+     * Only the IDs are paged, so the submission page doesn't load any test entity;
+     * the answers and groups of the page are then read with projection queries.
      *
      * @param userId   the ID of the teacher (user)
      * @param pageable a {@code Pageable} object to support pagination
-     * @return a paginated list of tests associated with the specified teacher
+     * @return a page of the IDs of the tests associated with the specified teacher
+     */
+    @Query(
+            value = "SELECT DISTINCT t.id FROM Test t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id ORDER BY t.id",
+            countQuery = "SELECT COUNT(DISTINCT t.id) FROM Test t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id"
+    )
+    Page<Long> findTestIdsByTeacherId(@Param("id") Long userId, Pageable pageable);
+
+    /**
+     * Finds the names of the groups of the lessons of the given tests.
+     *
+     * @param testIds the IDs of the tests
+     * @return one row per test and group
      */
-    @Query("SELECT t FROM Test t JOIN t.lesson l JOIN l.groups g JOIN g.clients u WHERE u.id = :id")
-    Page<Test> findTestByTeacherId(@Param("id") Long userId, Pageable pageable);
+    @Query("SELECT new academy.prog.julia.dto.GroupNameDTO(t.id, g.name) FROM Test t JOIN t.lesson l JOIN l.groups g WHERE t.id IN :testIds")
+    List<GroupNameDTO> findGroupNamesByTestIdIn(@Param("testIds") Collection<Long> testIds);
 }
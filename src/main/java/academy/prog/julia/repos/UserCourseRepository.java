@@ -25,4 +25,16 @@ public interface UserCourseRepository extends JpaRepository<Group, Long> {
     @Query("SELECT g FROM Group g JOIN g.clients u WHERE u.id = :userId")
     List<Group> findUserCourses(@Param("userId") Long userId);
 
-}
\ No newline at end of file
+    /**
+     * Finds the ID and name of every course (group) that a specific user is enrolled in, as "id:name" strings.
+     * <p>
+     * Used to build the entity tag of the course listing of the user without loading the groups.
+     *
+     * @param userId the ID of the user (client)
+     * @return the "id:name" strings of the courses of the user, ordered by ID
+     */
+    @Query("SELECT CONCAT(CAST(g.id AS string), ':', COALESCE(g.name, '')) FROM Group g JOIN g.clients u " +
+            "WHERE u.id = :userId ORDER BY g.id")
+    List<String> findUserCourseSignatures(@Param("userId") Long userId);
+
+}
@@ -4,10 +4,12 @@ import academy.prog.julia.model.User;
 import academy.prog.julia.model.UserRole;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 /**
@@ -15,6 +17,17 @@ import java.util.Optional;
  * <p>
  * This interface provides standard JPA methods along with custom queries
  * to work with the {@code User} table in the database.
+ * <p>
+ * The collections of a user are lazy. Finders load only the user's own columns unless they name
+ * a fetch plan ({@link User#GRAPH_GROUPS}, {@link User#GRAPH_CONTACTS}) for their use case:
+ * <ul>
+ *     <li>the bot authenticates a chat by {@link #findByTelegramChatId} and broadcasts pages users by
+ *     {@link #findByGroupNameAfter}; both only use the user's own columns and need no plan;</li>
+ *     <li>the student lists of the progress and admin pages fetch {@code User.groups}; the phones and emails
+ *     are left to {@code hibernate.default_batch_fetch_size}, since fetching a second collection in the same
+ *     query would multiply the rows (groups x phones x emails) and prevent paging in the database;</li>
+ *     <li>the progress counters and the teacher submissions are read as projections, without users.</li>
+ * </ul>
  */
 public interface UserRepository extends JpaRepository<User, Long> {
     /**
@@ -34,36 +47,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUniqueId(String id);
     /**
      * Finds a user by their Telegram chat ID.
+     * Called for every bot message, so only the user's own columns are loaded.
      *
      * @param chatId the Telegram chat ID
      * @return an {@code Optional<User>} containing the user if found, or empty if not found
      */
     Optional<User> findByTelegramChatId(String chatId);
-    /**
-     * Finds users whose phone number matches or is similar to the specified phone number.
-     *
-     * @param phone the phone number to search for
-     * @return a list of users with phone numbers similar to the specified phone number
-     */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN u.phones e WHERE u.phone LIKE %:phone% OR e LIKE %:phone%")
-    List<User> findByPhoneLike(@Param("phone") String phone);
-    /**
-     * Finds users whose email address matches or is similar to the specified email.
-     *
-     * @param email the email address to search for
-     * @return a list of users with email addresses similar to the specified email
-     */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN u.emails e WHERE u.email LIKE %:email% OR e LIKE %:email%")
-    List<User> findByEmailLike(@Param("email") String email);
-
-    /**
-     * Finds users whose email address matches or is similar to the specified email with pageable.
-     *
-     * @param email the email address to search for
-     * @return a list of users with email addresses similar to the specified email
-     */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN u.emails e WHERE u.email LIKE %:email% OR e LIKE %:email%")
-    List<User> findByEmailLike(@Param("email") String email, Pageable pageable);
     /**
      * Finds all users in a group by the group name, with pagination support.
      *
@@ -81,6 +70,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u JOIN u.groups g WHERE g.name = :groupName")
     List<User> findAllUsersByGroups(@Param("groupName") String groupName);
+    /**
+     * Finds the next users of a group after the given ID (keyset pagination).
+     *
+     * @param groupName the name of the group
+     * @param afterId   the last ID of the previous page, 0 for the first page
+     * @param pageable  a {@code Pageable} object to limit the page size
+     * @return the users in the specified group, in ascending order of ID
+     */
+    @Query("SELECT u FROM User u JOIN u.groups g WHERE g.name = :groupName AND u.id > :afterId ORDER BY u.id")
+    List<User> findByGroupNameAfter(
+            @Param("groupName") String groupName,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+    /**
+     * Finds the IDs of the next users belonging to any group after the given ID (keyset pagination).
+     *
+     * @param afterId  the last ID of the previous page, 0 for the first page
+     * @param pageable a {@code Pageable} object to limit the page size
+     * @return the IDs of the users, in ascending order
+     */
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.groups g WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsInGroupsAfter(@Param("afterId") Long afterId, Pageable pageable);
     /**
      * Counts the number of users in a specific group.
      *
@@ -151,7 +163,61 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return the count of users who match the banned and active status
      */
     long countAllByIsBannedAndIsActive(boolean isBanned, boolean isActive);
-
+    /**
+     * Finds the IDs of all users who are banned or active, with pagination support.
+     * Paging by ID lets the users be loaded afterward with a fetch plan, which can't be combined with paging.
+     *
+     * @param isBanned the banned status
+     * @param isActive the active status
+     * @param pageable the pagination details
+     * @return the IDs of the users who match the banned and active status, in ascending order
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isBanned = :isBanned AND u.isActive = :isActive ORDER BY u.id")
+    List<Long> findIdsByIsBannedAndIsActive(
+            @Param("isBanned") boolean isBanned,
+            @Param("isActive") boolean isActive,
+            Pageable pageable
+    );
+    /**
+     * Finds the IDs of the next users who are banned or active after the given ID (keyset pagination).
+     * Unlike offset paging, every batch costs the same and users added or removed meanwhile don't shift the batches.
+     *
+     * @param isBanned the banned status
+     * @param isActive the active status
+     * @param afterId  the last ID of the previous batch, 0 for the first batch
+     * @param pageable a {@code Pageable} object to limit the batch size
+     * @return the IDs of the users who match the banned and active status, in ascending order
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isBanned = :isBanned AND u.isActive = :isActive AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByIsBannedAndIsActiveAfter(
+            @Param("isBanned") boolean isBanned,
+            @Param("isActive") boolean isActive,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+    /**
+     * Finds users by their IDs together with their groups.
+     *
+     * @param ids the IDs of the users
+     * @return the users with their groups loaded
+     */
+    @EntityGraph(User.GRAPH_GROUPS)
+    List<User> findAllWithGroupsByIdIn(Collection<Long> ids);
+    /**
+     * Finds all users together with their groups.
+     *
+     * @return all users with their groups loaded
+     */
+    @EntityGraph(User.GRAPH_GROUPS)
+    List<User> findAllWithGroupsBy();
+    /**
+     * Finds all users of a role together with their additional phones and emails,
+     * which are part of the returned JSON.
+     *
+     * @param role the class of the role
+     * @return the users of the role
+     */
+    @EntityGraph(User.GRAPH_CONTACTS)
     @Query("SELECT u FROM User u WHERE TYPE(u) = :role")
     List<User> findAllByRole(@Param("role") Class<? extends User> role);
 }
\ No newline at end of file
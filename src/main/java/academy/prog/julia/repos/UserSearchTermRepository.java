@@ -0,0 +1,62 @@
+package academy.prog.julia.repos;
+
+import academy.prog.julia.model.UserSearchTerm;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@code UserSearchTerm} entities.
+ * <p>
+ * The terms are looked up by prefix only, so every search is a range scan of
+ * the {@code (search_field, term, client_id)} index.
+ */
+public interface UserSearchTermRepository extends JpaRepository<UserSearchTerm, Long> {
+
+    /**
+     * Finds the IDs of the users having a term starting with the given prefix.
+     *
+     * @param searchField the field to search in
+     * @param prefix      the escaped prefix followed by {@code %}; {@code !} is the escape character
+     * @param pageable    a {@code Pageable} object to limit the number of users
+     * @return the IDs of the matching users, ordered by ID
+     */
+    @Query("""
+    SELECT DISTINCT t.userId FROM UserSearchTerm t
+    WHERE t.searchField = :searchField AND t.term LIKE :prefix ESCAPE '!'
+    ORDER BY t.userId
+    """)
+    List<Long> findUserIdsByTermPrefix(
+            @Param("searchField") UserSearchTerm.SearchField searchField,
+            @Param("prefix") String prefix,
+            Pageable pageable
+    );
+
+    /**
+     * Deletes all search terms of a user.
+     *
+     * @param userId the ID of the user
+     */
+    @Modifying
+    @Query("DELETE FROM UserSearchTerm t WHERE t.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Finds the next batch of users without search terms, e.g. users created before the terms existed.
+     *
+     * @param afterId  the last ID of the previous batch, 0 for the first batch
+     * @param pageable a {@code Pageable} object to limit the batch size
+     * @return the IDs of the users, ordered by ID
+     */
+    @Query("""
+    SELECT u.id FROM User u
+    WHERE u.id > :afterId
+      AND NOT EXISTS (SELECT t.id FROM UserSearchTerm t WHERE t.userId = u.id)
+    ORDER BY u.id
+    """)
+    List<Long> findUserIdsWithoutTerms(@Param("afterId") Long afterId, Pageable pageable);
+}
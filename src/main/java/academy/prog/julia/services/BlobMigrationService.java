@@ -0,0 +1,190 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.components.CertificateFileColumn;
+import academy.prog.julia.model.Certificate;
+import academy.prog.julia.model.TaskAnswer;
+import academy.prog.julia.repos.CertificateRepository;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Service moving the files still stored in database LOB columns to the {@link BlobStore}.
+ *
+ * Runs in the background in small batches: every file is copied to the blob store and the row
+ * is updated with the hash in its own short transaction, so only one file at a time is held
+ * in memory and the tables are never locked for long. Rows are found by ID only, without
+ * loading the LOB columns. Once all rows are migrated, a run costs two index lookups.
+ * Certificate files are only moved once the 'file' column accepts null (see {@link CertificateFileColumn}).
+ */
+@Service
+public class BlobMigrationService {
+
+    private static final Logger LOGGER = LogManager.getLogger(BlobMigrationService.class);
+
+    private final CertificateRepository certificateRepository;
+    private final TaskAnswerRepository taskAnswerRepository;
+    private final BlobStore blobStore;
+    private final CertificateFileColumn certificateFileColumn;
+    private final boolean enabled;
+    private final int batchSize;
+
+    /**
+     * Constructs the service.
+     *
+     * @param certificateRepository the repository for certificates
+     * @param taskAnswerRepository  the repository for task answers
+     * @param blobStore             the store the files are moved to
+     * @param certificateFileColumn tells whether certificate files may be removed from the certificates table
+     * @param enabled               whether the files are migrated
+     * @param batchSize             the number of rows looked up at once
+     */
+    public BlobMigrationService(
+            CertificateRepository certificateRepository,
+            TaskAnswerRepository taskAnswerRepository,
+            BlobStore blobStore,
+            CertificateFileColumn certificateFileColumn,
+            @Value("${blob.migration.enabled:true}") boolean enabled,
+            @Value("${blob.migration.batch-size:20}") int batchSize
+    ) {
+        this.certificateRepository = certificateRepository;
+        this.taskAnswerRepository = taskAnswerRepository;
+        this.blobStore = blobStore;
+        this.certificateFileColumn = certificateFileColumn;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Lookup
+    public BlobMigrationService getSelf() {
+        return null;
+    }
+
+    /**
+     * Scheduled task moving the certificate files and task answer archives to the blob store.
+     */
+    @Scheduled(initialDelay = 60000, fixedDelay = 600000)
+    public void migrateFiles() {
+        if (!enabled) {
+            return;
+        }
+
+        BlobMigrationService self = getSelf();
+
+        int certificates = !certificateFileColumn.isNullable() ? 0 : migrate(
+                () -> certificateRepository.findIdsWithFileInDatabase(PageRequest.of(0, batchSize)),
+                self::migrateCertificateFile
+        );
+        int taskAnswers = migrate(
+                () -> taskAnswerRepository.findIdsWithZipAnswerFileInDatabase(PageRequest.of(0, batchSize)),
+                self::migrateZipAnswerFile
+        );
+
+        if (certificates > 0 || taskAnswers > 0) {
+            LOGGER.info("Moved to blob store: {} certificate files, {} task answer archives", certificates, taskAnswers);
+        }
+    }
+
+    /**
+     * Migrates batches of rows until none is left or a whole batch fails.
+     *
+     * @return the number of migrated rows
+     */
+    private int migrate(
+            Supplier<List<Long>> batch,
+            Function<Long, Boolean> migrateRow
+    ) {
+        int migrated = 0;
+        List<Long> ids;
+
+        do {
+            ids = batch.get();
+            int migratedInBatch = 0;
+
+            for (Long id : ids) {
+                try {
+                    if (migrateRow.apply(id)) {
+                        migratedInBatch++;
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to move file of row {} to blob store", id, e);
+                }
+            }
+
+            migrated += migratedInBatch;
+
+            // A batch failing as a whole would be found again, stop until the next run
+            if (migratedInBatch == 0) {
+                break;
+            }
+        } while (ids.size() == batchSize);
+
+        return migrated;
+    }
+
+    /**
+     * Moves the file of a certificate to the blob store.
+     *
+     * @param certificateId the ID of the certificate
+     * @return true if the file was moved
+     */
+    @Transactional
+    public boolean migrateCertificateFile(Long certificateId) {
+        Certificate certificate = certificateRepository.findById(certificateId).orElse(null);
+
+        if (certificate == null || certificate.getFileHash() != null || certificate.getFile() == null) {
+            return false;
+        }
+
+        BlobStore.Blob blob = write(certificate.getFile());
+        certificate.setFileHash(blob.hash());
+        certificate.setFileSize(blob.size());
+        certificate.setFile(null);
+
+        return true;
+    }
+
+    /**
+     * Moves the ZIP file of a task answer to the blob store.
+     *
+     * @param taskAnswerId the ID of the task answer
+     * @return true if the file was moved
+     */
+    @Transactional
+    public boolean migrateZipAnswerFile(Long taskAnswerId) {
+        TaskAnswer taskAnswer = taskAnswerRepository.findById(taskAnswerId).orElse(null);
+
+        if (taskAnswer == null || taskAnswer.getZipAnswerHash() != null || taskAnswer.getZipAnswerFile() == null) {
+            return false;
+        }
+
+        BlobStore.Blob blob = write(taskAnswer.getZipAnswerFile());
+        taskAnswer.setZipAnswerHash(blob.hash());
+        taskAnswer.setZipAnswerSize(blob.size());
+        taskAnswer.setZipAnswerFile(null);
+
+        return true;
+    }
+
+    private BlobStore.Blob write(byte[] content) {
+        try {
+            return blobStore.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write file to blob store", e);
+        }
+    }
+
+}
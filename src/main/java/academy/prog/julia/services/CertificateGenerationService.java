@@ -0,0 +1,275 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.CertificateGenerator;
+import academy.prog.julia.model.CertificateTask;
+import academy.prog.julia.model.User;
+import academy.prog.julia.repos.CertificateTaskRepository;
+import academy.prog.julia.repos.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service generating certificates in parallel from the 'certificate_tasks' queue.
+ *
+ * Every worker claims a small batch of tasks in a short transaction ({@code FOR UPDATE SKIP LOCKED}),
+ * marks them as leased by this instance and commits. The certificates are then rendered outside of any
+ * transaction, and each one is saved together with the completion of its task in a short transaction.
+ * The lease of a task is renewed right before its certificate is rendered, so the tasks waiting in a batch
+ * don't lose their lease while the ones before them are generated; a task taken over by another instance
+ * meanwhile is skipped. Several application instances can share the queue; a task whose lease expired
+ * (e.g. the instance crashed) is claimed again. Failed tasks are retried with an exponential backoff.
+ */
+@Service
+public class CertificateGenerationService {
+
+    private static final Logger LOGGER = LogManager.getLogger(CertificateGenerationService.class);
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final CertificateTaskRepository certificateTaskRepository;
+    private final CertificateGenerator certificateGenerator;
+    private final UserRepository userRepository;
+
+    private final int workers;
+    private final int claimBatchSize;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final ExecutorService executor;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    /**
+     * Constructs the service.
+     *
+     * @param certificateTaskRepository repository for handling certificate tasks
+     * @param certificateGenerator      component generating certificate files
+     * @param userRepository            repository for managing users
+     * @param workers                   the maximum number of certificates generated at the same time
+     * @param claimBatchSize            the number of tasks a worker claims at once
+     * @param leaseSeconds              the time a claimed task is reserved for this instance, renewed when its generation starts
+     * @param retryBackoffSeconds       the delay before the first retry of a failed task, doubled on every failure
+     * @param maxRetryBackoffSeconds    the maximum delay between retries
+     */
+    public CertificateGenerationService(
+            CertificateTaskRepository certificateTaskRepository,
+            CertificateGenerator certificateGenerator,
+            UserRepository userRepository,
+            @Value("${certificate.generation.workers:4}") int workers,
+            @Value("${certificate.generation.claim-batch-size:5}") int claimBatchSize,
+            @Value("${certificate.generation.lease-seconds:300}") long leaseSeconds,
+            @Value("${certificate.generation.retry-backoff-seconds:60}") long retryBackoffSeconds,
+            @Value("${certificate.generation.max-retry-backoff-seconds:21600}") long maxRetryBackoffSeconds
+    ) {
+        this.certificateTaskRepository = certificateTaskRepository;
+        this.certificateGenerator = certificateGenerator;
+        this.userRepository = userRepository;
+        this.workers = workers;
+        this.claimBatchSize = claimBatchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+        this.maxRetryBackoff = Duration.ofSeconds(maxRetryBackoffSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "certificate-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Lookup
+    public CertificateGenerationService getSelf() {
+        return null;
+    }
+
+    /**
+     * Starts workers up to the configured limit. Each worker claims and generates tasks
+     * until the queue is empty, so the method returns immediately.
+     */
+    public void startWorkers() {
+        int active;
+
+        while ((active = activeWorkers.get()) < workers) {
+            if (!activeWorkers.compareAndSet(active, active + 1)) {
+                continue;
+            }
+
+            try {
+                executor.execute(this::processTasks);
+            } catch (RejectedExecutionException e) {
+                activeWorkers.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Worker loop: claims batches of tasks and generates them until no task is ready.
+     */
+    void processTasks() {
+        CertificateGenerationService self = getSelf();
+
+        try {
+            List<CertificateTask> claimed;
+
+            do {
+                claimed = self.claimCertificateTasks(claimBatchSize);
+
+                for (CertificateTask task : claimed) {
+                    generate(self, task);
+                }
+            } while (!claimed.isEmpty() && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            LOGGER.error("Certificate generation worker failed", e);
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Generates the certificate of a claimed task and stores the result.
+     */
+    private void generate(
+            CertificateGenerationService self,
+            CertificateTask task
+    ) {
+        if (!self.renewCertificateTaskLease(task.getId())) {
+            LOGGER.info("Certificate task {} is no longer leased by this instance, skipped", task.getId());
+            return;
+        }
+
+        User user = userRepository.findById(task.getUserId()).orElse(null);
+
+        if (user == null) {
+            self.failCertificateTask(task.getId(), "User not found");
+            return;
+        }
+
+        try {
+            CertificateGenerator.RenderedCertificate renderedCertificate =
+                    certificateGenerator.renderCertificate(user, task.getGroupName(), task.getUserId());
+            self.completeCertificateTask(task.getId(), renderedCertificate);
+        } catch (ResourceAccessException resourceAccessException) {
+            LOGGER.warn("Service for certificate generation NOT FOUND, task {}", task.getId(), resourceAccessException);
+            self.failCertificateTask(task.getId(), "Service for certificate generation NOT FOUND");
+        } catch (Exception exception) {
+            LOGGER.error("Service for certificate generation ERROR, task {}", task.getId(), exception);
+            self.failCertificateTask(task.getId(), "Service for certificate generation ERROR");
+        }
+    }
+
+    /**
+     * Claims tasks ready for generation by leasing them to this instance.
+     * The rows are locked only for the duration of this short transaction.
+     *
+     * @param limit the maximum number of tasks to claim
+     * @return the claimed tasks
+     */
+    @Transactional
+    public List<CertificateTask> claimCertificateTasks(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CertificateTask> tasks = certificateTaskRepository.findCertificateTasksToClaim(now, PageRequest.of(0, limit));
+
+        for (CertificateTask task : tasks) {
+            task.setLockedUntil(now.plus(lease));
+            task.setLockedBy(instanceId);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Renews the lease of a claimed task for the generation of its certificate.
+     *
+     * @param taskId the ID of the certificate task
+     * @return true if this instance still holds the lease, false if another instance took the task over
+     */
+    @Transactional
+    public boolean renewCertificateTaskLease(Long taskId) {
+        return certificateTaskRepository.renewLease(taskId, instanceId, LocalDateTime.now().plus(lease)) > 0;
+    }
+
+    /**
+     * Saves the rendered certificate of a task, marks the task as generated and releases its lease.
+     *
+     * @param taskId              the ID of the certificate task
+     * @param renderedCertificate the rendered certificate, or null if there was nothing to save
+     */
+    @Transactional
+    public void completeCertificateTask(
+            Long taskId,
+            CertificateGenerator.RenderedCertificate renderedCertificate
+    ) {
+        if (renderedCertificate != null) {
+            certificateGenerator.saveCertificate(renderedCertificate);
+        }
+
+        certificateTaskRepository.findById(taskId).ifPresent(task -> {
+            task.setGenerated(true);
+            task.setLockedUntil(null);
+            task.setLockedBy(null);
+        });
+    }
+
+    /**
+     * Records a failed generation attempt, releases the lease and postpones the next attempt.
+     *
+     * @param taskId the ID of the certificate task
+     * @param error  the error description
+     */
+    @Transactional
+    public void failCertificateTask(
+            Long taskId,
+            String error
+    ) {
+        certificateTaskRepository.findById(taskId).ifPresent(task -> {
+            int attempts = task.getAttempts() + 1;
+
+            task.setAttempts(attempts);
+            task.setNextAttemptAt(LocalDateTime.now().plus(getRetryDelay(attempts)));
+            task.setSendError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            task.setLockedUntil(null);
+            task.setLockedBy(null);
+        });
+    }
+
+    /**
+     * Calculates the delay before the next attempt: the base backoff doubled for every failed attempt,
+     * limited by the maximum backoff.
+     *
+     * @param attempts the number of failed attempts
+     * @return the retry delay
+     */
+    Duration getRetryDelay(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    /**
+     * Stops the worker threads. Tasks being generated are claimed again after their lease expires.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
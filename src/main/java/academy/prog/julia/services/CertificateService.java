@@ -1,10 +1,11 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.components.CertificatePreviewStore;
 import academy.prog.julia.json_responses.CertificateResponse;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 
-import academy.prog.julia.components.CertificateGenerator;
 import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.CertificateTask;
 import academy.prog.julia.model.Group;
@@ -15,20 +16,20 @@ import academy.prog.julia.repos.GroupRepository;
 import academy.prog.julia.repos.UserRepository;
 import academy.prog.julia.telegram.executor.StateExecutionContext;
 import academy.prog.julia.exceptions.JuliaRuntimeException;
+import academy.prog.julia.utils.Utils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.ResourceAccessException;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -42,36 +43,48 @@ public class CertificateService {
     private static final Logger LOGGER = LogManager.getLogger(CertificateService.class);
 
     private final CertificateTaskRepository certificateTaskRepository;
-    private final CertificateGenerator certificateGenerator;
     private final UserRepository userRepository;
     private final MailSenderService mailSenderService;
     private final CertificateRepository certificateRepository;
     private final GroupRepository groupRepository;
+    private final CertificateGenerationService certificateGenerationService;
+    private final CertificatePreviewStore certificatePreviewStore;
+    private final BlobStore blobStore;
+    private final UserSearchService userSearchService;
 
     /**
      * Constructor for CertificateService.
      *
-     * @param certificateTaskRepository repository for handling certificate tasks
-     * @param certificateGenerator      service for generating certificate files
-     * @param userRepository            repository for managing users
-     * @param mailSenderService         service for sending emails
-     * @param certificateRepository     repository for managing certificates
-     * @param groupRepository           repository for managing user groups
+     * @param certificateTaskRepository    repository for handling certificate tasks
+     * @param userRepository               repository for managing users
+     * @param mailSenderService            service for sending emails
+     * @param certificateRepository        repository for managing certificates
+     * @param groupRepository              repository for managing user groups
+     * @param certificateGenerationService service generating the certificates of pending tasks
+     * @param certificatePreviewStore      store of the rendered certificate previews
+     * @param blobStore                    store of the certificate files
+     * @param userSearchService            service searching users by phone and email fragments
      */
     public CertificateService(
             CertificateTaskRepository certificateTaskRepository,
-            CertificateGenerator certificateGenerator,
             UserRepository userRepository,
             MailSenderService mailSenderService,
             CertificateRepository certificateRepository,
-            GroupRepository groupRepository
+            GroupRepository groupRepository,
+            CertificateGenerationService certificateGenerationService,
+            CertificatePreviewStore certificatePreviewStore,
+            BlobStore blobStore,
+            UserSearchService userSearchService
     ) {
         this.certificateTaskRepository = certificateTaskRepository;
-        this.certificateGenerator = certificateGenerator;
         this.userRepository = userRepository;
         this.mailSenderService = mailSenderService;
         this.certificateRepository = certificateRepository;
         this.groupRepository = groupRepository;
+        this.certificateGenerationService = certificateGenerationService;
+        this.certificatePreviewStore = certificatePreviewStore;
+        this.blobStore = blobStore;
+        this.userSearchService = userSearchService;
     }
 
     /**
@@ -149,7 +162,7 @@ public class CertificateService {
         // Filtering by phone numbers
         if (!userPhones.isEmpty()) {
             for (String phone : userPhones) {
-                List<User> users = userRepository.findByPhoneLike(phone);
+                List<User> users = userSearchService.findByPhone(phone);
 
                 for (User user : users) {
                     List<Group> groupList = groupRepository.findAllByUser(user);
@@ -164,7 +177,7 @@ public class CertificateService {
         // Filtering by email addresses
         if (!userEmails.isEmpty()) {
             for (String email : userEmails) {
-                List<User> users = userRepository.findByEmailLike(email);
+                List<User> users = userSearchService.findByEmail(email);
 
                 for (User user : users) {
                     List<Group> groupList = groupRepository.findAllByUser(user);
@@ -179,36 +192,13 @@ public class CertificateService {
     }
 
     /**
-     * Scheduled task that generates certificates for users every minute.
-     *
-     * isolation = Isolation.SERIALIZABLE this is the highest isolation level in database transaction
-     * management. It ensures that transactions are executed in such a way that they appear to be
-     * completely isolated from one another
+     * Scheduled task that starts the certificate generation workers.
+     * The workers claim pending tasks in short transactions and generate them in parallel,
+     * so this method returns immediately instead of holding a transaction for the whole batch.
      */
-    @Scheduled(cron = "0 */1 * * * *")
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Scheduled(fixedDelayString = "${certificate.generation.poll-millis:10000}")
     public void scheduledCertificateGeneratorForUsers() {
-
-        List<CertificateTask> tasksToGenerate = certificateTaskRepository.findCertificateTasksToGenerate();
-
-        for (CertificateTask task : tasksToGenerate) {
-            long userId = task.getUserId();
-            String groupName = task.getGroupName();
-
-            User user = userRepository.findById(userId).orElse(null);
-            if (user != null) {
-                try {
-                    certificateGenerator.generateCertificate(user, groupName, userId);
-                    task.setGenerated(true);
-                } catch (ResourceAccessException resourceAccessException) {
-                    LOGGER.info("Service for certificate generation NOT FOUND");
-                    task.setSendError("Service for certificate generation NOT FOUND");
-                } catch (Exception exception) {
-                    LOGGER.info("Service for certificate generation ERROR");
-                    task.setSendError("Service for certificate generation ERROR");
-                }
-            }
-        }
+        certificateGenerationService.startWorkers();
     }
 
     /**
@@ -237,7 +227,7 @@ public class CertificateService {
                                     Objects.equals(certificate.getUser().getId(), task.getUserId())
                             ) {
                                 mailSenderService
-                                        .sendCertificateEmail(emailTo, subject, message, certificate.getFile());
+                                        .sendCertificateEmail(emailTo, subject, message, readCertificateFile(certificate));
 
                                 task.setSend(true);
                             }
@@ -259,23 +249,58 @@ public class CertificateService {
      * @param certificateId the unique ID of the certificate
      * @return the byte array representing the certificate file as a IMAGE_PNG
      */
-    @Transactional(readOnly = true)
     public byte[] getCertificateById(String certificateId) {
-        Certificate certificate = certificateRepository.findByUniqueId(certificateId);
-
-        if (certificate != null) {
-            byte[] pdfData = certificate.getFile();
-            try {
-                return convertPdfToImage(pdfData);
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to convert PDF to image", e);
-            }
-        } else {
-            throw new NoSuchElementException("Certificate not found!");
+        return getCertificatePreview(certificateId, CertificatePreviewStore.Size.DPI_300).image();
+    }
+
+    /**
+     * Retrieves the PNG preview of a certificate in the given resolution.
+     * Previews are served from the preview store; the PDF file is loaded from the database
+     * and rasterized only if the preview doesn't exist yet.
+     *
+     * @param certificateId the unique ID of the certificate
+     * @param size          the resolution of the preview
+     * @return the preview with its ETag and modification time
+     */
+    public CertificatePreviewStore.Preview getCertificatePreview(
+            String certificateId,
+            CertificatePreviewStore.Size size
+    ) {
+        try {
+            return certificatePreviewStore.getPreview(certificateId, size, () -> {
+                Certificate certificate = certificateRepository.findByUniqueId(certificateId);
+
+                if (certificate == null) {
+                    throw new NoSuchElementException("Certificate not found!");
+                }
+
+                return readCertificateFile(certificate);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to convert PDF to image", e);
         }
     }
 
 
+    /**
+     * Reads the PDF file of a certificate from the blob store,
+     * or from the database if it hasn't been moved to the blob store yet.
+     *
+     * @param certificate the certificate
+     * @return the PDF file
+     */
+    private byte[] readCertificateFile(Certificate certificate) {
+        if (certificate.getFileHash() == null) {
+            return certificate.getFile();
+        }
+
+        try {
+            return blobStore.read(certificate.getFileHash());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file of certificate " + certificate.getUniqueId(), e);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<CertificateResponse> getAllCertificatesByUserId(String userId) {
         List<Certificate> certificates = certificateRepository.findByUserId(Long.valueOf(userId));
@@ -292,6 +317,22 @@ public class CertificateService {
         return certificateResponse;
     }
 
+    /**
+     * Returns the strong entity tag of the certificate list of a user, built from the certificate IDs only,
+     * so revalidating doesn't load the certificates.
+     *
+     * @param userId the ID of the user
+     * @return the quoted entity tag
+     */
+    @Transactional(readOnly = true)
+    public String getCertificatesETag(String userId) {
+        String[] ids = certificateRepository.findIdsByUserId(Long.valueOf(userId)).stream()
+                .map(String::valueOf)
+                .toArray(String[]::new);
+
+        return "\"user-certificates-" + userId + "-" + Utils.hashStrings(ids).substring(0, 16) + "\"";
+    }
+
 
     /**
      * Converts a PDF file into a PNG image.
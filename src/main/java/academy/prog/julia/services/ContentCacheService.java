@@ -0,0 +1,179 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.ContentResponseCache;
+import academy.prog.julia.dto.CacheRegionStatsDTO;
+import academy.prog.julia.model.Group;
+import academy.prog.julia.model.Lesson;
+import academy.prog.julia.model.Task;
+import academy.prog.julia.model.Test;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service managing the second-level cache of the course content: groups, lessons, tasks and tests,
+ * together with the lessons of groups, the groups of lessons and the tasks and tests of lessons.
+ *
+ * The content only changes when a course is imported from Google Sheets, so the import evicts the
+ * whole content once it is committed. Hibernate keeps the cached entities up to date on every other
+ * write, but not the inverse collections ({@code Group.lessons}, {@code Lesson.tasks}, {@code Lesson.tests}),
+ * which the import changes through their owning side.
+ *
+ * The responses built from the content ({@link ContentResponseCache}) are invalidated at the same time,
+ * by bumping the versions of the imported courses and lessons.
+ */
+@Service
+public class ContentCacheService {
+
+    private static final Logger LOGGER = LogManager.getLogger(ContentCacheService.class);
+
+    /**
+     * The cached content entities; their regions are named after the classes.
+     */
+    static final List<Class<?>> CONTENT_ENTITIES = List.of(Group.class, Lesson.class, Task.class, Test.class);
+
+    /**
+     * The cached content collections; their regions are named after the roles.
+     */
+    static final List<String> CONTENT_COLLECTIONS = List.of(
+            Group.class.getName() + ".lessons",
+            Lesson.class.getName() + ".groups",
+            Lesson.class.getName() + ".tasks",
+            Lesson.class.getName() + ".tests"
+    );
+
+    private final SessionFactory sessionFactory;
+    private final ContentResponseCache contentResponseCache;
+
+    /**
+     * Constructs the service.
+     *
+     * @param entityManagerFactory the entity manager factory, unwrapped to reach the Hibernate cache
+     * @param contentResponseCache the cache of the responses built from the content
+     */
+    public ContentCacheService(
+            EntityManagerFactory entityManagerFactory,
+            ContentResponseCache contentResponseCache
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.contentResponseCache = contentResponseCache;
+    }
+
+    /**
+     * Evicts the cached content once the current transaction completes, or immediately without transaction.
+     * Evicting after completion ensures no concurrent reader caches the content as it was before the commit.
+     * The response versions are bumped after the entities are evicted, so no response of a new version
+     * is built from stale cached entities.
+     *
+     * @param courseIds the IDs of the courses whose lessons changed, null IDs (unsaved entities) are ignored
+     * @param lessonIds the IDs of the changed lessons, null IDs (unsaved entities) are ignored
+     */
+    public void evictContentAfterCompletion(
+            Collection<Long> courseIds,
+            Collection<Long> lessonIds
+    ) {
+        // Copied, as the caller may still change its collections before the transaction completes
+        Set<Long> courses = courseIds.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        Set<Long> lessons = lessonIds.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictContent();
+            contentResponseCache.bumpVersions(courses, lessons);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictContent();
+                contentResponseCache.bumpVersions(courses, lessons);
+            }
+        });
+    }
+
+    /**
+     * Evicts all the cached content entities and collections.
+     */
+    public void evictContent() {
+        Cache cache = sessionFactory.getCache();
+
+        CONTENT_ENTITIES.forEach(cache::evictEntityData);
+        CONTENT_COLLECTIONS.forEach(cache::evictCollectionData);
+
+        LOGGER.info("Course content evicted from the second-level cache");
+    }
+
+    /**
+     * Returns the hit, miss and put counters of the content regions since startup.
+     *
+     * @return the statistics of every content region, empty if Hibernate statistics are disabled
+     */
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStatsDTO> result = new ArrayList<>();
+
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+
+        List<String> regions = new ArrayList<>();
+        CONTENT_ENTITIES.forEach(entity -> regions.add(entity.getName()));
+        regions.addAll(CONTENT_COLLECTIONS);
+
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+
+            if (regionStatistics != null) {
+                result.add(new CacheRegionStatsDTO(
+                        region,
+                        regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount(),
+                        Math.max(regionStatistics.getElementCountInMemory(), 0)
+                ));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Periodically logs the statistics of the content regions.
+     */
+    @Scheduled(initialDelay = 300000, fixedDelay = 300000)
+    public void logStatistics() {
+        List<CacheRegionStatsDTO> regionStatistics = getRegionStatistics();
+
+        if (regionStatistics.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        regionStatistics.forEach(stats -> sb
+                .append("\n")
+                .append(stats.region())
+                .append(": hits=").append(stats.hits())
+                .append(", misses=").append(stats.misses())
+                .append(", puts=").append(stats.puts())
+                .append(", size=").append(stats.elementsInMemory())
+        );
+
+        LOGGER.info("Course content cache statistics:{}", sb);
+    }
+
+}
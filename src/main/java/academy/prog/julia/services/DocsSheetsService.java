@@ -14,8 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static academy.prog.julia.components.DocsSheets.extractSpreadsheetID;
 
@@ -42,6 +45,8 @@ public class   DocsSheetsService {
     private final GroupRepository groupRepository;
     private final DocsSheets docsSheets;
     private final TestQuestionFromGoogleDocsRepository testQuestionFromGoogleDocsRepository;
+    private final ContentCacheService contentCacheService;
+    private final StudentProgressService studentProgressService;
 
     private static final Logger LOGGER = LogManager.getLogger(DocsSheetsService.class);
 
@@ -54,6 +59,8 @@ public class   DocsSheetsService {
      * @param groupRepository Repository for groups.
      * @param docsSheets Component responsible for Google Sheets data extraction.
      * @param testQuestionFromGoogleDocsRepository Repository for managing test questions extracted from Google Docs.
+     * @param contentCacheService Service evicting the cached course content once it is imported.
+     * @param studentProgressService Service updating the progress counters of the students when lessons change.
      */
     public DocsSheetsService(
             LessonRepository lessonRepository,
@@ -61,7 +68,9 @@ public class   DocsSheetsService {
             TestRepository testRepository,
             GroupRepository groupRepository,
             DocsSheets docsSheets,
-            TestQuestionFromGoogleDocsRepository testQuestionFromGoogleDocsRepository
+            TestQuestionFromGoogleDocsRepository testQuestionFromGoogleDocsRepository,
+            ContentCacheService contentCacheService,
+            StudentProgressService studentProgressService
     ) {
         this.lessonRepository = lessonRepository;
         this.taskRepository = taskRepository;
@@ -69,6 +78,8 @@ public class   DocsSheetsService {
         this.groupRepository = groupRepository;
         this.docsSheets = docsSheets;
         this.testQuestionFromGoogleDocsRepository = testQuestionFromGoogleDocsRepository;
+        this.contentCacheService = contentCacheService;
+        this.studentProgressService = studentProgressService;
     }
 
     /**
@@ -139,6 +150,10 @@ public class   DocsSheetsService {
         // Save the group with the associated lessons
         LOGGER.info("Saving group: {}", group.getName());
         groupRepository.save(group);
+        contentCacheService.evictContentAfterCompletion(
+                Collections.singleton(group.getId()),
+                lessons.stream().map(Lesson::getId).toList()
+        );
         LOGGER.info("Lessons saved successfully for group: {}", group.getName());
 
         return lessons;
@@ -164,6 +179,7 @@ public class   DocsSheetsService {
     /**
      * Replaces existing lessons with new lessons fetched from the provided Google Sheets document.
      * Updates tasks and tests in the lessons where necessary, and deletes lessons that need replacement.
+     * The progress counters of the students are updated for the courses the lessons were moved from or to.
      *
      * @param lessonsToReplace The list of lessons to be replaced.
      * @param spreadsheetURL The URL of the Google Sheets document.
@@ -208,6 +224,11 @@ public class   DocsSheetsService {
             throw new JuliaRuntimeException("Spreadsheet ID cannot be null or empty.");
         }
 
+        // The group may come detached from another transaction, its lazy lessons must be loaded here
+        Group managedGroup = group.getId() == null
+                ? group
+                : groupRepository.findById(group.getId()).orElse(group);
+
         // Retrieve new lessons from Google Sheets
         LOGGER.info("Reading lessons from Google Sheets for sheet number: {}", sheetNumber);
         List<Lesson> newLessons = docsSheets.lessonReader(spreadsheetURL, sheetNumber);
@@ -217,6 +238,12 @@ public class   DocsSheetsService {
         }
         LOGGER.info("Number of new lessons retrieved: {}", newLessons.size());
 
+        // The courses and lessons whose cached content is stale once the import is committed
+        Set<Long> changedCourseIds = new HashSet<>();
+        Set<Long> changedLessonIds = new HashSet<>();
+        Set<Long> removedLessonIds = new HashSet<>();
+        changedCourseIds.add(managedGroup.getId());
+
         // Replace or update existing lessons
         LOGGER.info("Replacing or updating existing lessons");
         for (int i = 0; i < Math.min(lessonsToReplace.size(), newLessons.size()); i++) {
@@ -229,9 +256,11 @@ public class   DocsSheetsService {
 
             // Remove existing lesson from old groups and add to new group
             LOGGER.debug("Updating group associations for lesson: {}", existingLesson.getName());
+            changedLessonIds.add(existingLesson.getId());
+            existingLesson.getGroups().forEach(g -> changedCourseIds.add(g.getId()));
             existingLesson.getGroups().forEach(g -> g.getLessons().remove(existingLesson));
-            group.getLessons().add(existingLesson);
-            existingLesson.getGroups().add(group);
+            managedGroup.getLessons().add(existingLesson);
+            existingLesson.getGroups().add(managedGroup);
 
             // Update lesson details
             existingLesson.setName(newLesson.getName());
@@ -289,6 +318,9 @@ public class   DocsSheetsService {
         LOGGER.info("Removing old lessons if the list size has decreased");
         for (int i = newLessons.size(); i < lessonsToReplace.size(); i++) {
             Lesson lesson = lessonRepository.findById(lessonsToReplace.get(i).getId()).orElseThrow();
+            changedLessonIds.add(lesson.getId());
+            removedLessonIds.add(lesson.getId());
+            lesson.getGroups().forEach(g -> changedCourseIds.add(g.getId()));
             lesson.getGroups().forEach(g -> g.getLessons().remove(lesson));
             taskRepository.deleteAll(lesson.getTasks());
             testRepository.deleteAll(lesson.getTests());
@@ -302,8 +334,8 @@ public class   DocsSheetsService {
             Lesson newLesson = newLessons.get(i);
             newLesson.setSheetNumber(sheetNumber);
             newLesson.setSpreadsheetID(spreadsheetID);
-            newLesson.getGroups().add(group);
-            group.getLessons().add(newLesson);
+            newLesson.getGroups().add(managedGroup);
+            managedGroup.getLessons().add(newLesson);
 
             for (var task : newLesson.getTasks()) {
                 task.setLesson(newLesson);
@@ -321,6 +353,9 @@ public class   DocsSheetsService {
             LOGGER.info("New lesson saved: {}", newLesson.getName());
         }
 
+        studentProgressService.refreshCoursesProgress(changedCourseIds, removedLessonIds);
+        contentCacheService.evictContentAfterCompletion(changedCourseIds, changedLessonIds);
+
         LOGGER.info("Completed replaceLesson process for group: {}", group.getName());
     }
 
@@ -0,0 +1,436 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.model.TaskAnswer;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Service downloading the GitHub repositories of passed task answers as ZIP archives.
+ *
+ * Downloads run in the background on a small fixed pool, after the grading transaction is committed,
+ * so no database connection is held while GitHub responds and the number of concurrent downloads
+ * stays bounded during deadline rushes. The default branch of the repository is resolved with the
+ * GitHub API, the archive is streamed to the {@link BlobStore} with a size limit, and only the
+ * resulting hash is stored on the task answer, in its own short transaction.
+ *
+ * The download queue lives in memory only, so a full queue or a restart loses queued downloads.
+ * A periodic sweep, run by one instance at a time, submits again the passed answers that have
+ * a GitHub repository URL but no archive yet. A failed download is not retried before the retry delay.
+ */
+@Service
+public class GitHubArchiveService {
+
+    private static final Logger LOGGER = LogManager.getLogger(GitHubArchiveService.class);
+
+    private static final String GITHUB_URL_PREFIX = "https://github.com/";
+    private static final String DEFAULT_BRANCH_REF = "HEAD";
+    private static final Pattern GITHUB_REPOSITORY_URL = Pattern.compile("^https://github\\.com(?:/[\\w-]+){2}$");
+    private static final String SWEEP_JOB = "github-archive-sweep";
+
+    private final TaskAnswerRepository taskAnswerRepository;
+    private final BlobStore blobStore;
+    private final RestTemplate restTemplate;
+    private final JobLeaseService jobLeaseService;
+    private final boolean automaticDownloadEnabled;
+    private final String token;
+    private final long maxSizeBytes;
+    private final int sweepBatchSize;
+    private final Duration sweepLease;
+    private final long retryDelayMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> pendingTaskAnswerIds = ConcurrentHashMap.newKeySet();
+    // ID of a task answer whose download failed -> time before which it isn't submitted again by the sweep
+    private final Map<Long, Long> failedTaskAnswerIds = new ConcurrentHashMap<>();
+    private volatile GitHub gitHub;
+
+    /**
+     * Constructs the service.
+     *
+     * @param taskAnswerRepository     the repository for task answers
+     * @param blobStore                the store the archives are written to
+     * @param restTemplate             the RestTemplate used to download the archives
+     * @param jobLeaseService          the service keeping the sweep on one instance
+     * @param automaticDownloadEnabled whether the archives of passed answers are downloaded
+     * @param token                    the GitHub token used for the API calls; anonymous calls if empty
+     * @param workers                  the maximum number of archives downloaded at the same time
+     * @param queueCapacity            the maximum number of archives waiting for a download
+     * @param maxSizeBytes             the maximum size of an archive
+     * @param sweepBatchSize           the number of task answers read per query of the sweep
+     * @param sweepIntervalMillis      the delay between two sweeps
+     * @param retryDelayMinutes        the delay before a failed download is submitted again by the sweep
+     */
+    public GitHubArchiveService(
+            TaskAnswerRepository taskAnswerRepository,
+            BlobStore blobStore,
+            RestTemplate restTemplate,
+            JobLeaseService jobLeaseService,
+            @Value("${github.automatic-download-zip.enabled:false}") boolean automaticDownloadEnabled,
+            @Value("${github.token:}") String token,
+            @Value("${github.archive.workers:4}") int workers,
+            @Value("${github.archive.queue-capacity:1000}") int queueCapacity,
+            @Value("${github.archive.max-size-bytes:104857600}") long maxSizeBytes,
+            @Value("${github.archive.sweep-batch-size:200}") int sweepBatchSize,
+            @Value("${github.archive.sweep-interval-millis:900000}") long sweepIntervalMillis,
+            @Value("${github.archive.retry-delay-minutes:360}") long retryDelayMinutes
+    ) {
+        this.taskAnswerRepository = taskAnswerRepository;
+        this.blobStore = blobStore;
+        this.restTemplate = restTemplate;
+        this.jobLeaseService = jobLeaseService;
+        this.automaticDownloadEnabled = automaticDownloadEnabled;
+        this.token = token;
+        this.maxSizeBytes = maxSizeBytes;
+        this.sweepBatchSize = sweepBatchSize;
+        // Held across two sweeps, so the lease only moves to another instance if this one stops sweeping
+        this.sweepLease = Duration.ofMillis(2 * sweepIntervalMillis);
+        this.retryDelayMillis = TimeUnit.MINUTES.toMillis(retryDelayMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "github-archive-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    @Lookup
+    public GitHubArchiveService getSelf() {
+        return null;
+    }
+
+    /**
+     * Queues the download of the repository archive of a task answer once the current transaction
+     * is committed, or immediately if there is no transaction. Returns without waiting for GitHub.
+     *
+     * @param taskAnswerId the ID of the task answer
+     * @param repoUrl      the URL of the GitHub repository
+     */
+    public void fetchAfterCommit(Long taskAnswerId, String repoUrl) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(taskAnswerId, repoUrl);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(taskAnswerId, repoUrl);
+            }
+        });
+    }
+
+    private boolean submit(Long taskAnswerId, String repoUrl) {
+        if (!pendingTaskAnswerIds.add(taskAnswerId)) {
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    fetch(taskAnswerId, repoUrl);
+                } finally {
+                    pendingTaskAnswerIds.remove(taskAnswerId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingTaskAnswerIds.remove(taskAnswerId);
+            LOGGER.warn("Download queue is full, archive of TaskAnswer with id {} is left to the next sweep: {}", taskAnswerId, repoUrl);
+            return false;
+        }
+    }
+
+    /**
+     * Submits again the downloads of the passed answers having a GitHub repository URL but no archive,
+     * on the instance holding the lease of the sweep.
+     */
+    @Scheduled(initialDelay = 120000, fixedDelayString = "${github.archive.sweep-interval-millis:900000}")
+    public void resubmitMissingArchives() {
+        if (!automaticDownloadEnabled) {
+            return;
+        }
+
+        try {
+            if (!jobLeaseService.tryAcquire(SWEEP_JOB, sweepLease)) {
+                return;
+            }
+
+            int submitted = resubmitMissingArchivesOnce();
+
+            if (submitted > 0) {
+                LOGGER.info("Submitted again the download of {} missing archives", submitted);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to submit the missing archives", e);
+        }
+    }
+
+    /**
+     * Submits the downloads of the passed answers missing an archive until the download queue is full.
+     * Answers already queued and answers whose download failed less than the retry delay ago are skipped.
+     *
+     * @return the number of downloads submitted
+     */
+    int resubmitMissingArchivesOnce() {
+        long now = System.currentTimeMillis();
+        failedTaskAnswerIds.values().removeIf(retryAfter -> retryAfter <= now);
+
+        int submitted = 0;
+        long afterId = 0;
+
+        while (executor.getQueue().remainingCapacity() > 0) {
+            List<Object[]> rows = taskAnswerRepository.findPassedWithoutZipAnswerAfter(
+                    afterId,
+                    PageRequest.of(0, sweepBatchSize)
+            );
+
+            for (Object[] row : rows) {
+                Long taskAnswerId = (Long) row[0];
+                String repoUrl = (String) row[1];
+                afterId = taskAnswerId;
+
+                if (failedTaskAnswerIds.containsKey(taskAnswerId)
+                        || !GITHUB_REPOSITORY_URL.matcher(repoUrl).matches()) {
+                    continue;
+                }
+
+                if (executor.getQueue().remainingCapacity() == 0) {
+                    return submitted;
+                }
+
+                if (submit(taskAnswerId, repoUrl)) {
+                    submitted++;
+                }
+            }
+
+            if (rows.size() < sweepBatchSize) {
+                break;
+            }
+        }
+
+        return submitted;
+    }
+
+    /**
+     * Downloads the archive of a repository and stores its reference on the task answer.
+     * A failed download is left to the sweep once the retry delay is over.
+     *
+     * @param taskAnswerId the ID of the task answer
+     * @param repoUrl      the URL of the GitHub repository
+     */
+    void fetch(Long taskAnswerId, String repoUrl) {
+        if (download(taskAnswerId, repoUrl)) {
+            failedTaskAnswerIds.remove(taskAnswerId);
+        } else {
+            failedTaskAnswerIds.put(taskAnswerId, System.currentTimeMillis() + retryDelayMillis);
+        }
+    }
+
+    private boolean download(Long taskAnswerId, String repoUrl) {
+        try {
+            String ref = resolveArchiveRef(repoUrl.substring(GITHUB_URL_PREFIX.length()));
+
+            if (ref == null) {
+                return false;
+            }
+
+            String archiveUrl = repoUrl + "/archive/" + ref + ".zip";
+            BlobStore.Blob blob = restTemplate.execute(archiveUrl, HttpMethod.GET, null, response -> {
+                long contentLength = response.getHeaders().getContentLength();
+
+                if (contentLength > maxSizeBytes) {
+                    throw new IOException("Archive of " + contentLength + " bytes exceeds the limit of " + maxSizeBytes);
+                }
+
+                try (InputStream body = new SizeLimitedInputStream(response.getBody(), maxSizeBytes)) {
+                    return blobStore.write(body);
+                }
+            });
+
+            if (blob == null || blob.size() == 0) {
+                LOGGER.error("Empty ZIP archive received from {}", archiveUrl);
+                return false;
+            }
+
+            // Not saved only if the answer was changed or deleted meanwhile, nothing to retry then
+            getSelf().saveZipAnswer(taskAnswerId, repoUrl, blob);
+            return true;
+        } catch (HttpClientErrorException.NotFound e) {
+            LOGGER.error("Repository NOT FOUND or it is NOT PUBLIC: {}. Error: {}", repoUrl, e.getMessage());
+        } catch (RestClientException e) {
+            LOGGER.error("Failed to download ZIP archive of {}: {}", repoUrl, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save ZIP archive of TaskAnswer with id {}", taskAnswerId, e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Resolves the branch to download with the GitHub API, checking the repository size on the way.
+     * If the API can't be reached (e.g. rate limit), GitHub's {@code HEAD} reference is used,
+     * which also points to the default branch.
+     *
+     * @param repositoryName the name of the repository as {@code owner/name}
+     * @return the reference to download, or null if the repository must not be downloaded
+     */
+    String resolveArchiveRef(String repositoryName) {
+        try {
+            GHRepository repository = getGitHub().getRepository(repositoryName);
+
+            // The size is reported in kilobytes
+            if ((long) repository.getSize() * 1024 > maxSizeBytes) {
+                LOGGER.error("Repository {} of {} KB exceeds the archive size limit", repositoryName, repository.getSize());
+                return null;
+            }
+
+            return "refs/heads/" + repository.getDefaultBranch();
+        } catch (GHFileNotFoundException e) {
+            LOGGER.error("Repository NOT FOUND or it is NOT PUBLIC: {}", repositoryName);
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Default branch of {} can't be resolved, using {}: {}", repositoryName, DEFAULT_BRANCH_REF, e.getMessage());
+            return DEFAULT_BRANCH_REF;
+        }
+    }
+
+    /**
+     * Stores the reference of a downloaded archive on the task answer, unless the answer URL
+     * was changed while the archive was downloaded.
+     *
+     * @param taskAnswerId the ID of the task answer
+     * @param repoUrl      the URL of the downloaded repository
+     * @param blob         the stored archive
+     * @return true if the task answer was updated
+     */
+    @Transactional
+    public boolean saveZipAnswer(
+            Long taskAnswerId,
+            String repoUrl,
+            BlobStore.Blob blob
+    ) {
+        TaskAnswer taskAnswer = taskAnswerRepository.findById(taskAnswerId).orElse(null);
+
+        if (taskAnswer == null || !Objects.equals(taskAnswer.getAnswerUrl(), repoUrl)) {
+            return false;
+        }
+
+        taskAnswer.setZipAnswerHash(blob.hash());
+        taskAnswer.setZipAnswerSize(blob.size());
+        taskAnswer.setZipAnswerFile(null);
+
+        return true;
+    }
+
+    private GitHub getGitHub() throws IOException {
+        GitHub client = gitHub;
+
+        if (client == null) {
+            synchronized (this) {
+                client = gitHub;
+
+                if (client == null) {
+                    client = token == null || token.isBlank()
+                            ? GitHub.connectAnonymously()
+                            : new GitHubBuilder().withOAuthToken(token).build();
+                    gitHub = client;
+                }
+            }
+        }
+
+        return client;
+    }
+
+    /**
+     * Stops the download pool; queued downloads are dropped and submitted again by the next sweep.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stream failing once more than the allowed number of bytes is read, so an archive without
+     * a Content-Length header can't fill the disk.
+     */
+    private static class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long readBytes;
+
+        SizeLimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+
+            if (b >= 0) {
+                count(1);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+
+            if (n > 0) {
+                count(n);
+            }
+
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            readBytes += n;
+
+            if (readBytes > maxBytes) {
+                throw new IOException("Archive exceeds the limit of " + maxBytes + " bytes");
+            }
+        }
+    }
+
+}
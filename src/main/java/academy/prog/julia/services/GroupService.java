@@ -17,14 +17,20 @@ import java.util.Optional;
 public class GroupService {
 
     private final GroupRepository groupRepository;
+    private final SseService sseService;
 
     /**
-     * Constructor to inject the GroupRepository dependency.
+     * Constructor to inject the GroupRepository and SseService dependencies.
      *
      * @param groupRepository the repository for group data access.
+     * @param sseService the service sending events to the clients subscribed to a group.
      */
-    public GroupService(GroupRepository groupRepository) {
+    public GroupService(
+            GroupRepository groupRepository,
+            SseService sseService
+    ) {
         this.groupRepository = groupRepository;
+        this.sseService = sseService;
     }
 
     /**
@@ -57,14 +63,24 @@ public class GroupService {
      */
     @Transactional(readOnly = true)
     public boolean isStudentInGroup(Long userId, Long groupId) {
-        Optional<Group> groupOptional = groupRepository.findById(groupId);
+        if (userId == null || groupId == null) {
+            return false;
+        }
 
-        return groupOptional.map(group ->
-                        group.getClients()
-                                .stream()
-                                .anyMatch(user -> user.getId().equals(userId)))
-                        .orElse(false)
-        ;
+        return groupRepository.isClientOfGroup(groupId, userId);
+    }
+
+    /**
+     * Sends a message to the event streams of the members of a group.
+     *
+     * @param group the group.
+     * @param message the message to send.
+     */
+    public void notifyMembers(
+            Group group,
+            String message
+    ) {
+        sseService.notifyGroup(group.getId(), message);
     }
 
 }
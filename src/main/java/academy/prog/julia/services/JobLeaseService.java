@@ -0,0 +1,106 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.model.JobLease;
+import academy.prog.julia.repos.JobLeaseRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Service keeping a background job on one application instance at a time.
+ *
+ * Every call runs in its own transaction, so a lease is visible to the other instances as soon as it is taken.
+ * A lease expires unless the job extends it, so a crashed instance doesn't block the job forever.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger LOGGER = LogManager.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * Constructs a new JobLeaseService.
+     *
+     * @param jobLeaseRepository the repository for job leases
+     */
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository) {
+        this.jobLeaseRepository = jobLeaseRepository;
+    }
+
+    @Lookup
+    public JobLeaseService getSelf() {
+        return null;
+    }
+
+    /**
+     * Leases a job to this instance, or extends the lease this instance already holds.
+     *
+     * @param name     the name of the job
+     * @param duration the time the lease is held unless it is extended or released
+     * @return true if this instance holds the lease, false if another instance does
+     */
+    public boolean tryAcquire(
+            String name,
+            Duration duration
+    ) {
+        JobLeaseService self = getSelf();
+
+        if (!jobLeaseRepository.existsById(name)) {
+            try {
+                self.createLease(name);
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Lease of job {} was created by another instance", name);
+            }
+        }
+
+        return self.acquire(name, duration);
+    }
+
+    /**
+     * Creates the lease row of a job, held by no instance.
+     *
+     * @param name the name of the job
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createLease(String name) {
+        jobLeaseRepository.saveAndFlush(new JobLease(name));
+    }
+
+    /**
+     * Leases a job to this instance if it is free, expired or already held by this instance.
+     *
+     * @param name     the name of the job
+     * @param duration the time the lease is held
+     * @return true if this instance holds the lease
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean acquire(
+            String name,
+            Duration duration
+    ) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return jobLeaseRepository.acquire(name, instanceId, now, now.plus(duration)) > 0;
+    }
+
+    /**
+     * Releases the lease of a job if this instance holds it.
+     *
+     * @param name the name of the job
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        jobLeaseRepository.release(name, instanceId);
+    }
+
+}
@@ -1,17 +1,21 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.ContentResponseCache;
 import academy.prog.julia.dto.LessonDetailDTO;
 import academy.prog.julia.dto.LessonsDTO;
 import academy.prog.julia.dto.TasksGetNameDTO;
+import academy.prog.julia.json_responses.LessonDetailResponse;
 import academy.prog.julia.json_responses.LessonsResponse;
 import academy.prog.julia.model.*;
 import academy.prog.julia.repos.*;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,6 +33,7 @@ public class LessonsService {
     private final UserRepository userRepository;
     private final GroupService groupService;
     private final UserService userService;
+    private final ContentResponseCache contentResponseCache;
 
     /**
      * Constructor to inject necessary repositories and services.
@@ -38,6 +43,7 @@ public class LessonsService {
      * @param userRepository repository for users
      * @param groupService service to handle group-related logic
      * @param userService service to handle user-related logic
+     * @param contentResponseCache cache of the lesson listings and details, shared by all students
      */
 
     public LessonsService(
@@ -45,21 +51,24 @@ public class LessonsService {
             GroupRepository groupRepository,
             UserRepository userRepository,
             GroupService groupService,
-            UserService userService
+            UserService userService,
+            ContentResponseCache contentResponseCache
     ) {
         this.lessonsRepository = lessonsRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.groupService = groupService;
         this.userService = userService;
+        this.contentResponseCache = contentResponseCache;
     }
 
     /**
      * Retrieves all lessons for a given course (group).
      * Throws an exception if the course is not found.
+     * The lessons are built once per content version of the course and then served from memory.
      *
      * @param courseId the ID of the course
-     * @return a list of lessons as LessonsDTO objects
+     * @return an unmodifiable list of lessons as LessonsDTO objects
      */
     @Transactional(readOnly = true)
     public List<LessonsDTO> getCourseLessons(Long courseId) {
@@ -69,34 +78,62 @@ public class LessonsService {
             throw new EntityNotFoundException("Courses not found with id: " + courseId);
         }
 
-        List<Lesson> lessons = lessonsRepository.findCourseLessons(courseId);
-
-        return lessons.stream()
-                .map(lesson -> new LessonsDTO(
-                        lesson.getId(),
-                        lesson.getName(),
-                        lesson.getTasks().stream()
-                                .map(TasksGetNameDTO::fromTask)
-                                .collect(Collectors.toList())))
-                .collect(Collectors.toList())
-        ;
+        return contentResponseCache.getCourseLessons(courseId, () -> {
+            List<Lesson> lessons = lessonsRepository.findCourseLessons(courseId);
+
+            return lessons.stream()
+                    .map(lesson -> new LessonsDTO(
+                            lesson.getId(),
+                            lesson.getName(),
+                            lesson.getTasks().stream()
+                                    .map(TasksGetNameDTO::fromTask)
+                                    .collect(Collectors.toList())))
+                    .toList()
+            ;
+        });
     }
 
     /**
      * Retrieves detailed information about a specific lesson.
      * Throws an exception if the lesson is not found.
+     * The details are built once per content version of the lesson and then served from memory.
+     * The response is built in this transaction, so the cached response holds no entities.
      *
      * @param lessonId the ID of the lesson
-     * @return a LessonDetailDTO object containing lesson details
+     * @return a LessonDetailResponse object containing lesson details
      */
     @Transactional(readOnly = true)
-    public LessonDetailDTO getLessonDetails(Long lessonId) {
-        Lesson lesson = lessonsRepository
-                .findById(lessonId)
-                .orElseThrow(NoSuchElementException::new)
-        ;
+    public LessonDetailResponse getLessonDetails(Long lessonId) {
+        return contentResponseCache.getLessonDetails(lessonId, () -> {
+            Lesson lesson = lessonsRepository
+                    .findById(lessonId)
+                    .orElseThrow(NoSuchElementException::new)
+            ;
+
+            return LessonDetailResponse.fromDTO(convertToLessonDetailDTO(lesson));
+        });
+    }
 
-        return convertToLessonDetailDTO(lesson);
+    /**
+     * Returns the entity tag of the lesson listing of a course, derived from its content version.
+     * No database access is needed, so unchanged listings are revalidated for free.
+     *
+     * @param courseId the ID of the course
+     * @return the quoted entity tag
+     */
+    public String getCourseLessonsETag(Long courseId) {
+        return contentResponseCache.getCourseLessonsETag(courseId);
+    }
+
+    /**
+     * Returns the entity tag of the details of a lesson, derived from its content version.
+     * No database access is needed, so unchanged details are revalidated for free.
+     *
+     * @param lessonId the ID of the lesson
+     * @return the quoted entity tag
+     */
+    public String getLessonDetailsETag(Long lessonId) {
+        return contentResponseCache.getLessonDetailsETag(lessonId);
     }
 
     /**
@@ -128,33 +165,31 @@ public class LessonsService {
 
     @Transactional(readOnly = true)
     public boolean isUserInCourse(Long currentUserId, Long lessonId) {
-        Optional<User> optionalUser = userRepository.findById(currentUserId);
-        User user = optionalUser.orElse(null);
-
-        List<Group> groups = groupRepository.findAllByLessonId(lessonId);
-
-        for (Group group : groups) {
-            if (group.getClients().contains(user)) {
-                return true;
-            }
+        if (currentUserId == null) {
+            return false;
         }
 
-        return false;
+        return groupRepository.isClientOfLessonGroup(lessonId, currentUserId);
     }
 
     /**
      * Handles the logic of fetching lessons for a course and checks if the user is authorized.
+     * The user's membership is checked before the conditional request headers, so a 304 Not Modified
+     * is only sent to members of the course; it is then sent without loading the lessons.
      *
      * @param courseId the ID of the course
      * @param sessionId the session ID of the user
      * @param session the HTTP session to store session-related information
-     * @return ResponseEntity containing a list of lessons or an error message if unauthorized
+     * @param request the current request, used for the conditional request headers
+     * @return ResponseEntity containing a list of lessons or an error message if unauthorized,
+     *         or null if the client already has the current lessons
      */
     @Transactional(readOnly = true)
     public ResponseEntity<List<LessonsResponse>> getLessonsForCourse(
             Long courseId,
             String sessionId,
-            HttpSession session
+            HttpSession session,
+            WebRequest request
     ) {
         String principalNameAsEmail = userService.getPrincipalNameBySessionId(sessionId);
 
@@ -171,6 +206,12 @@ public class LessonsService {
             ;
         }
 
+        session.setAttribute("courseId", courseId);
+
+        if (request.checkNotModified(getCourseLessonsETag(courseId))) {
+            return null;
+        }
+
         if (!doesCourseExist(courseId)) {
             return ResponseEntity
                     .status(HttpStatus.NOT_FOUND)
@@ -180,12 +221,12 @@ public class LessonsService {
             ;
         }
 
-        session.setAttribute("courseId", courseId);
-
         List<LessonsDTO> lessonDTOList = getCourseLessons(courseId);
         List<LessonsResponse> lessonsResponses = LessonsResponse.fromDTO(lessonDTOList);
 
-        return ResponseEntity.ok(lessonsResponses);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(lessonsResponses);
     }
 
 }
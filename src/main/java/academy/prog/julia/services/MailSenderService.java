@@ -1,5 +1,6 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.BlobStore;
 import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.User;
 import academy.prog.julia.repos.CertificateRepository;
@@ -27,6 +28,7 @@ public class MailSenderService {
 
     private final JavaMailSender javaMailSender;
     private final CertificateRepository certificateRepository;
+    private final BlobStore blobStore;
 
     @Value("${spring.mail.username}")
     private String emailFrom;
@@ -36,13 +38,16 @@ public class MailSenderService {
      *
      * @param javaMailSender the JavaMailSender instance for sending emails
      * @param certificateRepository the repository for accessing Certificate entities
+     * @param blobStore the store of the certificate files
      */
     public MailSenderService(
             JavaMailSender javaMailSender,
-            CertificateRepository certificateRepository
+            CertificateRepository certificateRepository,
+            BlobStore blobStore
     ) {
         this.javaMailSender = javaMailSender;
         this.certificateRepository = certificateRepository;
+        this.blobStore = blobStore;
     }
 
     /**
@@ -78,10 +83,20 @@ public class MailSenderService {
             helper.setText(messageBody, true);
 
             // Add the certificate as an attachment
-            ByteArrayDataSource dataSource =
-                    new ByteArrayDataSource(certificate.getFile(), "application/octet-stream");
-
-            helper.addAttachment(certificate.getUniqueId(), dataSource);
+            if (certificate.getFileHash() != null) {
+                // Streamed from the blob store while the message is written
+                String fileHash = certificate.getFileHash();
+                helper.addAttachment(
+                        certificate.getUniqueId(),
+                        () -> blobStore.openStream(fileHash),
+                        "application/octet-stream"
+                );
+            } else {
+                ByteArrayDataSource dataSource =
+                        new ByteArrayDataSource(certificate.getFile(), "application/octet-stream");
+
+                helper.addAttachment(certificate.getUniqueId(), dataSource);
+            }
         } catch (MessagingException e) {
             LOGGER.error("Failed to send email. Error: {}", e.getMessage());
             throw new JuliaRuntimeException("Failed to send email");
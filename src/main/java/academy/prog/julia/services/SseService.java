@@ -1,59 +1,433 @@
 package academy.prog.julia.services;
 
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for handling Server-Sent Events (SSE).
  * Manages SSE emitters and handles sending messages to the frontend.
+ *
+ * Subscribers are grouped into topics (admin dashboard, a single user, a group).
+ * Publishing only puts the event into the bounded buffer of every subscriber of the topic;
+ * the events are written to the clients by a separate thread pool, so a slow or large audience
+ * never blocks the publishing thread (e.g. the Telegram update handling).
+ * A subscriber whose buffer is full is disconnected and can reconnect with {@code Last-Event-ID}
+ * to receive the missed events from the replay buffer of the topic.
  */
 @Service
 public class SseService {
 
+    private static final Logger LOGGER = LogManager.getLogger(SseService.class);
+
+    public static final String ADMIN_TOPIC = "admin";
+
+    private static final long IDLE_CHANNEL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     @Value("${allowed_cross_origin}")
     private String crossOrigin;
 
-    // List of active SSE emitters to push events to clients
-    private final List<SseEmitter> emitters = new ArrayList<>();
+    private final int subscriberBufferSize;
+    private final int replayBufferSize;
+    private final ExecutorService sender;
+
+    // Topic name -> channel with its subscribers and recent events
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
 
     /**
-     * Sets up a new SseEmitter and adds it to the list of active emitters.
+     * Constructs the service.
+     *
+     * @param subscriberBufferSize the number of events buffered for a client before it is dropped as too slow
+     * @param replayBufferSize     the number of recent events per topic available for {@code Last-Event-ID} replay
+     * @param senderThreads        the number of threads writing events to the clients
+     */
+    public SseService(
+            @Value("${sse.subscriber-buffer-size:64}") int subscriberBufferSize,
+            @Value("${sse.replay-buffer-size:100}") int replayBufferSize,
+            @Value("${sse.sender-threads:4}") int senderThreads
+    ) {
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.replayBufferSize = replayBufferSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the topic of a single user.
+     *
+     * @param userId the ID of the user
+     * @return the topic name
+     */
+    public static String userTopic(Long userId) {
+        return "user:" + userId;
+    }
+
+    /**
+     * Returns the topic of a group.
+     *
+     * @param groupId the ID of the group
+     * @return the topic name
+     */
+    public static String groupTopic(Long groupId) {
+        return "group:" + groupId;
+    }
+
+    /**
+     * Sets up a new SseEmitter subscribed to the admin topic.
      *
      * @param response HttpServletResponse to set the Access-Control-Allow-Origin header
      * @return the initialized SseEmitter
      */
     public SseEmitter createEmitter(HttpServletResponse response) {
+        return createEmitter(response, ADMIN_TOPIC, null);
+    }
+
+    /**
+     * Sets up a new SseEmitter subscribed to a topic.
+     * If the client sends the ID of the last event it received, the newer events
+     * still kept in the replay buffer of the topic are sent first.
+     *
+     * @param response    HttpServletResponse to set the Access-Control-Allow-Origin header
+     * @param topic       the topic to subscribe to
+     * @param lastEventId the value of the {@code Last-Event-ID} header, or null
+     * @return the initialized SseEmitter
+     */
+    public SseEmitter createEmitter(
+            HttpServletResponse response,
+            String topic,
+            String lastEventId
+    ) {
         response.setHeader("Access-Control-Allow-Origin", crossOrigin);
-        SseEmitter emitter = new SseEmitter();
-        emitters.add(emitter);
+        SseEmitter emitter = newEmitter();
+
+        Subscriber subscriber = new Subscriber(emitter, subscriberBufferSize);
+        long lastId = parseEventId(lastEventId);
+
+        // Subscribing inside compute() keeps the channel from being evicted concurrently
+        Channel channel = channels.compute(topic, (name, current) -> {
+            Channel result = current != null ? current : new Channel(replayBufferSize);
+            result.subscribe(subscriber, lastId);
+            return result;
+        });
+
+        // Remove emitter on completion, timeout or error
+        emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+        emitter.onError(e -> channel.subscribers.remove(subscriber));
 
-        // Remove emitter on completion or timeout
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
+        schedule(subscriber, channel);
 
         return emitter;
     }
 
     /**
-     * Sends a message to all active SSE clients.
+     * Creates the emitter of a new client connection.
+     *
+     * @return a new SseEmitter
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter();
+    }
+
+    /**
+     * Sends a message to all clients of the admin topic.
      *
      * @param message the message to be sent to all clients
      */
     public void notifyFrontend(String message) {
-        List<SseEmitter> deadEmitters = new ArrayList<>();
-        for (SseEmitter emitter : emitters) {
+        publish(ADMIN_TOPIC, message);
+    }
+
+    /**
+     * Sends a message to the clients of a user.
+     *
+     * @param userId  the ID of the user
+     * @param message the message to send
+     */
+    public void notifyUser(
+            Long userId,
+            String message
+    ) {
+        publish(userTopic(userId), message);
+    }
+
+    /**
+     * Sends a message to the clients subscribed to a group.
+     *
+     * @param groupId the ID of the group
+     * @param message the message to send
+     */
+    public void notifyGroup(
+            Long groupId,
+            String message
+    ) {
+        publish(groupTopic(groupId), message);
+    }
+
+    /**
+     * Publishes a message to a topic. Returns immediately; the message is written to the clients asynchronously.
+     * Inside a transaction the message is published once the transaction commits, so clients never see
+     * changes that are rolled back.
+     *
+     * @param topic   the topic name
+     * @param message the message to send
+     */
+    public void publish(
+            String topic,
+            String message
+    ) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishNow(topic, message);
+                }
+            });
+            return;
+        }
+
+        publishNow(topic, message);
+    }
+
+    /**
+     * Puts a message into the buffers of the subscribers of a topic and schedules the delivery.
+     *
+     * @param topic   the topic name
+     * @param message the message to send
+     */
+    private void publishNow(
+            String topic,
+            String message
+    ) {
+        Channel channel = channels.computeIfAbsent(topic, name -> new Channel(replayBufferSize));
+
+        for (Subscriber subscriber : channel.publish(message)) {
+            drop(subscriber, channel);
+        }
+
+        for (Subscriber subscriber : channel.subscribers) {
+            schedule(subscriber, channel);
+        }
+    }
+
+    /**
+     * Sends a heartbeat comment to every client, so proxies keep idle connections open
+     * and disconnected clients are detected. Topics without clients and events for a while are removed.
+     */
+    @Scheduled(fixedDelay = 15000)
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            subscriber.heartbeatPending = true;
+            schedule(subscriber, channel);
+        }));
+
+        for (String topic : channels.keySet()) {
+            channels.computeIfPresent(topic, (name, channel) ->
+                    channel.subscribers.isEmpty() && now - channel.lastActivityMillis > IDLE_CHANNEL_MILLIS ? null : channel
+            );
+        }
+    }
+
+    /**
+     * Returns the number of connected clients of a topic.
+     *
+     * @param topic the topic name
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount(String topic) {
+        Channel channel = channels.get(topic);
+
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    /**
+     * Stops the sender threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Starts writing the buffered events of a subscriber unless a writer is already running for it.
+     */
+    private void schedule(
+            Subscriber subscriber,
+            Channel channel
+    ) {
+        if (subscriber.draining.compareAndSet(false, true)) {
             try {
-                emitter.send(SseEmitter.event().data(message));
-            } catch (IOException e) {
-                deadEmitters.add(emitter);  // Collect dead emitters for removal
+                sender.execute(() -> drain(subscriber, channel));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
             }
         }
-        emitters.removeAll(deadEmitters);
     }
+
+    /**
+     * Writes the buffered events of a subscriber to its emitter.
+     */
+    private void drain(
+            Subscriber subscriber,
+            Channel channel
+    ) {
+        try {
+            do {
+                Event event;
+
+                while ((event = subscriber.buffer.poll()) != null) {
+                    subscriber.emitter.send(SseEmitter.event().id(Long.toString(event.id())).data(event.data()));
+                }
+
+                if (subscriber.heartbeatPending) {
+                    subscriber.heartbeatPending = false;
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+
+                subscriber.draining.set(false);
+            } while ((!subscriber.buffer.isEmpty() || subscriber.heartbeatPending)
+                    && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or emitter already completed
+            subscriber.draining.set(false);
+            channel.subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * Disconnects a subscriber which doesn't keep up with the events of its topic.
+     */
+    private void drop(
+            Subscriber subscriber,
+            Channel channel
+    ) {
+        channel.subscribers.remove(subscriber);
+        LOGGER.warn("SSE client dropped: buffer of {} events is full", subscriberBufferSize);
+
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed
+        }
+    }
+
+    private static long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * An event with its ID within the topic.
+     */
+    private record Event(long id, String data) {}
+
+    /**
+     * A connected client with its bounded buffer of events not yet written.
+     */
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatPending;
+
+        Subscriber(
+                SseEmitter emitter,
+                int bufferSize
+        ) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    /**
+     * A topic: the concurrent set of its subscribers and a ring buffer of its recent events.
+     *
+     * Appending an event and offering it to the subscribers happen under the channel lock,
+     * so a new subscriber gets every event exactly once and in order: either from the replay
+     * or live. Offering never blocks, so the lock is held only for a few memory operations.
+     */
+    private static class Channel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final Event[] recent;
+        private long nextId = 1;
+        private volatile long lastActivityMillis = System.currentTimeMillis();
+
+        Channel(int replayBufferSize) {
+            this.recent = new Event[Math.max(1, replayBufferSize)];
+        }
+
+        /**
+         * Stores the event and offers it to every subscriber.
+         *
+         * @return the subscribers whose buffer is full
+         */
+        synchronized List<Subscriber> publish(String data) {
+            lastActivityMillis = System.currentTimeMillis();
+            Event event = new Event(nextId, data);
+            recent[(int) (nextId % recent.length)] = event;
+            nextId++;
+
+            List<Subscriber> slow = new ArrayList<>();
+
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.buffer.offer(event)) {
+                    slow.add(subscriber);
+                }
+            }
+
+            return slow;
+        }
+
+        /**
+         * Adds a subscriber and buffers the stored events newer than the last event it received.
+         */
+        synchronized void subscribe(
+                Subscriber subscriber,
+                long lastEventId
+        ) {
+            lastActivityMillis = System.currentTimeMillis();
+
+            if (lastEventId >= 0) {
+                long first = Math.max(lastEventId + 1, nextId - recent.length);
+
+                for (long id = first; id < nextId; id++) {
+                    Event event = recent[(int) (id % recent.length)];
+
+                    if (event != null && event.id() == id && !subscriber.buffer.offer(event)) {
+                        break;
+                    }
+                }
+            }
+
+            subscribers.add(subscriber);
+        }
+    }
+
 }
@@ -0,0 +1,437 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.dto.LessonProgressDTO;
+import academy.prog.julia.dto.LessonProgressStatsDTO;
+import academy.prog.julia.dto.TaskProgressDTO;
+import academy.prog.julia.model.StudentCourseProgress;
+import academy.prog.julia.model.StudentLessonProgress;
+import academy.prog.julia.repos.LessonRepository;
+import academy.prog.julia.repos.StudentCourseProgressRepository;
+import academy.prog.julia.repos.StudentLessonProgressRepository;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the precomputed progress of students ('student_lesson_progress' and
+ * 'student_course_progress' tables).
+ *
+ * The counters are refreshed in the transaction that submits or grades a task answer, or that moves or removes
+ * lessons, and progress reads only combine them with the number of tasks of the lessons.
+ *
+ * A missing counter row is created in its own transaction before the refresh locks it, so concurrent
+ * refreshes of the same student never fail on the unique constraints and are applied one after another.
+ */
+@Service
+public class StudentProgressService {
+
+    private static final Logger LOGGER = LogManager.getLogger(StudentProgressService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final String REBUILD_JOB = "student-progress-rebuild";
+    private static final Duration REBUILD_LEASE = Duration.ofMinutes(10);
+
+    private final StudentLessonProgressRepository studentLessonProgressRepository;
+    private final StudentCourseProgressRepository studentCourseProgressRepository;
+    private final TaskAnswerRepository taskAnswerRepository;
+    private final LessonRepository lessonRepository;
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * Constructs a new StudentProgressService with the required repositories.
+     *
+     * @param studentLessonProgressRepository the repository for per-lesson progress counters
+     * @param studentCourseProgressRepository the repository for per-course progress counters
+     * @param taskAnswerRepository the repository for task answers
+     * @param lessonRepository the repository for lessons
+     * @param jobLeaseService the service keeping the rebuild on one instance
+     */
+    public StudentProgressService(
+            StudentLessonProgressRepository studentLessonProgressRepository,
+            StudentCourseProgressRepository studentCourseProgressRepository,
+            TaskAnswerRepository taskAnswerRepository,
+            LessonRepository lessonRepository,
+            JobLeaseService jobLeaseService
+    ) {
+        this.studentLessonProgressRepository = studentLessonProgressRepository;
+        this.studentCourseProgressRepository = studentCourseProgressRepository;
+        this.taskAnswerRepository = taskAnswerRepository;
+        this.lessonRepository = lessonRepository;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @Lookup
+    public StudentProgressService getSelf() {
+        return null;
+    }
+
+    /**
+     * Recalculates the progress counters of a student for a lesson and for every course containing the lesson.
+     * Joins the current transaction, so the counters are committed together with the task answer change.
+     *
+     * @param userId the ID of the student
+     * @param lessonId the ID of the lesson whose task answer was submitted or graded
+     */
+    @Transactional
+    public void refreshProgress(
+            Long userId,
+            Long lessonId
+    ) {
+        if (Objects.isNull(userId) || Objects.isNull(lessonId)) {
+            return;
+        }
+
+        Optional<LessonProgressStatsDTO> lessonStats = taskAnswerRepository
+                .findLessonProgressStats(userId, lessonId)
+                .stream()
+                .findFirst();
+
+        if (lessonStats.isEmpty()) {
+            LOGGER.warn("Lesson with id {} not found, progress of user {} is not refreshed", lessonId, userId);
+            return;
+        }
+
+        StudentLessonProgress lessonProgress = lockLessonProgress(userId, lessonId);
+
+        LessonProgressStatsDTO stats = lessonStats.get();
+        lessonProgress.setAnswered((int) stats.getAnswered());
+        lessonProgress.setPassed((int) stats.getPassed());
+        lessonProgress.setCorrection((int) stats.getCorrection());
+        lessonProgress.setSubmitted((int) stats.getSubmitted());
+        lessonProgress.setUpdatedDate(new Date());
+        studentLessonProgressRepository.save(lessonProgress);
+
+        for (Long courseId : lessonRepository.findGroupIdsByLessonId(lessonId)) {
+            refreshCourseProgress(userId, courseId);
+        }
+    }
+
+    /**
+     * Recalculates the course counters of a student as the sum of the student's lesson counters.
+     *
+     * @param userId the ID of the student
+     * @param courseId the ID of the course
+     */
+    private void refreshCourseProgress(
+            Long userId,
+            Long courseId
+    ) {
+        List<StudentLessonProgress> lessonsProgress =
+                studentLessonProgressRepository.findCourseLessonsProgress(userId, courseId);
+
+        StudentCourseProgress courseProgress = lockCourseProgress(userId, courseId);
+
+        courseProgress.setAnswered(lessonsProgress.stream().mapToInt(StudentLessonProgress::getAnswered).sum());
+        courseProgress.setPassed(lessonsProgress.stream().mapToInt(StudentLessonProgress::getPassed).sum());
+        courseProgress.setUpdatedDate(new Date());
+        studentCourseProgressRepository.save(courseProgress);
+    }
+
+    /**
+     * Updates the counters after the lessons of courses changed: the lesson counters of removed lessons are deleted
+     * and the course counters of every student with progress in the changed courses are recalculated.
+     * Joins the current transaction, so the counters are committed together with the lesson changes.
+     *
+     * @param courseIds the IDs of the courses whose lessons were added, moved or removed
+     * @param removedLessonIds the IDs of the removed lessons
+     */
+    @Transactional
+    public void refreshCoursesProgress(
+            Collection<Long> courseIds,
+            Collection<Long> removedLessonIds
+    ) {
+        // The queries below read the lessons of the courses, so the pending lesson changes are written first
+        studentLessonProgressRepository.flush();
+        removedLessonIds.forEach(studentLessonProgressRepository::deleteByLessonId);
+
+        for (Long courseId : courseIds) {
+            if (Objects.isNull(courseId)) {
+                continue;
+            }
+
+            Set<Long> userIds = new HashSet<>(studentCourseProgressRepository.findUserIdsByCourseId(courseId));
+            userIds.addAll(studentLessonProgressRepository.findUserIdsByCourseId(courseId));
+
+            for (Long userId : userIds) {
+                refreshCourseProgress(userId, courseId);
+            }
+        }
+    }
+
+    /**
+     * Finds and locks the lesson counters of a student, creating them first if they don't exist.
+     *
+     * @param userId the ID of the student
+     * @param lessonId the ID of the lesson
+     * @return the locked counters
+     */
+    private StudentLessonProgress lockLessonProgress(
+            Long userId,
+            Long lessonId
+    ) {
+        if (studentLessonProgressRepository.findByUserIdAndLessonId(userId, lessonId).isEmpty()) {
+            try {
+                getSelf().createLessonProgress(userId, lessonId);
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Progress of user {} for lesson {} was created concurrently", userId, lessonId);
+            }
+        }
+
+        return studentLessonProgressRepository.findWithLockByUserIdAndLessonId(userId, lessonId).orElseThrow();
+    }
+
+    /**
+     * Finds and locks the course counters of a student, creating them first if they don't exist.
+     *
+     * @param userId the ID of the student
+     * @param courseId the ID of the course
+     * @return the locked counters
+     */
+    private StudentCourseProgress lockCourseProgress(
+            Long userId,
+            Long courseId
+    ) {
+        if (studentCourseProgressRepository.findByUserIdAndCourseId(userId, courseId).isEmpty()) {
+            try {
+                getSelf().createCourseProgress(userId, courseId);
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.debug("Progress of user {} for course {} was created concurrently", userId, courseId);
+            }
+        }
+
+        return studentCourseProgressRepository.findWithLockByUserIdAndCourseId(userId, courseId).orElseThrow();
+    }
+
+    /**
+     * Creates empty lesson counters of a student in a new transaction, so a concurrent insert of the same
+     * counters only fails this transaction and not the one refreshing them.
+     *
+     * @param userId the ID of the student
+     * @param lessonId the ID of the lesson
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createLessonProgress(
+            Long userId,
+            Long lessonId
+    ) {
+        StudentLessonProgress progress = new StudentLessonProgress();
+        progress.setUserId(userId);
+        progress.setLessonId(lessonId);
+        progress.setUpdatedDate(new Date());
+        studentLessonProgressRepository.saveAndFlush(progress);
+    }
+
+    /**
+     * Creates empty course counters of a student in a new transaction, so a concurrent insert of the same
+     * counters only fails this transaction and not the one refreshing them.
+     *
+     * @param userId the ID of the student
+     * @param courseId the ID of the course
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createCourseProgress(
+            Long userId,
+            Long courseId
+    ) {
+        StudentCourseProgress progress = new StudentCourseProgress();
+        progress.setUserId(userId);
+        progress.setCourseId(courseId);
+        progress.setUpdatedDate(new Date());
+        studentCourseProgressRepository.saveAndFlush(progress);
+    }
+
+    /**
+     * Retrieves the progress of a student for a course from the precomputed course counters.
+     *
+     * @param userId the ID of the student
+     * @param courseId the ID of the course
+     * @return a DTO with the course progress, {@code 0} if the course has no lessons
+     * and {@code null} progress if its lessons have no tasks
+     */
+    @Transactional(readOnly = true)
+    public TaskProgressDTO getCourseProgress(
+            Long userId,
+            Long courseId
+    ) {
+        List<LessonProgressStatsDTO> taskCounts = lessonRepository.findCourseLessonsTaskCounts(courseId);
+
+        if (taskCounts.isEmpty()) {
+            return new TaskProgressDTO(courseId, 0);
+        }
+
+        long tasks = taskCounts.stream().mapToLong(LessonProgressStatsDTO::getTasks).sum();
+
+        if (tasks == 0) {
+            return new TaskProgressDTO(courseId, null);
+        }
+
+        long passed = studentCourseProgressRepository.findByUserIdAndCourseId(userId, courseId)
+                .map(StudentCourseProgress::getPassed)
+                .orElse(0);
+
+        return new TaskProgressDTO(courseId, (int) (Math.min(passed, tasks) * 100 / tasks));
+    }
+
+    /**
+     * Retrieves the progress of a student for every lesson of a course from the precomputed lesson counters.
+     *
+     * @param userId the ID of the student
+     * @param courseId the ID of the course
+     * @return a list of lesson progress DTOs ordered by lesson ID
+     */
+    @Transactional(readOnly = true)
+    public List<LessonProgressDTO> getCourseLessonsProgress(
+            Long userId,
+            Long courseId
+    ) {
+        Map<Long, StudentLessonProgress> progressByLesson = studentLessonProgressRepository
+                .findCourseLessonsProgress(userId, courseId)
+                .stream()
+                .collect(Collectors.toMap(StudentLessonProgress::getLessonId, Function.identity()));
+
+        return lessonRepository.findCourseLessonsTaskCounts(courseId).stream()
+                .sorted(Comparator.comparing(LessonProgressStatsDTO::getLessonId))
+                .map(taskCount -> mergeStats(taskCount, progressByLesson.get(taskCount.getLessonId())))
+                .map(LessonProgressStatsDTO::toLessonProgressDTO)
+                .toList();
+    }
+
+    /**
+     * Retrieves the progress of a student for a lesson from the precomputed lesson counters.
+     *
+     * @param userId the ID of the student
+     * @param lessonId the ID of the lesson
+     * @return an {@code Optional} with the lesson progress, or empty if the lesson does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<LessonProgressDTO> getLessonProgress(
+            Long userId,
+            Long lessonId
+    ) {
+        return lessonRepository.findLessonTaskCount(lessonId).stream()
+                .findFirst()
+                .map(taskCount -> mergeStats(
+                        taskCount,
+                        studentLessonProgressRepository.findByUserIdAndLessonId(userId, lessonId).orElse(null)
+                ))
+                .map(LessonProgressStatsDTO::toLessonProgressDTO);
+    }
+
+    /**
+     * Combines the number of tasks of a lesson with the stored counters of a student.
+     * Counters are capped by the number of tasks in case tasks were removed after the last refresh.
+     *
+     * @param taskCount the number of tasks of the lesson
+     * @param progress the stored counters of the student, or {@code null} if the student has no answers
+     * @return the merged counters
+     */
+    private LessonProgressStatsDTO mergeStats(
+            LessonProgressStatsDTO taskCount,
+            StudentLessonProgress progress
+    ) {
+        if (Objects.isNull(progress)) {
+            return taskCount;
+        }
+
+        long tasks = taskCount.getTasks();
+
+        return new LessonProgressStatsDTO(
+                taskCount.getLessonId(),
+                tasks,
+                Math.min(progress.getAnswered(), tasks),
+                Math.min(progress.getPassed(), tasks),
+                Math.min(progress.getCorrection(), tasks),
+                Math.min(progress.getSubmitted(), tasks)
+        );
+    }
+
+    /**
+     * Fills the progress tables after deployment if they are empty while task answers already exist.
+     * The rebuild runs on a background thread, so it doesn't delay the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        Thread thread = new Thread(this::rebuildIfEmptyOnce, "student-progress-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuilds the empty progress tables on the instance getting the lease of the rebuild;
+     * the other instances skip it.
+     *
+     * @return true if the tables were rebuilt by this call
+     */
+    boolean rebuildIfEmptyOnce() {
+        try {
+            if (!isRebuildNeeded() || !jobLeaseService.tryAcquire(REBUILD_JOB, REBUILD_LEASE)) {
+                return false;
+            }
+
+            try {
+                // Another instance may have finished the rebuild before this one got the lease
+                if (!isRebuildNeeded()) {
+                    return false;
+                }
+
+                rebuildAll();
+                return true;
+            } finally {
+                jobLeaseService.release(REBUILD_JOB);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to rebuild student progress", e);
+            return false;
+        }
+    }
+
+    private boolean isRebuildNeeded() {
+        return studentLessonProgressRepository.count() == 0 && taskAnswerRepository.count() > 0;
+    }
+
+    /**
+     * Recalculates the progress of every student from the existing task answers.
+     * Pairs of (student, lesson) are processed in batches, each refresh in its own transaction.
+     * The lease of the rebuild is extended after every batch, so other instances don't start it meanwhile.
+     *
+     * @return the number of refreshed (student, lesson) pairs
+     */
+    public int rebuildAll() {
+        StudentProgressService self = getSelf();
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE);
+        int refreshed = 0;
+        Slice<Object[]> pairs;
+
+        do {
+            pairs = taskAnswerRepository.findAnsweredUserLessonPairs(pageable);
+
+            for (Object[] pair : pairs) {
+                self.refreshProgress((Long) pair[0], (Long) pair[1]);
+                refreshed++;
+            }
+
+            jobLeaseService.tryAcquire(REBUILD_JOB, REBUILD_LEASE);
+            pageable = pairs.nextPageable();
+        } while (pairs.hasNext());
+
+        LOGGER.info("Student progress rebuilt for {} (user, lesson) pairs", refreshed);
+
+        return refreshed;
+    }
+
+}
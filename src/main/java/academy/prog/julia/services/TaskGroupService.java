@@ -1,6 +1,8 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.dto.CursorPageDTO;
 import academy.prog.julia.dto.TasksGroupResponseDTO;
+import academy.prog.julia.utils.PageCursor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -51,4 +53,25 @@ public class TaskGroupService {
         );
     }
 
+    /**
+     * Finds tasks by group name with keyset (cursor) pagination support.
+     * Every page costs the same whatever its depth, and no task is skipped or repeated when tasks change between pages.
+     *
+     * @param groupName the name of the task group to search for (can be null for no filtering)
+     * @param cursor the cursor returned with the previous page, empty for the first page
+     * @param size an Optional representing the page size (number of tasks per page)
+     * @return the tasks in the specified group, with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<List<TasksGroupResponseDTO>> findTasksByGroupNameAfter(
+            String groupName,
+            String cursor,
+            Optional<Integer> size
+    ) {
+        return taskService.findPendingAfter(
+                groupName, PageCursor.decode(cursor), size.orElse(PAGE_SIZE_DEFAULT)
+        );
+    }
+
 }
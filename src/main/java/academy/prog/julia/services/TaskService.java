@@ -1,5 +1,6 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.BlobStore;
 import academy.prog.julia.dto.*;
 import academy.prog.julia.exceptions.ResourceNotFoundException;
 import academy.prog.julia.json_requests.TaskAnswerStartRequest;
@@ -9,12 +10,15 @@ import academy.prog.julia.json_responses.TaskDetailsResponse;
 import academy.prog.julia.json_responses.TaskProgressResponse;
 import academy.prog.julia.model.*;
 import academy.prog.julia.repos.*;
+import academy.prog.julia.utils.PageCursor;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,17 +28,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Service class responsible for managing tasks and task answers, including fetching and submitting task details.
@@ -50,8 +54,10 @@ public class TaskService {
     private final GroupRepository groupRepository;
     private final GroupService groupService;
     private final Environment environment;
-    private final RestTemplate restTemplate;
     private final UserService userService;
+    private final StudentProgressService studentProgressService;
+    private final BlobStore blobStore;
+    private final GitHubArchiveService gitHubArchiveService;
     private static final String KEY_STATUS = "status";
     private static final String VALUE_STATUS = "success";
     private static final String KEY_MESSAGE = "message";
@@ -69,6 +75,7 @@ public class TaskService {
     private static final String VALUE_FAILED_STATUS = "failed";
     private static final String COURSE_NOT_FOUND_MESSAGE = "Courses not found with id: %s";
     private static final String LESSON_NOT_FOUND_MESSAGE = "Lesson not found with id: %s";
+    private static final int ZIP_EXPORT_BATCH_SIZE = 50;
 
     /**
      * Constructs a new TaskService with the required repositories and services.
@@ -79,8 +86,10 @@ public class TaskService {
      * @param groupRepository the repository for groups
      * @param groupService the service for managing groups
      * @param environment the environment for configuration properties
-     * @param restTemplate the RestTemplate for external API calls
      * @param userService the service for managing users
+     * @param studentProgressService the service maintaining precomputed student progress
+     * @param blobStore the store of the task answer archives
+     * @param gitHubArchiveService the service downloading the repositories of task answers
      */
     public TaskService(
             TaskAnswerRepository taskAnswerRepository,
@@ -89,8 +98,10 @@ public class TaskService {
             GroupRepository groupRepository,
             GroupService groupService,
             Environment environment,
-            RestTemplate restTemplate,
-            UserService userService
+            UserService userService,
+            StudentProgressService studentProgressService,
+            BlobStore blobStore,
+            GitHubArchiveService gitHubArchiveService
     ) {
         this.taskAnswerRepository = taskAnswerRepository;
         this.taskRepository = taskRepository;
@@ -98,8 +109,10 @@ public class TaskService {
         this.groupRepository = groupRepository;
         this.groupService = groupService;
         this.environment = environment;
-        this.restTemplate = restTemplate;
         this.userService = userService;
+        this.studentProgressService = studentProgressService;
+        this.blobStore = blobStore;
+        this.gitHubArchiveService = gitHubArchiveService;
     }
 
 
@@ -175,6 +188,11 @@ public class TaskService {
 
             taskAnswerRepository.save(taskAnswer);
         }
+
+        studentProgressService.refreshProgress(
+                student.getId(),
+                Objects.nonNull(task.getLesson()) ? task.getLesson().getId() : lessonId
+        );
     }
 
     /**
@@ -219,6 +237,9 @@ public class TaskService {
 
     /**
      * Retrieves all task submissions for a specific teacher with pagination support.
+     * <p>
+     * The page is built from projection queries only: the page of task IDs, the group names of
+     * these tasks and the answer rows of these tasks, whatever the number of tasks and answers.
      *
      * @param page the page number (0-based index)
      * @param size the size of the page (number of tasks per page)
@@ -231,26 +252,77 @@ public class TaskService {
             int size,
             Long teacherId
     ) {
-        Page<Task> taskPage = taskRepository.findTaskByTeacherId(teacherId, PageRequest.of(page, size));
+        Pageable pageable = PageRequest.of(page, size);
+
+        return getTaskSubmissionDTOS(pageable, taskRepository.findTaskIdsByTeacherId(teacherId, pageable));
+    }
+
+    /**
+     * Retrieves the task submissions of the next tasks of a teacher after the given ID (keyset pagination).
+     * <p>
+     * Unlike {@link #getAllTaskSubmissionsByTeacherId(int, int, Long)}, no count query is run and
+     * the cost of a page doesn't depend on its depth.
+     *
+     * @param afterId   the last task ID of the previous page, 0 for the first page
+     * @param size      the size of the page (number of tasks per page)
+     * @param teacherId the ID of the teacher whose tasks are to be retrieved
+     * @return the task submissions, ordered by task ID, with the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<List<TaskSubmissionDTO>> getTaskSubmissionsByTeacherIdAfter(
+            long afterId,
+            int size,
+            Long teacherId
+    ) {
+        List<Long> taskIds = taskRepository.findTaskIdsByTeacherIdAfter(teacherId, afterId, PageRequest.of(0, size));
+
+        return new CursorPageDTO<>(
+                getTaskSubmissionDTOS(taskIds),
+                PageCursor.next(taskIds, size, taskId -> taskId)
+        );
+    }
 
-        return getTaskSubmissionDTOS(page, size, taskPage);
+    private Page<TaskSubmissionDTO> getTaskSubmissionDTOS(Pageable pageable, Page<Long> taskIdPage) {
+        return new PageImpl<>(getTaskSubmissionDTOS(taskIdPage.getContent()), pageable, taskIdPage.getTotalElements());
     }
 
-    private Page<TaskSubmissionDTO> getTaskSubmissionDTOS(int page, int size, Page<Task> taskPage) {
-        List<TaskSubmissionDTO> taskSubmissionDTOList = taskPage.getContent().stream()
-                .map(task -> {
-                    Set<TaskAnswerDTO> studentAnswers = task.getTaskAnswers().stream()
-                            .map(this::mapToTaskAnswerDTO)
-                            .collect(Collectors.toSet());
+    private List<TaskSubmissionDTO> getTaskSubmissionDTOS(List<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-                    Set<Group> groups = Objects.nonNull(task.getLesson()) ? task.getLesson().getGroups() : Collections.emptySet();
-                    Set<String> groupNames = groups.stream().map(Group::getName).collect(Collectors.toSet());
+        Map<Long, Set<String>> groupNamesByTaskId = new HashMap<>();
 
-                    return new TaskSubmissionDTO(task.getId(), groupNames, studentAnswers);
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
+        for (GroupNameDTO groupName : taskRepository.findGroupNamesByTaskIdIn(taskIds)) {
+            groupNamesByTaskId.computeIfAbsent(groupName.ownerId(), id -> new HashSet<>()).add(groupName.groupName());
+        }
+
+        // The rows repeat every answer once per group of its student
+        Map<Long, TaskSubmissionRowDTO> rowsByAnswerId = new LinkedHashMap<>();
+        Map<Long, Set<String>> studentGroupsByAnswerId = new HashMap<>();
 
-        return new PageImpl<>(taskSubmissionDTOList, PageRequest.of(page, size), taskPage.getTotalElements());
+        for (TaskSubmissionRowDTO row : taskAnswerRepository.findSubmissionRowsByTaskIdIn(taskIds)) {
+            rowsByAnswerId.putIfAbsent(row.answerId(), row);
+            Set<String> studentGroups = studentGroupsByAnswerId.computeIfAbsent(row.answerId(), id -> new HashSet<>());
+
+            if (Objects.nonNull(row.groupName())) {
+                studentGroups.add(row.groupName());
+            }
+        }
+
+        Map<Long, Set<TaskAnswerDTO>> answersByTaskId = new HashMap<>();
+
+        rowsByAnswerId.forEach((answerId, row) -> answersByTaskId
+                .computeIfAbsent(row.taskId(), id -> new HashSet<>())
+                .add(row.toTaskAnswerDTO(studentGroupsByAnswerId.get(answerId))));
+
+        return taskIds.stream()
+                .map(taskId -> new TaskSubmissionDTO(
+                        taskId,
+                        groupNamesByTaskId.getOrDefault(taskId, new HashSet<>()),
+                        answersByTaskId.getOrDefault(taskId, new HashSet<>())
+                ))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     /**
@@ -307,6 +379,39 @@ public class TaskService {
         return tasks;
     }
 
+    /**
+     * Retrieves the next pending task answers after the given ID (keyset pagination),
+     * with optional filtering by group name.
+     *
+     * @param groupName the name of the group to filter tasks (can be null for no filtering)
+     * @param afterId the last task answer ID of the previous page, 0 for the first page
+     * @param size the size of the page
+     * @return the tasks, ordered by task answer ID, with the cursor of the next page
+     * @throws EntityNotFoundException if no tasks are found
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<List<TasksGroupResponseDTO>> findPendingAfter(
+            String groupName,
+            long afterId,
+            int size
+    ) throws EntityNotFoundException {
+        Pageable pageable = PageRequest.of(0, size);
+
+        List<TaskAnswer> tasksDB = (Objects.isNull(groupName))
+                ? taskAnswerRepository.findPendingTaskAfter(afterId, pageable)
+                : taskAnswerRepository.findPendingTaskByGroupAfter(groupName, afterId, pageable);
+
+        if (tasksDB.isEmpty()) {
+            throw new ResourceNotFoundException("No tasks found");
+        }
+
+        List<TasksGroupResponseDTO> tasks = tasksDB.stream()
+                .map(TasksGroupResponseDTO::fromTask)
+                .toList();
+
+        return new CursorPageDTO<>(tasks, PageCursor.next(tasksDB, size, TaskAnswer::getId));
+    }
+
     /**
      * Maps a TaskAnswer entity to a TaskAnswerDTO.
      *
@@ -395,6 +500,13 @@ public class TaskService {
         }
 
         taskAnswerRepository.save(taskAnswer);
+
+        studentProgressService.refreshProgress(
+                Objects.nonNull(taskAnswer.getUser()) ? taskAnswer.getUser().getId() : null,
+                Objects.nonNull(taskAnswer.getTask()) && Objects.nonNull(taskAnswer.getTask().getLesson())
+                        ? taskAnswer.getTask().getLesson().getId()
+                        : taskAnswer.getLessonId()
+        );
     }
 
     /**
@@ -429,11 +541,13 @@ public class TaskService {
 
     /**
      * Retrieves the progress of a user for a specific course.
+     * The progress is read from the precomputed student progress counters,
+     * so the number of queries does not depend on the size of the course.
      *
      * @param userId The ID of the user.
      * @param courseId The ID of the course.
      * @return A DTO containing the course progress for the user.
-     * @throws EntityNotFoundException if the course or its lessons are not found.
+     * @throws EntityNotFoundException if the course is not found.
      */
     @Transactional(readOnly = true)
     public TaskProgressDTO getCourseProgress(
@@ -442,33 +556,8 @@ public class TaskService {
     ) {
 
         if (!groupRepository.existsById(courseId)) throw new EntityNotFoundException(String.format(COURSE_NOT_FOUND_MESSAGE, courseId));
-        List<Lesson> lessons = lessonRepository.findCourseLessons(courseId);
-
-        if (lessons.isEmpty()) {
-            return new TaskProgressDTO(courseId, 0);
-        }
 
-        ArrayList<Task> tasks = new ArrayList<>();
-
-        lessons.forEach(lesson -> {
-            Lesson lessonL = lessonRepository.findById(lesson.getId()).orElseThrow(() -> new EntityNotFoundException(String.format(LESSON_NOT_FOUND_MESSAGE, lesson.getId())));
-            tasks.addAll(lessonL.getTasks());
-        });
-
-        ArrayList<TaskAnswer> taskAnswers = new ArrayList<>();
-
-        Integer taskProgress = null;
-
-        for (Task task : tasks) {
-            TaskAnswer taskAnswer = taskAnswerRepository.findByTaskIdAndUserId(task.getId(), userId);
-            if (Objects.nonNull(taskAnswer) && Boolean.TRUE.equals(taskAnswer.getIsPassed())) {
-                    taskAnswers.add(taskAnswer);
-                }
-
-            taskProgress = taskAnswers.size() * 100 / tasks.size();
-        }
-
-        return new TaskProgressDTO(courseId, taskProgress);
+        return studentProgressService.getCourseProgress(userId, courseId);
     }
 
     /**
@@ -484,51 +573,27 @@ public class TaskService {
             Long userId,
             Long lessonId
     ) {
+        return studentProgressService.getLessonProgress(userId, lessonId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format(LESSON_NOT_FOUND_MESSAGE, lessonId)));
+    }
 
-        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(() -> new EntityNotFoundException(String.format(LESSON_NOT_FOUND_MESSAGE, lessonId)));
-
-        ArrayList<Task> tasks = new ArrayList<>(lesson.getTasks());
-
-        ArrayList<TaskAnswer> taskAnswersNull = new ArrayList<>();
-        ArrayList<TaskAnswer> taskAnswersSubmit = new ArrayList<>();
-        ArrayList<TaskAnswer> taskAnswersCorrection = new ArrayList<>();
-        ArrayList<TaskAnswer> taskAnswersPassed = new ArrayList<>();
-
-        String lessonProgress = null;
-        int lessonPercent = 0;
-
-        tasks.forEach(task -> {
-            TaskAnswer taskAnswer = taskAnswerRepository.findByTaskIdAndUserId(task.getId(), userId);
-            if (taskAnswer != null) {
-                if (Boolean.TRUE.equals(taskAnswer.getIsPassed())) {
-                    taskAnswersPassed.add(taskAnswer);
-                } else if (Boolean.TRUE.equals(taskAnswer.getIsCorrection())) {
-                    taskAnswersCorrection.add(taskAnswer);
-                } else if (Boolean.FALSE.equals(taskAnswer.getIsPassed()) && Boolean.FALSE.equals(taskAnswer.getIsCorrection())) {
-                    taskAnswersSubmit.add(taskAnswer);
-                }
-            } else {
-                taskAnswersNull.add(null);
-            }
-        });
-
-        if (tasks.isEmpty()) {
-            lessonProgress = "No tasks";
-        } else if (taskAnswersPassed.size() == tasks.size()) {
-            lessonProgress = "All passed";
-        } else if (taskAnswersNull.size() == tasks.size()) {
-            lessonProgress = "Not started";
-        } else if (!taskAnswersCorrection.isEmpty()) {
-            lessonProgress = "Need correction";
-        } else if (!taskAnswersSubmit.isEmpty() || !taskAnswersPassed.isEmpty()) {
-            lessonProgress = "In progress";
-        }
-
-        if (!tasks.isEmpty()) {
-            lessonPercent = taskAnswersPassed.size() * 100 / tasks.size();
-        }
+    /**
+     * Calculates the progress of a user for every lesson of a specific course.
+     * All lessons are read from the precomputed student progress counters in a constant number of queries.
+     *
+     * @param userId The ID of the user.
+     * @param courseId The ID of the course.
+     * @return A list of DTOs containing the progress and percentage of each lesson, ordered by lesson ID.
+     * @throws EntityNotFoundException if the course is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<LessonProgressDTO> getCourseLessonsProgress(
+            Long userId,
+            Long courseId
+    ) {
+        if (!groupRepository.existsById(courseId)) throw new EntityNotFoundException(String.format(COURSE_NOT_FOUND_MESSAGE, courseId));
 
-        return new LessonProgressDTO(lessonId, lessonProgress, lessonPercent);
+        return studentProgressService.getCourseLessonsProgress(userId, courseId);
     }
 
     /**
@@ -546,6 +611,21 @@ public class TaskService {
         return taskRepository.findAllActiveTaskByUserIdWithDeadLine(userId, deadLine);
     }
 
+    /**
+     * Finds all (user, task, group) tuples for deadline notifications with a deadline in the given window.
+     *
+     * @param from The first deadline date of the window (inclusive).
+     * @param to The last deadline date of the window (inclusive).
+     * @return A list of tuples for tasks the users have not submitted or have to correct.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDeadlineNotificationDTO> findTaskDeadlineNotifications(
+            LocalDate from,
+            LocalDate to
+    ) {
+        return taskRepository.findTaskDeadlineNotifications(from, to);
+    }
+
     /**
      * Filters tasks for notification purposes based on their status and user answers.
      *
@@ -571,67 +651,42 @@ public class TaskService {
     }
 
     /**
-     * Generates and saves a ZIP archive of the task answer's repository if the task is marked as passed and
-     * automatic download is enabled.
+     * Queues the download of a ZIP archive of the task answer's repository if the task is marked as passed and
+     * automatic download is enabled. The archive is downloaded in the background once the current
+     * transaction is committed, see {@link GitHubArchiveService}.
      *
      * @param taskAnswer The task answer object containing the repository URL.
      */
-    @Transactional
     public void generateAndSaveTaskAnswerZip(TaskAnswer taskAnswer) {
-        try {
-            String repoUrl = taskAnswer.getAnswerUrl();
-
-            if (repoUrl == null || repoUrl.isEmpty()) {
-                LOGGER.error("Repo URL is null or empty");
-                return;
-            }
-
-            if (!isValidGitHubUrl(repoUrl)) {
-                LOGGER.error("Invalid GitHub URL: {}", repoUrl);
-                return;
-            }
-
-            String zipArchiveUrl = repoUrl + "/archive/master.zip";
-            byte[] answerFile = restTemplate.getForObject(zipArchiveUrl, byte[].class);
-
-            // If we'll need to save taskAnswer to root folder
-//            saveByteArrayToFile(answerFile, "master.zip");
-
-            taskAnswer.setZipAnswerFile(answerFile);
-
-            taskAnswerRepository.save(taskAnswer);
-
-        } catch (HttpClientErrorException.NotFound e) {
-            LOGGER.error(
-                    "From TeacherController. Repository NOT FOUND or it is NOT PUBLIC: {}. Error: {}",
-                    taskAnswer.getAnswerUrl(),
-                    e.getMessage()
-            );
+        String repoUrl = taskAnswer.getAnswerUrl();
 
-            throw new ResourceNotFoundException(
-                    "Repository NOT FOUND or it is NOT PUBLIC: " +
-                            taskAnswer.getAnswerUrl()
-            );
+        if (repoUrl == null || repoUrl.isEmpty()) {
+            LOGGER.error("Repo URL is null or empty");
+            return;
+        }
 
-        } catch (Exception exception) {
-            LOGGER.error(
-                    "Failed to generate and save task answer ZIP file: {}",
-                    exception.getMessage(),
-                    exception
-            );
+        if (!isValidGitHubUrl(repoUrl)) {
+            LOGGER.error("Invalid GitHub URL: {}", repoUrl);
+            return;
         }
+
+        gitHubArchiveService.fetchAfterCommit(taskAnswer.getId(), repoUrl);
     }
 
     /**
      * Retrieves the ZIP file associated with a specific task answer.
-     * Throws an exception if the task answer is not marked as passed.
+     * Logs an error if the task answer is not marked as passed.
+     *
+     * The file is returned as a resource of the blob store, so it is streamed from disk when the
+     * response is written and is never loaded into memory. Its hash serves as the entity tag.
+     * Files not moved to the blob store yet are returned from the database column.
      *
      * @param taskAnswerId the ID of the task answer
-     * @return the ZIP file byte array
+     * @return the ZIP file, or null if the task answer has no file
      * @throws EntityNotFoundException if the task answer with the given ID is not found
      */
-    @Transactional
-    public byte[] getZipAnswerFile(Long taskAnswerId) {
+    @Transactional(readOnly = true)
+    public ZipAnswerFileDTO getZipAnswerFile(Long taskAnswerId) {
         TaskAnswer taskAnswer = taskAnswerRepository.findById(taskAnswerId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format(TASK_ANSWER_NOT_FOUND_MESSAGE, taskAnswerId)));
 
@@ -639,7 +694,99 @@ public class TaskService {
             LOGGER.error("TaskAnswer with id {} is not passed!", taskAnswerId);
         }
 
-        return taskAnswer.getZipAnswerFile();
+        if (taskAnswer.getZipAnswerHash() == null) {
+            // Not moved to the blob store yet
+            byte[] zipAnswerFile = taskAnswer.getZipAnswerFile();
+
+            return zipAnswerFile == null || zipAnswerFile.length == 0
+                    ? null
+                    : new ZipAnswerFileDTO(new ByteArrayResource(zipAnswerFile), null);
+        }
+
+        Resource file = blobStore.getResource(taskAnswer.getZipAnswerHash());
+
+        if (!file.exists()) {
+            LOGGER.error("ZIP file {} of TaskAnswer with id {} is missing", taskAnswer.getZipAnswerHash(), taskAnswerId);
+            return null;
+        }
+
+        return new ZipAnswerFileDTO(file, taskAnswer.getZipAnswerHash());
+    }
+
+    /**
+     * Writes the ZIP files of all task answers of a task into one ZIP archive.
+     *
+     * The task answers are read in batches with a keyset cursor, and each file is streamed from
+     * the blob store into the archive, so only one file (for rows not moved to the blob store yet)
+     * is held in memory at a time. The files are already compressed, so they are stored without
+     * compressing them again. The method is not transactional: no connection is held while the
+     * archive is written to a slow client.
+     *
+     * @param taskId    the ID of the task
+     * @param groupName the name of the group of the students, or null for all groups
+     * @param out       the stream the archive is written to; it isn't closed
+     * @return the number of files written to the archive
+     * @throws IOException if the archive can't be written
+     */
+    public int writeZipAnswerFiles(
+            Long taskId,
+            String groupName,
+            OutputStream out
+    ) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.NO_COMPRESSION);
+
+        int written = 0;
+        long afterId = 0;
+        List<TaskAnswerArchiveDTO> batch;
+
+        do {
+            batch = taskAnswerRepository.findArchivesByTaskId(
+                    taskId, groupName, afterId, PageRequest.of(0, ZIP_EXPORT_BATCH_SIZE)
+            );
+
+            for (TaskAnswerArchiveDTO archive : batch) {
+                afterId = archive.taskAnswerId();
+
+                try (InputStream in = openZipAnswerFile(archive)) {
+                    if (in == null) {
+                        continue;
+                    }
+
+                    zip.putNextEntry(new ZipEntry(getZipAnswerFileName(archive)));
+                    in.transferTo(zip);
+                    zip.closeEntry();
+                    written++;
+                } catch (NoSuchFileException e) {
+                    LOGGER.error("ZIP file {} of TaskAnswer with id {} is missing", archive.zipAnswerHash(), archive.taskAnswerId());
+                }
+            }
+        } while (batch.size() == ZIP_EXPORT_BATCH_SIZE);
+
+        zip.finish();
+
+        return written;
+    }
+
+    private InputStream openZipAnswerFile(TaskAnswerArchiveDTO archive) throws IOException {
+        if (archive.zipAnswerHash() != null) {
+            return blobStore.openStream(archive.zipAnswerHash());
+        }
+
+        // Not moved to the blob store yet
+        byte[] zipAnswerFile = taskAnswerRepository.findZipAnswerFileById(archive.taskAnswerId());
+
+        return zipAnswerFile == null ? null : new ByteArrayInputStream(zipAnswerFile);
+    }
+
+    /**
+     * Builds the name of the archive of an answer in the ZIP export. Names in any script are kept,
+     * only path separators, characters not allowed in file names and control characters are replaced.
+     */
+    private static String getZipAnswerFileName(TaskAnswerArchiveDTO archive) {
+        String fileName = archive.name() + "_" + archive.surname() + "_" + archive.email() + "_" + archive.taskAnswerId();
+
+        return fileName.replaceAll("[\\p{Cntrl}\\\\/:*?\"<>|]", "_") + ".zip";
     }
 
     /**
@@ -901,6 +1048,25 @@ public class TaskService {
         return LessonProgressResponse.fromDTO(lessonProgressDTO);
     }
 
+    /**
+     * Retrieves the progress of a user for every lesson of a course, and converts it to LessonProgressResponse objects.
+     *
+     * @param userId the ID of the user
+     * @param courseId the ID of the course
+     * @return a List of LessonProgressResponse objects, one per lesson of the course
+     */
+    @Transactional(readOnly = true)
+    public List<LessonProgressResponse> getCourseLessonsProgressAsLessonProgressResponses(
+            Long userId,
+            Long courseId
+    ) {
+        TaskService self = getSelf();
+
+        return self.getCourseLessonsProgress(userId, courseId).stream()
+                .map(LessonProgressResponse::fromDTO)
+                .toList();
+    }
+
 
                 // CURRENTLY NOT IN USE
 
@@ -918,9 +1084,9 @@ public class TaskService {
             int page,
             int size
     ) {
-        Page<Task> taskPage = taskRepository.findAll(PageRequest.of(page, size));
+        Pageable pageable = PageRequest.of(page, size);
 
-        return getTaskSubmissionDTOS(page, size, taskPage);
+        return getTaskSubmissionDTOS(pageable, taskRepository.findAll(pageable).map(Task::getId));
     }
 
     /**
@@ -4,13 +4,18 @@ import academy.prog.julia.dto.TaskAnswerDTO;
 import academy.prog.julia.dto.TaskSubmissionDTO;
 import academy.prog.julia.dto.TestSubmissionDTO;
 import academy.prog.julia.dto.UserFromAnswerTaskDTO;
+import academy.prog.julia.dto.ZipAnswerFileDTO;
 import academy.prog.julia.json_requests.TaskAnswerRequest;
 import academy.prog.julia.model.UserRole;
+import academy.prog.julia.utils.PageCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,7 +23,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,6 +40,7 @@ public class TeacherService {
     private final UserService userService;
     private final TaskService taskService;
     private final TestService testService;
+    private final SseService sseService;
 
     /**
      * Constructor for TeacherService.
@@ -40,15 +49,18 @@ public class TeacherService {
      * @param userService   Service for handling user-related operations.
      * @param taskService   Service for handling task-related operations.
      * @param testService   Service for handling test-related operations.
+     * @param sseService    Service for sending events to the clients of the students.
      */
     public TeacherService(
             UserService userService,
             TaskService taskService,
-            TestService testService
+            TestService testService,
+            SseService sseService
     ) {
         this.userService = userService;
         this.taskService = taskService;
         this.testService = testService;
+        this.sseService = sseService;
     }
 
     /**
@@ -72,6 +84,28 @@ public class TeacherService {
         return ResponseEntity.ok(allTaskSubmissions);
     }
 
+    /**
+     * Retrieves the task submissions of a specific teacher page by page with a cursor (keyset pagination).
+     * Unlike the page number variant, deep pages are as fast as the first one and no count query is run.
+     *
+     * @param cursor     The cursor returned with the previous page, empty for the first page.
+     * @param size       The size of the page.
+     * @param teacherId  The ID of the teacher to retrieve tasks for.
+     * @return A page of task submissions, with the cursor of the next page in the {@code X-Next-Cursor} header.
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TaskSubmissionDTO>> getTasksSubmissionDTOAfter(
+            String cursor,
+            int size,
+            Long teacherId
+    ) {
+        return taskService
+                .getTaskSubmissionsByTeacherIdAfter(PageCursor.decode(cursor), size, teacherId)
+                .toResponseEntity()
+        ;
+    }
+
     /**
      * Retrieves paginated test submissions for a specific teacher by their ID.
      * Useful for displaying test submissions associated with a teacher with pagination.
@@ -118,6 +152,7 @@ public class TeacherService {
      * and the task is updated with grading information.
      *
      * If a correction is provided, a notification is sent to the student about the correction.
+     * The event stream of the student receives the grading result once it is committed.
      *
      * @param taskAnswerRequest The request containing task submission details.
      * @param session           The current HTTP session to store task grading information.
@@ -146,11 +181,17 @@ public class TeacherService {
                             taskAnswerRequest.getIsCorrection(), taskAnswerRequest.getIsPassed(),
                             taskAnswerRequest.getMessageForCorrection(), taskAnswerRequest.getIsRead());
 
+            UserFromAnswerTaskDTO user = taskSubmission.getStudent();
+
             if (!taskAnswerRequest.getMessageForCorrection().isEmpty()) {
-                UserFromAnswerTaskDTO user = taskSubmission.getStudent();
                 userService.sendMessageAboutCorrection(user, taskSubmission.getCourse());
             }
 
+            if (user != null) {
+                sseService.notifyUser(user.getId(), "Task answer " + taskAnswerRequest.getAnswerId() + " was graded: "
+                        + (Boolean.TRUE.equals(taskAnswerRequest.getIsPassed()) ? "passed" : "not passed"));
+            }
+
             return ResponseEntity.ok(successResponse);
 
         } else {
@@ -231,16 +272,20 @@ public class TeacherService {
      * Downloads the zip file of a task submission for a student. Ensures the user has the proper
      * permissions (teacher role) before downloading the file.
      *
+     * The body is a resource streamed from the blob store, so memory use doesn't depend on
+     * the size of the archive. Range requests and conditional requests are handled by Spring MVC
+     * on the returned entity, using the ETag header set here.
+     *
      * @param taskId        The ID of the task to download.
      * @param studentName   The student's name.
      * @param studentSurname The student's surname.
      * @param studentEmail  The student's email.
      * @param groupName     The name of the group the student belongs to.
      * @param sessionId     The current session ID for the user.
-     * @return A response entity containing the zip file as a ByteArrayResource, or a 404 error if not found.
+     * @return A response entity containing the zip file as a Resource, or a 404 error if not found.
      */
-    @Transactional
-    public ResponseEntity<ByteArrayResource> downloadZip(
+    @Transactional(readOnly = true)
+    public ResponseEntity<Resource> downloadZip(
             Long taskId,
             String studentName,
             String studentSurname,
@@ -250,13 +295,11 @@ public class TeacherService {
     ) {
         String principalNameAsEmail = userService.getPrincipalNameBySessionId(sessionId);
 
-        byte[] zipContents = taskService.getZipAnswerFile(taskId);
+        ZipAnswerFileDTO zipAnswerFile = taskService.getZipAnswerFile(taskId);
 
-        if (zipContents != null && zipContents.length > 0 &&
+        if (zipAnswerFile != null &&
                 userService.findUserByEmail(principalNameAsEmail).getRole().equals(UserRole.TEACHER)
         ) {
-            ByteArrayResource resource = new ByteArrayResource(zipContents);
-
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
             headers.setContentDispositionFormData(
@@ -266,12 +309,15 @@ public class TeacherService {
                             groupName +
                             "_Task" + taskId + ".zip"
             );
+            headers.setCacheControl(CacheControl.noCache().cachePrivate());
 
-            headers.setContentLength(zipContents.length);
+            if (zipAnswerFile.eTag() != null) {
+                headers.setETag("\"" + zipAnswerFile.eTag() + "\"");
+            }
 
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(resource);
+                    .body(zipAnswerFile.file());
         } else {
             LOGGER.error("ZIP-file by taskId _{}_ NOT FOUND.", taskId);
 
@@ -279,4 +325,45 @@ public class TeacherService {
         }
     }
 
+    /**
+     * Writes the ZIP files of all submissions of a task, optionally of a single group, as one ZIP archive
+     * directly to the response. Ensures the user has the proper permissions (teacher role).
+     *
+     * The archive is written incrementally while the submissions are read, so its size isn't limited
+     * by memory. The method isn't transactional, no database connection is held during the download.
+     *
+     * @param taskId    The ID of the task.
+     * @param groupName The name of the group, or null for the submissions of all groups.
+     * @param sessionId The current session ID for the user.
+     * @param response  The response the archive is written to.
+     * @throws IOException if the archive can't be written to the response.
+     */
+    public void downloadAllZips(
+            Long taskId,
+            String groupName,
+            String sessionId,
+            HttpServletResponse response
+    ) throws IOException {
+        String principalNameAsEmail = userService.getPrincipalNameBySessionId(sessionId);
+
+        if (!userService.findUserByEmail(principalNameAsEmail).getRole().equals(UserRole.TEACHER)) {
+            LOGGER.error("ZIP-files by taskId _{}_ NOT FOUND.", taskId);
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String fileName = "Task" + taskId + (groupName != null ? "_" + groupName : "") + "_submissions.zip";
+
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString()
+        );
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+
+        int written = taskService.writeZipAnswerFiles(taskId, groupName, response.getOutputStream());
+
+        LOGGER.info("Exported {} ZIP-files of taskId _{}_", written, taskId);
+    }
+
 }
@@ -1,7 +1,9 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.dto.GroupNameDTO;
 import academy.prog.julia.dto.TestAnswerDTO;
 import academy.prog.julia.dto.TestSubmissionDTO;
+import academy.prog.julia.dto.TestSubmissionRowDTO;
 import academy.prog.julia.dto.UserFromAnswerTaskDTO;
 import academy.prog.julia.model.Group;
 import academy.prog.julia.model.Test;
@@ -12,6 +14,7 @@ import academy.prog.julia.repos.TestRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -47,6 +50,7 @@ public class TestService {
     /**
      * Retrieves test submissions by a specific teacher's ID, paginated.
      * This method allows filtering submissions based on the teacher's ID.
+     * The page is built from projection queries only, without loading test or answer entities.
      *
      * @param page the current page number
      * @param size the size of each page
@@ -59,24 +63,49 @@ public class TestService {
             int size,
             Long teacherId
     ) {
-        Page<Test> testPage = testRepository.findTestByTeacherId(teacherId, PageRequest.of(page, size));
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Long> testIdPage = testRepository.findTestIdsByTeacherId(teacherId, pageable);
+        List<Long> testIds = testIdPage.getContent();
 
-        List<TestSubmissionDTO> testSubmissionDTOList = testPage.getContent().stream()
-                .map(test -> {
-                    Set<TestAnswerDTO> studentAnswers = test.getTestAnswers().stream()
-                            .map(this::mapToTestAnswerDTO)
-                            .collect(Collectors.toSet())
-                    ;
+        if (testIds.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, testIdPage.getTotalElements());
+        }
 
-                    Set<Group> groups = test.getLesson() != null ? test.getLesson().getGroups() : Collections.emptySet();
-                    Set<String> groupNames = groups.stream().map(Group::getName).collect(Collectors.toSet());
+        Map<Long, Set<String>> groupNamesByTestId = new HashMap<>();
 
-                    return new TestSubmissionDTO(test.getId(), groupNames, studentAnswers);
-                })
+        for (GroupNameDTO groupName : testRepository.findGroupNamesByTestIdIn(testIds)) {
+            groupNamesByTestId.computeIfAbsent(groupName.ownerId(), id -> new HashSet<>()).add(groupName.groupName());
+        }
+
+        // The rows repeat every answer once per group of its student
+        Map<Long, TestSubmissionRowDTO> rowsByAnswerId = new LinkedHashMap<>();
+        Map<Long, Set<String>> studentGroupsByAnswerId = new HashMap<>();
+
+        for (TestSubmissionRowDTO row : testAnswerRepository.findSubmissionRowsByTestIdIn(testIds)) {
+            rowsByAnswerId.putIfAbsent(row.answerId(), row);
+            Set<String> studentGroups = studentGroupsByAnswerId.computeIfAbsent(row.answerId(), id -> new HashSet<>());
+
+            if (row.groupName() != null) {
+                studentGroups.add(row.groupName());
+            }
+        }
+
+        Map<Long, Set<TestAnswerDTO>> answersByTestId = new HashMap<>();
+
+        rowsByAnswerId.forEach((answerId, row) -> answersByTestId
+                .computeIfAbsent(row.testId(), id -> new HashSet<>())
+                .add(row.toTestAnswerDTO(studentGroupsByAnswerId.get(answerId))));
+
+        List<TestSubmissionDTO> testSubmissionDTOList = testIds.stream()
+                .map(testId -> new TestSubmissionDTO(
+                        testId,
+                        groupNamesByTestId.getOrDefault(testId, new HashSet<>()),
+                        answersByTestId.getOrDefault(testId, new HashSet<>())
+                ))
                 .collect(Collectors.toCollection(ArrayList::new))
         ;
 
-        return new PageImpl<>(testSubmissionDTOList, PageRequest.of(page, size), testPage.getTotalElements());
+        return new PageImpl<>(testSubmissionDTOList, pageable, testIdPage.getTotalElements());
     }
 
     /**
@@ -5,13 +5,16 @@ import academy.prog.julia.json_responses.UserCoursesResponse;
 import academy.prog.julia.model.Group;
 import academy.prog.julia.model.User;
 import academy.prog.julia.repos.UserCourseRepository;
+import academy.prog.julia.utils.Utils;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -71,18 +74,21 @@ public class UserCourseService {
     /**
      * Retrieves the list of courses for a user while validating the session ID.
      * If the session ID does not match the user's session, it returns an unauthorized response.
+     * Once the session is validated, returns null (304 Not Modified) if the client already has the current list.
      * The method is read-only as it performs a retrieval operation.
      *
      * @param userId the ID of the user
      * @param sessionId the session ID to validate
      * @param session the HTTP session object to store relevant data
+     * @param request the current request, used for the conditional request headers
      * @return a ResponseEntity containing a list of user course responses or an unauthorized status
      */
     @Transactional(readOnly = true)
     public ResponseEntity<List<UserCoursesResponse>> getUserCoursesWithSessionValidation(
             Long userId,
             String sessionId,
-            HttpSession session
+            HttpSession session,
+            WebRequest request
     ) {
         String userEmail = userService.findById(userId)
                 .orElseThrow()
@@ -98,11 +104,32 @@ public class UserCourseService {
             ;
         }
 
+        session.setAttribute("userId", userId);
+
+        if (request.checkNotModified(getUserCoursesETag(userId))) {
+            return null;
+        }
+
         UserCoursesDTO userCoursesDTO = getUserCourses(userId);
         List<UserCoursesResponse> userCoursesResponses = UserCoursesResponse.fromDTO(userCoursesDTO);
-        session.setAttribute("userId", userId);
 
-        return ResponseEntity.ok(userCoursesResponses);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(userCoursesResponses);
+    }
+
+    /**
+     * Returns the strong entity tag of the course list of a user, built from the IDs and names
+     * of the courses only, so revalidating doesn't load the groups.
+     *
+     * @param userId the ID of the user
+     * @return the quoted entity tag
+     */
+    @Transactional(readOnly = true)
+    public String getUserCoursesETag(Long userId) {
+        String hash = Utils.hashStrings(userCourseRepository.findUserCourseSignatures(userId).toArray(String[]::new));
+
+        return "\"user-courses-" + userId + "-" + hash.substring(0, 16) + "\"";
     }
 
 }
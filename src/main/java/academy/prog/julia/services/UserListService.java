@@ -1,9 +1,11 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.dto.CursorPageDTO;
 import academy.prog.julia.dto.UserDTO;
 import academy.prog.julia.json_responses.EmployeesResponse;
 import academy.prog.julia.model.User;
 import academy.prog.julia.model.UserRole;
+import academy.prog.julia.utils.PageCursor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -69,6 +71,38 @@ public class UserListService {
         }
     }
 
+    /**
+     * Retrieves the users of all groups page by page with a cursor (keyset pagination).
+     * Validates the provided URL against a predefined list. If the URL is valid, it fetches
+     * the next users belonging to any group after the cursor and returns them by group name.
+     *
+     * @param randomURL the URL to validate
+     * @param cursor the cursor returned with the previous page, empty for the first page
+     * @return a ResponseEntity containing a map of user DTOs, with the cursor of the next page
+     *         in the {@code X-Next-Cursor} header, if the URL is valid,
+     *         otherwise an error response with HTTP status NOT_FOUND
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, List<UserDTO>>> getUsersForRandomURLFromUserListService(
+            String randomURL,
+            String cursor
+    ) {
+        if (generatedUrlForUserList.contains(randomURL)) {
+            List<Long> userIds = userService.findIdsInGroupsAfter(PageCursor.decode(cursor), COUNT_FOR_PAGE);
+
+            return new CursorPageDTO<>(
+                    userService.findAllByAllGroups(userIds),
+                    PageCursor.next(userIds, COUNT_FOR_PAGE, userId -> userId)
+            ).toResponseEntity();
+        } else {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Error", "URL doesn't exist");
+
+            return new ResponseEntity<>(headers, HttpStatus.NOT_FOUND);
+        }
+    }
+
     /**
      * Retrieves all employees with specific roles (ADMIN, TEACHER, MANAGER, MENTOR)
      * and returns their details in a list of EmployeesResponse objects.
@@ -0,0 +1,242 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserSearchTerm;
+import academy.prog.julia.model.UserSearchTerm.SearchField;
+import academy.prog.julia.repos.UserRepository;
+import academy.prog.julia.repos.UserSearchTermRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Lookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Service searching users by fragments of their phones and emails.
+ *
+ * Every suffix of the normalized phones (digits only) and emails (lower case) of a user is stored
+ * as a {@link UserSearchTerm}, so finding the users whose phone or email contains a fragment is
+ * a prefix range scan of the term index. Phone tails, typed most often, are short suffixes and
+ * are found the same way. The terms of a user are rebuilt when the user is saved, and users
+ * without terms (e.g. created before the index or by SQL scripts) are indexed in the background.
+ * Every indexed user has a marker term, so users without phones and emails are indexed only once.
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger LOGGER = LogManager.getLogger(UserSearchService.class);
+
+    private static final char LIKE_ESCAPE = '!';
+
+    private final UserSearchTermRepository userSearchTermRepository;
+    private final UserRepository userRepository;
+    private final int maxResults;
+    private final boolean indexingEnabled;
+    private final int batchSize;
+
+    /**
+     * Constructs the service.
+     *
+     * @param userSearchTermRepository the repository for search terms
+     * @param userRepository           the repository for users
+     * @param maxResults               the maximum number of users returned by a search without explicit limit
+     * @param indexingEnabled          whether users without search terms are indexed in the background
+     * @param batchSize                the number of users indexed in a batch
+     */
+    public UserSearchService(
+            UserSearchTermRepository userSearchTermRepository,
+            UserRepository userRepository,
+            @Value("${user.search.max-results:1000}") int maxResults,
+            @Value("${user.search.indexing.enabled:true}") boolean indexingEnabled,
+            @Value("${user.search.indexing.batch-size:100}") int batchSize
+    ) {
+        this.userSearchTermRepository = userSearchTermRepository;
+        this.userRepository = userRepository;
+        this.maxResults = maxResults;
+        this.indexingEnabled = indexingEnabled;
+        this.batchSize = batchSize;
+    }
+
+    @Lookup
+    public UserSearchService getSelf() {
+        return null;
+    }
+
+    /**
+     * Finds the users having a phone containing the digits of the given fragment.
+     *
+     * @param phone the fragment of the phone
+     * @return the matching users ordered by ID, or an empty list if the fragment has no digits
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByPhone(String phone) {
+        return findUsers(SearchField.PHONE, normalizePhone(phone), maxResults);
+    }
+
+    /**
+     * Finds the users having an email containing the given fragment, ignoring case.
+     *
+     * @param email the fragment of the email
+     * @return the matching users ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByEmail(String email) {
+        return findByEmail(email, maxResults);
+    }
+
+    /**
+     * Finds at most {@code limit} users having an email containing the given fragment, ignoring case.
+     *
+     * @param email the fragment of the email
+     * @param limit the maximum number of users
+     * @return the matching users ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByEmail(String email, int limit) {
+        return findUsers(SearchField.EMAIL, normalizeEmail(email), limit);
+    }
+
+    private List<User> findUsers(
+            SearchField searchField,
+            String fragment,
+            int limit
+    ) {
+        if (fragment.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Terms are truncated to their maximum length, and so are the fragments
+        String prefix = fragment.substring(0, Math.min(fragment.length(), UserSearchTerm.MAX_TERM_LENGTH));
+        List<Long> userIds = userSearchTermRepository.findUserIdsByTermPrefix(
+                searchField,
+                escapeLike(prefix) + "%",
+                PageRequest.of(0, limit)
+        );
+
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<User> users = new ArrayList<>(userRepository.findAllById(userIds));
+        users.sort(Comparator.comparing(User::getId));
+
+        return users;
+    }
+
+    /**
+     * Rebuilds the search terms of a user from its current phones and emails.
+     * Must be called once the changes of the user are saved.
+     *
+     * @param userId the ID of the user
+     */
+    @Transactional
+    public void indexUser(Long userId) {
+        userSearchTermRepository.deleteByUserId(userId);
+        userRepository.findById(userId)
+                .ifPresent(user -> userSearchTermRepository.saveAll(buildTerms(user)));
+    }
+
+    /**
+     * Scheduled task indexing the users having no search terms yet, in batches.
+     */
+    @Scheduled(initialDelay = 30000, fixedDelay = 600000)
+    public void indexMissingUsers() {
+        if (!indexingEnabled) {
+            return;
+        }
+
+        UserSearchService self = getSelf();
+        long afterId = 0L;
+        int indexed = 0;
+        List<Long> userIds;
+
+        do {
+            userIds = userSearchTermRepository.findUserIdsWithoutTerms(afterId, PageRequest.of(0, batchSize));
+
+            for (Long userId : userIds) {
+                try {
+                    self.indexUser(userId);
+                    indexed++;
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to index search terms of user with id {}", userId, e);
+                }
+            }
+
+            if (!userIds.isEmpty()) {
+                afterId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == batchSize);
+
+        if (indexed > 0) {
+            LOGGER.info("Indexed search terms of {} users", indexed);
+        }
+    }
+
+    /**
+     * Builds the search terms of a user: every suffix of its normalized phones and emails,
+     * and the marker of an indexed user.
+     *
+     * @param user the user, with its phones and emails loaded
+     * @return the search terms
+     */
+    static List<UserSearchTerm> buildTerms(User user) {
+        List<UserSearchTerm> terms = new ArrayList<>();
+
+        Set<String> phones = new HashSet<>();
+        phones.add(normalizePhone(user.getPhone()));
+        user.getPhones().forEach(phone -> phones.add(normalizePhone(phone)));
+
+        Set<String> emails = new HashSet<>();
+        emails.add(normalizeEmail(user.getEmail()));
+        user.getEmails().forEach(email -> emails.add(normalizeEmail(email)));
+
+        suffixes(phones).forEach(term -> terms.add(new UserSearchTerm(user.getId(), SearchField.PHONE, term)));
+        suffixes(emails).forEach(term -> terms.add(new UserSearchTerm(user.getId(), SearchField.EMAIL, term)));
+        terms.add(new UserSearchTerm(user.getId(), SearchField.INDEXED, ""));
+
+        return terms;
+    }
+
+    /**
+     * Returns every non-empty suffix of the given values, truncated to the maximum term length.
+     */
+    static Set<String> suffixes(Collection<String> values) {
+        Set<String> suffixes = new LinkedHashSet<>();
+
+        for (String value : values) {
+            for (int i = 0; i < value.length(); i++) {
+                suffixes.add(value.substring(i, Math.min(value.length(), i + UserSearchTerm.MAX_TERM_LENGTH)));
+            }
+        }
+
+        return suffixes;
+    }
+
+    static String normalizePhone(String phone) {
+        return phone == null ? "" : phone.replaceAll("\\D", "");
+    }
+
+    static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+
+}
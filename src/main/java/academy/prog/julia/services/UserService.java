@@ -1,5 +1,7 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.ChatPrincipalCache;
+import academy.prog.julia.dto.ChatPrincipalDTO;
 import academy.prog.julia.dto.StudentDTO;
 import academy.prog.julia.dto.UserDTO;
 import academy.prog.julia.dto.UserFromAnswerTaskDTO;
@@ -71,6 +73,8 @@ public class UserService implements UserDetailsService {
     private final RestTemplate restTemplate;
 
     private final SessionRepository2 sessionRepository;
+    private final UserSearchService userSearchService;
+    private final ChatPrincipalCache chatPrincipalCache;
 
     /**
      * Constructor for UserService. Uses constructor-based dependency injection
@@ -84,6 +88,8 @@ public class UserService implements UserDetailsService {
      * @param passwordEncoder   the utility for encoding passwords
      * @param restTemplate      the utility for making HTTP requests
      * @param sessionRepository the repository for managing session data
+     * @param userSearchService the service searching users by phone and email fragments
+     * @param chatPrincipalCache the cache of the principals of Telegram chats
      */
     public UserService(
             UserRepository userRepository,
@@ -93,7 +99,9 @@ public class UserService implements UserDetailsService {
             BotCredentials botCredentials,
             PasswordEncoder passwordEncoder,
             RestTemplate restTemplate,
-            SessionRepository2 sessionRepository
+            SessionRepository2 sessionRepository,
+            UserSearchService userSearchService,
+            ChatPrincipalCache chatPrincipalCache
     ) {
         this.userRepository = userRepository;
         this.groupRepository = groupRepository;
@@ -103,6 +111,8 @@ public class UserService implements UserDetailsService {
         this.passwordEncoder = passwordEncoder;
         this.restTemplate = restTemplate;
         this.sessionRepository = sessionRepository;
+        this.userSearchService = userSearchService;
+        this.chatPrincipalCache = chatPrincipalCache;
     }
 
     /**
@@ -138,13 +148,17 @@ public class UserService implements UserDetailsService {
     }
 
     /**
-     * Saves or updates a user in the repository.
+     * Saves or updates a user in the repository, and rebuilds its search terms.
      *
      * @param user the user to save or update
      */
     @Transactional
     public void saveUser(User user) {
-        userRepository.save(user);
+        User savedUser = userRepository.save(user);
+
+        if (savedUser != null && savedUser.getId() != null) {
+            userSearchService.indexUser(savedUser.getId());
+        }
     }
 
     /**
@@ -192,6 +206,23 @@ public class UserService implements UserDetailsService {
         return userRepository.findByGroupName(groupName, pageable).toSet();
     }
 
+    /**
+     * Retrieves the next users belonging to a specified group after the given ID (keyset pagination).
+     *
+     * @param groupName the name of the group
+     * @param afterId   the last ID of the previous page, 0 for the first page
+     * @param limit     the page size
+     * @return the users belonging to the specified group, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByGroupNameAfter(
+            String groupName,
+            long afterId,
+            int limit
+    ) {
+        return userRepository.findByGroupNameAfter(groupName, afterId, PageRequest.of(0, limit));
+    }
+
     /**
      * Checks if a phone number already exists in the repository.
      *
@@ -247,6 +278,30 @@ public class UserService implements UserDetailsService {
         return userRepository.findByTelegramChatId(chatId);
     }
 
+    /**
+     * Finds the principal of the user of a Telegram chat, from the cache if possible.
+     * Chats without user are not cached, so a chat is recognized as soon as it is linked to a user.
+     * Not transactional: a cache hit uses no database connection, and a miss is loaded
+     * in the read-only transaction of the repository.
+     *
+     * @param chatId the Telegram chat ID to search for
+     * @return an Optional containing the principal if a user is found, or empty if not found
+     */
+    public Optional<ChatPrincipalDTO> findPrincipalByChatId(String chatId) {
+        ChatPrincipalDTO principal = chatPrincipalCache.get(chatId);
+
+        if (principal != null) {
+            return Optional.of(principal);
+        }
+
+        Optional<ChatPrincipalDTO> loaded = userRepository.findByTelegramChatId(chatId)
+                .map(ChatPrincipalDTO::fromUser);
+
+        loaded.ifPresent(value -> chatPrincipalCache.put(chatId, value));
+
+        return loaded;
+    }
+
     /**
      * Finds a user by their ID.
      *
@@ -290,9 +345,9 @@ public class UserService implements UserDetailsService {
             String email
     ) {
         if (phone != null) {
-            return userRepository.findByPhoneLike(phone);
+            return userSearchService.findByPhone(phone);
         } else {
-            return userRepository.findByEmailLike(email);
+            return userSearchService.findByEmail(email);
         }
     }
 
@@ -316,6 +371,10 @@ public class UserService implements UserDetailsService {
 
         user.get().setTelegramChatId(chatId);
         userRepository.save(user.get());
+
+        // The previous chat of the user and the previous user of the chat are both stale
+        chatPrincipalCache.evictChatAfterCompletion(chatId);
+        chatPrincipalCache.evictUserAfterCompletion(user.get().getId());
     }
 
     /**
@@ -460,9 +519,9 @@ public class UserService implements UserDetailsService {
                 }
             }
 
-            List<User> userFromDb = userRepository.findByEmailLike(user.getEmail());
+            List<User> userFromDb = userSearchService.findByEmail(user.getEmail());
 
-            if (userFromDb != null) {
+            if (!userFromDb.isEmpty()) {
                 LOGGER.info("This user is exists!");
             }
 
@@ -470,6 +529,7 @@ public class UserService implements UserDetailsService {
             user.setActive(true);
 
             userRepository.save(user);
+            userSearchService.indexUser(user.getId());
 
             sendMessage(user);
 
@@ -607,6 +667,8 @@ public class UserService implements UserDetailsService {
     public void blockUser(long userId) {
         User user = userRepository.findById(userId).orElseThrow();
         user.setBannedStatus(true);
+
+        chatPrincipalCache.evictUserAfterCompletion(userId);
     }
 
     /**
@@ -618,6 +680,8 @@ public class UserService implements UserDetailsService {
     public void unblockUser(long userId) {
         User user = userRepository.findById(userId).orElseThrow();
         user.setBannedStatus(false);
+
+        chatPrincipalCache.evictUserAfterCompletion(userId);
     }
 
     /**
@@ -667,6 +731,55 @@ public class UserService implements UserDetailsService {
         return result;
     }
 
+    /**
+     * Retrieves the IDs of the next users belonging to any group after the given ID (keyset pagination).
+     *
+     * @param afterId the last ID of the previous page, 0 for the first page
+     * @param limit   the page size
+     * @return the IDs of the users, in ascending order
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findIdsInGroupsAfter(
+            long afterId,
+            int limit
+    ) {
+        return userRepository.findIdsInGroupsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Retrieves the given users grouped by their group names, converts them to DTOs,
+     * and returns them in a map where the key is the group name and the value is a list of UserDTOs.
+     * Every group is present in the map, with an empty list if none of the given users belongs to it.
+     *
+     * @param userIds the IDs of the users, e.g. a page of {@link #findIdsInGroupsAfter(long, int)}
+     * @return Map of group names with corresponding lists of UserDTOs, ordered by user ID
+     */
+    @Transactional(readOnly = true)
+    public Map<String, List<UserDTO>> findAllByAllGroups(List<Long> userIds) {
+        Map<String, List<UserDTO>> result = new HashMap<>();
+
+        for (String groupName : groupRepository.findAllNames()) {
+            result.put(groupName, new ArrayList<>());
+        }
+
+        if (userIds.isEmpty()) {
+            return result;
+        }
+
+        List<User> users = new ArrayList<>(userRepository.findAllWithGroupsByIdIn(userIds));
+        users.sort(Comparator.comparing(User::getId));
+
+        for (User user : users) {
+            UserDTO userDTO = userToDTO(user);
+
+            for (Group group : user.getGroups()) {
+                result.computeIfAbsent(group.getName(), name -> new ArrayList<>()).add(userDTO);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Retrieves all students by filtering users who are not admins, teachers, managers, or mentors.
      * The users are grouped by their group names, and their details are converted into StudentDTOs.
@@ -677,7 +790,7 @@ public class UserService implements UserDetailsService {
     @Transactional(readOnly = true)
     public List<StudentDTO> findAllStudents() {
         List<StudentDTO> result = new ArrayList<>();
-        List<User> users = userRepository.findAll();
+        List<User> users = userRepository.findAllWithGroupsBy();
 
         for (User user : users) {
             if (!user.getRole().toString().equals("ROLE_ADMIN") &&
@@ -735,8 +848,7 @@ public class UserService implements UserDetailsService {
         if (emailStarting == null || emailStarting.isEmpty()) {
             throw new UserNotFoundException("Email should not be empty");
         }
-        Pageable pageable = PageRequest.of(0, 10);
-        List<User> users = userRepository.findByEmailLike(emailStarting, pageable);
+        List<User> users = userSearchService.findByEmail(emailStarting, 10);
         if (users.isEmpty()) {
             throw new UserNotFoundException("Users with this email is not found.");
         }
@@ -806,7 +918,7 @@ public class UserService implements UserDetailsService {
         if (phone == null || phone.isEmpty()) {
             return Collections.emptyList();
         }
-        return userRepository.findByPhoneLike(phone);
+        return userSearchService.findByPhone(phone);
     }
 
     /**
@@ -843,20 +955,62 @@ public class UserService implements UserDetailsService {
 
     /**
      * Retrieves users who are either banned or active, based on the provided parameters,
-     * with pagination.
+     * with pagination. The groups of the users are loaded too, so they can be used outside
+     * of the transaction.
      *
      * @param isBanned Whether to search for banned users
      * @param isActive Whether to search for active users
      * @param pageable The pagination information
-     * @return A list of users matching the provided parameters
+     * @return A list of users matching the provided parameters, ordered by ID
      */
     @Transactional(readOnly = true)
-    public List<User> findAllByIsBannedAndIsActive(
+    public List<User> findAllWithGroupsByIsBannedAndIsActive(
             boolean isBanned,
             boolean isActive,
             Pageable pageable
     ) {
-        return userRepository.findAllByIsBannedAndIsActive(isBanned, isActive, pageable);
+        List<Long> ids = userRepository.findIdsByIsBannedAndIsActive(isBanned, isActive, pageable);
+
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<User> users = new ArrayList<>(userRepository.findAllWithGroupsByIdIn(ids));
+        users.sort(Comparator.comparing(User::getId));
+
+        return users;
+    }
+
+    /**
+     * Retrieves the next users who are either banned or active after the given ID (keyset pagination),
+     * together with their groups, so they can be used outside of the transaction.
+     * Walking all the users this way reads every user once, whatever their number.
+     *
+     * @param isBanned Whether to search for banned users
+     * @param isActive Whether to search for active users
+     * @param afterId  The last ID of the previous batch, 0 for the first batch
+     * @param limit    The batch size
+     * @return A list of users matching the provided parameters, ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> findAllWithGroupsByIsBannedAndIsActiveAfter(
+            boolean isBanned,
+            boolean isActive,
+            long afterId,
+            int limit
+    ) {
+        List<Long> ids = userRepository.findIdsByIsBannedAndIsActiveAfter(
+                isBanned, isActive, afterId, PageRequest.of(0, limit)
+        );
+
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<User> users = new ArrayList<>(userRepository.findAllWithGroupsByIdIn(ids));
+        users.sort(Comparator.comparing(User::getId));
+
+        return users;
     }
 
     /**
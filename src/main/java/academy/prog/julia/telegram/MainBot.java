@@ -1,9 +1,11 @@
 package academy.prog.julia.telegram;
 
-import academy.prog.julia.model.User;
+import academy.prog.julia.dto.ChatPrincipalDTO;
 import academy.prog.julia.services.*;
+import academy.prog.julia.telegram.delivery.TelegramDeliveryQueue;
 import academy.prog.julia.telegram.executor.CommandExecutor;
 import academy.prog.julia.telegram.executor.StateExecutionContext;
+import academy.prog.julia.telegram.executor.UpdateDispatcher;
 import academy.prog.julia.exceptions.JuliaRuntimeException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,6 +43,8 @@ public class MainBot extends TelegramLongPollingBot {
     private final BotCredentials botCredentials;
     private final CommandExecutor commandExecutor;
     private final SseService sseService;
+    private final TelegramDeliveryQueue telegramDeliveryQueue;
+    private final UpdateDispatcher updateDispatcher;
 
     /**
      * Constructor to initialize the bot with necessary services and credentials.
@@ -55,6 +59,8 @@ public class MainBot extends TelegramLongPollingBot {
      * @param botCredentials the bot credentials (name and token).
      * @param commandExecutor the executor responsible for handling bot commands.
      * @param sseService the service for server-sent events.
+     * @param telegramDeliveryQueue the queue delivering outgoing messages.
+     * @param updateDispatcher the dispatcher running updates of different chats in parallel.
      */
     public MainBot(
             TelegramBotsApi telegramBotsApi,
@@ -65,7 +71,9 @@ public class MainBot extends TelegramLongPollingBot {
             TaskService taskService,
             BotCredentials botCredentials,
             CommandExecutor commandExecutor,
-            SseService sseService
+            SseService sseService,
+            TelegramDeliveryQueue telegramDeliveryQueue,
+            UpdateDispatcher updateDispatcher
     ) {
         super(botCredentials.getBotToken());
 
@@ -77,6 +85,10 @@ public class MainBot extends TelegramLongPollingBot {
         this.botCredentials = botCredentials;
         this.commandExecutor = commandExecutor;
         this.sseService = sseService;
+        this.telegramDeliveryQueue = telegramDeliveryQueue;
+        this.updateDispatcher = updateDispatcher;
+
+        telegramDeliveryQueue.start(message -> execute(message));
 
         try {
             telegramBotsApi.registerBot(this);
@@ -87,8 +99,8 @@ public class MainBot extends TelegramLongPollingBot {
 
     /**
      * Handles incoming updates from the Telegram API.
-     * If a message is received, it processes the text or command, or delegates to appropriate methods
-     * based on the type of message.
+     * Updates are passed to the dispatcher, which processes the updates of one chat in order
+     * and the updates of different chats in parallel, so a slow command doesn't block other users.
      *
      * @param update the update received from Telegram.
      */
@@ -96,6 +108,18 @@ public class MainBot extends TelegramLongPollingBot {
     public void onUpdateReceived(Update update) {
         if (!update.hasMessage()) return;
 
+        updateDispatcher.dispatch(update.getMessage().getChatId(), () -> processUpdate(update));
+    }
+
+    /**
+     * Processes an update.
+     * If a message is received, it processes the text or command, or delegates to appropriate methods
+     * based on the type of message.
+     *
+     * @param update the update received from Telegram.
+     * @return the name of the handled command, used for handling time metrics.
+     */
+    private String processUpdate(Update update) {
         var message = update.getMessage();
         var chatId = message.getChatId();
         LOGGER.debug("Message received: {}", message.getText());
@@ -111,46 +135,50 @@ public class MainBot extends TelegramLongPollingBot {
                 else
                     sendWelcomeMessage(chatId);
                     sseService.notifyFrontend("The user clicks Start");
+                return START_COMMAND;
             } else {
-                handleCommand(chatId, text, args, update);
+                return handleCommand(chatId, text, args, update);
             }
         } else if (message.hasDocument()) {
-            handleCommand(chatId, null, null, update);
+            return handleCommand(chatId, null, null, update);
         } else {
             sendUnknownCommandMessage(chatId);
+            return null;
         }
     }
 
     /**
      * Handles commands received from users. It first checks if the user is registered
      * and not blocked, then creates an execution context and delegates the command
-     * execution to the CommandExecutor.
+     * execution to the CommandExecutor. The check uses the cached principal of the chat,
+     * so commands that don't need the whole user cost no database read.
      *
      * @param chatId the ID of the chat where the command was issued.
      * @param text the text of the command.
      * @param args the arguments passed with the command.
      * @param update the update object containing the message details.
+     * @return the name of the executed command, or null if no command was executed.
      */
-    private void handleCommand(
+    private String handleCommand(
             long chatId,
             String text,
             String[] args,
             Update update
     ) {
-        Optional<User> userOpt = userService.findUserByChatId(Long.toString(chatId));
+        Optional<ChatPrincipalDTO> principalOpt = userService.findPrincipalByChatId(Long.toString(chatId));
 
-        if (userOpt.isEmpty()) {
+        if (principalOpt.isEmpty()) {
             sendMessage(chatId, "No user registered to execute the command", getCommandKeyboard());
             LOGGER.info("{}: No user registered to execute the command", chatId);
-            return;
+            return null;
         }
 
-        User user = userOpt.get();
+        ChatPrincipalDTO principal = principalOpt.get();
 
-        if (userService.isUserBlocked(user.getId())) {
+        if (principal.banned()) {
             sendMessage(chatId, "Your Account is Blocked", getCommandKeyboard());
-            LOGGER.info("{}: Account is Blocked", user);
-            return;
+            LOGGER.info("{}: Account of user {} is Blocked", chatId, principal.id());
+            return null;
         }
 
         StateExecutionContext context = new StateExecutionContext(
@@ -160,7 +188,7 @@ public class MainBot extends TelegramLongPollingBot {
                 groupService,
                 docsSheetsService,
                 taskService,
-                user,
+                principal,
                 chatId,
                 text,
                 args,
@@ -168,6 +196,8 @@ public class MainBot extends TelegramLongPollingBot {
         );
 
         commandExecutor.execute(context);
+
+        return context.getActiveCommand() != null ? context.getActiveCommand().getCommand().getName() : null;
     }
 
     /**
@@ -213,6 +243,8 @@ public class MainBot extends TelegramLongPollingBot {
 
     /**
      * Sends a message to the specified chat with optional keyboard markup.
+     * The message is put into the delivery queue and sent asynchronously,
+     * respecting the Telegram rate limits.
      *
      * @param chatId the ID of the chat.
      * @param text the message text.
@@ -231,11 +263,18 @@ public class MainBot extends TelegramLongPollingBot {
             message.setReplyMarkup(keyboardMarkup);
         }
 
-        try {
-            execute(message);
-        } catch (TelegramApiException e) {
-            LOGGER.error(e);
-        }
+        telegramDeliveryQueue.enqueue(message);
+    }
+
+    /**
+     * Sends a prepared message, e.g. one with inline buttons or a parse mode.
+     * The message is put into the delivery queue and sent asynchronously,
+     * respecting the Telegram rate limits.
+     *
+     * @param message the message to send; its chat ID must be numeric.
+     */
+    public void sendMessage(SendMessage message) {
+        telegramDeliveryQueue.enqueue(message);
     }
 
     /**
@@ -0,0 +1,21 @@
+package academy.prog.julia.telegram.delivery;
+
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+/**
+ * Performs the actual Telegram API call for a queued message.
+ * Implemented by the bot, so the delivery queue does not depend on it directly.
+ */
+@FunctionalInterface
+public interface MessageSender {
+
+    /**
+     * Sends the message to Telegram.
+     *
+     * @param message the message to send
+     * @throws TelegramApiException if Telegram rejects the message or cannot be reached
+     */
+    void send(SendMessage message) throws TelegramApiException;
+
+}
@@ -0,0 +1,523 @@
+package academy.prog.julia.telegram.delivery;
+
+import academy.prog.julia.model.TelegramDeadLetter;
+import academy.prog.julia.repos.TelegramDeadLetterRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous outbound queue for Telegram messages.
+ *
+ * Messages are queued per chat and delivered by a small pool of worker threads, so callers
+ * (update handling, broadcasts, scheduled notifications) never wait for the Telegram API.
+ * Delivery respects a global and a per-chat token bucket, honours the {@code retry_after}
+ * value of 429 responses (pausing all chats, since the limit may be the bot-wide one)
+ * and retries transient errors a bounded number of times.
+ * Messages that cannot be delivered are stored in the 'telegram_dead_letter' table, as are
+ * the messages still queued when the application stops and the shutdown timeout is over.
+ *
+ * A chat is handled by at most one worker at a time, so messages of a chat keep their order.
+ */
+@Component
+public class TelegramDeliveryQueue {
+
+    private static final Logger LOGGER = LogManager.getLogger(TelegramDeliveryQueue.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long DRAIN_POLL_MILLIS = 50;
+    private static final String NOT_DELIVERED_BEFORE_SHUTDOWN = "Not delivered before the delivery queue stopped";
+
+    private final TelegramDeadLetterRepository telegramDeadLetterRepository;
+    private final int workers;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long shutdownTimeoutMillis;
+    private final double chatRate;
+    private final int chatBurst;
+    private final TokenBucket globalBucket;
+
+    private final Object lock = new Object();
+    private final Map<Long, ChatQueue> chats = new HashMap<>();
+    private final DelayQueue<ChatQueue> readyChats = new DelayQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile MessageSender sender;
+    private volatile boolean running;
+    private boolean stopped;
+    private ExecutorService executor;
+
+    /**
+     * Constructs the delivery queue with the configured limits.
+     *
+     * @param telegramDeadLetterRepository the repository for undeliverable messages
+     * @param workers               the number of worker threads calling the Telegram API
+     * @param globalRate            the maximum number of messages per second for the whole bot
+     * @param chatRate              the maximum number of messages per second for a single chat
+     * @param chatBurst             the number of messages a single chat may receive in a burst
+     * @param maxAttempts           the maximum number of delivery attempts for a message
+     * @param retryBackoffMillis    the delay before the first retry, doubled on every next retry
+     * @param shutdownTimeoutMillis the maximum time spent delivering the queued messages on shutdown
+     */
+    public TelegramDeliveryQueue(
+            TelegramDeadLetterRepository telegramDeadLetterRepository,
+            @Value("${telegram.delivery.workers:4}") int workers,
+            @Value("${telegram.delivery.global-rate:30}") double globalRate,
+            @Value("${telegram.delivery.chat-rate:1}") double chatRate,
+            @Value("${telegram.delivery.chat-burst:3}") int chatBurst,
+            @Value("${telegram.delivery.max-attempts:5}") int maxAttempts,
+            @Value("${telegram.delivery.retry-backoff-millis:1000}") long retryBackoffMillis,
+            @Value("${telegram.delivery.shutdown-timeout-millis:10000}") long shutdownTimeoutMillis
+    ) {
+        this.telegramDeadLetterRepository = telegramDeadLetterRepository;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.chatRate = chatRate;
+        this.chatBurst = chatBurst;
+        this.globalBucket = new TokenBucket(globalRate, globalRate, System.nanoTime());
+    }
+
+    /**
+     * Starts the worker threads. Messages enqueued before the start are delivered afterwards.
+     *
+     * @param sender the component performing the Telegram API call
+     */
+    public synchronized void start(MessageSender sender) {
+        if (running) {
+            return;
+        }
+
+        this.sender = Objects.requireNonNull(sender, "sender cannot be null");
+        this.running = true;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "telegram-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::processChats);
+        }
+
+        LOGGER.info("Telegram delivery queue started with {} workers", workers);
+    }
+
+    /**
+     * Stops the worker threads once the queued messages are delivered or the shutdown timeout is over.
+     * Messages still queued afterwards, or enqueued after the stop, are stored as dead letters.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (running) {
+            drain();
+
+            running = false;
+            executor.shutdownNow();
+
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Telegram delivery workers did not stop in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        storeUndelivered();
+    }
+
+    /**
+     * Waits until the workers have delivered the queued messages, for at most the shutdown timeout.
+     */
+    private void drain() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+
+        try {
+            while (pending.get() > 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(DRAIN_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Empties the queue of a stopped delivery queue and stores its messages in the dead-letter table.
+     */
+    private void storeUndelivered() {
+        List<TelegramDeadLetter> deadLetters = new ArrayList<>();
+
+        synchronized (lock) {
+            stopped = true;
+
+            for (ChatQueue chat : chats.values()) {
+                for (OutboundMessage message : chat.messages) {
+                    deadLetters.add(createDeadLetter(chat.chatId, message, null, NOT_DELIVERED_BEFORE_SHUTDOWN));
+                }
+            }
+
+            chats.clear();
+            readyChats.clear();
+            pending.set(0);
+        }
+
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+
+        LOGGER.warn("Telegram delivery queue stopped with {} undelivered messages, stored as dead letters", deadLetters.size());
+
+        try {
+            telegramDeadLetterRepository.saveAll(deadLetters);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to store " + deadLetters.size() + " undelivered messages", e);
+        }
+    }
+
+    /**
+     * Adds a message to the queue of its chat. Returns immediately.
+     * A message without a numeric chat ID cannot be delivered by the queue and is dropped with an error log.
+     * A message enqueued after the queue stopped is stored as a dead letter.
+     *
+     * @param message the message to send; its chat ID must be numeric
+     * @return true if the message was queued
+     */
+    public boolean enqueue(SendMessage message) {
+        Long chatId = parseChatId(message.getChatId());
+
+        if (chatId == null) {
+            LOGGER.error("Message not queued, invalid chat ID: '{}'", message.getChatId());
+            return false;
+        }
+
+        long now = System.nanoTime();
+
+        synchronized (lock) {
+            if (!stopped) {
+                ChatQueue chat = chats.computeIfAbsent(chatId, id -> new ChatQueue(id, new TokenBucket(chatBurst, chatRate, now)));
+                chat.messages.addLast(new OutboundMessage(message));
+                pending.incrementAndGet();
+
+                if (!chat.scheduled) {
+                    schedule(chat, now + chat.bucket.nanosUntilAvailable(now));
+                }
+
+                return true;
+            }
+        }
+
+        LOGGER.warn("Message to chat {} enqueued after the delivery queue stopped, stored as dead letter", chatId);
+        saveDeadLetter(chatId, new OutboundMessage(message), null, NOT_DELIVERED_BEFORE_SHUTDOWN);
+        return false;
+    }
+
+    /**
+     * Returns the number of messages waiting for delivery.
+     *
+     * @return the number of queued messages
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Removes idle chats, so the per-chat state does not grow with the number of users ever messaged.
+     * A chat is idle when it has nothing queued and its rate limit has fully recovered.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleChats() {
+        long now = System.nanoTime();
+
+        synchronized (lock) {
+            chats.values().removeIf(chat -> !chat.scheduled && chat.messages.isEmpty() && chat.bucket.isFull(now));
+        }
+    }
+
+    /**
+     * Worker loop: takes the next chat whose rate limit allows sending and delivers its first message.
+     */
+    private void processChats() {
+        while (running) {
+            ChatQueue chat;
+
+            try {
+                chat = readyChats.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            OutboundMessage next;
+
+            synchronized (lock) {
+                next = chat.messages.peekFirst();
+
+                if (next == null) {
+                    chat.scheduled = false;
+                    continue;
+                }
+            }
+
+            long wait = chat.bucket.tryConsume(System.nanoTime());
+
+            if (wait > 0) {
+                synchronized (lock) {
+                    schedule(chat, System.nanoTime() + wait);
+                }
+                continue;
+            }
+
+            try {
+                acquireGlobalToken();
+            } catch (InterruptedException e) {
+                synchronized (lock) {
+                    schedule(chat, System.nanoTime());
+                }
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            deliver(chat, next);
+        }
+    }
+
+    /**
+     * Blocks until the global rate limit allows sending one more message.
+     *
+     * @throws InterruptedException if the worker is stopped while waiting
+     */
+    private void acquireGlobalToken() throws InterruptedException {
+        long wait;
+
+        while ((wait = globalBucket.tryConsume(System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Sends the first message of a chat and decides what happens to it and to the chat afterwards.
+     *
+     * @param chat    the chat the message belongs to
+     * @param message the message to send
+     */
+    private void deliver(
+            ChatQueue chat,
+            OutboundMessage message
+    ) {
+        try {
+            sender.send(message.message);
+            complete(chat);
+        } catch (TelegramApiException e) {
+            int attempts = ++message.attempts;
+            Integer errorCode = getErrorCode(e);
+
+            if (!isRetryable(errorCode) || attempts >= maxAttempts) {
+                LOGGER.error("Message to chat {} failed after {} attempt(s): {}", chat.chatId, attempts, e.getMessage());
+                saveDeadLetter(chat.chatId, message, errorCode, e.getMessage());
+                complete(chat);
+                return;
+            }
+
+            long delayMillis = getRetryDelayMillis(e, attempts);
+            LOGGER.warn("Message to chat {} failed ({}), retry in {} ms", chat.chatId, e.getMessage(), delayMillis);
+
+            if (Objects.equals(errorCode, TOO_MANY_REQUESTS)) {
+                long now = System.nanoTime();
+                globalBucket.pauseUntil(now, now + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+            }
+
+            synchronized (lock) {
+                schedule(chat, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error while sending a message to chat " + chat.chatId, e);
+            saveDeadLetter(chat.chatId, message, null, e.getMessage());
+            complete(chat);
+        }
+    }
+
+    /**
+     * Removes the first message of a chat and schedules the chat for its next message, if any.
+     *
+     * @param chat the chat whose first message was processed
+     */
+    private void complete(ChatQueue chat) {
+        long now = System.nanoTime();
+
+        synchronized (lock) {
+            chat.messages.pollFirst();
+            pending.decrementAndGet();
+
+            if (chat.messages.isEmpty()) {
+                chat.scheduled = false;
+            } else {
+                schedule(chat, now + chat.bucket.nanosUntilAvailable(now));
+            }
+        }
+    }
+
+    /**
+     * Puts a chat into the ready queue. Must be called while holding the lock.
+     *
+     * @param chat         the chat to schedule
+     * @param readyAtNanos the time when the chat may send its next message
+     */
+    private void schedule(
+            ChatQueue chat,
+            long readyAtNanos
+    ) {
+        chat.readyAtNanos = readyAtNanos;
+        chat.scheduled = true;
+        readyChats.put(chat);
+    }
+
+    /**
+     * Stores an undeliverable message in the dead-letter table.
+     */
+    private void saveDeadLetter(
+            long chatId,
+            OutboundMessage message,
+            Integer errorCode,
+            String errorMessage
+    ) {
+        try {
+            telegramDeadLetterRepository.save(createDeadLetter(chatId, message, errorCode, errorMessage));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to store undelivered message to chat " + chatId, e);
+        }
+    }
+
+    private static TelegramDeadLetter createDeadLetter(
+            long chatId,
+            OutboundMessage message,
+            Integer errorCode,
+            String errorMessage
+    ) {
+        TelegramDeadLetter deadLetter = new TelegramDeadLetter();
+        deadLetter.setChatId(chatId);
+        deadLetter.setText(message.message.getText());
+        deadLetter.setAttempts(message.attempts);
+        deadLetter.setErrorCode(errorCode);
+        deadLetter.setErrorMessage(abbreviate(errorMessage));
+        deadLetter.setCreatedDate(new Date());
+        return deadLetter;
+    }
+
+    /**
+     * Checks whether an error may disappear on its own: rate limiting, server errors and network errors.
+     * Other 4xx errors (e.g. the bot was blocked or the chat does not exist) are permanent.
+     *
+     * @param errorCode the error code returned by Telegram, or {@code null} if there was no response
+     * @return true if the message should be retried
+     */
+    static boolean isRetryable(Integer errorCode) {
+        return errorCode == null || errorCode == TOO_MANY_REQUESTS || errorCode >= 500;
+    }
+
+    /**
+     * Calculates the delay before the next attempt: the {@code retry_after} value of a 429 response,
+     * otherwise an exponential backoff.
+     *
+     * @param e        the delivery error
+     * @param attempts the number of attempts made so far
+     * @return the delay in milliseconds
+     */
+    long getRetryDelayMillis(
+            TelegramApiException e,
+            int attempts
+    ) {
+        if (e instanceof TelegramApiRequestException requestException
+                && requestException.getParameters() != null
+                && requestException.getParameters().getRetryAfter() != null) {
+            return TimeUnit.SECONDS.toMillis(requestException.getParameters().getRetryAfter());
+        }
+
+        long delay = retryBackoffMillis << Math.min(attempts - 1, 16);
+
+        return Math.min(delay, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Parses the chat ID of a message.
+     *
+     * @param chatId the chat ID of the message
+     * @return the numeric chat ID, or {@code null} if it is missing or not numeric (e.g. a channel username)
+     */
+    static Long parseChatId(String chatId) {
+        if (chatId == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(chatId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer getErrorCode(TelegramApiException e) {
+        return e instanceof TelegramApiRequestException requestException ? requestException.getErrorCode() : null;
+    }
+
+    private static String abbreviate(String text) {
+        return text != null && text.length() > 1000 ? text.substring(0, 1000) : text;
+    }
+
+    /**
+     * A message waiting for delivery together with the number of attempts made.
+     */
+    private static class OutboundMessage {
+        private final SendMessage message;
+        private int attempts;
+
+        OutboundMessage(SendMessage message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * The queued messages and the rate limit of a single chat.
+     * A chat is present in the ready queue at most once ({@code scheduled} flag).
+     */
+    private static class ChatQueue implements Delayed {
+        private final long chatId;
+        private final TokenBucket bucket;
+        private final Deque<OutboundMessage> messages = new ArrayDeque<>();
+        private long readyAtNanos;
+        private boolean scheduled;
+
+        ChatQueue(
+                long chatId,
+                TokenBucket bucket
+        ) {
+            this.chatId = chatId;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+}
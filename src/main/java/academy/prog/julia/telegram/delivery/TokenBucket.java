@@ -0,0 +1,114 @@
+package academy.prog.julia.telegram.delivery;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter.
+ *
+ * The bucket holds up to {@code capacity} tokens and is refilled continuously with
+ * {@code permitsPerSecond} tokens per second. Every sent message consumes one token.
+ * Time is passed in by the caller (in nanoseconds), so the bucket can be tested without sleeping.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity         the maximum number of tokens (burst size)
+     * @param permitsPerSecond the number of tokens added per second
+     * @param nowNanos         the current time in nanoseconds
+     */
+    public TokenBucket(
+            double capacity,
+            double permitsPerSecond,
+            long nowNanos
+    ) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity must be at least 1 and rate must be positive");
+        }
+
+        this.capacity = capacity;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Tries to take one token.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return {@code 0} if a token was taken, otherwise the number of nanoseconds until a token is available
+     */
+    public synchronized long tryConsume(long nowNanos) {
+        refill(nowNanos);
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        return nanosUntilToken(nowNanos);
+    }
+
+    /**
+     * Returns the number of nanoseconds until a token is available, without taking it.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return {@code 0} if a token is available now, otherwise the waiting time in nanoseconds
+     */
+    public synchronized long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+
+        return tokens >= 1 ? 0 : nanosUntilToken(nowNanos);
+    }
+
+    /**
+     * Empties the bucket and stops refilling it until the given time, e.g. when the server asked to retry later.
+     *
+     * @param nowNanos      the current time in nanoseconds
+     * @param resumeAtNanos the time in nanoseconds when the bucket starts refilling again
+     */
+    public synchronized void pauseUntil(
+            long nowNanos,
+            long resumeAtNanos
+    ) {
+        refill(nowNanos);
+        tokens = 0;
+        lastRefillNanos = Math.max(lastRefillNanos, resumeAtNanos);
+    }
+
+    /**
+     * Checks whether the bucket has been refilled completely, i.e. it has not been used recently.
+     *
+     * @param nowNanos the current time in nanoseconds
+     * @return true if the bucket is full
+     */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+
+        return tokens >= capacity;
+    }
+
+    /**
+     * Returns the waiting time for the next token, including the rest of a pause. The bucket must not have a token.
+     */
+    private long nanosUntilToken(long nowNanos) {
+        long pausedNanos = Math.max(0, lastRefillNanos - nowNanos);
+
+        return Math.max(1, pausedNanos + (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    private void refill(long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package academy.prog.julia.telegram.executor;
+
+/**
+ * Storage of the commands which are currently being executed, one per chat.
+ *
+ * Implementations must be thread-safe, since updates of different chats are handled in parallel.
+ * Every access to a command extends its lifetime; commands which are not accessed
+ * for the configured timeout are removed by {@link #expire()}.
+ */
+public interface ActiveCommandStore {
+
+    /**
+     * Gets the active command of a chat and extends its lifetime.
+     *
+     * @param chatId the chat ID
+     * @return the active command, or null if the chat has no active command
+     */
+    ActiveCommand get(long chatId);
+
+    /**
+     * Stores the active command of a chat, replacing the previous one.
+     * Must be called again after the command state changed, so persistent stores can save it.
+     *
+     * @param chatId        the chat ID
+     * @param activeCommand the active command
+     */
+    void put(long chatId, ActiveCommand activeCommand);
+
+    /**
+     * Removes the active command of a chat.
+     *
+     * @param chatId the chat ID
+     * @return true if a command was removed, false otherwise
+     */
+    boolean remove(long chatId);
+
+    /**
+     * Removes the commands whose lifetime has ended.
+     *
+     * @return the number of removed commands
+     */
+    int expire();
+
+}
@@ -1,16 +1,12 @@
 package academy.prog.julia.telegram.executor;
 
-import academy.prog.julia.services.UserService;
 import academy.prog.julia.telegram.states.CommandState;
 import academy.prog.julia.telegram.validators.StateInputValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * The CommandExecutor class is responsible for executing commands in a Telegram bot,
  * managing the state of active commands, and handling user inputs.
@@ -18,20 +14,25 @@ import java.util.Map;
 @Component
 public class CommandExecutor {
 
-    private static final String EXIT_COMMAND = "/exit";
-    private static final long CANCEL_COMMAND_TIMEOUT = 20; // 20 min
+    private static final Logger LOGGER = LogManager.getLogger(CommandExecutor.class);
 
-    private final Map<Long, ActiveCommand> activeCommands = new HashMap<>();
+    private static final String EXIT_COMMAND = "/exit";
 
     private final CommandRegistry commandRegistry;
+    private final ActiveCommandStore activeCommandStore;
 
     /**
-     * Constructor for CommandExecutor, initializing the command registry.
+     * Constructor for CommandExecutor, initializing the command registry and the active command store.
      *
-     * @param commandRegistry the registry of available commands
+     * @param commandRegistry    the registry of available commands
+     * @param activeCommandStore the store of commands in progress, expiring inactive ones
      */
-    public CommandExecutor(CommandRegistry commandRegistry) {
+    public CommandExecutor(
+            CommandRegistry commandRegistry,
+            ActiveCommandStore activeCommandStore
+    ) {
         this.commandRegistry = commandRegistry;
+        this.activeCommandStore = activeCommandStore;
     }
 
     /**
@@ -72,7 +73,7 @@ public class CommandExecutor {
             }
 
             var allowedRoles = command.getAllowedRoles();
-            if (!allowedRoles.isEmpty() && !allowedRoles.contains(context.getUser().getRole())) {
+            if (!allowedRoles.isEmpty() && !allowedRoles.contains(context.getUserRole())) {
                 context.sendMessage(chatId, "Command not allowed for this user role");
                 return;
             }
@@ -113,29 +114,21 @@ public class CommandExecutor {
                     "\" command execution finished successfully!"
             );
             removeActiveCommand(chatId);
+        } else {
+            // Save the new state, so a persistent store can continue the command after a restart
+            putActiveCommand(chatId, activeCommand);
         }
     }
 
     /**
      * Scheduled task to clean inactive commands that have timed out after a defined period.
      */
-    @Scheduled(initialDelay = 10000, fixedDelay = 120000)
+    @Scheduled(initialDelay = 10000, fixedDelay = 30000)
     public void cleanInactiveCommands() {
-        var now = LocalDateTime.now();
-
-        synchronized (activeCommands) {
-            for (var chatId : activeCommands.keySet()) {
-                var command = activeCommands.get(chatId);
+        int removed = activeCommandStore.expire();
 
-                if (command != null) {
-                    var minutes = ChronoUnit.MINUTES.between(now, command.getLastAction());
-
-                    // Delete commands if inactive for more than CANCEL_COMMAND_TIMEOUT minutes
-                    if (minutes > CANCEL_COMMAND_TIMEOUT) {
-                        activeCommands.remove(chatId);
-                    }
-                }
-            }
+        if (removed > 0) {
+            LOGGER.info("{} inactive command(s) cancelled", removed);
         }
     }
 
@@ -146,9 +139,7 @@ public class CommandExecutor {
      * @return true if a command was removed, false otherwise
      */
     private boolean removeActiveCommand(Long chatId) {
-        synchronized (activeCommands) {
-            return activeCommands.remove(chatId) != null;
-        }
+        return activeCommandStore.remove(chatId);
     }
 
     /**
@@ -158,9 +149,7 @@ public class CommandExecutor {
      * @param activeCommand the active command to be set
      */
     private void putActiveCommand(Long chatId, ActiveCommand activeCommand) {
-        synchronized (activeCommands) {
-            activeCommands.put(chatId, activeCommand);
-        }
+        activeCommandStore.put(chatId, activeCommand);
     }
 
     /**
@@ -170,9 +159,7 @@ public class CommandExecutor {
      * @return the active command associated with the chatId
      */
     private ActiveCommand getActiveCommand(Long chatId) {
-        synchronized (activeCommands) {
-            return activeCommands.get(chatId);
-        }
+        return activeCommandStore.get(chatId);
     }
 
 }
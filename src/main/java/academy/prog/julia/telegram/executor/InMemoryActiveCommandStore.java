@@ -0,0 +1,173 @@
+package academy.prog.julia.telegram.executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link ActiveCommandStore} with expiration on a timer wheel.
+ *
+ * Every access moves the chat into the wheel slot of its new expiration tick, which is O(1).
+ * {@link #expire()} only looks at the slots whose ticks have passed since the previous call,
+ * instead of scanning all active commands. A chat may stay in an older slot after being touched;
+ * such stale entries are recognized by the expiration time and dropped when the slot is processed.
+ *
+ * This is the default store. Active commands are lost on restart.
+ */
+@Component
+@ConditionalOnProperty(name = "telegram.active-commands.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryActiveCommandStore implements ActiveCommandStore {
+
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final Set<Long>[] wheel;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private long lastExpiredTick;
+
+    /**
+     * Constructs the store.
+     *
+     * @param timeoutMinutes the number of minutes after the last access when a command expires
+     * @param tickSeconds    the resolution of the timer wheel
+     */
+    public InMemoryActiveCommandStore(
+            @Value("${telegram.active-commands.timeout-minutes:20}") long timeoutMinutes,
+            @Value("${telegram.active-commands.tick-seconds:30}") long tickSeconds
+    ) {
+        this(TimeUnit.MINUTES.toMillis(timeoutMinutes), TimeUnit.SECONDS.toMillis(tickSeconds), System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs the store with a custom clock.
+     *
+     * @param timeoutMillis the number of milliseconds after the last access when a command expires
+     * @param tickMillis    the resolution of the timer wheel in milliseconds
+     * @param clock         the source of the current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    InMemoryActiveCommandStore(
+            long timeoutMillis,
+            long tickMillis,
+            LongSupplier clock
+    ) {
+        this.timeoutMillis = timeoutMillis;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+
+        // The wheel spans more than the timeout, so a touched chat never lands in the slot being expired
+        int wheelSize = (int) (timeoutMillis / tickMillis) + 2;
+        this.wheel = new Set[wheelSize];
+
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+
+        this.lastExpiredTick = clock.getAsLong() / tickMillis;
+    }
+
+    @Override
+    public ActiveCommand get(long chatId) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(chatId);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= now) {
+            entries.remove(chatId, entry);
+            return null;
+        }
+
+        touch(chatId, entry, now);
+
+        return entry.activeCommand;
+    }
+
+    @Override
+    public void put(
+            long chatId,
+            ActiveCommand activeCommand
+    ) {
+        Entry entry = entries.compute(chatId, (id, current) ->
+                current != null && current.activeCommand == activeCommand ? current : new Entry(activeCommand)
+        );
+
+        touch(chatId, entry, clock.getAsLong());
+    }
+
+    @Override
+    public boolean remove(long chatId) {
+        return entries.remove(chatId) != null;
+    }
+
+    @Override
+    public synchronized int expire() {
+        long now = clock.getAsLong();
+        long currentTick = now / tickMillis;
+        long firstTick = Math.max(lastExpiredTick + 1, currentTick - wheel.length + 1);
+        int removed = 0;
+
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Set<Long> slot = wheel[slotIndex(tick)];
+
+            for (Long chatId : slot) {
+                slot.remove(chatId);
+
+                Entry entry = entries.get(chatId);
+
+                if (entry != null && entry.expiresAt <= now && entries.remove(chatId, entry)) {
+                    removed++;
+                }
+            }
+        }
+
+        lastExpiredTick = currentTick;
+
+        return removed;
+    }
+
+    /**
+     * Returns the number of active commands.
+     *
+     * @return the number of stored commands
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void touch(
+            long chatId,
+            Entry entry,
+            long now
+    ) {
+        long expiresAt = now + timeoutMillis;
+        entry.expiresAt = expiresAt;
+        wheel[slotIndex(Math.floorDiv(expiresAt + tickMillis - 1, tickMillis))].add(chatId);
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+
+    /**
+     * An active command with its expiration time.
+     */
+    private static class Entry {
+        private final ActiveCommand activeCommand;
+        private volatile long expiresAt;
+
+        Entry(ActiveCommand activeCommand) {
+            this.activeCommand = activeCommand;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package academy.prog.julia.telegram.executor;
+
+import academy.prog.julia.telegram.commands.Command;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ActiveCommandStore} kept in the 'telegram_active_command' table.
+ *
+ * Commands in progress survive a restart and can be continued by another bot instance
+ * using the same database. A command is stored by its name, state index and serialized attributes,
+ * and restored with the command found in the {@link CommandRegistry}.
+ * Expired rows are removed with a single indexed delete.
+ *
+ * Enabled with {@code telegram.active-commands.store=jdbc}.
+ */
+@Component
+@ConditionalOnProperty(name = "telegram.active-commands.store", havingValue = "jdbc")
+public class JdbcActiveCommandStore implements ActiveCommandStore {
+
+    private static final Logger LOGGER = LogManager.getLogger(JdbcActiveCommandStore.class);
+
+    // Attributes hold user input only (strings, numbers, collections)
+    private static final ObjectInputFilter ATTRIBUTES_FILTER =
+            ObjectInputFilter.Config.createFilter("java.lang.*;java.util.*;java.time.*;!*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CommandRegistry commandRegistry;
+    private final long timeoutMillis;
+
+    /**
+     * Constructs the store.
+     *
+     * @param jdbcTemplate    the {@code JdbcTemplate} used for interacting with the database
+     * @param commandRegistry the registry used to restore commands by name
+     * @param timeoutMinutes  the number of minutes after the last access when a command expires
+     */
+    public JdbcActiveCommandStore(
+            JdbcTemplate jdbcTemplate,
+            CommandRegistry commandRegistry,
+            @Value("${telegram.active-commands.timeout-minutes:20}") long timeoutMinutes
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commandRegistry = commandRegistry;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+    }
+
+    @Override
+    public ActiveCommand get(long chatId) {
+        long now = System.currentTimeMillis();
+        String sql = "SELECT command_name, state_index, attributes FROM telegram_active_command WHERE chat_id = ? AND expires_at > ?";
+
+        List<ActiveCommand> activeCommands = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Command command = commandRegistry.getByName(rs.getString("command_name"));
+
+            if (command == null) {
+                return null;
+            }
+
+            ActiveCommand activeCommand = new ActiveCommand(command, rs.getInt("state_index"));
+            activeCommand.getAttributes().putAll(deserialize(rs.getBytes("attributes")));
+            return activeCommand;
+        }, chatId, now);
+
+        if (activeCommands.isEmpty() || activeCommands.get(0) == null) {
+            return null;
+        }
+
+        jdbcTemplate.update("UPDATE telegram_active_command SET expires_at = ? WHERE chat_id = ?", now + timeoutMillis, chatId);
+
+        return activeCommands.get(0);
+    }
+
+    @Override
+    public void put(
+            long chatId,
+            ActiveCommand activeCommand
+    ) {
+        String name = activeCommand.getCommand().getName();
+        int stateIndex = activeCommand.getStateIndex();
+        byte[] attributes = serialize(activeCommand.getAttributes());
+        long expiresAt = System.currentTimeMillis() + timeoutMillis;
+
+        String update = "UPDATE telegram_active_command SET command_name = ?, state_index = ?, attributes = ?, expires_at = ? WHERE chat_id = ?";
+
+        if (jdbcTemplate.update(update, name, stateIndex, attributes, expiresAt, chatId) > 0) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO telegram_active_command (chat_id, command_name, state_index, attributes, expires_at) VALUES (?, ?, ?, ?, ?)",
+                    chatId, name, stateIndex, attributes, expiresAt
+            );
+        } catch (DuplicateKeyException e) {
+            // Inserted concurrently by another instance
+            jdbcTemplate.update(update, name, stateIndex, attributes, expiresAt, chatId);
+        }
+    }
+
+    @Override
+    public boolean remove(long chatId) {
+        return jdbcTemplate.update("DELETE FROM telegram_active_command WHERE chat_id = ?", chatId) > 0;
+    }
+
+    @Override
+    public int expire() {
+        return jdbcTemplate.update("DELETE FROM telegram_active_command WHERE expires_at <= ?", System.currentTimeMillis());
+    }
+
+    /**
+     * Serializes the serializable attributes of a command. Other attributes are skipped.
+     */
+    private static byte[] serialize(Map<String, Object> attributes) {
+        HashMap<String, Object> serializable = new HashMap<>();
+
+        attributes.forEach((name, value) -> {
+            if (value == null || value instanceof Serializable) {
+                serializable.put(name, value);
+            } else {
+                LOGGER.warn("Attribute {} of type {} is not stored", name, value.getClass().getName());
+            }
+        });
+
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(serializable);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize command attributes", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deserialize(byte[] attributes) {
+        if (attributes == null || attributes.length == 0) {
+            return Map.of();
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(attributes))) {
+            in.setObjectInputFilter(ATTRIBUTES_FILTER);
+            return (Map<String, Object>) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            LOGGER.error("Failed to restore command attributes", e);
+            return Map.of();
+        }
+    }
+
+}
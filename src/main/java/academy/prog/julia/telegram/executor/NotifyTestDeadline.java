@@ -5,7 +5,7 @@ import academy.prog.julia.model.User;
 import academy.prog.julia.services.TestService;
 import academy.prog.julia.services.UserService;
 import academy.prog.julia.telegram.MainBot;
-import org.springframework.data.domain.PageRequest;
+import academy.prog.julia.utils.PageCursor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -49,69 +49,71 @@ public class NotifyTestDeadline {
      */
     @Scheduled(cron = "* 0 10 * * ?")
     public void sendNotificationForUserAboutTaskDeadline() {
-        long totalUsers = userService.countAllByIsBannedAndIsActive(false, true);
-        long countPages = (totalUsers + PAGE_SIZE_DEFAULT - 1) / PAGE_SIZE_DEFAULT;
-
-        if (countPages != 0) {
-            for (int i = 0; i < countPages; i++) {
-                List<User> allUsers = userService.findAllByIsBannedAndIsActive(
-                        false, true, PageRequest.of(i, PAGE_SIZE_DEFAULT));
-
-                for (User user : allUsers) {
-                    AtomicReference<StringBuilder> sb =
-                            new AtomicReference<>(new StringBuilder("You did not pass the following test(s): " + "\n"));
-                    int lengthOfSb = sb.get().length();
-
-                    List<Test> allTestsByUserIdWithDeadLineAndMandatory =
-                            testService.findAllTestsByUserIdWithDeadLineAndMandatory(
-                                    user.getId(),
-                                    LocalDate.now().plusDays(1),
-                                    true
-                            )
-                    ;
-
-                    Set<Test> filteredTests =
-                            testService.filterTestsForNotifyToEndDeadLineDate(
-                                    user,
-                                    allTestsByUserIdWithDeadLineAndMandatory
-                            )
-                    ;
+        long afterId = PageCursor.FIRST_ID;
+        List<User> allUsers;
+
+        do {
+            allUsers = userService.findAllWithGroupsByIsBannedAndIsActiveAfter(
+                    false, true, afterId, PAGE_SIZE_DEFAULT);
+
+            for (User user : allUsers) {
+                AtomicReference<StringBuilder> sb =
+                        new AtomicReference<>(new StringBuilder("You did not pass the following test(s): " + "\n"));
+                int lengthOfSb = sb.get().length();
+
+                List<Test> allTestsByUserIdWithDeadLineAndMandatory =
+                        testService.findAllTestsByUserIdWithDeadLineAndMandatory(
+                                user.getId(),
+                                LocalDate.now().plusDays(1),
+                                true
+                        )
+                ;
+
+                Set<Test> filteredTests =
+                        testService.filterTestsForNotifyToEndDeadLineDate(
+                                user,
+                                allTestsByUserIdWithDeadLineAndMandatory
+                        )
+                ;
+
+                List<Test> sortedFilteredTests =
+                        testService.sortingTestsFirstUntouchedThenFailed(user, filteredTests);
+
+                for (int j = 0; j < sortedFilteredTests.size(); j++) {
+                    Test test = sortedFilteredTests.get(j);
+                    if (test == null) {
+                        if(j != sortedFilteredTests.size() - 1) {
+                            sb.set(sb
+                                    .get()
+                                    .append(
+                                            "You may try to successfully complete next test one more time," +
+                                            " if you want" + "\n"
+                                    )
+                            );
+                        }
 
-                    List<Test> sortedFilteredTests =
-                            testService.sortingTestsFirstUntouchedThenFailed(user, filteredTests);
-
-                    for (int j = 0; j < sortedFilteredTests.size(); j++) {
-                        Test test = sortedFilteredTests.get(j);
-                        if (test == null) {
-                            if(j != sortedFilteredTests.size() - 1) {
-                                sb.set(sb
-                                        .get()
-                                        .append(
-                                                "You may try to successfully complete next test one more time," +
-                                                " if you want" + "\n"
-                                        )
-                                );
-                            }
-
-                            if(j == 0) {
-                                sb = new AtomicReference<>(
-                                        new StringBuilder(
-                                                "You may try to successfully complete next test(s) one more time," +
-                                                " if you want" + "\n"
-                                        )
-                                );
-                            }
-                            continue;
+                        if(j == 0) {
+                            sb = new AtomicReference<>(
+                                    new StringBuilder(
+                                            "You may try to successfully complete next test(s) one more time," +
+                                            " if you want" + "\n"
+                                    )
+                            );
                         }
-                        sb.set(createMessageForTestsStartingWithGroupName(user, test, sb.get()));
+                        continue;
                     }
+                    sb.set(createMessageForTestsStartingWithGroupName(user, test, sb.get()));
+                }
 
-                    if (user.getTelegramChatId() != null && sb.get().length() != lengthOfSb) {
-                        mainBot.sendMessage(Long.parseLong(user.getTelegramChatId()), sb.toString());
-                    }
+                if (user.getTelegramChatId() != null && sb.get().length() != lengthOfSb) {
+                    mainBot.sendMessage(Long.parseLong(user.getTelegramChatId()), sb.toString());
                 }
             }
-        }
+
+            if (!allUsers.isEmpty()) {
+                afterId = allUsers.get(allUsers.size() - 1).getId();
+            }
+        } while (allUsers.size() == PAGE_SIZE_DEFAULT);
     }
 
     /**
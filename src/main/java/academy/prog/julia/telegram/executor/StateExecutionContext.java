@@ -1,6 +1,9 @@
 package academy.prog.julia.telegram.executor;
 
+import academy.prog.julia.dto.ChatPrincipalDTO;
+import academy.prog.julia.exceptions.UserNotFoundException;
 import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserRole;
 import academy.prog.julia.services.*;
 import academy.prog.julia.telegram.MainBot;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -9,7 +12,6 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMa
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardRemove;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,9 +31,12 @@ public class StateExecutionContext {
     private final long chatId;
     private final String message;
     private final String[] args;
-    private final User user;
+    private final ChatPrincipalDTO principal;
     private final Update update;
 
+    // Loaded on first use when the context is created from the principal
+    private User user;
+
     // Flag indicating whether the current state execution is finished
     private boolean finished;
 
@@ -72,6 +77,50 @@ public class StateExecutionContext {
         this.docsSheetsService = docsSheetsService;
         this.taskService = taskService;
         this.user = user;
+        this.principal = null;
+        this.chatId = chatId;
+        this.message = message;
+        this.args = args;
+        this.update = update;
+    }
+
+    /**
+     * Constructor for initializing the state execution context with the principal of the user only.
+     * The user itself is loaded by the first call of {@link #getUser()}, so commands that don't need it
+     * cost no database read.
+     *
+     * @param mainBot              bot instance for sending messages
+     * @param userService          service for managing users
+     * @param certificateService   service for managing certificates
+     * @param groupService         service for managing user groups
+     * @param docsSheetsService    service for managing documents and sheets
+     * @param taskService          service for managing tasks
+     * @param principal            principal of the user associated with the current state
+     * @param chatId               chat ID for communication
+     * @param message              message to be sent or received
+     * @param args                 command arguments
+     * @param update               update object from Telegram API
+     */
+    public StateExecutionContext(
+            MainBot mainBot,
+            UserService userService,
+            CertificateService certificateService,
+            GroupService groupService,
+            DocsSheetsService docsSheetsService,
+            TaskService taskService,
+            ChatPrincipalDTO principal,
+            long chatId,
+            String message,
+            String[] args,
+            Update update
+    ) {
+        this.mainBot = mainBot;
+        this.userService = userService;
+        this.certificateService = certificateService;
+        this.groupService = groupService;
+        this.docsSheetsService = docsSheetsService;
+        this.taskService = taskService;
+        this.principal = principal;
         this.chatId = chatId;
         this.message = message;
         this.args = args;
@@ -259,14 +308,29 @@ public class StateExecutionContext {
     }
 
     /**
-     * Gets the user associated with the current state.
+     * Gets the user associated with the current state, loading it on first use.
      *
      * @return the user
+     * @throws UserNotFoundException if the user of the principal no longer exists
      */
     public User getUser() {
+        if (user == null && principal != null) {
+            user = userService.findById(principal.id())
+                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + principal.id()));
+        }
+
         return user;
     }
 
+    /**
+     * Gets the role of the user associated with the current state, without loading the user.
+     *
+     * @return the role of the user
+     */
+    public UserRole getUserRole() {
+        return principal != null ? principal.role() : getUser().getRole();
+    }
+
     /**
      * Gets the currently active command.
      *
@@ -305,6 +369,7 @@ public class StateExecutionContext {
 
     /**
      * Sends a message with text and optional markup, including a link button.
+     * The message goes through the delivery queue like every other message of the bot.
      *
      * @param message             the message to send
      * @param actualLink          the link text and URL for the button
@@ -345,11 +410,7 @@ public class StateExecutionContext {
 
         sendMessage.setReplyMarkup(keyboardMarkup);
 
-        try {
-            mainBot.execute(sendMessage);
-        } catch (TelegramApiException e) {
-            e.printStackTrace();
-        }
+        mainBot.sendMessage(sendMessage);
     }
 
     /**
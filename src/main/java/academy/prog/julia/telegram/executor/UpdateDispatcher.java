@@ -0,0 +1,252 @@
+package academy.prog.julia.telegram.executor;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches bot updates to a bounded pool of worker threads.
+ *
+ * Updates of one chat are executed one after another in the order they were received,
+ * while updates of different chats run in parallel. A slow command therefore blocks only
+ * the chat that issued it.
+ *
+ * The dispatcher also collects simple metrics: the number of queued updates and
+ * the handling time of every command.
+ */
+@Component
+public class UpdateDispatcher {
+
+    private static final Logger LOGGER = LogManager.getLogger(UpdateDispatcher.class);
+
+    private final ExecutorService executor;
+
+    private final Map<Long, ChatUpdates> chats = new HashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Map<String, CommandStats> commandStats = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the dispatcher with a fixed number of worker threads.
+     *
+     * @param workers the number of updates handled in parallel
+     */
+    public UpdateDispatcher(@Value("${telegram.updates.workers:8}") int workers) {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "telegram-update-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues an update handler for a chat. Returns immediately.
+     *
+     * @param chatId  the chat the update came from
+     * @param handler the handler processing the update; returns the name under which
+     *                its handling time is recorded (e.g. the command name), or {@code null}
+     */
+    public void dispatch(
+            long chatId,
+            Callable<String> handler
+    ) {
+        queueDepth.incrementAndGet();
+
+        synchronized (chats) {
+            ChatUpdates updates = chats.computeIfAbsent(chatId, ChatUpdates::new);
+            updates.handlers.addLast(handler);
+
+            if (!updates.running) {
+                updates.running = true;
+                executor.execute(() -> runNext(updates));
+            }
+        }
+    }
+
+    /**
+     * Runs the next handler of a chat and resubmits the chat if more updates are waiting.
+     * Only one handler of a chat is queued in the pool at a time, so handlers of a chat never overlap
+     * and busy chats can't starve the others.
+     *
+     * @param updates the queued updates of a chat
+     */
+    private void runNext(ChatUpdates updates) {
+        Callable<String> handler;
+
+        synchronized (chats) {
+            handler = updates.handlers.pollFirst();
+        }
+
+        if (handler != null) {
+            queueDepth.decrementAndGet();
+            handle(updates.chatId, handler);
+        }
+
+        synchronized (chats) {
+            if (updates.handlers.isEmpty()) {
+                updates.running = false;
+                chats.remove(updates.chatId);
+            } else {
+                executor.execute(() -> runNext(updates));
+            }
+        }
+    }
+
+    /**
+     * Runs a handler, records its handling time and logs failures,
+     * so one broken update doesn't stop the processing of the chat.
+     */
+    private void handle(
+            long chatId,
+            Callable<String> handler
+    ) {
+        long start = System.nanoTime();
+        String name = null;
+
+        try {
+            name = handler.call();
+        } catch (Exception e) {
+            LOGGER.error("Failed to handle update from chat " + chatId, e);
+        } finally {
+            recordHandlingTime(Objects.requireNonNullElse(name, "unknown"), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds a handling time measurement for a command.
+     *
+     * @param name  the command name
+     * @param nanos the handling time in nanoseconds
+     */
+    void recordHandlingTime(
+            String name,
+            long nanos
+    ) {
+        commandStats.computeIfAbsent(name, k -> new CommandStats()).record(nanos);
+    }
+
+    /**
+     * Returns the number of updates waiting to be handled.
+     *
+     * @return the number of queued updates
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the handling time statistics per command.
+     *
+     * @return an unmodifiable map from command name to its statistics
+     */
+    public Map<String, CommandStats> getCommandStats() {
+        return Collections.unmodifiableMap(commandStats);
+    }
+
+    /**
+     * Periodically logs the queue depth and the handling time statistics of the commands.
+     */
+    @Scheduled(initialDelay = 300000, fixedDelay = 300000)
+    public void logMetrics() {
+        if (commandStats.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        commandStats.forEach((name, stats) -> sb
+                .append("\n")
+                .append(name)
+                .append(": ")
+                .append(stats)
+        );
+
+        LOGGER.info("Update queue depth: {}, command handling times:{}", getQueueDepth(), sb);
+    }
+
+    /**
+     * Stops the worker threads. Updates which are still queued are dropped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+
+        if (queueDepth.get() > 0) {
+            LOGGER.warn("Update dispatcher stopped with {} unhandled updates", queueDepth.get());
+        }
+    }
+
+    /**
+     * The queued update handlers of a single chat.
+     */
+    private static class ChatUpdates {
+        private final long chatId;
+        private final Deque<Callable<String>> handlers = new ArrayDeque<>();
+        private boolean running;
+
+        ChatUpdates(long chatId) {
+            this.chatId = chatId;
+        }
+    }
+
+    /**
+     * Handling time statistics of a command.
+     */
+    public static class CommandStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * Returns the number of handled updates.
+         *
+         * @return the number of handled updates
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the average handling time.
+         *
+         * @return the average handling time in milliseconds
+         */
+        public long getAverageMillis() {
+            long handled = count.sum();
+
+            return handled == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / handled);
+        }
+
+        /**
+         * Returns the longest handling time.
+         *
+         * @return the maximum handling time in milliseconds
+         */
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() +
+                    ", avg=" + getAverageMillis() + " ms" +
+                    ", max=" + getMaxMillis() + " ms";
+        }
+    }
+
+}
@@ -2,9 +2,9 @@ package academy.prog.julia.telegram.states;
 
 import academy.prog.julia.model.User;
 import academy.prog.julia.telegram.executor.StateExecutionContext;
-import org.springframework.data.domain.PageRequest;
+import academy.prog.julia.utils.PageCursor;
 
-import java.util.Set;
+import java.util.List;
 
 /**
  * State class for broadcasting a message to users in a specific group.
@@ -43,7 +43,7 @@ public class BroadcastGroupState extends CommandState {
         var userService = context.getUserService();
         var groupService = context.getGroupService();
 
-        Set<User> users;
+        List<User> users;
 
         var groupName = context.getAttributeAsString(groupNameAttribute);
         var message = context.getAttributeAsString(messageAttribute);
@@ -55,12 +55,12 @@ public class BroadcastGroupState extends CommandState {
             return;
         }
 
-        long totalCount = userService.countUsersByGroupName(groupName);
+        groupService.notifyMembers(groupNameFromDB.get(), message);
 
-        long pageCount = getPageCount(totalCount);
+        long afterId = PageCursor.FIRST_ID;
 
-        for (int i = 0; i < pageCount; i++) {
-            users = userService.findByGroupName(groupName, PageRequest.of(i, PAGE_SIZE));
+        do {
+            users = userService.findByGroupNameAfter(groupName, afterId, PAGE_SIZE);
             for (User user : users) {
                 String chatId = user.getTelegramChatId();
                 if (chatId != null) {
@@ -69,17 +69,11 @@ public class BroadcastGroupState extends CommandState {
                     System.err.println("User " + user.getUsername() + " does not have TelegramChatId.");
                 }
             }
-        }
-    }
 
-    /**
-     * Calculates the number of pages needed to retrieve all users.
-     *
-     * @param totalCount the total number of users
-     * @return the number of pages required
-     */
-    private long getPageCount(long totalCount) {
-        return (totalCount / PAGE_SIZE) + ((totalCount % PAGE_SIZE > 0) ? 1 : 0);
+            if (!users.isEmpty()) {
+                afterId = users.get(users.size() - 1).getId();
+            }
+        } while (users.size() == PAGE_SIZE);
     }
 
     /**
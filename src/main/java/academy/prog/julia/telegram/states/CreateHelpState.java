@@ -37,7 +37,7 @@ public class CreateHelpState extends CommandState {
         for (var command : commands) {
             var allowedRoles = command.getAllowedRoles();
 
-            if (allowedRoles.size() == 0 || allowedRoles.contains(context.getUser().getRole())) {
+            if (allowedRoles.size() == 0 || allowedRoles.contains(context.getUserRole())) {
                 sb.append(command.getName())
                         .append(": ")
                         .append(command.getDescription())
@@ -85,6 +85,8 @@ public class NotifyGroupLessonState extends CommandState {
             return;
         }
 
+        groupService.notifyMembers(group, "In your course were added or updated next lessons: " + lessonNames);
+
         UserService userService = context.getUserService();
         List<User> userList = userService.findByGroupName(group.getName());
 
@@ -111,12 +111,16 @@ public class SetPhoneState extends CommandState {
             LOGGER.info("parts length: {}", newParts.length);
             try {
                 user.setPhone(newParts[0].trim());
-                user.getPhones().clear();
+
+                // The user is detached, so the lazy phones collection is replaced instead of modified
+                Set<String> phones = new HashSet<>();
 
                 for (String phone : newParts) {
-                    user.getPhones().add("+" + phone.trim());
+                    phones.add("+" + phone.trim());
                 }
 
+                user.setPhones(phones);
+
                 userService.saveUser(user);
                 context.sendMessage("User phone(s) successfully changed");
 
@@ -0,0 +1,94 @@
+package academy.prog.julia.utils;
+
+import academy.prog.julia.functional_interfaces.IdExtractor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Utility class for keyset (seek) pagination.
+ *
+ * A keyset page is the next rows ordered by ID after the last ID of the previous page,
+ * so every page costs the same whatever its depth and no row is skipped or repeated
+ * when rows are added or removed between two pages. The position is handed to clients
+ * as an opaque cursor token, returned in the {@link #NEXT_CURSOR_HEADER} response header.
+ */
+public class PageCursor {
+
+    /**
+     * The response header holding the cursor of the next page, absent on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * The ID to seek after for the first page.
+     */
+    public static final long FIRST_ID = 0L;
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Encodes the last ID of a page into a cursor token.
+     *
+     * @param lastId the last ID of the page
+     * @return the cursor token
+     */
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8))
+        ;
+    }
+
+    /**
+     * Decodes a cursor token into the ID to seek after.
+     *
+     * @param cursor the cursor token, null or blank for the first page
+     * @return the last ID of the previous page, or {@link #FIRST_ID} for the first page
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_ID;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+
+            if (value.startsWith(PREFIX)) {
+                long lastId = Long.parseLong(value.substring(PREFIX.length()));
+
+                if (lastId >= FIRST_ID) {
+                    return lastId;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included, reported below
+        }
+
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    /**
+     * Returns the cursor of the page following the given one.
+     *
+     * @param page        the rows of the page, ordered by ID
+     * @param size        the requested page size
+     * @param idExtractor a functional interface for extracting IDs
+     * @param <T>         the type of the rows
+     * @return the cursor token, or null if the page is the last one
+     */
+    public static <T> String next(
+            List<T> page,
+            int size,
+            IdExtractor<T> idExtractor
+    ) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+
+        return encode(idExtractor.extractId(page.get(page.size() - 1)));
+    }
+
+}
@@ -0,0 +1,34 @@
+-- Secondary indexes for the hot repository queries.
+-- clients.email, clients.unique_id and invite_codes.code are already covered by their unique keys.
+
+-- TaskAnswerRepository.findByTaskIdAndUserId, submission rows and ZIP exports by task
+create index IDX_task_answer_task_user on task_answer (task_id, user_id);
+-- Answers and progress statistics of a student
+create index IDX_task_answer_user_task on task_answer (user_id, task_id);
+-- TaskAnswerRepository.findPendingTask / findPendingTaskByGroup
+create index IDX_task_answer_pending on task_answer (is_passed, submitted_date);
+
+-- TestAnswerRepository.findByTestIdAndUserId and submission rows by test
+create index IDX_test_answer_test_user on test_answer (test_id, user_id);
+
+-- UserRepository.findByTelegramChatId, called for every Telegram update
+create index IDX_clients_telegram_chatid on clients (telegram_chatid);
+-- UserRepository.findIdsByIsBannedAndIsActive; InnoDB secondary indexes end with the primary key
+create index IDX_clients_banned_active on clients (is_banned, is_active);
+
+-- CertificateTaskRepository.findTasksToBeSent
+create index IDX_certificate_tasks_sending on certificate_tasks (is_generated, is_send);
+
+-- CertificateRepository.findByGroupNameAndUserId
+create index IDX_certificates_group_user on certificates (group_name, user_id);
+
+-- LessonRepository.findBySpreadsheetIDAndSheetNumber
+create index IDX_lesson_spreadsheet_sheet on lesson (spreadsheetid, sheet_number);
+
+-- TaskRepository.findTaskDeadlineNotifications
+create index IDX_task_deadline_lesson on task (deadline, lesson_id);
+
+-- Join tables, read from the side opposite to their primary key
+create index IDX_lesson_group_group_lesson on lesson_group (group_id, lesson_id);
+create index IDX_client_course_course_client on client_course (course_id, client_id);
+create index IDX_task_students_student_task on task_students (student_id, task_id);
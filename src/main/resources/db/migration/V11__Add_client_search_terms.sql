@@ -0,0 +1,11 @@
+-- Suffixes of the normalized phones and emails of users, searched by prefix instead of LIKE '%x%'
+create table client_search_terms (
+                                     id bigint not null auto_increment,
+                                     client_id bigint not null,
+                                     search_field varchar(16) not null,
+                                     term varchar(255) not null,
+                                     primary key (id)
+) engine=InnoDB;
+
+create index IDX_client_search_terms_lookup on client_search_terms (search_field, term, client_id);
+create index IDX_client_search_terms_client on client_search_terms (client_id);
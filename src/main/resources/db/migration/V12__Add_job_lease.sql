@@ -0,0 +1,7 @@
+-- Leases of background jobs that run on one application instance at a time
+create table job_lease (
+                           name varchar(64) not null,
+                           locked_until datetime(6),
+                           locked_by varchar(64),
+                           primary key (name)
+) engine=InnoDB;
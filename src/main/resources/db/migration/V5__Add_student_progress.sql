@@ -0,0 +1,25 @@
+-- Precomputed student progress, updated when a task answer is submitted or graded
+create table student_lesson_progress (
+                                         id bigint not null auto_increment,
+                                         user_id bigint not null,
+                                         lesson_id bigint not null,
+                                         answered integer not null,
+                                         passed integer not null,
+                                         correction integer not null,
+                                         submitted integer not null,
+                                         updated_date datetime(6),
+                                         primary key (id)
+) engine=InnoDB;
+
+create table student_course_progress (
+                                         id bigint not null auto_increment,
+                                         user_id bigint not null,
+                                         course_id bigint not null,
+                                         answered integer not null,
+                                         passed integer not null,
+                                         updated_date datetime(6),
+                                         primary key (id)
+) engine=InnoDB;
+
+alter table student_lesson_progress add constraint UK_student_lesson_progress_user_lesson unique (user_id, lesson_id);
+alter table student_course_progress add constraint UK_student_course_progress_user_course unique (user_id, course_id);
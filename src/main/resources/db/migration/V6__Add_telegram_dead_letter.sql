@@ -0,0 +1,11 @@
+-- Outgoing Telegram messages that could not be delivered
+create table telegram_dead_letter (
+                                      id bigint not null auto_increment,
+                                      chat_id bigint not null,
+                                      text TEXT,
+                                      attempts integer not null,
+                                      error_code integer,
+                                      error_message varchar(1000),
+                                      created_date datetime(6),
+                                      primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,11 @@
+-- Telegram commands in progress, used when telegram.active-commands.store=jdbc
+create table telegram_active_command (
+                                         chat_id bigint not null,
+                                         command_name varchar(255) not null,
+                                         state_index integer not null,
+                                         attributes blob,
+                                         expires_at bigint not null,
+                                         primary key (chat_id)
+) engine=InnoDB;
+
+create index IDX_telegram_active_command_expires_at on telegram_active_command (expires_at);
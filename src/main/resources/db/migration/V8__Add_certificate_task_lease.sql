@@ -0,0 +1,7 @@
+-- Leasing and retry state for parallel certificate generation
+alter table certificate_tasks add column attempts integer not null default 0;
+alter table certificate_tasks add column next_attempt_at datetime(6);
+alter table certificate_tasks add column locked_until datetime(6);
+alter table certificate_tasks add column locked_by varchar(64);
+
+create index IDX_certificate_tasks_generation on certificate_tasks (is_generated, next_attempt_at);
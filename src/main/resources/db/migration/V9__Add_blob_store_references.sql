@@ -0,0 +1,7 @@
+-- Files are moved from LOB columns to the blob store; the LOB columns keep only not yet migrated files
+alter table certificates modify file mediumblob null;
+alter table certificates add column file_hash varchar(64);
+alter table certificates add column file_size bigint;
+
+alter table task_answer add column zip_answer_hash varchar(64);
+alter table task_answer add column zip_answer_size bigint;
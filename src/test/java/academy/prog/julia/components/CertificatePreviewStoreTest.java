@@ -0,0 +1,121 @@
+package academy.prog.julia.components;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CertificatePreviewStoreTest {
+
+    private static byte[] pdf;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void createPdf() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth())));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            pdf = out.toByteArray();
+        }
+    }
+
+    @Test
+    void testCreatePreviews_writesAllSizes() throws IOException {
+        CertificatePreviewStore store = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+
+        store.createPreviews("abc123", pdf);
+
+        assertTrue(Files.exists(directory.resolve("abc123-thumbnail.png")));
+        assertTrue(Files.exists(directory.resolve("abc123-150.png")));
+        assertTrue(Files.exists(directory.resolve("abc123-300.png")));
+
+        BufferedImage large = ImageIO.read(directory.resolve("abc123-300.png").toFile());
+        BufferedImage medium = ImageIO.read(directory.resolve("abc123-150.png").toFile());
+        BufferedImage thumbnail = ImageIO.read(directory.resolve("abc123-thumbnail.png").toFile());
+
+        assertEquals(large.getWidth() / 2, medium.getWidth(), 1);
+        assertTrue(thumbnail.getWidth() < medium.getWidth() / 3);
+    }
+
+    @Test
+    void testGetPreview_rendersOnceThenServesFromCache() throws IOException {
+        CertificatePreviewStore store = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<byte[]> loader = () -> {
+            loads.incrementAndGet();
+            return pdf;
+        };
+
+        CertificatePreviewStore.Preview first = store.getPreview("abc123", CertificatePreviewStore.Size.DPI_150, loader);
+        CertificatePreviewStore.Preview second = store.getPreview("abc123", CertificatePreviewStore.Size.DPI_150, loader);
+        CertificatePreviewStore.Preview thumbnail = store.getPreview("abc123", CertificatePreviewStore.Size.THUMBNAIL, loader);
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertNotEquals(first.eTag(), thumbnail.eTag());
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(first.image())));
+    }
+
+    @Test
+    void testGetPreview_readsFromDiskAfterRestart() throws IOException {
+        CertificatePreviewStore store = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+        CertificatePreviewStore.Preview rendered = store.getPreview("abc123", CertificatePreviewStore.Size.THUMBNAIL, () -> pdf);
+
+        CertificatePreviewStore restarted = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+        CertificatePreviewStore.Preview stored = restarted.getPreview("abc123", CertificatePreviewStore.Size.THUMBNAIL, () -> {
+            throw new AssertionError("The preview must be read from disk");
+        });
+
+        assertEquals(rendered.eTag(), stored.eTag());
+        assertEquals(rendered.lastModified(), stored.lastModified());
+        assertArrayEquals(rendered.image(), stored.image());
+    }
+
+    @Test
+    void testGetPreview_cacheIsBoundedBySize() throws IOException {
+        CertificatePreviewStore store = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+        long thumbnailBytes = store.getPreview("first", CertificatePreviewStore.Size.THUMBNAIL, () -> pdf).image().length;
+
+        CertificatePreviewStore bounded = new CertificatePreviewStore(directory.toString(), thumbnailBytes * 2);
+        bounded.getPreview("first", CertificatePreviewStore.Size.THUMBNAIL, () -> pdf);
+        bounded.getPreview("second", CertificatePreviewStore.Size.THUMBNAIL, () -> pdf);
+        bounded.getPreview("third", CertificatePreviewStore.Size.THUMBNAIL, () -> pdf);
+
+        assertTrue(bounded.getCacheBytes() <= thumbnailBytes * 2);
+    }
+
+    @Test
+    void testGetPreview_rejectsInvalidId() {
+        CertificatePreviewStore store = new CertificatePreviewStore(directory.toString(), 64 * 1024 * 1024);
+
+        assertThrows(NoSuchElementException.class,
+                () -> store.getPreview("../secret", CertificatePreviewStore.Size.DPI_300, () -> pdf));
+    }
+
+    @Test
+    void testSizeFromName() {
+        assertEquals(CertificatePreviewStore.Size.THUMBNAIL, CertificatePreviewStore.Size.fromName("thumbnail"));
+        assertEquals(CertificatePreviewStore.Size.DPI_300, CertificatePreviewStore.Size.fromName("300"));
+        assertThrows(IllegalArgumentException.class, () -> CertificatePreviewStore.Size.fromName("1200"));
+    }
+
+}
@@ -0,0 +1,116 @@
+package academy.prog.julia.components;
+
+import academy.prog.julia.dto.ChatPrincipalDTO;
+import academy.prog.julia.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatPrincipalCacheTest {
+
+    private static final long TTL = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private ChatPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatPrincipalCache(2, TTL, now::get);
+    }
+
+    @Test
+    void testPutAndGet() {
+        ChatPrincipalDTO principal = principal(1L);
+        cache.put("100", principal);
+
+        assertSame(principal, cache.get("100"));
+        assertNull(cache.get("200"));
+    }
+
+    @Test
+    void testGet_expiredEntry() {
+        cache.put("100", principal(1L));
+
+        now.addAndGet(TTL - 1);
+        assertNotNull(cache.get("100"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("100"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPut_dropsLeastRecentlyUsed() {
+        cache.put("100", principal(1L));
+        cache.put("200", principal(2L));
+        cache.get("100");
+
+        cache.put("300", principal(3L));
+
+        assertNotNull(cache.get("100"));
+        assertNull(cache.get("200"));
+        assertNotNull(cache.get("300"));
+    }
+
+    @Test
+    void testEvictUser_removesAllChatsOfUser() {
+        cache.put("100", principal(1L));
+        cache.put("200", principal(2L));
+
+        cache.evictUser(1L);
+
+        assertNull(cache.get("100"));
+        assertNotNull(cache.get("200"));
+    }
+
+    @Test
+    void testEvictChat() {
+        cache.put("100", principal(1L));
+
+        cache.evictChat("100");
+        cache.evictChat(null);
+
+        assertNull(cache.get("100"));
+    }
+
+    @Test
+    void testEvictUserAfterCompletion_withoutTransaction() {
+        cache.put("100", principal(1L));
+
+        cache.evictUserAfterCompletion(1L);
+
+        assertNull(cache.get("100"));
+    }
+
+    @Test
+    void testEvictChatAfterCompletion_evictsAgainWhenTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            cache.put("100", principal(1L));
+            cache.evictChatAfterCompletion("100");
+            assertNull(cache.get("100"));
+
+            // Cached by a concurrent message from the data before the commit
+            cache.put("100", principal(1L));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+
+            assertNull(cache.get("100"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ChatPrincipalDTO principal(Long userId) {
+        return new ChatPrincipalDTO(userId, UserRole.STUDENT, false, true);
+    }
+
+}
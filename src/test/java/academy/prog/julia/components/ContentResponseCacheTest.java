@@ -0,0 +1,132 @@
+package academy.prog.julia.components;
+
+import academy.prog.julia.dto.LessonsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(300);
+
+    private final AtomicLong now = new AtomicLong(TTL.toMillis() * 1000);
+    private ContentResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ContentResponseCache(2, TTL, now::get);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetCourseLessons_loadsOncePerVersion() {
+        List<LessonsDTO> first = cache.getCourseLessons(1L, this::load);
+
+        assertSame(first, cache.getCourseLessons(1L, this::load));
+        assertEquals(1, loads.get());
+
+        cache.bumpVersions(Set.of(1L), Set.of());
+
+        assertNotSame(first, cache.getCourseLessons(1L, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testBumpVersions_onlyChangesGivenIds() {
+        cache.bumpVersions(Set.of(1L), Set.of(10L));
+
+        assertTrue(cache.getCourseVersion(1L) > 0);
+        assertEquals(0, cache.getCourseVersion(2L));
+        assertTrue(cache.getLessonVersion(10L) > 0);
+        assertEquals(0, cache.getLessonVersion(11L));
+
+        long version = cache.getCourseVersion(1L);
+        cache.bumpVersions(Set.of(1L), Set.of());
+
+        assertTrue(cache.getCourseVersion(1L) > version);
+    }
+
+    @Test
+    void testETags_changeOnlyWithVersion() {
+        String courseTag = cache.getCourseLessonsETag(1L);
+        String lessonTag = cache.getLessonDetailsETag(1L);
+
+        assertNotEquals(courseTag, lessonTag);
+        assertEquals(courseTag, cache.getCourseLessonsETag(1L));
+        assertTrue(courseTag.startsWith("\"") && courseTag.endsWith("\""));
+
+        cache.bumpVersions(Set.of(1L), Set.of());
+
+        assertNotEquals(courseTag, cache.getCourseLessonsETag(1L));
+        assertEquals(lessonTag, cache.getLessonDetailsETag(1L));
+    }
+
+    @Test
+    void testGetCourseLessons_reloadedAndRetaggedAfterTtl() {
+        List<LessonsDTO> first = cache.getCourseLessons(1L, this::load);
+        String tag = cache.getCourseLessonsETag(1L);
+
+        now.addAndGet(TTL.toMillis() - 1);
+
+        assertSame(first, cache.getCourseLessons(1L, this::load));
+        assertEquals(tag, cache.getCourseLessonsETag(1L));
+
+        now.addAndGet(1);
+
+        assertNotSame(first, cache.getCourseLessons(1L, this::load));
+        assertNotEquals(tag, cache.getCourseLessonsETag(1L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetCourseLessons_zeroTtlKeptUntilVersionBump() {
+        cache = new ContentResponseCache(2, Duration.ZERO, now::get);
+        List<LessonsDTO> first = cache.getCourseLessons(1L, this::load);
+        String tag = cache.getCourseLessonsETag(1L);
+
+        now.addAndGet(TTL.toMillis() * 10);
+
+        assertSame(first, cache.getCourseLessons(1L, this::load));
+        assertEquals(tag, cache.getCourseLessonsETag(1L));
+    }
+
+    @Test
+    void testGetCourseLessons_dropsLeastRecentlyUsed() {
+        cache.getCourseLessons(1L, this::load);
+        cache.getCourseLessons(2L, this::load);
+        cache.getCourseLessons(1L, this::load);
+
+        cache.getCourseLessons(3L, this::load);
+        assertEquals(2, cache.size());
+
+        // Course 1 was used last before course 3 was added, so course 2 was dropped
+        cache.getCourseLessons(1L, this::load);
+        assertEquals(3, loads.get());
+
+        cache.getCourseLessons(2L, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testGetCourseLessons_failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.getCourseLessons(1L, () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        assertEquals(0, cache.size());
+    }
+
+    private List<LessonsDTO> load() {
+        loads.incrementAndGet();
+        return List.of(new LessonsDTO(1L, "Lesson", List.of()));
+    }
+
+}
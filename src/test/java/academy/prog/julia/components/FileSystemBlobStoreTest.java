@@ -0,0 +1,96 @@
+package academy.prog.julia.components;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWrite_storesContentBySha256() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+
+        BlobStore.Blob blob = store.write("hello".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", blob.hash());
+        assertEquals(5, blob.size());
+        assertTrue(store.exists(blob.hash()));
+        assertTrue(Files.exists(directory.resolve("2c").resolve("f2").resolve(blob.hash())));
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), store.read(blob.hash()));
+    }
+
+    @Test
+    void testWrite_identicalContentIsStoredOnce() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+
+        BlobStore.Blob first = store.write(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        BlobStore.Blob second = store.write(new byte[]{1, 2, 3});
+
+        assertEquals(first, second);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testOpenStream_streamsStoredContent() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+        byte[] content = new byte[1024 * 1024];
+        content[content.length - 1] = 7;
+
+        BlobStore.Blob blob = store.write(new ByteArrayInputStream(content));
+
+        try (InputStream in = store.openStream(blob.hash())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testGetResource_readsStoredFile() throws IOException {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+
+        BlobStore.Blob blob = store.write("hello".getBytes(StandardCharsets.UTF_8));
+        Resource resource = store.getResource(blob.hash());
+
+        assertTrue(resource.exists());
+        assertEquals(5, resource.contentLength());
+
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+
+        assertFalse(store.getResource("0".repeat(64)).exists());
+    }
+
+    @Test
+    void testOpenStream_missingBlob() {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+        String hash = "0".repeat(64);
+
+        assertFalse(store.exists(hash));
+        assertThrows(NoSuchFileException.class, () -> store.openStream(hash));
+    }
+
+    @Test
+    void testOpenStream_rejectsInvalidHash() {
+        FileSystemBlobStore store = new FileSystemBlobStore(directory.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> store.openStream("../../etc/passwd"));
+    }
+
+}
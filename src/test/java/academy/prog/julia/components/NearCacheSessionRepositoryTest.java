@@ -0,0 +1,237 @@
+package academy.prog.julia.components;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearCacheSessionRepositoryTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration TOUCH_INTERVAL = Duration.ofSeconds(60);
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private CountingRepository store;
+    private NearCacheSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        store = new CountingRepository();
+        repository = new NearCacheSessionRepository(store, 100, TTL, TOUCH_INTERVAL, now::get);
+    }
+
+    @Test
+    void testFindById_servedFromCacheWithoutWrites() {
+        String id = createSession("courseId", 1L);
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        session.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+        repository.save(session);
+
+        assertEquals(1L, (Long) session.getAttribute("courseId"));
+        assertEquals(0, store.reads);
+        assertEquals(1, store.writes);
+    }
+
+    @Test
+    void testSave_writesChangedAttributesOnce() {
+        String id = createSession("courseId", 1L);
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        session.setAttribute("TaskAnswerGetIsPassed", true);
+        session.setAttribute("TaskAnswerGetIsRead", false);
+        session.removeAttribute("courseId");
+        repository.save(session);
+
+        assertEquals(2, store.writes);
+
+        Session stored = store.findById(id);
+        assertEquals(Boolean.TRUE, stored.getAttribute("TaskAnswerGetIsPassed"));
+        assertNull(stored.getAttribute("courseId"));
+
+        NearCacheSessionRepository.CachedSession next = repository.findById(id);
+        assertEquals(Boolean.FALSE, next.getAttribute("TaskAnswerGetIsRead"));
+        assertFalse(next.getAttributeNames().contains("courseId"));
+    }
+
+    @Test
+    void testSave_lastAccessTimeWrittenAfterTouchInterval() {
+        String id = createSession("courseId", 1L);
+
+        now.addAndGet(TOUCH_INTERVAL.toMillis() - 1);
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        session.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+        repository.save(session);
+
+        assertEquals(1, store.writes);
+
+        now.addAndGet(1);
+        session = repository.findById(id);
+        session.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+        repository.save(session);
+
+        assertEquals(2, store.writes);
+        assertEquals(now.get(), store.findById(id).getLastAccessedTime().toEpochMilli());
+    }
+
+    @Test
+    void testFindById_readsStoreAfterTtl() {
+        String id = createSession("courseId", 1L);
+
+        now.addAndGet(TTL.toMillis());
+        Session changed = store.findById(id);
+        changed.setAttribute("courseId", 2L);
+        store.save(changed);
+        store.reads = 0;
+
+        assertEquals(2L, (Long) repository.findById(id).getAttribute("courseId"));
+        assertEquals(1, store.reads);
+    }
+
+    @Test
+    void testFindById_zeroTtlAlwaysReadsStore() {
+        repository = new NearCacheSessionRepository(store, 100, Duration.ZERO, TOUCH_INTERVAL, now::get);
+        String id = createSession("courseId", 1L);
+
+        repository.findById(id);
+        repository.findById(id);
+
+        assertEquals(2, store.reads);
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    void testGetAttribute_requestsGetTheirOwnCopies() {
+        String id = createSession("answers", new ArrayList<>(List.of("first")));
+
+        List<String> answers = repository.findById(id).getAttribute("answers");
+        answers.add("not saved");
+
+        List<String> other = repository.findById(id).getAttribute("answers");
+        assertEquals(List.of("first"), other);
+    }
+
+    @Test
+    void testChangeSessionId_cachedUnderNewId() {
+        String id = createSession("courseId", 1L);
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        String newId = session.changeSessionId();
+        repository.save(session);
+
+        assertNotEquals(id, newId);
+        assertNull(store.findById(id));
+        assertEquals(1L, (Long) repository.findById(newId).getAttribute("courseId"));
+        assertNull(repository.findById(id));
+    }
+
+    @Test
+    void testDeleteById() {
+        String id = createSession("courseId", 1L);
+
+        repository.deleteById(id);
+
+        assertNull(store.findById(id));
+        assertNull(repository.findById(id));
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    void testSave_logoutDuringRequestDoesNotReopenSession() {
+        String id = createSession(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user@example.com");
+
+        NearCacheSessionRepository.CachedSession session = repository.findById(id);
+        repository.deleteById(id);
+
+        session.setAttribute("courseId", 1L);
+        session.setLastAccessedTime(Instant.ofEpochMilli(now.get() + TOUCH_INTERVAL.toMillis()));
+        repository.save(session);
+
+        assertEquals(1, store.writes);
+        assertNull(repository.findById(id));
+        assertNull(repository.findCachedPrincipalName(id));
+        assertNull(repository.findCachedSessionIdByPrincipalName("user@example.com"));
+    }
+
+    @Test
+    void testPrincipalIndex() {
+        String id = createSession(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user@example.com");
+
+        assertEquals(id, repository.findCachedSessionIdByPrincipalName("user@example.com"));
+        assertEquals("user@example.com", repository.findCachedPrincipalName(id));
+
+        repository.deleteById(id);
+
+        assertNull(repository.findCachedSessionIdByPrincipalName("user@example.com"));
+        assertNull(repository.findCachedPrincipalName(id));
+        assertNull(store.findById(id));
+    }
+
+    @Test
+    void testPrincipalIndex_keepsMostRecentSession() {
+        repository.cachePrincipalSession("user@example.com", "new", 2_000);
+        repository.cachePrincipalSession("user@example.com", "old", 1_000);
+
+        assertEquals("new", repository.findCachedSessionIdByPrincipalName("user@example.com"));
+
+        now.addAndGet(TTL.toMillis());
+
+        assertNull(repository.findCachedSessionIdByPrincipalName("user@example.com"));
+    }
+
+    private String createSession(
+            String attributeName,
+            Object attributeValue
+    ) {
+        NearCacheSessionRepository.CachedSession session = repository.createSession();
+        session.setLastAccessedTime(Instant.ofEpochMilli(now.get()));
+        session.setAttribute(attributeName, attributeValue);
+        repository.save(session);
+        return session.getId();
+    }
+
+    /**
+     * Session store in memory, counting the reads and writes.
+     */
+    private static final class CountingRepository implements SessionRepository<Session> {
+
+        private final MapSessionRepository sessions = new MapSessionRepository(new ConcurrentHashMap<>());
+        private int reads;
+        private int writes;
+
+        @Override
+        public Session createSession() {
+            return sessions.createSession();
+        }
+
+        @Override
+        public void save(Session session) {
+            writes++;
+            sessions.save((MapSession) session);
+        }
+
+        @Override
+        public Session findById(String id) {
+            reads++;
+            return sessions.findById(id);
+        }
+
+        @Override
+        public void deleteById(String id) {
+            sessions.deleteById(id);
+        }
+    }
+
+}
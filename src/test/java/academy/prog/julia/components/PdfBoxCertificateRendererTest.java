@@ -0,0 +1,82 @@
+package academy.prog.julia.components;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfBoxCertificateRendererTest {
+
+    private static PdfBoxCertificateRenderer renderer;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        renderer = new PdfBoxCertificateRenderer(
+                new FileSystemResource("cert_gen/static/img/template1.png"),
+                new FileSystemResource("cert_gen/static/fonts/Geometria-Bold.ttf"),
+                new FileSystemResource("cert_gen/static/fonts/Geometria-Regular.ttf"),
+                new FileSystemResource("cert_gen/static/fonts/Geometria-Medium.ttf")
+        );
+    }
+
+    @Test
+    void testRender_writesNameCourseAndId() throws IOException {
+        byte[] pdf = renderer.render("John Doe", "Java Start", 1L, "abc123");
+
+        try (PDDocument document = PDDocument.load(pdf)) {
+            assertEquals(1, document.getNumberOfPages());
+
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("John Doe"));
+            assertTrue(text.contains("Java Start"));
+            assertTrue(text.contains("abc123"));
+        }
+    }
+
+    @Test
+    void testRender_wrapsLongCourseName() throws IOException {
+        String courseName = "Java Enterprise Development with Spring Boot, Hibernate and Microservices";
+
+        byte[] pdf = renderer.render("John Doe", courseName, 1L, "abc123");
+
+        try (PDDocument document = PDDocument.load(pdf)) {
+            String text = new PDFTextStripper().getText(document);
+            assertFalse(text.contains(courseName));
+            assertTrue(text.contains("Java Enterprise"));
+            assertTrue(text.contains("Microservices"));
+        }
+    }
+
+    @Test
+    void testRender_isThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+                String id = "id" + i;
+                results.add(executor.submit(() -> renderer.render("Student " + id, "Java Start", 1L, id)));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                try (PDDocument document = PDDocument.load(results.get(i).get())) {
+                    assertTrue(new PDFTextStripper().getText(document).contains("Student id" + i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,10 +22,12 @@ class LessonControllerTest {
 
     private LessonsService lessonsService;
     private LessonsController lessonsController;
+    private WebRequest webRequest;
 
     @BeforeEach
     void setUp() {
         lessonsService = Mockito.mock(LessonsService.class);
+        webRequest = Mockito.mock(WebRequest.class);
         lessonsController = new LessonsController(lessonsService);
     }
 
@@ -46,12 +49,12 @@ class LessonControllerTest {
                 new LessonsResponse(2L, "Lesson 2", new ArrayList<>())
         );
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.ok(mockResponse));
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -72,7 +75,7 @@ class LessonControllerTest {
         assertTrue(lesson2.getTasks().isEmpty());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -83,19 +86,19 @@ class LessonControllerTest {
         String sessionId = "invalid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(401).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // thn
         assertNotNull(response);
         assertEquals(401, response.getStatusCodeValue());
         assertNull(response.getBody());
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -108,12 +111,12 @@ class LessonControllerTest {
 
         List<LessonsResponse> emptyResponse = new ArrayList<>();
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.ok(emptyResponse));
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -122,7 +125,7 @@ class LessonControllerTest {
         assertTrue(response.getBody().isEmpty());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -133,12 +136,12 @@ class LessonControllerTest {
         String sessionId = "valid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(invalidCourseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(invalidCourseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(404).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(invalidCourseId, sessionId, session);
+                lessonsController.getCourseLessons(invalidCourseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -146,7 +149,7 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(invalidCourseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(invalidCourseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -157,12 +160,12 @@ class LessonControllerTest {
         String sessionId = "valid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(500).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -170,7 +173,7 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -181,12 +184,12 @@ class LessonControllerTest {
         String invalidSessionId = "invalid-format";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(invalidSessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(invalidSessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(401).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, invalidSessionId, session);
+                lessonsController.getCourseLessons(courseId, invalidSessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -194,7 +197,7 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(invalidSessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(invalidSessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -210,12 +213,12 @@ class LessonControllerTest {
                 new LessonsResponse(2L, "Lesson 2", null)
         );
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.ok(mockResponse));
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -234,7 +237,7 @@ class LessonControllerTest {
         assertNull(lesson2.getTasks());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -245,12 +248,12 @@ class LessonControllerTest {
         String sessionId = "valid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(400).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -258,7 +261,7 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -269,12 +272,12 @@ class LessonControllerTest {
         String sessionId = "valid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(400).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -282,7 +285,7 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
 
@@ -293,12 +296,12 @@ class LessonControllerTest {
         String sessionId = "valid-session-id";
         HttpSession session = Mockito.mock(HttpSession.class);
 
-        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class)))
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
                 .thenReturn(ResponseEntity.status(404).build());
 
         // when
         ResponseEntity<List<LessonsResponse>> response =
-                lessonsController.getCourseLessons(courseId, sessionId, session);
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
 
         // then
         assertNotNull(response);
@@ -306,7 +309,29 @@ class LessonControllerTest {
         assertNull(response.getBody());
 
         verify(lessonsService, times(1))
-                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class));
+                .getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void testGetCourseLessons_NotModified() {
+        // given
+        Long courseId = 1L;
+        String sessionId = "valid-session-id";
+        HttpSession session = Mockito.mock(HttpSession.class);
+
+        // the service answers 304 Not Modified only after checking that the user is a member of the course
+        when(lessonsService.getLessonsForCourse(eq(courseId), eq(sessionId), any(HttpSession.class), eq(webRequest)))
+                .thenReturn(null);
+
+        // when
+        ResponseEntity<List<LessonsResponse>> response =
+                lessonsController.getCourseLessons(courseId, sessionId, session, webRequest);
+
+        // then
+        assertNull(response);
+        verify(lessonsService, never()).getCourseLessonsETag(any());
+        verifyNoInteractions(webRequest);
+    }
+
+}
@@ -11,10 +11,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 
@@ -23,6 +26,9 @@ class LessonDetailControllerTest {
     @Mock
     private LessonsService lessonsService;
 
+    @Mock
+    private WebRequest webRequest;
+
     @InjectMocks
     private LessonDetailController lessonDetailController;
 
@@ -37,20 +43,20 @@ class LessonDetailControllerTest {
         Long lessonId = 1L;
         Long currentUserId = 100L;
 
-        LessonDetailDTO mockDTO = new LessonDetailDTO(
+        LessonDetailResponse mockResponse = new LessonDetailResponse(
                 "Lesson 1",
                 "http://example.com/description",
                 "http://example.com/video",
-                Set.of(),
-                Set.of()
+                List.of(),
+                List.of()
         );
 
-        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockDTO);
+        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockResponse);
         when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(true);
 
         // When(Act)
         ResponseEntity<LessonDetailResponse> response =
-                lessonDetailController.getLessonDetails(lessonId, currentUserId)
+                lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest)
         ;
 
         // Then(Assert)
@@ -67,20 +73,20 @@ class LessonDetailControllerTest {
         Long lessonId = 1L;
         Long currentUserId = 100L;
 
-        LessonDetailDTO mockDTO = new LessonDetailDTO(
+        LessonDetailResponse mockResponse = new LessonDetailResponse(
                 "Lesson 1",
                 "http://example.com/description",
                 "http://example.com/video",
-                Set.of(),
-                Set.of()
+                List.of(),
+                List.of()
         );
 
-        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockDTO);
+        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockResponse);
         when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(true);
 
         // When(Act)
         ResponseEntity<LessonDetailResponse> response =
-                lessonDetailController.getLessonDetails(lessonId, currentUserId)
+                lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest)
         ;
 
         // Then(Assert)
@@ -97,7 +103,7 @@ class LessonDetailControllerTest {
 
         // when(Act)
         ResponseEntity<LessonDetailResponse> response =
-                lessonDetailController.getLessonDetails(lessonId, null)
+                lessonDetailController.getLessonDetails(lessonId, null, webRequest)
         ;
 
         // Then(Assert)
@@ -111,20 +117,17 @@ class LessonDetailControllerTest {
         Long lessonId = 1L;
         Long currentUserId = 100L;
 
-        when(lessonsService.getLessonDetails(lessonId))
-                .thenReturn(new LessonDetailDTO("Lesson 1", "", "", Set.of(), Set.of()))
-        ;
         when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(false);
 
         // When(Act)
         ResponseEntity<LessonDetailResponse> response =
-                lessonDetailController.getLessonDetails(lessonId, currentUserId)
+                lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest)
         ;
 
         // Then(Assert)
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        verify(lessonsService).getLessonDetails(lessonId);
         verify(lessonsService).isUserInCourse(currentUserId, lessonId);
+        verify(lessonsService, never()).getLessonDetails(lessonId);
     }
 
     @Test
@@ -133,24 +136,67 @@ class LessonDetailControllerTest {
         Long lessonId = 1L;
         Long currentUserId = 100L;
 
-        LessonDetailDTO mockDTO = new LessonDetailDTO(
+        LessonDetailResponse mockResponse = new LessonDetailResponse(
                 "Lesson 1",
                 "http://example.com/description",
                 "http://example.com/video",
-                Set.of(),
-                Set.of()
+                List.of(),
+                List.of()
         );
 
-        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockDTO);
+        when(lessonsService.getLessonDetails(lessonId)).thenReturn(mockResponse);
         when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(true);
 
         // When(Act
-        lessonDetailController.getLessonDetails(lessonId, currentUserId);
+        lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest);
 
         // Then(Assert)
         InOrder inOrder = inOrder(lessonsService);
-        inOrder.verify(lessonsService).getLessonDetails(lessonId);
         inOrder.verify(lessonsService).isUserInCourse(currentUserId, lessonId);
+        inOrder.verify(lessonsService).getLessonDetails(lessonId);
+    }
+
+
+    @Test
+    void testGetLessonDetails_NotModified_SkipsService() {
+        // Given(Arrange)
+        Long lessonId = 1L;
+        Long currentUserId = 100L;
+
+        when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(true);
+        when(lessonsService.getLessonDetailsETag(lessonId)).thenReturn("\"lesson_details-1-0-0\"");
+        when(webRequest.checkNotModified("\"lesson_details-1-0-0\"")).thenReturn(true);
+
+        // When(Act)
+        ResponseEntity<LessonDetailResponse> response =
+                lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest)
+        ;
+
+        // Then(Assert)
+        assertNull(response);
+        verify(lessonsService).isUserInCourse(currentUserId, lessonId);
+        verify(lessonsService, never()).getLessonDetails(lessonId);
+    }
+
+    @Test
+    void testGetLessonDetails_NotModifiedButUserNotInCourse_ReturnsForbidden() {
+        // Given(Arrange)
+        Long lessonId = 1L;
+        Long currentUserId = 100L;
+
+        when(lessonsService.isUserInCourse(currentUserId, lessonId)).thenReturn(false);
+        when(lessonsService.getLessonDetailsETag(lessonId)).thenReturn("\"lesson_details-1-0-0\"");
+        when(webRequest.checkNotModified("\"lesson_details-1-0-0\"")).thenReturn(true);
+
+        // When(Act)
+        ResponseEntity<LessonDetailResponse> response =
+                lessonDetailController.getLessonDetails(lessonId, currentUserId, webRequest)
+        ;
+
+        // Then(Assert)
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(webRequest, never()).checkNotModified(anyString());
+        verify(lessonsService, never()).getLessonDetails(lessonId);
     }
 
 
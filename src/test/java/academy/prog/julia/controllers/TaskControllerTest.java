@@ -21,6 +21,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import static org.mockito.Mockito.*;
@@ -214,4 +215,28 @@ class TaskControllerTest {
         verify(taskService, times(1)).getLessonProgressAdLessonProgressResponse(userId, lessonId);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void testViewCourseLessonsProgress() throws Exception {
+        Long userId = 1L;
+        Long courseId = 2L;
+
+        List<LessonProgressResponse> responses = List.of(
+                new LessonProgressResponse(1L, "All passed", 100),
+                new LessonProgressResponse(2L, "Not started", 0)
+        );
+
+        when(taskService.getCourseLessonsProgressAsLessonProgressResponses(userId, courseId)).thenReturn(responses);
+
+        mockMvc.perform(get("/api/tasks/progress/{userId}/course/{courseId}", userId, courseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].progress").value("All passed"))
+                .andExpect(jsonPath("$[1].id").value(2L))
+                .andExpect(jsonPath("$[1].percent").value(0))
+        ;
+
+        verify(taskService, times(1)).getCourseLessonsProgressAsLessonProgressResponses(userId, courseId);
+    }
+
+}
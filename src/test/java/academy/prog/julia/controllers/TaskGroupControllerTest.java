@@ -1,7 +1,9 @@
 package academy.prog.julia.controllers;
 
+import academy.prog.julia.dto.CursorPageDTO;
 import academy.prog.julia.dto.TasksGroupResponseDTO;
 import academy.prog.julia.services.TaskService;
+import academy.prog.julia.utils.PageCursor;
 import jakarta.persistence.EntityNotFoundException;
 import javassist.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -95,4 +97,30 @@ public class TaskGroupControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().json("[]"));
     }
+
+    @Test
+    @WithMockUser
+    public void testFindPendingTasksByGroupId_withCursor_returnedNextCursorHeader() throws Exception {
+        String groupName = "TestGroup";
+        when(taskService.findPendingAfter(eq(groupName), eq(5L), anyInt()))
+                .thenReturn(new CursorPageDTO<>(objectList, PageCursor.encode(7L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/tasks/sorted/pending/{groupName}", groupName)
+                        .param("cursor", PageCursor.encode(5L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(7L)));
+    }
+
+    @Test
+    @WithMockUser
+    public void testFindPendingTasks_withLastPageCursor_returnedNoNextCursorHeader() throws Exception {
+        when(taskService.findPendingAfter(isNull(), eq(0L), anyInt()))
+                .thenReturn(new CursorPageDTO<>(objectList, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/tasks/sorted/pending").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist(PageCursor.NEXT_CURSOR_HEADER));
+    }
 }
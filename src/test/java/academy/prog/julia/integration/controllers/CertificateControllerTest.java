@@ -1,5 +1,6 @@
 package academy.prog.julia.integration.controllers;
 
+import academy.prog.julia.components.CertificatePreviewStore;
 import academy.prog.julia.json_responses.CertificateResponse;
 import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.User;
@@ -22,6 +23,8 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -60,8 +63,10 @@ public class CertificateControllerTest {
         when(certificateRepository.findById(999L)).thenReturn(Optional.empty());
         when(certificateRepository.findByUserId(1L)).thenReturn(List.of(certificate));
         when(certificateRepository.findByUserId(999L)).thenReturn(List.of());
-        when(certificateService.getCertificateById("1")).thenReturn(new byte[]{1, 2, 3});
-        when(certificateService.getCertificateById("5")).thenThrow(new AccessDeniedException("Forbidden"));
+        when(certificateService.getCertificatePreview("1", CertificatePreviewStore.Size.DPI_300))
+                .thenReturn(new CertificatePreviewStore.Preview(new byte[]{1, 2, 3}, "\"cert-1\"", 1700000000000L));
+        when(certificateService.getCertificatePreview("5", CertificatePreviewStore.Size.DPI_300))
+                .thenThrow(new AccessDeniedException("Forbidden"));
     }
 
 
@@ -94,13 +99,40 @@ public class CertificateControllerTest {
     }
 
 
+    @Test
+    void testGetCertificateById_NotModified() throws Exception {
+        mockMvc.perform(get("/api/certificate/1").header("If-None-Match", "\"cert-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"cert-1\""))
+                .andExpect(content().string(""))
+        ;
+    }
+
+
+    @Test
+    void testGetCertificateImage_Thumbnail() throws Exception {
+        when(certificateService.getCertificatePreview("1", CertificatePreviewStore.Size.THUMBNAIL))
+                .thenReturn(new CertificatePreviewStore.Preview(new byte[]{4, 5}, "\"cert-1-thumbnail\"", 1700000000000L));
+
+        mockMvc.perform(get("/api/certificate/1/image").param("size", "thumbnail"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"cert-1-thumbnail\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(content().bytes(new byte[]{4, 5}))
+        ;
+    }
+
+
     @Test
     void testGetAllUserCertificates_Success() throws Exception {
         CertificateResponse certificateResponse = new CertificateResponse(1L, "cert123", "Group A");
         when(certificateService.getAllCertificatesByUserId("1")).thenReturn(List.of(certificateResponse));
+        when(certificateService.getCertificatesETag("1")).thenReturn("\"user-certificates-1-abc\"");
 
         mockMvc.perform(get("/api/certificate/user/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"user-certificates-1-abc\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1))) // Очікуємо 1 сертифікат
                 .andExpect(jsonPath("$[0].uniqueId", is("cert123")))
@@ -109,6 +141,19 @@ public class CertificateControllerTest {
     }
 
 
+    @Test
+    void testGetAllUserCertificates_NotModified() throws Exception {
+        when(certificateService.getCertificatesETag("1")).thenReturn("\"user-certificates-1-abc\"");
+
+        mockMvc.perform(get("/api/certificate/user/1").header("If-None-Match", "\"user-certificates-1-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+        ;
+
+        verify(certificateService, never()).getAllCertificatesByUserId("1");
+    }
+
+
     @Test
     @WithMockUser(username = "Test", roles = "ADMIN_ROLE", password = "111111")
     void testGetAllUserCertificates_NoCertificates() throws Exception {
@@ -121,7 +166,8 @@ public class CertificateControllerTest {
 
     @Test
     void testGetCertificateById_EmptyFile() throws Exception {
-        when(certificateService.getCertificateById("1")).thenReturn(new byte[0]);
+        when(certificateService.getCertificatePreview("1", CertificatePreviewStore.Size.DPI_300))
+                .thenReturn(new CertificatePreviewStore.Preview(new byte[0], "\"cert-empty\"", 1700000000000L));
 
         mockMvc.perform(get("/api/certificate/1"))
                 .andExpect(status().isOk())
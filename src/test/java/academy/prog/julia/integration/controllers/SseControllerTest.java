@@ -1,6 +1,8 @@
 package academy.prog.julia.integration.controllers;
 
 import academy.prog.julia.controllers.SseController;
+import academy.prog.julia.model.User;
+import academy.prog.julia.services.GroupService;
 import academy.prog.julia.services.SseService;
 import academy.prog.julia.services.UserService;
 import jakarta.servlet.http.HttpServletResponse;
@@ -9,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -18,7 +21,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,6 +40,9 @@ public class SseControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private GroupService groupService;
+
 
     @Test
     @WithMockUser(username = "BlockedUser", roles = "ADMIN")
@@ -71,7 +79,7 @@ public class SseControllerTest {
         Long userId = 1L;
         SseEmitter mockEmitter = new SseEmitter();
         when(userService.isUserBlocked(userId)).thenReturn(true);
-        when(sseService.createEmitter(any(HttpServletResponse.class))).thenReturn(mockEmitter);
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any())).thenReturn(mockEmitter);
 
         // When
         MvcResult result = mockMvc.perform(get("/sse")
@@ -94,7 +102,7 @@ public class SseControllerTest {
         SseEmitter mockEmitter = new SseEmitter();
         Long userId = 1L;
         when(userService.isUserBlocked(userId)).thenReturn(true);
-        when(sseService.createEmitter(any(HttpServletResponse.class))).thenReturn(mockEmitter);
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any())).thenReturn(mockEmitter);
 
         // When
         mockMvc.perform(get("/sse")
@@ -104,7 +112,87 @@ public class SseControllerTest {
         ;
 
         // Then
-        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class));
+        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any());
+    }
+
+
+    @Test
+    void testSseConnection_PassesLastEventIdForUserTopic() throws Exception {
+        // Given
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq("user:5"), eq("42"))).thenReturn(new SseEmitter());
+
+        // When
+        mockMvc.perform(get("/sse/users/5")
+                        .with(authentication(signedIn(5L)))
+                        .header("Last-Event-ID", "42"))
+                .andExpect(status().isOk())
+        ;
+
+        // Then
+        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class), eq("user:5"), eq("42"));
+    }
+
+
+    @Test
+    void testSseConnection_UserTopicOfAnotherUserIsForbidden() throws Exception {
+        // Given
+
+        // When
+        mockMvc.perform(get("/sse/users/5")
+                        .with(authentication(signedIn(6L))))
+                .andExpect(status().isForbidden())
+        ;
+
+        // Then
+        verifyNoInteractions(sseService);
+    }
+
+
+    @Test
+    @WithMockUser(username = "BlockedUser", roles = "ADMIN")
+    void testSseConnection_UserTopicWithoutSignedInUserIsForbidden() throws Exception {
+        // Given
+
+        // When
+        mockMvc.perform(get("/sse/users/5"))
+                .andExpect(status().isForbidden())
+        ;
+
+        // Then
+        verifyNoInteractions(sseService);
+    }
+
+
+    @Test
+    void testSseConnection_GroupTopicForMember() throws Exception {
+        // Given
+        when(groupService.isStudentInGroup(5L, 3L)).thenReturn(true);
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq("group:3"), any())).thenReturn(new SseEmitter());
+
+        // When
+        mockMvc.perform(get("/sse/groups/3")
+                        .with(authentication(signedIn(5L))))
+                .andExpect(status().isOk())
+        ;
+
+        // Then
+        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class), eq("group:3"), any());
+    }
+
+
+    @Test
+    void testSseConnection_GroupTopicForNonMemberIsForbidden() throws Exception {
+        // Given
+        when(groupService.isStudentInGroup(5L, 3L)).thenReturn(false);
+
+        // When
+        mockMvc.perform(get("/sse/groups/3")
+                        .with(authentication(signedIn(5L))))
+                .andExpect(status().isForbidden())
+        ;
+
+        // Then
+        verifyNoInteractions(sseService);
     }
 
 
@@ -119,7 +207,7 @@ public class SseControllerTest {
 
         Long userId = 1L;
         when(userService.isUserBlocked(userId)).thenReturn(true);
-        when(sseService.createEmitter(any(HttpServletResponse.class))).thenReturn(emitter);
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any())).thenReturn(emitter);
 
         // When
         mockMvc.perform(get("/sse"))
@@ -138,7 +226,7 @@ public class SseControllerTest {
         // Given
         SseEmitter mockEmitter = new SseEmitter();
         ArgumentCaptor<HttpServletResponse> captor = ArgumentCaptor.forClass(HttpServletResponse.class);
-        when(sseService.createEmitter(captor.capture())).thenReturn(mockEmitter);
+        when(sseService.createEmitter(captor.capture(), eq(SseService.ADMIN_TOPIC), any())).thenReturn(mockEmitter);
 
         // When
         mockMvc.perform(get("/sse"))
@@ -158,7 +246,7 @@ public class SseControllerTest {
         SseEmitter emitter = new SseEmitter();
         Long userId = 1L;
         when(userService.isUserBlocked(userId)).thenReturn(true);
-        when(sseService.createEmitter(any(HttpServletResponse.class))).thenReturn(emitter);
+        when(sseService.createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any())).thenReturn(emitter);
 
         // When
         mockMvc.perform(get("/sse"))
@@ -167,7 +255,16 @@ public class SseControllerTest {
 
         // Then
         emitter.complete();
-        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class));
+        verify(sseService, times(1)).createEmitter(any(HttpServletResponse.class), eq(SseService.ADMIN_TOPIC), any());
+    }
+
+
+    private static UsernamePasswordAuthenticationToken signedIn(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@example.com");
+
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
     }
 
 }
@@ -13,6 +13,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,9 @@ class UserCourseControllerTest {
     @Mock
     private HttpSession httpSession;
 
+    @Mock
+    private WebRequest webRequest;
+
     @InjectMocks
     private UserCourseController userCourseController;
 
@@ -50,13 +54,13 @@ class UserCourseControllerTest {
                 new UserCoursesResponse(userId, "Course 2")
         );
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenReturn(ResponseEntity.ok(mockResponse))
         ;
 
         // Act
         ResponseEntity<List<UserCoursesResponse>> response =
-                userCourseController.getUserCourses(userId, sessionId, httpSession)
+                userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest)
         ;
 
         // Assert
@@ -74,13 +78,13 @@ class UserCourseControllerTest {
                 new UserCoursesResponse(userId, "You unauthorized from UserCourseController")
         );
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(mockResponse))
         ;
 
         // Act
         ResponseEntity<List<UserCoursesResponse>> response =
-                userCourseController.getUserCourses(userId, sessionId, httpSession)
+                userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest)
         ;
 
         // Assert
@@ -95,13 +99,13 @@ class UserCourseControllerTest {
         Long userId = 99L;
         String sessionId = "valid-session-id";
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenThrow(new RuntimeException("User not found"))
         ;
 
         // Act & Assert
         try {
-            userCourseController.getUserCourses(userId, sessionId, httpSession);
+            userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest);
         } catch (RuntimeException e) {
             assertEquals("User not found", e.getMessage());
         }
@@ -115,13 +119,13 @@ class UserCourseControllerTest {
         String sessionId = "valid-session-id";
         List<UserCoursesResponse> mockResponse = Collections.emptyList();
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenReturn(ResponseEntity.ok(mockResponse))
         ;
 
         // Act
         ResponseEntity<List<UserCoursesResponse>> response =
-                userCourseController.getUserCourses(userId, sessionId, httpSession)
+                userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest)
         ;
 
         // Assert
@@ -138,7 +142,7 @@ class UserCourseControllerTest {
 
         // Act & Assert
         try {
-            userCourseController.getUserCourses(userId, sessionId, httpSession);
+            userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest);
         } catch (IllegalArgumentException e) {
             assertEquals("User ID cannot be null", e.getMessage());
         }
@@ -151,13 +155,13 @@ class UserCourseControllerTest {
         Long userId = 1L;
         String sessionId = "valid-session-id";
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenThrow(new RuntimeException("Unexpected error"))
         ;
 
         // Act & Assert
         try {
-            userCourseController.getUserCourses(userId, sessionId, httpSession);
+            userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest);
         } catch (RuntimeException e) {
             assertEquals("Unexpected error", e.getMessage());
         }
@@ -172,7 +176,7 @@ class UserCourseControllerTest {
 
         // Act & Assert
         try {
-            userCourseController.getUserCourses(userId, sessionId, httpSession);
+            userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest);
         } catch (IllegalArgumentException e) {
             assertEquals("Session ID cannot be null", e.getMessage());
         }
@@ -187,7 +191,7 @@ class UserCourseControllerTest {
 
         // Act & Assert
         try {
-            userCourseController.getUserCourses(userId, sessionId, httpSession);
+            userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest);
         } catch (IllegalArgumentException e) {
             assertEquals("Invalid user ID", e.getMessage());
         }
@@ -200,7 +204,7 @@ class UserCourseControllerTest {
         Long userId = 1L;
         String sessionId = "valid-session-id";
 
-        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class)))
+        when(userCourseService.getUserCoursesWithSessionValidation(eq(userId), eq(sessionId), any(HttpSession.class), any(WebRequest.class)))
                 .thenAnswer(invocation -> {
                     Thread.sleep(5000); // Імітація затримки
                     return ResponseEntity.ok(Collections.emptyList());
@@ -209,7 +213,7 @@ class UserCourseControllerTest {
 
         // Act
         ResponseEntity<List<UserCoursesResponse>> response =
-                userCourseController.getUserCourses(userId, sessionId, httpSession)
+                userCourseController.getUserCourses(userId, sessionId, httpSession, webRequest)
         ;
 
         // Assert
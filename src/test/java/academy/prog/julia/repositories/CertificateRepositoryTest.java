@@ -1,5 +1,6 @@
 package academy.prog.julia.repositories;
 
+import academy.prog.julia.components.CertificateFileColumn;
 import academy.prog.julia.model.Certificate;
 import academy.prog.julia.model.CertificateTask;
 import academy.prog.julia.model.User;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -41,6 +43,9 @@ class CertificateRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -135,4 +140,13 @@ class CertificateRepositoryTest {
         List<Certificate> test2 = certificateRepository.findByUserId(-1L);
         assertTrue(test2.isEmpty());
     }
+
+    @Test
+    void testCertificateFileColumn_nullableInMappedSchema() {
+        CertificateFileColumn certificateFileColumn = new CertificateFileColumn(jdbcTemplate);
+
+        assertTrue(certificateFileColumn.isNullable());
+        assertTrue(certificateFileColumn.isNullable());
+    }
+
 }
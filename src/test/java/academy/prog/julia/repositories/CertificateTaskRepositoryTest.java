@@ -8,6 +8,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -88,6 +89,44 @@ class CertificateTaskRepositoryTest {
 
     }
 
+    @Test
+    void testFindCertificateTasksToClaim_skipsLeasedAndPostponedTasks(){
+        LocalDateTime now = LocalDateTime.now();
+
+        certificateTask1.setLockedUntil(now.plusMinutes(5));
+        certificateTask1.setLockedBy("other-node");
+        certificateTaskRepository.save(certificateTask1);
+
+        List<CertificateTask> taskList = certificateTaskRepository.findCertificateTasksToClaim(now, PageRequest.of(0, 10));
+
+        assertThat(taskList).extracting(CertificateTask::getId).containsExactly(certificateTask2.getId());
+
+        certificateTask1.setLockedUntil(now.minusMinutes(1));
+        certificateTask2.setNextAttemptAt(now.plusMinutes(1));
+        certificateTaskRepository.save(certificateTask1);
+        certificateTaskRepository.save(certificateTask2);
+
+        taskList = certificateTaskRepository.findCertificateTasksToClaim(now, PageRequest.of(0, 10));
+
+        assertThat(taskList).extracting(CertificateTask::getId).containsExactly(certificateTask1.getId());
+    }
+
+    @Test
+    void testRenewLease_onlyForOwnerOfNotGeneratedTask(){
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(5);
+
+        certificateTask1.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+        certificateTask1.setLockedBy("node-1");
+        certificateTask2.setLockedBy("node-1");
+        certificateTask2.setGenerated(true);
+        certificateTaskRepository.saveAndFlush(certificateTask1);
+        certificateTaskRepository.saveAndFlush(certificateTask2);
+
+        assertEquals(0, certificateTaskRepository.renewLease(certificateTask1.getId(), "node-2", lockedUntil));
+        assertEquals(0, certificateTaskRepository.renewLease(certificateTask2.getId(), "node-1", lockedUntil));
+        assertEquals(1, certificateTaskRepository.renewLease(certificateTask1.getId(), "node-1", lockedUntil));
+    }
+
     @Test
     void testFindTasksToBeSent(){
 
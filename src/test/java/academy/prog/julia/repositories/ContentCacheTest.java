@@ -0,0 +1,129 @@
+package academy.prog.julia.repositories;
+
+import academy.prog.julia.components.ContentResponseCache;
+import academy.prog.julia.dto.CacheRegionStatsDTO;
+import academy.prog.julia.model.Lesson;
+import academy.prog.julia.model.Task;
+import academy.prog.julia.repos.LessonRepository;
+import academy.prog.julia.repos.TaskRepository;
+import academy.prog.julia.services.ContentCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that lessons and their tasks are read from the second-level cache until the content is evicted.
+ *
+ * Every step runs in its own transaction: Hibernate does not serve cache entries
+ * put after the start of the reading transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "/application-test.properties")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ContentCacheTest {
+
+    private static final String LESSON_REGION = Lesson.class.getName();
+    private static final String TASKS_REGION = Lesson.class.getName() + ".tasks";
+
+    @Autowired
+    private LessonRepository lessonRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ContentCacheService contentCacheService;
+    private Long lessonId;
+
+    @BeforeEach
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        contentCacheService = new ContentCacheService(entityManagerFactory, new ContentResponseCache(100, 300));
+
+        lessonId = transactionTemplate.execute(status -> {
+            Lesson lesson = new Lesson();
+            lesson.setName("Cached lesson");
+            lesson = lessonRepository.save(lesson);
+
+            Task task = new Task();
+            task.setName("Cached task");
+            task.setDeadline(LocalDate.now().plusDays(1));
+            task.setActive(true);
+            task.setLesson(lesson);
+            taskRepository.save(task);
+
+            return lesson.getId();
+        });
+
+        contentCacheService.evictContent();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.deleteAll(taskRepository.findAll().stream()
+                    .filter(task -> task.getLesson() != null && lessonId.equals(task.getLesson().getId()))
+                    .toList()
+            );
+            lessonRepository.deleteById(lessonId);
+        });
+    }
+
+    @Test
+    void testLessonAndTasks_servedFromCacheUntilEvicted() {
+        // First read misses and fills the cache
+        assertThat(readTaskNames()).containsExactly("Cached task");
+        CacheRegionStatsDTO lessonAfterFill = regionStatistics(LESSON_REGION);
+        CacheRegionStatsDTO tasksAfterFill = regionStatistics(TASKS_REGION);
+
+        // Second read is served by the cache
+        assertThat(readTaskNames()).containsExactly("Cached task");
+        assertThat(regionStatistics(LESSON_REGION).hits()).isGreaterThan(lessonAfterFill.hits());
+        assertThat(regionStatistics(TASKS_REGION).hits()).isGreaterThan(tasksAfterFill.hits());
+
+        // After eviction the lesson is read from the database again
+        contentCacheService.evictContent();
+        CacheRegionStatsDTO lessonAfterEviction = regionStatistics(LESSON_REGION);
+
+        assertThat(readTaskNames()).containsExactly("Cached task");
+        assertThat(regionStatistics(LESSON_REGION).misses()).isGreaterThan(lessonAfterEviction.misses());
+    }
+
+    private List<String> readTaskNames() {
+        return transactionTemplate.execute(status -> lessonRepository.findById(lessonId)
+                .orElseThrow()
+                .getTasks()
+                .stream()
+                .map(Task::getName)
+                .toList()
+        );
+    }
+
+    private CacheRegionStatsDTO regionStatistics(String region) {
+        return contentCacheService.getRegionStatistics().stream()
+                .filter(stats -> stats.region().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+
+}
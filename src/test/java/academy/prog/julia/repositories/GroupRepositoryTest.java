@@ -148,6 +148,24 @@ public class GroupRepositoryTest {
     }
 
 
+    @Test
+    void isClientOfGroup(){
+        assertTrue(groupRepository.isClientOfGroup(group2.getId(), user.getId()));
+        assertFalse(groupRepository.isClientOfGroup(group1.getId(), user.getId()));
+        assertFalse(groupRepository.isClientOfGroup(group2.getId(), -1L));
+
+    }
+
+
+    @Test
+    void isClientOfLessonGroup(){
+        assertTrue(groupRepository.isClientOfLessonGroup(lesson.getId(), user.getId()));
+        assertFalse(groupRepository.isClientOfLessonGroup(-1L, user.getId()));
+        assertFalse(groupRepository.isClientOfLessonGroup(lesson.getId(), -1L));
+
+    }
+
+
     @Test
     void findAllByUser(){
         List<Group> testList = groupRepository.findAllByUser(user);
@@ -0,0 +1,71 @@
+package academy.prog.julia.repositories;
+
+import academy.prog.julia.model.JobLease;
+import academy.prog.julia.repos.JobLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional
+@Rollback
+@ActiveProfiles("test")
+@TestPropertySource(locations = "/application-test.properties")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class JobLeaseRepositoryTest {
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseRepository.saveAndFlush(new JobLease("rebuild"));
+    }
+
+    @Test
+    void testAcquire_onlyOneInstanceGetsLease() {
+        assertEquals(1, jobLeaseRepository.acquire("rebuild", "instance-1", now, now.plusMinutes(10)));
+        assertEquals(0, jobLeaseRepository.acquire("rebuild", "instance-2", now, now.plusMinutes(10)));
+    }
+
+    @Test
+    void testAcquire_sameInstanceExtendsLease() {
+        jobLeaseRepository.acquire("rebuild", "instance-1", now, now.plusMinutes(10));
+
+        assertEquals(1, jobLeaseRepository.acquire("rebuild", "instance-1", now, now.plusMinutes(20)));
+    }
+
+    @Test
+    void testAcquire_expiredLeaseIsTakenOver() {
+        jobLeaseRepository.acquire("rebuild", "instance-1", now.minusMinutes(20), now.minusMinutes(10));
+
+        assertEquals(1, jobLeaseRepository.acquire("rebuild", "instance-2", now, now.plusMinutes(10)));
+    }
+
+    @Test
+    void testRelease_onlyByHolder() {
+        jobLeaseRepository.acquire("rebuild", "instance-1", now, now.plusMinutes(10));
+
+        jobLeaseRepository.release("rebuild", "instance-2");
+        assertEquals(0, jobLeaseRepository.acquire("rebuild", "instance-2", now, now.plusMinutes(10)));
+
+        jobLeaseRepository.release("rebuild", "instance-1");
+        assertEquals(1, jobLeaseRepository.acquire("rebuild", "instance-2", now, now.plusMinutes(10)));
+    }
+
+    @Test
+    void testAcquire_unknownJob() {
+        assertEquals(0, jobLeaseRepository.acquire("unknown", "instance-1", now, now.plusMinutes(10)));
+    }
+}
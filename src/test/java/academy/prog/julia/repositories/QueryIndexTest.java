@@ -0,0 +1,241 @@
+package academy.prog.julia.repositories;
+
+import academy.prog.julia.model.Task;
+import academy.prog.julia.repos.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with {@code EXPLAIN} that the hot repository queries are served by the indexes
+ * of the V10 migration, mirrored on the entities, instead of table scans.
+ * The explained SQL is the statement Hibernate sends for the repository method, captured with a
+ * {@link StatementInspector}, so a changed query or mapping can't pass by testing hand-written SQL.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional
+@Rollback
+@ActiveProfiles("test")
+@TestPropertySource(
+        locations = "/application-test.properties",
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "academy.prog.julia.repositories.QueryIndexTest$CapturingStatementInspector"
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class QueryIndexTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskAnswerRepository taskAnswerRepository;
+
+    @Autowired
+    private TestAnswerRepository testAnswerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CertificateTaskRepository certificateTaskRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void testTaskAnswerByTaskAndUser_usesIndex() {
+        assertUsesIndex(
+                () -> taskAnswerRepository.findByTaskIdAndUserId(1L, 2L),
+                "task_answer", "IDX_task_answer_task_user",
+                1L, 2L
+        );
+    }
+
+    @Test
+    void testTaskAnswerByUser_usesIndex() {
+        assertUsesIndex(
+                () -> taskAnswerRepository.findByUserId(2L),
+                "task_answer", "IDX_task_answer_user_task",
+                2L
+        );
+    }
+
+    @Test
+    void testPendingTaskAnswers_usesIndex() {
+        assertUsesIndex(
+                () -> taskAnswerRepository.findPendingTask(Pageable.unpaged()),
+                "task_answer", "IDX_task_answer_pending"
+        );
+    }
+
+    @Test
+    void testTestAnswerByTestAndUser_usesIndex() {
+        assertUsesIndex(
+                () -> testAnswerRepository.findByTestIdAndUserId(1L, 2L),
+                "test_answer", "IDX_test_answer_test_user",
+                1L, 2L
+        );
+    }
+
+    @Test
+    void testUserByTelegramChatId_usesIndex() {
+        assertUsesIndex(
+                () -> userRepository.findByTelegramChatId("12345"),
+                "clients", "IDX_clients_telegram_chatid",
+                "12345"
+        );
+    }
+
+    @Test
+    void testUserIdsByBannedAndActive_usesIndex() {
+        assertUsesIndex(
+                () -> userRepository.findIdsByIsBannedAndIsActive(false, true, Pageable.unpaged()),
+                "clients", "IDX_clients_banned_active",
+                false, true
+        );
+    }
+
+    @Test
+    void testCertificateTasksToBeSent_usesIndex() {
+        assertUsesIndex(
+                () -> certificateTaskRepository.findTasksToBeSent(),
+                "certificate_tasks", "IDX_certificate_tasks_sending"
+        );
+    }
+
+    @Test
+    void testCertificateByGroupNameAndUser_usesIndex() {
+        assertUsesIndex(
+                () -> certificateRepository.findByGroupNameAndUserId("Java", 1L),
+                "certificates", "IDX_certificates_group_user",
+                "Java", 1L
+        );
+    }
+
+    @Test
+    void testLessonBySpreadsheetAndSheet_usesIndex() {
+        assertUsesIndex(
+                () -> lessonRepository.findBySpreadsheetIDAndSheetNumber("sheet", 0),
+                "lesson", "IDX_lesson_spreadsheet_sheet",
+                "sheet", 0
+        );
+    }
+
+    @Test
+    void testTasksByDeadline_usesIndex() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 4);
+
+        assertUsesIndex(
+                () -> taskRepository.findTaskDeadlineNotifications(from, to),
+                "task", "IDX_task_deadline_lesson",
+                from, to
+        );
+    }
+
+    @Test
+    void testLessonsOfGroup_usesIndex() {
+        assertUsesIndex(
+                () -> lessonRepository.findCourseLessons(1L),
+                "lesson_group", "IDX_lesson_group_group_lesson",
+                1L
+        );
+    }
+
+    @Test
+    void testClientsOfGroup_usesIndex() {
+        assertUsesIndex(
+                () -> userRepository.findByGroupName("Java", Pageable.unpaged()),
+                "client_course", "IDX_client_course_course_client",
+                "Java"
+        );
+    }
+
+    // No repository method selects the tasks of a student, the index serves the mapped join table
+    @Test
+    void testTasksOfStudent_usesIndex() {
+        assertUsesIndex(
+                () -> entityManager.createQuery("SELECT t FROM Task t JOIN t.students s WHERE s.id = :studentId", Task.class)
+                        .setParameter("studentId", 1L)
+                        .getResultList(),
+                "task_students", "IDX_task_students_student_task",
+                1L
+        );
+    }
+
+    /**
+     * Runs a repository method, then explains the first statement Hibernate sent for it,
+     * bound with the given parameters in the order they appear in the statement.
+     */
+    private void assertUsesIndex(Runnable query, String tableName, String indexName, Object... parameters) {
+        entityManager.flush();
+        entityManager.clear();
+        CapturingStatementInspector.STATEMENTS.clear();
+
+        query.run();
+
+        assertThat(CapturingStatementInspector.STATEMENTS).as("statements sent for the query").isNotEmpty();
+        String sql = CapturingStatementInspector.STATEMENTS.get(0);
+        assertThat(sql.chars().filter(c -> c == '?').count()).as(sql).isEqualTo(parameters.length);
+
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+
+        assertThat(plan.toUpperCase())
+                .as(plan)
+                .contains(indexName.toUpperCase())
+                .doesNotContain(("PUBLIC." + tableName + ".TABLESCAN").toUpperCase());
+    }
+
+    /**
+     * Records the SQL statements Hibernate prepares, unchanged.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
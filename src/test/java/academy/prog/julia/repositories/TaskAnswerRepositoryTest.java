@@ -1,17 +1,21 @@
 package academy.prog.julia.repositories;
 
+import academy.prog.julia.dto.LessonProgressStatsDTO;
 import academy.prog.julia.model.*;
 import academy.prog.julia.repos.GroupRepository;
+import academy.prog.julia.repos.LessonRepository;
 import academy.prog.julia.repos.TaskAnswerRepository;
 import academy.prog.julia.repos.TaskRepository;
 import academy.prog.julia.repos.UserRepository;
 
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
@@ -51,6 +55,12 @@ public class TaskAnswerRepositoryTest {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User user;
 
     @BeforeEach
@@ -123,6 +133,20 @@ public class TaskAnswerRepositoryTest {
                 .containsExactlyInAnyOrderElementsOf(expected);
     }
 
+    @Test
+    public void testFindPendingTask_fetchesTaskAndUser() {
+        createAndSavePendingTasks(2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskAnswer> actual = taskAnswerRepository.findPendingTask(PageRequest.of(0, 2)).getContent();
+
+        assertThat(actual).hasSize(2).allSatisfy(taskAnswer -> {
+            assertThat(Hibernate.isInitialized(taskAnswer.getTask())).isTrue();
+            assertThat(Hibernate.isInitialized(taskAnswer.getUser())).isTrue();
+        });
+    }
+
     private List<TaskAnswer> createAndSavePendingTasks(int count) {
         List<TaskAnswer> taskAnswers = new ArrayList<>();
         for (int i = 0; i < count; i++) {
@@ -160,6 +184,42 @@ public class TaskAnswerRepositoryTest {
         assertEquals(0, nullTasksPage.getNumberOfElements());
     }
 
+    @Test
+    public void testFindPendingTaskAfter_walksPendingTasksInIdOrder() {
+        List<TaskAnswer> expected = createAndSavePendingTasks(5);
+        taskAnswerRepository.save(new TaskAnswer(user, createTaskWithDeadline(LocalDate.now().plusDays(3)), "Passed", 1L, 1L, 1, "Course1", true, false, "", false, new Date()));
+
+        List<TaskAnswer> firstPage = taskAnswerRepository.findPendingTaskAfter(0L, PageRequest.of(0, 3));
+        List<TaskAnswer> secondPage = taskAnswerRepository.findPendingTaskAfter(
+                firstPage.get(firstPage.size() - 1).getId(), PageRequest.of(0, 3));
+        List<TaskAnswer> groupPage = taskAnswerRepository.findPendingTaskByGroupAfter(
+                "mock1Test", expected.get(1).getId(), PageRequest.of(0, 10));
+
+        assertThat(firstPage).containsExactlyElementsOf(expected.subList(0, 3));
+        assertThat(secondPage).containsExactlyElementsOf(expected.subList(3, 5));
+        assertThat(groupPage).containsExactlyElementsOf(expected.subList(2, 5));
+        assertThat(taskAnswerRepository.findPendingTaskByGroupAfter("mockNoGroupTest", 0L, PageRequest.of(0, 10)))
+                .isEmpty();
+    }
+
+    @Test
+    public void testFindPassedWithoutZipAnswerAfter_returnsPassedGitHubAnswersWithoutArchive() {
+        String repoUrl = "https://github.com/student/homework";
+        TaskAnswer missing = taskAnswerRepository.save(new TaskAnswer(user, createTaskForLesson(null), repoUrl, 1L, 1L, 1, "Course1", true, false, "", false, new Date()));
+        TaskAnswer archived = new TaskAnswer(user, createTaskForLesson(null), repoUrl, 1L, 1L, 1, "Course1", true, false, "", false, new Date());
+        archived.setZipAnswerHash("a".repeat(64));
+        taskAnswerRepository.save(archived);
+        taskAnswerRepository.save(new TaskAnswer(user, createTaskForLesson(null), repoUrl, 1L, 1L, 1, "Course1", false, false, "", false, new Date()));
+        taskAnswerRepository.save(new TaskAnswer(user, createTaskForLesson(null), "isRead", 1L, 1L, 1, "Course1", true, false, "", false, new Date()));
+
+        List<Object[]> rows = taskAnswerRepository.findPassedWithoutZipAnswerAfter(0L, PageRequest.of(0, 10));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(missing.getId(), repoUrl);
+        assertThat(taskAnswerRepository.findPassedWithoutZipAnswerAfter(missing.getId(), PageRequest.of(0, 10)))
+                .isEmpty();
+    }
+
     private List<TaskAnswer> createAndSavePendingTasksByGroup(int count, String groupName) {
         List<TaskAnswer> taskAnswers = new ArrayList<>();
         for (int i = 0; i < count; i++) {
@@ -170,5 +230,53 @@ public class TaskAnswerRepositoryTest {
         return taskAnswers;
     }
 
+    @Test
+    public void testFindLessonProgressStats_returnsCountersOfLesson() {
+        Group group = groupRepository.findByName("mock1Test").orElseThrow();
+        Lesson lesson = createLessonForGroup(group);
+
+        Task passedTask = createTaskForLesson(lesson);
+        Task correctionTask = createTaskForLesson(lesson);
+        createTaskForLesson(lesson);
+
+        taskAnswerRepository.save(new TaskAnswer(user, passedTask, "Answer1", group.getId(), lesson.getId(), 1, "Course1", true, false, "", false, new Date()));
+        taskAnswerRepository.save(new TaskAnswer(user, correctionTask, "Answer2", group.getId(), lesson.getId(), 1, "Course1", false, true, "Fix it", false, new Date()));
+
+        assertThat(taskAnswerRepository.findLessonProgressStats(user.getId(), lesson.getId()))
+                .containsExactly(new LessonProgressStatsDTO(lesson.getId(), 3L, 2L, 1L, 1L, 0L));
+    }
+
+    @Test
+    public void testFindLessonProgressStats_answersWithoutFlags() {
+        Group group = groupRepository.findByName("mock1Test").orElseThrow();
+        Lesson lesson = createLessonForGroup(group);
+
+        Task correctionTask = createTaskForLesson(lesson);
+        Task unmarkedTask = createTaskForLesson(lesson);
+
+        taskAnswerRepository.save(new TaskAnswer(user, correctionTask, "Answer1", group.getId(), lesson.getId(), 1, "Course1", null, true, "Fix it", false, new Date()));
+        taskAnswerRepository.save(new TaskAnswer(user, unmarkedTask, "Answer2", group.getId(), lesson.getId(), 1, "Course1", null, null, "", false, new Date()));
+
+        assertThat(taskAnswerRepository.findLessonProgressStats(user.getId(), lesson.getId()))
+                .containsExactly(new LessonProgressStatsDTO(lesson.getId(), 2L, 2L, 0L, 1L, 0L));
+    }
+
+    private Lesson createLessonForGroup(Group group) {
+        Lesson lesson = new Lesson();
+        lesson.setName("TestLesson");
+        lesson.getGroups().add(group);
+        return lessonRepository.save(lesson);
+    }
+
+    private Task createTaskForLesson(Lesson lesson) {
+        Task task = new Task();
+        task.setName("TestName");
+        task.setDescriptionUrl("TestDescriptionUrl");
+        task.setDeadline(LocalDate.now().plusDays(3));
+        task.setActive(true);
+        task.setExpectedResult(ExpectedResult.LINK);
+        task.setLesson(lesson);
+        return taskRepository.save(task);
+    }
 
 }
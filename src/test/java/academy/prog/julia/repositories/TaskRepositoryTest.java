@@ -4,6 +4,8 @@ package academy.prog.julia.repositories;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import academy.prog.julia.dto.GroupNameDTO;
+import academy.prog.julia.dto.TaskDeadlineNotificationDTO;
 import academy.prog.julia.model.Group;
 import academy.prog.julia.model.Lesson;
 import academy.prog.julia.model.Task;
@@ -133,28 +135,54 @@ public class TaskRepositoryTest {
 
 
     @Test
-    public void testFindTaskByTeacherId() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Task> tasks = taskRepository.findTaskByTeacherId(user.getId(), pageable);
+    public void testFindTaskIdsByTeacherId_unknownTeacher() {
+        Page<Long> taskIds = taskRepository.findTaskIdsByTeacherId(69L, PageRequest.of(0, 10));
 
-        assertThat(tasks).hasSize(3);
-
-        Page<Task> tasksNone = taskRepository.findTaskByTeacherId(69L, pageable);
-        assertThat(tasksNone).hasSize(0);
+        assertThat(taskIds).isEmpty();
     }
 
     @Test
-    public void testFindTaskByTeacherId_returnPage() {
-        Pageable pageable = PageRequest.of(0, 2);
-        Page<Task> tasksPage1 = taskRepository.findTaskByTeacherId(user.getId(), pageable);
-        Page<Task> tasksPage2 = taskRepository.findTaskByTeacherId(user.getId(), PageRequest.of(1, 2));
-
-        assertThat(tasksPage1.getTotalElements()).isEqualTo(3);
-        assertThat(tasksPage1.getContent()).hasSize(2);
-        assertThat(tasksPage2.getContent()).hasSize(1);
+    public void testFindTaskIdsByTeacherIdAndGroupNames() {
+        Page<Long> taskIds = taskRepository.findTaskIdsByTeacherId(user.getId(), PageRequest.of(0, 2));
+
+        assertThat(taskIds.getTotalElements()).isEqualTo(3);
+        assertThat(taskIds.getContent()).containsExactly(task1.getId(), task2.getId());
+
+        List<GroupNameDTO> groupNames = taskRepository.findGroupNamesByTaskIdIn(taskIds.getContent());
+
+        assertThat(groupNames).containsExactlyInAnyOrder(
+                new GroupNameDTO(task1.getId(), "Group A"),
+                new GroupNameDTO(task2.getId(), "Group A")
+        );
+
+        assertThat(taskRepository.findTaskIdsByTeacherIdAfter(user.getId(), task2.getId(), PageRequest.of(0, 2)))
+                .containsExactly(task3.getId());
     }
 
-}
+    @Test
+    public void testFindTaskDeadlineNotifications_returnsUnansweredTasksInWindow() {
+        user.setTelegramChatId("12345");
+        userRepository.save(user);
+
+        List<TaskDeadlineNotificationDTO> notifications = taskRepository.findTaskDeadlineNotifications(
+                LocalDate.now(),
+                LocalDate.now().plusDays(1)
+        );
 
+        assertThat(notifications).hasSize(2);
+        assertThat(notifications).extracting("taskName").containsExactlyInAnyOrder("Task 1", "Task 2");
+        assertThat(notifications).extracting("telegramChatId").containsOnly("12345");
+        assertThat(notifications).extracting("groupName").containsOnly("Group A");
+    }
 
+    @Test
+    public void testFindTaskDeadlineNotifications_skipsUsersWithoutTelegram() {
+        List<TaskDeadlineNotificationDTO> notifications = taskRepository.findTaskDeadlineNotifications(
+                LocalDate.now(),
+                LocalDate.now().plusDays(1)
+        );
 
+        assertThat(notifications).isEmpty();
+    }
+
+}
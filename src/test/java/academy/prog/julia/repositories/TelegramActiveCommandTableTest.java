@@ -0,0 +1,62 @@
+package academy.prog.julia.repositories;
+
+import academy.prog.julia.telegram.commands.Command;
+import academy.prog.julia.telegram.executor.ActiveCommand;
+import academy.prog.julia.telegram.executor.CommandRegistry;
+import academy.prog.julia.telegram.executor.JdbcActiveCommandStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that the JDBC store of the active commands works on the table created from the entity mapping.
+ */
+@DataJpaTest
+@Transactional
+@Rollback
+@ActiveProfiles("test")
+@TestPropertySource(locations = "/application-test.properties")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TelegramActiveCommandTableTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Command command;
+    private JdbcActiveCommandStore store;
+
+    @BeforeEach
+    void setUp() {
+        command = mock(Command.class);
+        when(command.getName()).thenReturn("/set_email");
+
+        store = new JdbcActiveCommandStore(jdbcTemplate, new CommandRegistry(Set.of(command)), 20);
+    }
+
+    @Test
+    void testPutGetAndRemove() {
+        ActiveCommand activeCommand = new ActiveCommand(command, 1);
+        activeCommand.getAttributes().put("email", "user@example.com");
+
+        store.put(1L, activeCommand);
+        ActiveCommand restored = store.get(1L);
+
+        assertNotNull(restored);
+        assertEquals(1, restored.getStateIndex());
+        assertEquals("user@example.com", restored.getAttributes().get("email"));
+        assertTrue(store.remove(1L));
+        assertNull(store.get(1L));
+    }
+
+}
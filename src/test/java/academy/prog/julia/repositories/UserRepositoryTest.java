@@ -163,70 +163,6 @@ public class UserRepositoryTest {
         assertFalse(userOptNone.isPresent(), "User mustn`t exist");
     }
 
-    @Test
-    void testFindByPhoneLike(){
-        //some patern from number
-        List<User> test1 = userRepository.findByPhoneLike("380");
-        assertThat(test1).hasSize(3);
-
-        //full phone number
-        List<User> test2 = userRepository.findByPhoneLike("0672222222");
-        assertThat(test2).hasSize(1);
-
-
-        // multiple numbers for user tests
-        user.addPhone("0679324444");
-        userRepository.save(user);
-
-        List<User> test3 = userRepository.findByPhoneLike("067");
-        assertThat(test3).hasSize(2);
-
-
-
-        List<User> test4 = userRepository.findByPhoneLike("0679324444");
-        assertThat(test4).hasSize(1);
-        assertThat(test4.get(0).getName()).isEqualTo("User");
-
-
-        List<User> testEmptyList = userRepository.findByPhoneLike("9898989898");
-        assertThat(testEmptyList).hasSize(0);
-
-
-    }
-
-    @Test
-    void testFindByEmailLike(){
-        //some patern from email
-        List<User> test1 = userRepository.findByEmailLike("user");
-        assertThat(test1).hasSize(2);
-
-        //full email
-        List<User> test2 = userRepository.findByEmailLike("test3@gmail.com");
-        assertThat(test2).hasSize(1);
-        assertThat(test2.get(0).getName()).isEqualTo("Test");
-
-
-
-        // multiple emails for user
-        user.addEmail("test3@ukr.net");
-        userRepository.save(user);
-
-        List<User> test3 = userRepository.findByEmailLike("test3");
-        assertThat(test3).hasSize(2);
-
-
-
-        List<User> test4 = userRepository.findByEmailLike("test3@ukr.net");
-        assertThat(test4).hasSize(1);
-        assertThat(test4.get(0).getName()).isEqualTo("User");
-
-
-        List<User> testEmptyList = userRepository.findByEmailLike("NonExistingEmail@gmail.com");
-        assertThat(testEmptyList).hasSize(0);
-
-
-    }
-
     @Test
     void testFindByGroupName(){
         Page<User> testPage = userRepository.findByGroupName(group.getName(), PageRequest.of(0, 2));
@@ -306,6 +242,37 @@ public class UserRepositoryTest {
 
     }
 
+    @Test
+    void testFindIdsByIsBannedAndIsActiveAndFindAllWithGroupsByIdIn(){
+        List<Long> ids = userRepository
+                .findIdsByIsBannedAndIsActive(false, true, PageRequest.of(0, 2));
+
+        assertThat(ids).containsExactly(user.getId(), user2.getId());
+
+        List<User> users = userRepository.findAllWithGroupsByIdIn(List.of(user3.getId()));
+
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).getGroups())
+                .extracting(Group::getName)
+                .containsExactlyInAnyOrder("TestGroup", "TestGroup2");
+    }
+
+    @Test
+    void testKeysetQueriesReturnUsersAfterId(){
+        assertThat(userRepository.findIdsByIsBannedAndIsActiveAfter(false, true, user.getId(), PageRequest.of(0, 1)))
+                .containsExactly(user2.getId());
+        assertThat(userRepository.findIdsByIsBannedAndIsActiveAfter(false, true, user3.getId(), PageRequest.of(0, 1)))
+                .isEmpty();
+
+        assertThat(userRepository.findByGroupNameAfter(group.getName(), user.getId(), PageRequest.of(0, 5)))
+                .extracting(User::getId)
+                .containsExactly(user2.getId(), user3.getId());
+
+        // user3 belongs to two groups and is returned once
+        assertThat(userRepository.findIdsInGroupsAfter(user2.getId(), PageRequest.of(0, 5)))
+                .containsExactly(user3.getId());
+    }
+
     @Test
     void testFindAllByIsBannedAndIsActive(){
         List<User>  usersTestOne = userRepository
@@ -0,0 +1,94 @@
+package academy.prog.julia.repositories;
+
+import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserSearchTerm;
+import academy.prog.julia.model.UserSearchTerm.SearchField;
+import academy.prog.julia.repos.UserRepository;
+import academy.prog.julia.repos.UserSearchTermRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional
+@Rollback
+@ActiveProfiles("test")
+@TestPropertySource(locations = "/application-test.properties")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserSearchTermRepositoryTest {
+
+    @Autowired
+    private UserSearchTermRepository userSearchTermRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private User user2;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("User", "Surname", "3801111111", "user1@gmail.com", "password");
+        user.setUniqueId("searchUnique1");
+        userRepository.save(user);
+
+        user2 = new User("Newuser", "Newsurname", "3802222222", "user_2@gmail.com", "password2");
+        user2.setUniqueId("searchUnique2");
+        userRepository.save(user2);
+
+        userSearchTermRepository.saveAll(List.of(
+                new UserSearchTerm(user.getId(), SearchField.EMAIL, "user1@gmail.com"),
+                new UserSearchTerm(user.getId(), SearchField.EMAIL, "1@gmail.com"),
+                new UserSearchTerm(user.getId(), SearchField.PHONE, "1111"),
+                new UserSearchTerm(user2.getId(), SearchField.EMAIL, "user_2@gmail.com"),
+                new UserSearchTerm(user2.getId(), SearchField.EMAIL, "_2@gmail.com")
+        ));
+    }
+
+    @Test
+    void testFindUserIdsByTermPrefix() {
+        assertThat(userSearchTermRepository.findUserIdsByTermPrefix(SearchField.EMAIL, "user%", PageRequest.of(0, 10)))
+                .containsExactly(user.getId(), user2.getId());
+
+        // '_' is matched literally once escaped
+        assertThat(userSearchTermRepository.findUserIdsByTermPrefix(SearchField.EMAIL, "user!_%", PageRequest.of(0, 10)))
+                .containsExactly(user2.getId());
+
+        assertThat(userSearchTermRepository.findUserIdsByTermPrefix(SearchField.PHONE, "user%", PageRequest.of(0, 10)))
+                .isEmpty();
+    }
+
+    @Test
+    void testFindUserIdsWithoutTermsAndDeleteByUserId() {
+        assertThat(userSearchTermRepository.findUserIdsWithoutTerms(0L, PageRequest.of(0, 100)))
+                .doesNotContain(user.getId(), user2.getId());
+
+        userSearchTermRepository.deleteByUserId(user.getId());
+
+        assertThat(userSearchTermRepository.findUserIdsWithoutTerms(0L, PageRequest.of(0, 100)))
+                .contains(user.getId())
+                .doesNotContain(user2.getId());
+
+        // A user without phones and emails only has the marker term
+        userSearchTermRepository.saveAndFlush(new UserSearchTerm(user.getId(), SearchField.INDEXED, ""));
+
+        assertThat(userSearchTermRepository.findUserIdsWithoutTerms(0L, PageRequest.of(0, 100)))
+                .doesNotContain(user.getId());
+        assertThat(userSearchTermRepository.findUserIdsByTermPrefix(SearchField.EMAIL, "%", PageRequest.of(0, 10)))
+                .doesNotContain(user.getId());
+    }
+
+}
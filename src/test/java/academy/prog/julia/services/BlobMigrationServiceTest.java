@@ -0,0 +1,112 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.components.CertificateFileColumn;
+import academy.prog.julia.model.Certificate;
+import academy.prog.julia.model.TaskAnswer;
+import academy.prog.julia.repos.CertificateRepository;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BlobMigrationServiceTest {
+
+    private CertificateRepository certificateRepository;
+    private TaskAnswerRepository taskAnswerRepository;
+    private BlobStore blobStore;
+    private CertificateFileColumn certificateFileColumn;
+    private BlobMigrationService service;
+
+    @BeforeEach
+    void setUp() {
+        certificateRepository = mock(CertificateRepository.class);
+        taskAnswerRepository = mock(TaskAnswerRepository.class);
+        blobStore = mock(BlobStore.class);
+        certificateFileColumn = mock(CertificateFileColumn.class);
+        when(certificateFileColumn.isNullable()).thenReturn(true);
+
+        service = new BlobMigrationService(certificateRepository, taskAnswerRepository, blobStore, certificateFileColumn, true, 2) {
+            @Override
+            public BlobMigrationService getSelf() {
+                return this;
+            }
+        };
+    }
+
+    @Test
+    void testMigrateFiles_movesFilesAndClearsLobColumns() throws IOException {
+        Certificate certificate = new Certificate();
+        certificate.setId(1L);
+        certificate.setFile(new byte[]{1, 2, 3});
+
+        TaskAnswer taskAnswer = new TaskAnswer();
+        taskAnswer.setZipAnswerFile(new byte[]{4, 5});
+
+        when(certificateRepository.findIdsWithFileInDatabase(any(Pageable.class))).thenReturn(List.of(1L), List.of());
+        when(certificateRepository.findById(1L)).thenReturn(Optional.of(certificate));
+        when(taskAnswerRepository.findIdsWithZipAnswerFileInDatabase(any(Pageable.class))).thenReturn(List.of(7L), List.of());
+        when(taskAnswerRepository.findById(7L)).thenReturn(Optional.of(taskAnswer));
+        when(blobStore.write(new byte[]{1, 2, 3})).thenReturn(new BlobStore.Blob("a".repeat(64), 3));
+        when(blobStore.write(new byte[]{4, 5})).thenReturn(new BlobStore.Blob("b".repeat(64), 2));
+
+        service.migrateFiles();
+
+        assertEquals("a".repeat(64), certificate.getFileHash());
+        assertEquals(3L, certificate.getFileSize());
+        assertNull(certificate.getFile());
+        assertEquals("b".repeat(64), taskAnswer.getZipAnswerHash());
+        assertEquals(2L, taskAnswer.getZipAnswerSize());
+        assertNull(taskAnswer.getZipAnswerFile());
+    }
+
+    @Test
+    void testMigrateFiles_keepsCertificateFilesWhileColumnIsNotNull() {
+        when(certificateFileColumn.isNullable()).thenReturn(false);
+        when(taskAnswerRepository.findIdsWithZipAnswerFileInDatabase(any(Pageable.class))).thenReturn(List.of());
+
+        service.migrateFiles();
+
+        verify(certificateRepository, never()).findIdsWithFileInDatabase(any(Pageable.class));
+        verify(taskAnswerRepository).findIdsWithZipAnswerFileInDatabase(any(Pageable.class));
+    }
+
+    @Test
+    void testMigrateFiles_stopsWhenWholeBatchFails() throws IOException {
+        Certificate first = new Certificate();
+        first.setFile(new byte[]{1});
+        Certificate second = new Certificate();
+        second.setFile(new byte[]{2});
+
+        when(certificateRepository.findIdsWithFileInDatabase(any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(certificateRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(certificateRepository.findById(2L)).thenReturn(Optional.of(second));
+        when(taskAnswerRepository.findIdsWithZipAnswerFileInDatabase(any(Pageable.class))).thenReturn(List.of());
+        when(blobStore.write(any(byte[].class))).thenThrow(new IOException("disk full"));
+
+        service.migrateFiles();
+
+        verify(certificateRepository, times(1)).findIdsWithFileInDatabase(any(Pageable.class));
+        assertNotNull(first.getFile());
+        assertNull(first.getFileHash());
+    }
+
+    @Test
+    void testMigrateCertificateFile_skipsMigratedCertificate() throws IOException {
+        Certificate certificate = new Certificate();
+        certificate.setFileHash("a".repeat(64));
+        when(certificateRepository.findById(1L)).thenReturn(Optional.of(certificate));
+
+        assertFalse(service.migrateCertificateFile(1L));
+        verify(blobStore, never()).write(any(byte[].class));
+    }
+
+}
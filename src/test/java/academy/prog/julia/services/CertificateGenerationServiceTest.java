@@ -0,0 +1,227 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.components.CertificateGenerator;
+import academy.prog.julia.model.CertificateTask;
+import academy.prog.julia.model.User;
+import academy.prog.julia.repos.CertificateTaskRepository;
+import academy.prog.julia.repos.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CertificateGenerationServiceTest {
+
+    private CertificateTaskRepository certificateTaskRepository;
+    private CertificateGenerator certificateGenerator;
+    private UserRepository userRepository;
+    private CertificateGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        certificateTaskRepository = mock(CertificateTaskRepository.class);
+        certificateGenerator = mock(CertificateGenerator.class);
+        userRepository = mock(UserRepository.class);
+
+        service = new CertificateGenerationService(
+                certificateTaskRepository, certificateGenerator, userRepository, 2, 5, 300, 60, 600
+        ) {
+            @Override
+            public CertificateGenerationService getSelf() {
+                return this;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testClaimCertificateTasks_leasesClaimedTasks() {
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task));
+
+        List<CertificateTask> claimed = service.claimCertificateTasks(5);
+
+        assertEquals(List.of(task), claimed);
+        assertNotNull(task.getLockedBy());
+        assertTrue(task.getLockedUntil().isAfter(LocalDateTime.now().plusSeconds(290)));
+    }
+
+    @Test
+    void testProcessTasks_generatesClaimedTasksUntilQueueIsEmpty() {
+        User user = new User();
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(eq(1L), any(), any(LocalDateTime.class))).thenReturn(1);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        CertificateGenerator.RenderedCertificate rendered = rendered();
+        when(certificateGenerator.renderCertificate(user, "Java Start", 10L)).thenReturn(rendered);
+
+        service.processTasks();
+
+        InOrder inOrder = inOrder(certificateGenerator, certificateTaskRepository);
+        inOrder.verify(certificateGenerator).renderCertificate(user, "Java Start", 10L);
+        inOrder.verify(certificateGenerator).saveCertificate(rendered);
+        inOrder.verify(certificateTaskRepository).findById(1L);
+        verify(certificateGenerator, never()).generateCertificate(any(), any(), any());
+        assertTrue(task.isGenerated());
+        assertNull(task.getLockedBy());
+        assertNull(task.getLockedUntil());
+    }
+
+    @Test
+    void testProcessTasks_generationFailure_postponesTask() {
+        User user = new User();
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(eq(1L), any(), any(LocalDateTime.class))).thenReturn(1);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        doThrow(new ResourceAccessException("down"))
+                .when(certificateGenerator).renderCertificate(eq(user), any(), any());
+
+        service.processTasks();
+
+        assertFalse(task.isGenerated());
+        assertEquals(1, task.getAttempts());
+        assertEquals("Service for certificate generation NOT FOUND", task.getSendError());
+        assertTrue(task.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertNull(task.getLockedBy());
+    }
+
+    @Test
+    void testProcessTasks_renewsLeaseOfEachTaskBeforeGeneration() {
+        User user = new User();
+        CertificateTask first = task(1L, 10L);
+        CertificateTask second = task(2L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(any(), any(), any(LocalDateTime.class))).thenReturn(1);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(certificateTaskRepository.findById(2L)).thenReturn(Optional.of(second));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+
+        service.processTasks();
+
+        InOrder inOrder = inOrder(certificateTaskRepository, certificateGenerator);
+        inOrder.verify(certificateTaskRepository).renewLease(eq(1L), eq(first.getLockedBy()), any(LocalDateTime.class));
+        inOrder.verify(certificateGenerator).renderCertificate(user, "Java Start", 10L);
+        inOrder.verify(certificateTaskRepository).renewLease(eq(2L), any(), any(LocalDateTime.class));
+        inOrder.verify(certificateGenerator).renderCertificate(user, "Java Start", 10L);
+    }
+
+    @Test
+    void testProcessTasks_lostLease_skipsTask() {
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(eq(1L), any(), any(LocalDateTime.class))).thenReturn(0);
+
+        service.processTasks();
+
+        verifyNoInteractions(certificateGenerator, userRepository);
+        verify(certificateTaskRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testProcessTasks_nothingRendered_completesTask() {
+        User user = new User();
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(eq(1L), any(), any(LocalDateTime.class))).thenReturn(1);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+
+        service.processTasks();
+
+        verify(certificateGenerator, never()).saveCertificate(any());
+        assertTrue(task.isGenerated());
+    }
+
+    @Test
+    void testProcessTasks_saveFailure_postponesTask() {
+        User user = new User();
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findCertificateTasksToClaim(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(task))
+                .thenReturn(List.of());
+        when(certificateTaskRepository.renewLease(eq(1L), any(), any(LocalDateTime.class))).thenReturn(1);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+        CertificateGenerator.RenderedCertificate rendered = rendered();
+        when(certificateGenerator.renderCertificate(user, "Java Start", 10L)).thenReturn(rendered);
+        when(certificateGenerator.saveCertificate(rendered)).thenThrow(new IllegalStateException("constraint"));
+
+        service.processTasks();
+
+        assertFalse(task.isGenerated());
+        assertEquals(1, task.getAttempts());
+        assertEquals("Service for certificate generation ERROR", task.getSendError());
+    }
+
+    @Test
+    void testFailCertificateTask_missingUser() {
+        CertificateTask task = task(1L, 10L);
+        when(certificateTaskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        service.failCertificateTask(1L, "User not found");
+
+        assertEquals(1, task.getAttempts());
+        assertEquals("User not found", task.getSendError());
+    }
+
+    @Test
+    void testGetRetryDelay_doublesUpToMaximum() {
+        assertEquals(Duration.ofSeconds(60), service.getRetryDelay(1));
+        assertEquals(Duration.ofSeconds(120), service.getRetryDelay(2));
+        assertEquals(Duration.ofSeconds(480), service.getRetryDelay(4));
+        assertEquals(Duration.ofSeconds(600), service.getRetryDelay(5));
+        assertEquals(Duration.ofSeconds(600), service.getRetryDelay(100));
+    }
+
+    private static CertificateGenerator.RenderedCertificate rendered() {
+        return new CertificateGenerator.RenderedCertificate(
+                "certificateId", "Java Start", 10L, new byte[]{1}, new BlobStore.Blob("a".repeat(64), 1)
+        );
+    }
+
+    private static CertificateTask task(
+            Long id,
+            Long userId
+    ) {
+        CertificateTask task = new CertificateTask();
+        task.setId(id);
+        task.setUserId(userId);
+        task.setGroupName("Java Start");
+        task.setLockedBy("node");
+        task.setLockedUntil(LocalDateTime.now().plusMinutes(5));
+        return task;
+    }
+
+}
@@ -43,6 +43,10 @@ public class DocsSheetsServiceTest {
     private DocsSheets docsSheets;
     @MockBean
     private TestQuestionFromGoogleDocsRepository testQuestionFromGoogleDocsRepository; // Добавлено
+    @MockBean
+    private ContentCacheService contentCacheService;
+    @MockBean
+    private StudentProgressService studentProgressService;
     @InjectMocks
     private DocsSheetsService docsSheetsService;
 
@@ -106,6 +110,10 @@ public class DocsSheetsServiceTest {
         verify(testRepository, times(1)).save(test);
         verify(lessonRepository, times(1)).saveAll(lessonsReaderLessons);
         verify(groupRepository, times(1)).save(group);
+        verify(contentCacheService, times(1)).evictContentAfterCompletion(
+                Collections.singleton(group.getId()),
+                List.of(lesson1.getId())
+        );
 
         assertEquals(lessonsReaderLessons, result);
         assertEquals(sheetNumber, lesson1.getSheetNumber());
@@ -172,6 +180,7 @@ public class DocsSheetsServiceTest {
         verify(lessonRepository).findById(1L);
         verify(lessonRepository).save(existingLesson);
         verify(docsSheets).lessonReader(spreadsheetURL, sheetNumber);
+        verify(studentProgressService).refreshCoursesProgress(Collections.singleton(group.getId()), Set.of());
 
         // Verify changes to the existing lesson
         assertEquals(sheetNumber, existingLesson.getSheetNumber());
@@ -0,0 +1,150 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.components.BlobStore;
+import academy.prog.julia.components.FileSystemBlobStore;
+import academy.prog.julia.model.TaskAnswer;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubArchiveServiceTest {
+
+    private static final String REPO_URL = "https://github.com/student/homework";
+
+    @TempDir
+    Path directory;
+
+    private TaskAnswerRepository taskAnswerRepository;
+    private JobLeaseService jobLeaseService;
+    private BlobStore blobStore;
+    private MockRestServiceServer server;
+    private GitHubArchiveService service;
+    private volatile String archiveRef = "refs/heads/main";
+
+    @BeforeEach
+    void setUp() {
+        taskAnswerRepository = mock(TaskAnswerRepository.class);
+        jobLeaseService = mock(JobLeaseService.class);
+        blobStore = new FileSystemBlobStore(directory.toString());
+
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        service = new GitHubArchiveService(
+                taskAnswerRepository, blobStore, restTemplate, jobLeaseService, true, "", 1, 10, 8, 100, 60000, 60
+        ) {
+            @Override
+            public GitHubArchiveService getSelf() {
+                return this;
+            }
+
+            @Override
+            String resolveArchiveRef(String repositoryName) {
+                return archiveRef;
+            }
+        };
+    }
+
+    @Test
+    void testFetch_downloadsDefaultBranchAndSavesReference() throws IOException {
+        TaskAnswer taskAnswer = new TaskAnswer();
+        taskAnswer.setAnswerUrl(REPO_URL);
+        when(taskAnswerRepository.findById(1L)).thenReturn(Optional.of(taskAnswer));
+
+        server.expect(requestTo(REPO_URL + "/archive/refs/heads/main.zip"))
+                .andRespond(withSuccess(new byte[]{1, 2, 3}, MediaType.APPLICATION_OCTET_STREAM));
+
+        service.fetch(1L, REPO_URL);
+
+        server.verify();
+        assertNotNull(taskAnswer.getZipAnswerHash());
+        assertEquals(3L, taskAnswer.getZipAnswerSize());
+        assertArrayEquals(new byte[]{1, 2, 3}, blobStore.read(taskAnswer.getZipAnswerHash()));
+    }
+
+    @Test
+    void testFetch_rejectsArchiveOverSizeLimit() {
+        server.expect(requestTo(REPO_URL + "/archive/refs/heads/main.zip"))
+                .andRespond(withSuccess(new byte[16], MediaType.APPLICATION_OCTET_STREAM));
+
+        service.fetch(1L, REPO_URL);
+
+        verify(taskAnswerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testFetch_whenRepositoryNotFound() {
+        server.expect(requestTo(REPO_URL + "/archive/refs/heads/main.zip"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        service.fetch(1L, REPO_URL);
+
+        verify(taskAnswerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testSaveZipAnswer_skipsChangedAnswerUrl() {
+        TaskAnswer taskAnswer = new TaskAnswer();
+        taskAnswer.setAnswerUrl("https://github.com/student/other");
+        when(taskAnswerRepository.findById(1L)).thenReturn(Optional.of(taskAnswer));
+
+        assertFalse(service.saveZipAnswer(1L, REPO_URL, new BlobStore.Blob("a".repeat(64), 3)));
+        assertNull(taskAnswer.getZipAnswerHash());
+    }
+
+    @Test
+    void testResubmitMissingArchives_submitsPassedAnswersWithoutArchive() {
+        // The submitted downloads stop before calling GitHub
+        archiveRef = null;
+        when(taskAnswerRepository.findPassedWithoutZipAnswerAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new Object[]{1L, REPO_URL},
+                new Object[]{2L, "https://github.com/student/homework/tree/main"},
+                new Object[]{3L, "https://github.com/student/other"}
+        ));
+
+        assertEquals(2, service.resubmitMissingArchivesOnce());
+    }
+
+    @Test
+    void testResubmitMissingArchives_skipsFailedDownloadsUntilRetryDelay() {
+        server.expect(requestTo(REPO_URL + "/archive/refs/heads/main.zip"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        service.fetch(1L, REPO_URL);
+
+        archiveRef = null;
+        when(taskAnswerRepository.findPassedWithoutZipAnswerAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new Object[]{1L, REPO_URL},
+                new Object[]{2L, "https://github.com/student/other"}
+        ));
+
+        assertEquals(1, service.resubmitMissingArchivesOnce());
+    }
+
+    @Test
+    void testResubmitMissingArchives_whenLeaseHeldByAnotherInstance() {
+        when(jobLeaseService.tryAcquire(eq("github-archive-sweep"), any(Duration.class))).thenReturn(false);
+
+        service.resubmitMissingArchives();
+
+        verify(taskAnswerRepository, never()).findPassedWithoutZipAnswerAfter(anyLong(), any(Pageable.class));
+    }
+
+}
@@ -1,7 +1,6 @@
 package academy.prog.julia.services;
 
 import academy.prog.julia.model.Group;
-import academy.prog.julia.model.User;
 import academy.prog.julia.repos.GroupRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +22,9 @@ class GroupServiceTest {
     @Mock
     private GroupRepository groupRepository;
 
+    @Mock
+    private SseService sseService;
+
     @InjectMocks
     private GroupService groupService;
 
@@ -66,25 +68,21 @@ class GroupServiceTest {
     void isStudentInGroup_Found() {
         Long userId = 1L;
         Long groupId = 1L;
-        User user = new User("Name", "Surname", "00000000000", "Email", "Password");
-        user.setId(1L);
-        Group group = new Group("Java1", new HashSet<>());
-        group.addClient(user);
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.isClientOfGroup(groupId, userId)).thenReturn(true);
 
         boolean isStudentInGroup = groupService.isStudentInGroup(userId, groupId);
 
         assertTrue(isStudentInGroup);
+        verify(groupRepository, never()).findById(any());
     }
 
     @Test
     void isStudentInGroup_NotFound() {
         Long userId = 1L;
         Long groupId = 1L;
-        Group group = new Group("Java1", new HashSet<>());
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.isClientOfGroup(groupId, userId)).thenReturn(false);
 
         boolean isStudentInGroup = groupService.isStudentInGroup(userId, groupId);
 
@@ -92,13 +90,21 @@ class GroupServiceTest {
     }
 
     @Test
-    void isStudentInGroup_GroupNotFound() {
-        Long userId = 1L;
-        Long groupId = 1L;
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
-
-        boolean isStudentInGroup = groupService.isStudentInGroup(userId, groupId);
+    void isStudentInGroup_UserUnknown() {
+        boolean isStudentInGroup = groupService.isStudentInGroup(null, 1L);
 
         assertFalse(isStudentInGroup);
+        verifyNoInteractions(groupRepository);
     }
+
+    @Test
+    void notifyMembers() {
+        Group group = new Group();
+        group.setId(3L);
+
+        groupService.notifyMembers(group, "Lesson 1 was added");
+
+        verify(sseService).notifyGroup(3L, "Lesson 1 was added");
+    }
+
 }
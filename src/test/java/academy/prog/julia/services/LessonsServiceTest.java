@@ -1,10 +1,13 @@
 package academy.prog.julia.services;
 
-import academy.prog.julia.dto.LessonDetailDTO;
+import academy.prog.julia.components.ContentResponseCache;
 import academy.prog.julia.dto.LessonsDTO;
+import academy.prog.julia.json_responses.LessonDetailResponse;
 import academy.prog.julia.json_responses.LessonsResponse;
 import academy.prog.julia.model.Group;
 import academy.prog.julia.model.Lesson;
+import academy.prog.julia.model.Task;
+import academy.prog.julia.model.TestQuestionFromGoogleDocs;
 import academy.prog.julia.model.User;
 import academy.prog.julia.repos.GroupRepository;
 import academy.prog.julia.repos.LessonRepository;
@@ -21,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -47,6 +51,12 @@ public class LessonsServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private WebRequest webRequest;
+
+    @Spy
+    private ContentResponseCache contentResponseCache = new ContentResponseCache(100, 300);
+
     @Spy
     @InjectMocks
     private LessonsService lessonsService;  // Inject mocks into the LessonsService to test it in isolation.
@@ -135,7 +145,7 @@ public class LessonsServiceTest {
         when(lessonRepository.findById(lessonId)).thenReturn(Optional.of(lesson));
 
         // Call the method being tested.
-        LessonDetailDTO result = lessonsService.getLessonDetails(lessonId);
+        LessonDetailResponse result = lessonsService.getLessonDetails(lessonId);
 
         // Verify the lesson details are as expected.
         assertNotNull(result);
@@ -162,6 +172,79 @@ public class LessonsServiceTest {
         verify(lessonRepository, times(1)).findById(lessonId);
     }
 
+    @Test
+    public void testGetCourseLessons_ServedFromCacheUntilCourseVersionBumped() {
+        Group course = createGroup(1L, "Test Courses");
+        Lesson lesson = createLesson(1L, "Lesson1", "description1", "video1", course);
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(course));
+        when(lessonRepository.findCourseLessons(1L)).thenReturn(List.of(lesson));
+
+        List<LessonsDTO> first = lessonsService.getCourseLessons(1L);
+        List<LessonsDTO> second = lessonsService.getCourseLessons(1L);
+
+        assertSame(first, second);
+        verify(lessonRepository, times(1)).findCourseLessons(1L);
+
+        // Another course's import doesn't invalidate the listing
+        contentResponseCache.bumpVersions(Set.of(2L), Set.of());
+        lessonsService.getCourseLessons(1L);
+        verify(lessonRepository, times(1)).findCourseLessons(1L);
+
+        contentResponseCache.bumpVersions(Set.of(1L), Set.of(1L));
+        lessonsService.getCourseLessons(1L);
+        verify(lessonRepository, times(2)).findCourseLessons(1L);
+    }
+
+    @Test
+    public void testGetLessonDetails_ServedFromCacheUntilLessonVersionBumped() {
+        Lesson lesson = createLesson(1L, "Lesson1", "description", "video", null);
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
+
+        LessonDetailResponse first = lessonsService.getLessonDetails(1L);
+
+        assertSame(first, lessonsService.getLessonDetails(1L));
+        verify(lessonRepository, times(1)).findById(1L);
+
+        contentResponseCache.bumpVersions(Set.of(), Set.of(1L));
+
+        LessonDetailResponse second = lessonsService.getLessonDetails(1L);
+        assertNotSame(first, second);
+        assertEquals(first.getName(), second.getName());
+        verify(lessonRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testGetLessonDetails_CachedResponseHoldsCopiesOfTheContent() {
+        Lesson lesson = createLesson(1L, "Lesson1", "description", "video", null);
+
+        Task task = new Task();
+        task.setId(5L);
+        task.setName("Task1");
+        lesson.getTasks().add(task);
+
+        TestQuestionFromGoogleDocs question = new TestQuestionFromGoogleDocs(
+                "Question", new ArrayList<>(List.of("A", "B")), new ArrayList<>(List.of("A")));
+        question.setId(7L);
+        academy.prog.julia.model.Test test = new academy.prog.julia.model.Test();
+        test.setId(6L);
+        test.setName("Test1");
+        test.setTestQuestionFromGoogleDocs(new HashSet<>(Set.of(question)));
+        lesson.getTests().add(test);
+
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(lesson));
+
+        LessonDetailResponse response = lessonsService.getLessonDetails(1L);
+
+        // Changes of the entities after the transaction don't reach the cached response
+        task.setName("Changed");
+        question.getOptions().add("C");
+
+        assertEquals("Task1", response.getTasks().get(0).getName());
+        assertEquals(List.of("A", "B"), response.getTests().get(0).getQuestions().iterator().next().getOptions());
+        assertThrows(UnsupportedOperationException.class, () -> response.getTasks().add(null));
+    }
+
     @Test
     @Transactional
     @Rollback
@@ -202,48 +285,35 @@ public class LessonsServiceTest {
     public void testIsUserInCourse_WhenUserExists() {
         Long userId = 1L;
         Long lessonId = 1L;
-        User user = new User("user", "surname", "38000000000", "username@mail.com", "password");
-        List<Group> groups = List.of(new Group("First", Set.of(user)));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(groupRepository.findAllByLessonId(lessonId)).thenReturn(groups);
+        when(groupRepository.isClientOfLessonGroup(lessonId, userId)).thenReturn(true);
 
         boolean result = lessonsService.isUserInCourse(userId, lessonId);
-        assertTrue(result, "The user should exist in the database");
-        verify(groupRepository, times(1)).findAllByLessonId(lessonId);
-        verify(userRepository, times(1)).findById(userId);
+        assertTrue(result, "The user should be a member of a group of the lesson");
+        verify(groupRepository, times(1)).isClientOfLessonGroup(lessonId, userId);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     @Transactional(readOnly = true)
     @Rollback
-    public void testIsUserInCourse_WhenUserDoesNotExistsAndHasGroups() {
+    public void testIsUserInCourse_WhenUserIsNotMember() {
         Long userId = 10L;
         Long lessonId = 1L;
-        User user = new User("user", "surname", "38000000000", "username@mail.com", "password");
-        List<Group> groups = List.of(new Group("First", Set.of(user)));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-        when(groupRepository.findAllByLessonId(lessonId)).thenReturn(groups);
-
-        NullPointerException exception = assertThrows(NullPointerException.class, () -> lessonsService.isUserInCourse(userId, lessonId));
-        assertEquals(NullPointerException.class, exception.getClass());
-        verify(groupRepository, times(1)).findAllByLessonId(lessonId);
-        verify(userRepository, times(1)).findById(userId);
+        when(groupRepository.isClientOfLessonGroup(lessonId, userId)).thenReturn(false);
+
+        boolean result = lessonsService.isUserInCourse(userId, lessonId);
+        assertFalse(result, "The user should not be a member of a group of the lesson");
+        verify(groupRepository, times(1)).isClientOfLessonGroup(lessonId, userId);
     }
 
     @Test
     @Transactional(readOnly = true)
     @Rollback
-    public void testIsUserInCourse_WhenUserDoesNotExistsAndNoGroups() {
-        Long userId = 1L;
-        Long lessonId = 1L;
+    public void testIsUserInCourse_WhenUserIdMissing() {
+        boolean result = lessonsService.isUserInCourse(null, 1L);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-        when(groupRepository.findAllByLessonId(lessonId)).thenReturn(Collections.emptyList());
-
-        boolean result = lessonsService.isUserInCourse(userId, lessonId);
-        assertFalse(result, "The user should not exist in the database");
-        verify(groupRepository, times(1)).findAllByLessonId(lessonId);
-        verify(userRepository, times(1)).findById(userId);
+        assertFalse(result, "A request without a user should not be a member of the course");
+        verifyNoInteractions(groupRepository);
     }
 
     @Test
@@ -267,9 +337,11 @@ public class LessonsServiceTest {
         when(groupService.isStudentInGroup(user.getId(), courseId)).thenReturn(true);
         doReturn(lessonDTOList).when(lessonsService).getCourseLessons(courseId);
 
-        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session);
+        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session, webRequest);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(lessonDTOList.size(), Objects.requireNonNull(responseEntity.getBody()).size());
+        assertEquals("no-cache, private", responseEntity.getHeaders().getCacheControl());
+        assertEquals(courseId, session.getAttribute("courseId"));
 
         verify(lessonsService, times(1)).doesCourseExist(courseId);
         verify(groupService, times(1)).isStudentInGroup(user.getId(), courseId);
@@ -294,9 +366,10 @@ public class LessonsServiceTest {
         when(groupService.isStudentInGroup(user.getId(), courseId)).thenReturn(false);
         when(userService.findUserByEmail(principalNameAsEmail)).thenReturn(user);
 
-        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session);
+        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session, webRequest);
 
         assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
+        verifyNoInteractions(webRequest, contentResponseCache);
         verify(userService, times(1)).findUserByEmail(principalNameAsEmail);
         verify(groupService, times(1)).isStudentInGroup(user.getId(), courseId);
         verify(userService, times(1)).getPrincipalNameBySessionId(sessionId);
@@ -317,7 +390,7 @@ public class LessonsServiceTest {
         when(groupService.isStudentInGroup(user.getId(), courseId)).thenReturn(true);
         when(userService.findUserByEmail(principalNameAsEmail)).thenReturn(user);
 
-        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session);
+        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session, webRequest);
 
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
         verify(userService, times(1)).findUserByEmail(principalNameAsEmail);
@@ -325,6 +398,31 @@ public class LessonsServiceTest {
         verify(userService, times(1)).getPrincipalNameBySessionId(sessionId);
     }
 
+    @Test
+    @Transactional(readOnly = true)
+    @Rollback
+    public void testGetLessonsForCourse_WhenUserAuthorizedAndNotModified() {
+        Long userId = 1L;
+        Long courseId = 1L;
+        String principalNameAsEmail = "username@mail.com";
+        String sessionId = "someSessionId";
+        User user = new User("user", "surname", "38000000000", principalNameAsEmail, "password");
+        user.setId(userId);
+        MockHttpSession session = new MockHttpSession();
+        when(userService.getPrincipalNameBySessionId(sessionId)).thenReturn(principalNameAsEmail);
+        when(groupService.isStudentInGroup(user.getId(), courseId)).thenReturn(true);
+        when(userService.findUserByEmail(principalNameAsEmail)).thenReturn(user);
+        when(webRequest.checkNotModified(contentResponseCache.getCourseLessonsETag(courseId))).thenReturn(true);
+
+        ResponseEntity<List<LessonsResponse>> responseEntity = lessonsService.getLessonsForCourse(courseId, sessionId, session, webRequest);
+
+        assertNull(responseEntity);
+        assertEquals(courseId, session.getAttribute("courseId"));
+        verify(groupService, times(1)).isStudentInGroup(user.getId(), courseId);
+        verify(lessonsService, never()).doesCourseExist(courseId);
+        verify(lessonsService, never()).getCourseLessons(courseId);
+    }
+
 
     // Helper method to create Lesson objects.
     private Lesson createLesson(Long id, String name, String descriptionUrl, String videoUrl, Group group) {
@@ -0,0 +1,145 @@
+package academy.prog.julia.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseServiceTest {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private SseService sseService;
+
+    @BeforeEach
+    void setUp() {
+        sseService = new SseService(2, 3, 2) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(sseService, "crossOrigin", "http://localhost:3000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sseService.shutdown();
+    }
+
+    @Test
+    void testPublish_deliversOnlyToSubscribersOfTopic() throws InterruptedException {
+        sseService.createEmitter(new MockHttpServletResponse(), SseService.userTopic(1L), null);
+        sseService.createEmitter(new MockHttpServletResponse(), SseService.userTopic(2L), null);
+
+        sseService.notifyUser(1L, "hello");
+
+        assertTrue(emitters.get(0).await(1));
+        assertTrue(emitters.get(0).events.get(0).contains("data:hello"));
+        Thread.sleep(50);
+        assertTrue(emitters.get(1).events.isEmpty());
+    }
+
+    @Test
+    void testCreateEmitter_replaysEventsAfterLastEventId() throws InterruptedException {
+        sseService.notifyFrontend("first");
+        sseService.notifyFrontend("second");
+        sseService.notifyFrontend("third");
+
+        sseService.createEmitter(new MockHttpServletResponse(), SseService.ADMIN_TOPIC, "1");
+
+        RecordingEmitter emitter = emitters.get(0);
+        assertTrue(emitter.await(2));
+        assertTrue(emitter.events.get(0).contains("id:2") && emitter.events.get(0).contains("data:second"));
+        assertTrue(emitter.events.get(1).contains("id:3") && emitter.events.get(1).contains("data:third"));
+    }
+
+    @Test
+    void testPublish_dropsSlowSubscriber() {
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.blocked = new CountDownLatch(1);
+        SseService service = new SseService(2, 3, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return slow;
+            }
+        };
+        ReflectionTestUtils.setField(service, "crossOrigin", "http://localhost:3000");
+
+        try {
+            service.createEmitter(new MockHttpServletResponse(), SseService.ADMIN_TOPIC, null);
+
+            for (int i = 0; i < 10; i++) {
+                service.notifyFrontend("event " + i);
+            }
+
+            assertEquals(0, service.getSubscriberCount(SseService.ADMIN_TOPIC));
+        } finally {
+            slow.blocked.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testCreateEmitter_setsCrossOriginHeader() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sseService.createEmitter(response);
+
+        assertEquals("http://localhost:3000", response.getHeader("Access-Control-Allow-Origin"));
+        assertEquals(1, sseService.getSubscriberCount(SseService.ADMIN_TOPIC));
+    }
+
+    /**
+     * Emitter recording the events sent to it instead of writing them to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private CountDownLatch blocked;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blocked != null) {
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            events.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) throws IOException {
+            events.add(String.valueOf(object));
+        }
+
+        boolean await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            return events.size() >= count;
+        }
+    }
+
+}
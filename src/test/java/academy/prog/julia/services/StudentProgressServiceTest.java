@@ -0,0 +1,262 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.dto.LessonProgressDTO;
+import academy.prog.julia.dto.LessonProgressStatsDTO;
+import academy.prog.julia.dto.TaskProgressDTO;
+import academy.prog.julia.model.StudentCourseProgress;
+import academy.prog.julia.model.StudentLessonProgress;
+import academy.prog.julia.repos.LessonRepository;
+import academy.prog.julia.repos.StudentCourseProgressRepository;
+import academy.prog.julia.repos.StudentLessonProgressRepository;
+import academy.prog.julia.repos.TaskAnswerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentProgressServiceTest {
+    @Mock
+    private StudentLessonProgressRepository studentLessonProgressRepository;
+    @Mock
+    private StudentCourseProgressRepository studentCourseProgressRepository;
+    @Mock
+    private TaskAnswerRepository taskAnswerRepository;
+    @Mock
+    private LessonRepository lessonRepository;
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @InjectMocks
+    private StudentProgressService studentProgressService;
+
+    private StudentProgressService proxiedService() {
+        StudentProgressService service = spy(studentProgressService);
+        doReturn(service).when(service).getSelf();
+        return service;
+    }
+
+    @Test
+    void testRefreshProgress_updatesLessonAndCourseCounters() {
+        Long userId = 1L;
+        Long lessonId = 2L;
+        Long courseId = 3L;
+        StudentLessonProgress otherLesson = getLessonProgress(userId, 4L, 1, 1);
+        StudentProgressService service = proxiedService();
+
+        when(taskAnswerRepository.findLessonProgressStats(userId, lessonId))
+                .thenReturn(List.of(new LessonProgressStatsDTO(lessonId, 3L, 2L, 1L, 1L, 0L)));
+        when(studentLessonProgressRepository.findByUserIdAndLessonId(userId, lessonId)).thenReturn(Optional.empty());
+        when(studentLessonProgressRepository.findWithLockByUserIdAndLessonId(userId, lessonId))
+                .thenReturn(Optional.of(getLessonProgress(userId, lessonId, 0, 0)));
+        when(lessonRepository.findGroupIdsByLessonId(lessonId)).thenReturn(List.of(courseId));
+        when(studentLessonProgressRepository.findCourseLessonsProgress(userId, courseId))
+                .thenReturn(List.of(getLessonProgress(userId, lessonId, 2, 1), otherLesson));
+        when(studentCourseProgressRepository.findByUserIdAndCourseId(userId, courseId)).thenReturn(Optional.empty());
+        when(studentCourseProgressRepository.findWithLockByUserIdAndCourseId(userId, courseId))
+                .thenReturn(Optional.of(getCourseProgress(userId, courseId)));
+
+        service.refreshProgress(userId, lessonId);
+
+        verify(service).createLessonProgress(userId, lessonId);
+        verify(service).createCourseProgress(userId, courseId);
+
+        ArgumentCaptor<StudentLessonProgress> lessonCaptor = ArgumentCaptor.forClass(StudentLessonProgress.class);
+        verify(studentLessonProgressRepository, times(1)).save(lessonCaptor.capture());
+        assertEquals(2, lessonCaptor.getValue().getAnswered());
+        assertEquals(1, lessonCaptor.getValue().getPassed());
+        assertEquals(1, lessonCaptor.getValue().getCorrection());
+
+        ArgumentCaptor<StudentCourseProgress> courseCaptor = ArgumentCaptor.forClass(StudentCourseProgress.class);
+        verify(studentCourseProgressRepository, times(1)).save(courseCaptor.capture());
+        assertEquals(courseId, courseCaptor.getValue().getCourseId());
+        assertEquals(3, courseCaptor.getValue().getAnswered());
+        assertEquals(2, courseCaptor.getValue().getPassed());
+    }
+
+    @Test
+    void testRefreshProgress_whenCountersCreatedConcurrently() {
+        Long userId = 1L;
+        Long lessonId = 2L;
+        StudentProgressService service = proxiedService();
+
+        when(taskAnswerRepository.findLessonProgressStats(userId, lessonId))
+                .thenReturn(List.of(new LessonProgressStatsDTO(lessonId, 3L, 1L, 1L, 0L, 0L)));
+        when(studentLessonProgressRepository.findByUserIdAndLessonId(userId, lessonId)).thenReturn(Optional.empty());
+        doThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .when(service).createLessonProgress(userId, lessonId);
+        when(studentLessonProgressRepository.findWithLockByUserIdAndLessonId(userId, lessonId))
+                .thenReturn(Optional.of(getLessonProgress(userId, lessonId, 0, 0)));
+        when(lessonRepository.findGroupIdsByLessonId(lessonId)).thenReturn(List.of());
+
+        service.refreshProgress(userId, lessonId);
+
+        ArgumentCaptor<StudentLessonProgress> lessonCaptor = ArgumentCaptor.forClass(StudentLessonProgress.class);
+        verify(studentLessonProgressRepository, times(1)).save(lessonCaptor.capture());
+        assertEquals(1, lessonCaptor.getValue().getPassed());
+    }
+
+    @Test
+    void testRefreshCoursesProgress_deletesRemovedLessonsAndRecalculatesCourses() {
+        Long courseId = 3L;
+        StudentProgressService service = proxiedService();
+
+        when(studentCourseProgressRepository.findUserIdsByCourseId(courseId)).thenReturn(List.of(1L));
+        when(studentLessonProgressRepository.findUserIdsByCourseId(courseId)).thenReturn(List.of(1L));
+        when(studentLessonProgressRepository.findCourseLessonsProgress(1L, courseId))
+                .thenReturn(List.of(getLessonProgress(1L, 4L, 1, 1)));
+        when(studentCourseProgressRepository.findByUserIdAndCourseId(1L, courseId))
+                .thenReturn(Optional.of(getCourseProgress(1L, courseId)));
+        when(studentCourseProgressRepository.findWithLockByUserIdAndCourseId(1L, courseId))
+                .thenReturn(Optional.of(getCourseProgress(1L, courseId)));
+
+        service.refreshCoursesProgress(Set.of(courseId), Set.of(2L));
+
+        verify(studentLessonProgressRepository).deleteByLessonId(2L);
+        verify(service, never()).createCourseProgress(any(), any());
+
+        ArgumentCaptor<StudentCourseProgress> courseCaptor = ArgumentCaptor.forClass(StudentCourseProgress.class);
+        verify(studentCourseProgressRepository, times(1)).save(courseCaptor.capture());
+        assertEquals(1, courseCaptor.getValue().getAnswered());
+        assertEquals(1, courseCaptor.getValue().getPassed());
+    }
+
+    @Test
+    void testRebuildIfEmptyOnce_skippedWithoutLease() {
+        when(studentLessonProgressRepository.count()).thenReturn(0L);
+        when(taskAnswerRepository.count()).thenReturn(5L);
+        when(jobLeaseService.tryAcquire(eq("student-progress-rebuild"), any(Duration.class))).thenReturn(false);
+
+        assertFalse(studentProgressService.rebuildIfEmptyOnce());
+
+        verify(taskAnswerRepository, never()).findAnsweredUserLessonPairs(any());
+        verify(jobLeaseService, never()).release(any());
+    }
+
+    @Test
+    void testRebuildIfEmptyOnce_rebuildsAndReleasesLease() {
+        StudentProgressService service = proxiedService();
+
+        when(studentLessonProgressRepository.count()).thenReturn(0L);
+        when(taskAnswerRepository.count()).thenReturn(5L);
+        when(jobLeaseService.tryAcquire(eq("student-progress-rebuild"), any(Duration.class))).thenReturn(true);
+        when(taskAnswerRepository.findAnsweredUserLessonPairs(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.<Object[]>of(new Object[]{1L, 2L})));
+        doNothing().when(service).refreshProgress(1L, 2L);
+
+        assertTrue(service.rebuildIfEmptyOnce());
+
+        verify(service).refreshProgress(1L, 2L);
+        verify(jobLeaseService).release("student-progress-rebuild");
+    }
+
+    @Test
+    void testRebuildIfEmptyOnce_skippedWhenProgressExists() {
+        when(studentLessonProgressRepository.count()).thenReturn(10L);
+
+        assertFalse(studentProgressService.rebuildIfEmptyOnce());
+
+        verifyNoInteractions(jobLeaseService);
+    }
+
+    @Test
+    void testRefreshProgress_whenLessonNotFound() {
+        when(taskAnswerRepository.findLessonProgressStats(1L, 2L)).thenReturn(List.of());
+
+        studentProgressService.refreshProgress(1L, 2L);
+
+        verify(studentLessonProgressRepository, never()).save(any());
+        verifyNoInteractions(studentCourseProgressRepository);
+    }
+
+    @Test
+    void testGetCourseProgress_readsPrecomputedCounters() {
+        Long courseId = 3L;
+        StudentCourseProgress courseProgress = new StudentCourseProgress();
+        courseProgress.setPassed(3);
+
+        when(lessonRepository.findCourseLessonsTaskCounts(courseId)).thenReturn(List.of(
+                new LessonProgressStatsDTO(1L, 2L, 0L, 0L, 0L, 0L),
+                new LessonProgressStatsDTO(2L, 4L, 0L, 0L, 0L, 0L)
+        ));
+        when(studentCourseProgressRepository.findByUserIdAndCourseId(1L, courseId)).thenReturn(Optional.of(courseProgress));
+
+        assertEquals(new TaskProgressDTO(courseId, 50), studentProgressService.getCourseProgress(1L, courseId));
+        verifyNoInteractions(taskAnswerRepository);
+    }
+
+    @Test
+    void testGetCourseProgress_whenNoLessons() {
+        when(lessonRepository.findCourseLessonsTaskCounts(3L)).thenReturn(List.of());
+
+        assertEquals(new TaskProgressDTO(3L, 0), studentProgressService.getCourseProgress(1L, 3L));
+        verifyNoInteractions(studentCourseProgressRepository);
+    }
+
+    @Test
+    void testGetCourseLessonsProgress_mergesTaskCountsWithCounters() {
+        Long userId = 1L;
+        Long courseId = 3L;
+
+        when(studentLessonProgressRepository.findCourseLessonsProgress(userId, courseId))
+                .thenReturn(List.of(getLessonProgress(userId, 1L, 2, 2)));
+        when(lessonRepository.findCourseLessonsTaskCounts(courseId)).thenReturn(List.of(
+                new LessonProgressStatsDTO(2L, 2L, 0L, 0L, 0L, 0L),
+                new LessonProgressStatsDTO(1L, 2L, 0L, 0L, 0L, 0L)
+        ));
+
+        List<LessonProgressDTO> actual = studentProgressService.getCourseLessonsProgress(userId, courseId);
+
+        assertEquals(List.of(
+                new LessonProgressDTO(1L, "All passed", 100),
+                new LessonProgressDTO(2L, "Not started", 0)
+        ), actual);
+        verifyNoInteractions(taskAnswerRepository);
+    }
+
+    @Test
+    void testGetLessonProgress_whenLessonNotFound() {
+        when(lessonRepository.findLessonTaskCount(2L)).thenReturn(List.of());
+
+        assertTrue(studentProgressService.getLessonProgress(1L, 2L).isEmpty());
+        verifyNoInteractions(studentLessonProgressRepository);
+    }
+
+    private static StudentCourseProgress getCourseProgress(
+            Long userId,
+            Long courseId
+    ) {
+        StudentCourseProgress progress = new StudentCourseProgress();
+        progress.setUserId(userId);
+        progress.setCourseId(courseId);
+        return progress;
+    }
+
+    private static StudentLessonProgress getLessonProgress(
+            Long userId,
+            Long lessonId,
+            int answered,
+            int passed
+    ) {
+        StudentLessonProgress progress = new StudentLessonProgress();
+        progress.setUserId(userId);
+        progress.setLessonId(lessonId);
+        progress.setAnswered(answered);
+        progress.setPassed(passed);
+        return progress;
+    }
+
+}
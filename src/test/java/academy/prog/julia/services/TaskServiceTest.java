@@ -1,5 +1,6 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.BlobStore;
 import academy.prog.julia.dto.*;
 import academy.prog.julia.exceptions.ResourceNotFoundException;
 import academy.prog.julia.json_requests.TaskAnswerStartRequest;
@@ -8,6 +9,7 @@ import academy.prog.julia.repos.GroupRepository;
 import academy.prog.julia.repos.LessonRepository;
 import academy.prog.julia.repos.TaskAnswerRepository;
 import academy.prog.julia.repos.TaskRepository;
+import academy.prog.julia.utils.PageCursor;
 import jakarta.persistence.EntityNotFoundException;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -26,11 +28,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.zip.ZipInputStream;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,7 +57,11 @@ class TaskServiceTest {
     @Mock
     private LessonRepository lessonRepository;
     @Mock
-    private RestTemplate restTemplate;
+    private GitHubArchiveService gitHubArchiveService;
+    @Mock
+    private BlobStore blobStore;
+    @Mock
+    private StudentProgressService studentProgressService;
 
     @Spy
     @InjectMocks
@@ -140,6 +148,7 @@ class TaskServiceTest {
         verify(taskAnswerRepository, times(1)).save(any(TaskAnswer.class));
         verify(taskAnswerRepository, times(1)).findByTaskIdAndUserId(taskId, student.getId());
         verify(taskRepository, times(1)).findById(taskId);
+        verify(studentProgressService, times(1)).refreshProgress(student.getId(), lessonId);
     }
 
     @Test
@@ -219,6 +228,22 @@ class TaskServiceTest {
         assertEquals("No tasks found", exception.getMessage());
     }
 
+    @Test
+    void testFindPendingAfter_returnsNextCursorOnlyForFullPage() {
+        List<TaskAnswer> taskAnswers = List.of(getTestTaskAnswer(3L), getTestTaskAnswer(4L));
+
+        when(taskAnswerRepository.findPendingTaskByGroupAfter("Group", 2L, PageRequest.of(0, 2))).thenReturn(taskAnswers);
+        when(taskAnswerRepository.findPendingTaskAfter(2L, PageRequest.of(0, 3))).thenReturn(taskAnswers);
+
+        CursorPageDTO<List<TasksGroupResponseDTO>> fullPage = taskService.findPendingAfter("Group", 2L, 2);
+        CursorPageDTO<List<TasksGroupResponseDTO>> lastPage = taskService.findPendingAfter(null, 2L, 3);
+
+        assertEquals(2, fullPage.content().size());
+        assertEquals(4L, PageCursor.decode(fullPage.nextCursor()));
+        assertEquals(2, lastPage.content().size());
+        assertNull(lastPage.nextCursor());
+    }
+
     @Test
     @Transactional
     @Rollback
@@ -290,6 +315,7 @@ class TaskServiceTest {
         verify(taskAnswerRepository, times(1)).findById(1L);
         verify(taskAnswerRepository, times(1)).save(taskAnswer);
         verify(environment, times(1)).getProperty("github.automatic-download-zip.enabled", Boolean.class, false);
+        verify(studentProgressService, times(1)).refreshProgress(taskAnswer.getUser().getId(), taskAnswer.getLessonId());
     }
 
     @Test
@@ -366,18 +392,16 @@ class TaskServiceTest {
     @Rollback
     void testGetCourseProgress_whenLessonsEmpty() {
         Long courseId = 1L;
-        Group testGroup = new Group();
-        testGroup.setId(1L);
 
         when(groupRepository.existsById(courseId)).thenReturn(true);
-        when(lessonRepository.findCourseLessons(courseId)).thenReturn(Collections.emptyList());
+        when(studentProgressService.getCourseProgress(1L, courseId)).thenReturn(new TaskProgressDTO(courseId, 0));
 
         TaskProgressDTO expected = new TaskProgressDTO(courseId, 0);
         TaskProgressDTO actual = taskService.getCourseProgress(1L, courseId);
 
         Assertions.assertThat(expected).usingRecursiveComparison().isEqualTo(actual);
         verify(groupRepository, times(1)).existsById(courseId);
-        verify(lessonRepository, times(1)).findCourseLessons(courseId);
+        verify(studentProgressService, times(1)).getCourseProgress(1L, courseId);
     }
 
     @Test
@@ -385,39 +409,18 @@ class TaskServiceTest {
     @Rollback
     void testGetCourseProgress_whenLessonsPresented() {
         Long courseId = 1L;
-        Group testGroup = new Group();
-        testGroup.setId(1L);
-        Lesson lesson1 = getTestLesson(1L);
-        Lesson lesson2 = getTestLesson(2L);
-        Task testTask = getTestTask(1L);
-        Task testTask2 = getTestTask(2L);
-        lesson1.setTasks(Set.of(testTask));
-        lesson2.setTasks(Set.of(testTask2));
-        TaskAnswer taskAnswer = getTestTaskAnswer(1L);
-        taskAnswer.setIsPassed(true);
-        TaskAnswer taskAnswer2 = getTestTaskAnswer(2L);
-        taskAnswer2.setIsPassed(false);
-        taskAnswer.setTask(testTask);
-        taskAnswer2.setTask(testTask2);
-
 
         when(groupRepository.existsById(courseId)).thenReturn(true);
-        when(lessonRepository.findCourseLessons(courseId)).thenReturn(List.of(lesson1, lesson2));
-        when(lessonRepository.findById(lesson1.getId())).thenReturn(Optional.of(lesson1));
-        when(lessonRepository.findById(lesson2.getId())).thenReturn(Optional.of(lesson2));
-        when(taskAnswerRepository.findByTaskIdAndUserId(testTask.getId(), 1L)).thenReturn(taskAnswer);
-        when(taskAnswerRepository.findByTaskIdAndUserId(testTask2.getId(), 1L)).thenReturn(taskAnswer2);
+        when(studentProgressService.getCourseProgress(1L, courseId)).thenReturn(new TaskProgressDTO(courseId, 50));
 
         TaskProgressDTO expected = new TaskProgressDTO(courseId, 50);
         TaskProgressDTO actual = taskService.getCourseProgress(1L, courseId);
 
         Assertions.assertThat(expected).usingRecursiveComparison().isEqualTo(actual);
         verify(groupRepository, times(1)).existsById(courseId);
-        verify(lessonRepository, times(1)).findCourseLessons(courseId);
-        verify(lessonRepository, times(1)).findById(lesson1.getId());
-        verify(lessonRepository, times(1)).findById(lesson2.getId());
-        verify(taskAnswerRepository, times(1)).findByTaskIdAndUserId(testTask.getId(), 1L);
-        verify(taskAnswerRepository, times(1)).findByTaskIdAndUserId(testTask2.getId(), 1L);
+        verify(studentProgressService, times(1)).getCourseProgress(1L, courseId);
+        verifyNoInteractions(lessonRepository);
+        verify(taskAnswerRepository, never()).findByTaskIdAndUserId(anyLong(), anyLong());
     }
 
     @Test
@@ -425,39 +428,71 @@ class TaskServiceTest {
     @Rollback
     void testGetLessonProgress_whenLessonEmpty() {
         Long lessonId = 1L;
-        when(lessonRepository.findById(lessonId)).thenReturn(Optional.empty());
+        when(studentProgressService.getLessonProgress(1L, lessonId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> taskService.getLessonProgress(1L, lessonId));
         assertEquals("Lesson not found with id: " + lessonId, exception.getMessage());
-        verify(lessonRepository, times(1)).findById(lessonId);
+        verify(studentProgressService, times(1)).getLessonProgress(1L, lessonId);
     }
 
     @Test
     @Transactional
     @Rollback
     void testGetLessonProgress_whenLessonPresented() {
-        Lesson lesson = getTestLesson(1L);
-        Task testTask = getTestTask(1L);
-        Task testTask2 = getTestTask(2L);
-        lesson.setTasks(Set.of(testTask, testTask2));
-
-        TaskAnswer taskAnswer = getTestTaskAnswer(testTask.getId());
-        TaskAnswer taskAnswer2 = getTestTaskAnswer(testTask2.getId());
-        taskAnswer.setIsPassed(true);
-        taskAnswer2.setIsPassed(false);
-        taskAnswer2.setIsCorrection(true);
+        Long lessonId = 1L;
+        LessonProgressDTO expected = new LessonProgressDTO(lessonId, "Need correction", 50);
 
-        when(lessonRepository.findById(lesson.getId())).thenReturn(Optional.of(lesson));
-        when(taskAnswerRepository.findByTaskIdAndUserId(testTask.getId(), 1L)).thenReturn(taskAnswer);
-        when(taskAnswerRepository.findByTaskIdAndUserId(testTask2.getId(), 1L)).thenReturn(taskAnswer2);
+        when(studentProgressService.getLessonProgress(1L, lessonId)).thenReturn(Optional.of(expected));
 
-        LessonProgressDTO expected = new LessonProgressDTO(lesson.getId(), "Need correction", 50);
-        LessonProgressDTO actual = taskService.getLessonProgress(1L, lesson.getId());
+        LessonProgressDTO actual = taskService.getLessonProgress(1L, lessonId);
 
         Assertions.assertThat(expected).usingRecursiveComparison().isEqualTo(actual);
 
-        verify(taskAnswerRepository, times(1)).findByTaskIdAndUserId(testTask.getId(), 1L);
-        verify(taskAnswerRepository, times(1)).findByTaskIdAndUserId(testTask2.getId(), 1L);
+        verify(studentProgressService, times(1)).getLessonProgress(1L, lessonId);
+        verify(taskAnswerRepository, never()).findByTaskIdAndUserId(anyLong(), anyLong());
+    }
+
+    @Test
+    @Transactional
+    @Rollback
+    void testGetCourseLessonsProgress_returnsProgressForEveryLesson() {
+        Long courseId = 1L;
+        List<LessonProgressDTO> expected = List.of(
+                new LessonProgressDTO(1L, "All passed", 100),
+                new LessonProgressDTO(2L, "Not started", 0)
+        );
+
+        when(groupRepository.existsById(courseId)).thenReturn(true);
+        when(studentProgressService.getCourseLessonsProgress(1L, courseId)).thenReturn(expected);
+
+        List<LessonProgressDTO> actual = taskService.getCourseLessonsProgress(1L, courseId);
+
+        assertEquals(expected, actual);
+        verify(studentProgressService, times(1)).getCourseLessonsProgress(1L, courseId);
+        verifyNoInteractions(lessonRepository);
+    }
+
+    @Test
+    @Transactional
+    @Rollback
+    void testGetCourseLessonsProgress_whenCourseNotFound() {
+        Long courseId = 1L;
+        when(groupRepository.existsById(courseId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> taskService.getCourseLessonsProgress(1L, courseId));
+        verify(studentProgressService, never()).getCourseLessonsProgress(anyLong(), anyLong());
+    }
+
+    @Test
+    void testGetLessonProgress_statuses() {
+        assertEquals("No tasks", new LessonProgressStatsDTO(1L, 0L, 0L, 0L, 0L, 0L).toLessonProgressDTO().getProgress());
+        assertEquals("Not started", new LessonProgressStatsDTO(1L, 2L, 0L, 0L, 0L, 0L).toLessonProgressDTO().getProgress());
+        assertEquals("In progress", new LessonProgressStatsDTO(1L, 2L, 1L, 0L, 0L, 1L).toLessonProgressDTO().getProgress());
+        assertEquals("In progress", new LessonProgressStatsDTO(1L, 2L, 1L, 1L, 0L, 0L).toLessonProgressDTO().getProgress());
+        assertEquals("Need correction", new LessonProgressStatsDTO(1L, 2L, 2L, 1L, 1L, 0L).toLessonProgressDTO().getProgress());
+        assertNull(new LessonProgressStatsDTO(1L, 2L, 1L, 0L, 0L, 0L).toLessonProgressDTO().getProgress());
+        assertEquals("All passed", new LessonProgressStatsDTO(1L, 2L, 2L, 2L, 0L, 0L).toLessonProgressDTO().getProgress());
+        assertEquals(100, new LessonProgressStatsDTO(1L, 2L, 2L, 2L, 0L, 0L).toLessonProgressDTO().getPercent());
     }
 
     @Test
@@ -483,15 +518,61 @@ class TaskServiceTest {
     }
 
     @Test
-    @Transactional
-    @Rollback
-    void testGenerateAndSaveTaskAnswerZip_whenResourceNotFound() {
+    void testGenerateAndSaveTaskAnswerZip_queuesDownload() {
         TaskAnswer taskAnswer = getTestTaskAnswer(1L);
 
-        when(restTemplate.getForObject(taskAnswer.getAnswerUrl() + "/archive/master.zip", byte[].class)).thenThrow(HttpClientErrorException.NotFound.class);
         doReturn(true).when(taskService).isValidGitHubUrl(taskAnswer.getAnswerUrl());
-        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> taskService.generateAndSaveTaskAnswerZip(taskAnswer));
-        assertEquals("Repository NOT FOUND or it is NOT PUBLIC: " + taskAnswer.getAnswerUrl(), exception.getMessage());
+        taskService.generateAndSaveTaskAnswerZip(taskAnswer);
+
+        verify(gitHubArchiveService, times(1)).fetchAfterCommit(taskAnswer.getId(), taskAnswer.getAnswerUrl());
+    }
+
+    @Test
+    void testGenerateAndSaveTaskAnswerZip_whenInvalidUrl() {
+        TaskAnswer taskAnswer = getTestTaskAnswer(1L);
+
+        taskService.generateAndSaveTaskAnswerZip(taskAnswer);
+
+        verify(gitHubArchiveService, never()).fetchAfterCommit(anyLong(), anyString());
+    }
+
+    @Test
+    void testWriteZipAnswerFiles_writesStoredAndLegacyFiles() throws IOException {
+        String hash = "a".repeat(64);
+        when(taskAnswerRepository.findArchivesByTaskId(eq(1L), isNull(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new TaskAnswerArchiveDTO(10L, "Ivan", "Petrenko", "ivan@test.com", hash),
+                        new TaskAnswerArchiveDTO(11L, "Olena", "Koval", "olena@test.com", null)
+                ));
+        when(blobStore.openStream(hash)).thenReturn(new ByteArrayInputStream(new byte[]{1, 2}));
+        when(taskAnswerRepository.findZipAnswerFileById(11L)).thenReturn(new byte[]{3});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = taskService.writeZipAnswerFiles(1L, null, out);
+
+        assertEquals(2, written);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Ivan_Petrenko_ivan@test.com_10.zip", zip.getNextEntry().getName());
+            assertArrayEquals(new byte[]{1, 2}, zip.readAllBytes());
+            assertEquals("Olena_Koval_olena@test.com_11.zip", zip.getNextEntry().getName());
+            assertArrayEquals(new byte[]{3}, zip.readAllBytes());
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void testWriteZipAnswerFiles_keepsUnicodeNamesAndReplacesPathSeparators() throws IOException {
+        when(taskAnswerRepository.findArchivesByTaskId(eq(1L), isNull(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new TaskAnswerArchiveDTO(12L, "Юлія", "../Ковальчук\\x", "julia@test.com", null)));
+        when(taskAnswerRepository.findZipAnswerFileById(12L)).thenReturn(new byte[]{4});
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskService.writeZipAnswerFiles(1L, null, out);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Юлія_.._Ковальчук_x_julia@test.com_12.zip", zip.getNextEntry().getName());
+        }
     }
 
     @Test
@@ -666,6 +747,43 @@ class TaskServiceTest {
         return lesson;
     }
 
+    @Test
+    void testGetAllTaskSubmissionsByTeacherId_buildsPageFromProjections() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Date submittedDate = new Date();
+
+        when(taskRepository.findTaskIdsByTeacherId(5L, pageable)).thenReturn(new PageImpl<>(List.of(1L, 2L), pageable, 2));
+        when(taskRepository.findGroupNamesByTaskIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new GroupNameDTO(1L, "Java"), new GroupNameDTO(2L, "Java"), new GroupNameDTO(2L, "Python")));
+        when(taskAnswerRepository.findSubmissionRowsByTaskIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                getTestSubmissionRow(10L, "Java", submittedDate),
+                getTestSubmissionRow(10L, "Python", submittedDate)
+        ));
+
+        Page<TaskSubmissionDTO> result = taskService.getAllTaskSubmissionsByTeacherId(0, 10, 5L);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(TaskSubmissionDTO::getTaskId).toList());
+        assertEquals(Set.of("Java"), result.getContent().get(0).getGroupNames());
+        assertEquals(Set.of("Java", "Python"), result.getContent().get(1).getGroupNames());
+        assertTrue(result.getContent().get(1).getTaskAnswers().isEmpty());
+
+        TaskAnswerDTO answer = result.getContent().get(0).getTaskAnswers().iterator().next();
+        assertEquals(1, result.getContent().get(0).getTaskAnswers().size());
+        assertEquals(10L, answer.getAnswerId());
+        assertEquals(Set.of("Java", "Python"), answer.getStudent().getGroups());
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    private static TaskSubmissionRowDTO getTestSubmissionRow(Long answerId, String groupName, Date submittedDate) {
+        return new TaskSubmissionRowDTO(
+                1L, "Task", "https://example.com/description",
+                answerId, "https://github.com/student/answer", 1L, 1L, 1, "Java Pro",
+                false, false, "", false, submittedDate,
+                3L, "Name", "Surname", "123456789", "student@gmail.com", null, groupName
+        );
+    }
+
     private static Task getTestTask(Long id) {
         Task task = new Task();
         task.setId(id);
@@ -10,9 +10,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +33,9 @@ class TeacherServiceTest {
     @Mock
     private TestService testService;
 
+    @Mock
+    private SseService sseService;
+
     @Mock
     private HttpSession httpSession;
 
@@ -134,6 +139,7 @@ class TeacherServiceTest {
 
         verify(taskService, times(1)).gradeTaskSubmission(answerId, isCorrection, isPassed, messageForCorrection, isRead);
         verify(userService, times(1)).sendMessageAboutCorrection(studentDto, "Test");
+        verify(sseService).notifyUser(1L, "Task answer 54 was graded: not passed");
 
         verify(httpSession).setAttribute("TaskAnswerRequestGetAnswerId", answerId);
         verify(httpSession).setAttribute("TaskAnswerGetIsCorrection", isCorrection);
@@ -154,17 +160,19 @@ class TeacherServiceTest {
         assertInstanceOf(Map.class, response.getBody());
         verify(taskService, never()).gradeTaskSubmission(anyLong(), anyBoolean(), anyBoolean(), anyString(), anyBoolean());
         verify(userService, never()).sendMessageAboutCorrection(any(), any());
+        verifyNoInteractions(sseService);
     }
 
     @Test
-    void downloadZip_Success() {
+    void downloadZip_Success() throws IOException {
         Long taskId = 400L;
         String sessionId = "1";
         when(userService.getPrincipalNameBySessionId(sessionId)).thenReturn(teacherUser.getEmail());
         when(userService.findUserByEmail(teacherUser.getEmail())).thenReturn(teacherUser);
         byte[] zipContents = new byte[]{1, 2, 3, 4};
-        when(taskService.getZipAnswerFile(taskId)).thenReturn(zipContents);
-        ResponseEntity<ByteArrayResource> response =
+        when(taskService.getZipAnswerFile(taskId))
+                .thenReturn(new ZipAnswerFileDTO(new ByteArrayResource(zipContents), "a".repeat(64)));
+        ResponseEntity<Resource> response =
                 teacherService.downloadZip(
                         taskId,
                         studentDto.getName(),
@@ -176,8 +184,8 @@ class TeacherServiceTest {
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
-        assertInstanceOf(ByteArrayResource.class, response.getBody());
         assertEquals(zipContents.length, response.getBody().contentLength());
+        assertEquals("\"" + "a".repeat(64) + "\"", response.getHeaders().getETag());
     }
 
     @Test
@@ -186,7 +194,7 @@ class TeacherServiceTest {
         String sessionId = "1";
         when(userService.getPrincipalNameBySessionId(sessionId)).thenReturn(teacherUser.getEmail());
         when(taskService.getZipAnswerFile(taskId)).thenReturn(null);
-        ResponseEntity<ByteArrayResource> response =
+        ResponseEntity<Resource> response =
                 teacherService.downloadZip(
                         taskId,
                         studentDto.getName(),
@@ -14,7 +14,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -91,7 +94,7 @@ public class UserCourseServiceTest {
         when(userService.getSessionIdByPrincipalName(userEmail)).thenReturn("validSessionId");
 
         ResponseEntity<List<UserCoursesResponse>> response = userCourseService.getUserCoursesWithSessionValidation(
-                userId, sessionId, session);
+                userId, sessionId, session, webRequest());
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertEquals("You unauthorized from UserCourseController", response.getBody().get(0).getName());
@@ -117,13 +120,50 @@ public class UserCourseServiceTest {
         when(userCourseRepository.findUserCourses(userId)).thenReturn(List.of(course1, course2));
 
         ResponseEntity<List<UserCoursesResponse>> response = userCourseService.getUserCoursesWithSessionValidation(
-                userId, sessionId, session);
+                userId, sessionId, session, webRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(response.getBody().isEmpty());
         assertEquals("Java1", response.getBody().get(0).getName());
     }
 
+    @Test
+    void getUserCoursesWithSessionValidation_NotModified() {
+        User user = createUser(1);
+        Long userId = user.getId();
+
+        when(userService.findById(userId)).thenReturn(Optional.of(user));
+        when(userService.getSessionIdByPrincipalName(user.getEmail())).thenReturn("validSessionId");
+        when(userCourseRepository.findUserCourseSignatures(userId)).thenReturn(List.of("1:Java1", "2:Java2"));
+
+        String eTag = userCourseService.getUserCoursesETag(userId);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user-courses/" + userId);
+        request.addHeader("If-None-Match", eTag);
+
+        ResponseEntity<List<UserCoursesResponse>> response = userCourseService.getUserCoursesWithSessionValidation(
+                userId, "validSessionId", new MockHttpSession(), new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertNull(response);
+        verify(userCourseRepository, never()).findUserCourses(userId);
+    }
+
+    @Test
+    void getUserCoursesETag_ChangesWithCourses() {
+        when(userCourseRepository.findUserCourseSignatures(1L))
+                .thenReturn(List.of("1:Java1"))
+                .thenReturn(List.of("1:Java1"))
+                .thenReturn(List.of("1:Java1", "2:Java2"));
+
+        String eTag = userCourseService.getUserCoursesETag(1L);
+
+        assertEquals(eTag, userCourseService.getUserCoursesETag(1L));
+        assertNotEquals(eTag, userCourseService.getUserCoursesETag(1L));
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
 
 
 
@@ -6,6 +6,7 @@ import academy.prog.julia.model.AdminUser;
 import academy.prog.julia.model.TeacherUser;
 import academy.prog.julia.model.User;
 import academy.prog.julia.telegram.states.ListUsersWebState;
+import academy.prog.julia.utils.PageCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -58,6 +59,40 @@ public class UserListServiceTest {
         assertNotNull(response.getBody());
     }
 
+    @Test
+    void getUsersForRandomURLFromUserListService_ValidURLWithCursor() {
+        String randomURL = "valid-cursor-url";
+        ListUsersWebState.generatedUrlForUserList.add(randomURL);
+        List<Long> userIds = new ArrayList<>();
+        for (long id = 6; id < 26; id++) {
+            userIds.add(id);
+        }
+        Map<String, List<UserDTO>> mockResult = Map.of("users", new ArrayList<>());
+        Mockito.when(userService.findIdsInGroupsAfter(5L, 20)).thenReturn(userIds);
+        Mockito.when(userService.findAllByAllGroups(userIds)).thenReturn(mockResult);
+
+        ResponseEntity<Map<String, List<UserDTO>>> response =
+                userListService.getUsersForRandomURLFromUserListService(randomURL, PageCursor.encode(5L));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(mockResult, response.getBody());
+        assertEquals(
+                25L,
+                PageCursor.decode(response.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER))
+        );
+    }
+
+    @Test
+    void getUsersForRandomURLFromUserListService_InvalidCursor() {
+        String randomURL = "valid-cursor-url";
+        ListUsersWebState.generatedUrlForUserList.add(randomURL);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> userListService.getUsersForRandomURLFromUserListService(randomURL, "not-a-cursor")
+        );
+    }
+
     @Test
     void getAllEmployeesResponse() {
         AdminUser adminUser = new AdminUser();
@@ -0,0 +1,111 @@
+package academy.prog.julia.services;
+
+import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserSearchTerm;
+import academy.prog.julia.repos.UserRepository;
+import academy.prog.julia.repos.UserSearchTermRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserSearchServiceTest {
+
+    private UserSearchTermRepository userSearchTermRepository;
+    private UserRepository userRepository;
+    private UserSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        userSearchTermRepository = mock(UserSearchTermRepository.class);
+        userRepository = mock(UserRepository.class);
+
+        service = new UserSearchService(userSearchTermRepository, userRepository, 100, true, 2) {
+            @Override
+            public UserSearchService getSelf() {
+                return this;
+            }
+        };
+    }
+
+    @Test
+    void testBuildTerms_storesSuffixesOfNormalizedPhonesAndEmails() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("Ann@Mail.com");
+        user.setPhones(new HashSet<>(Set.of("+38 (050) 1", "067")));
+
+        List<UserSearchTerm> terms = UserSearchService.buildTerms(user);
+
+        assertTrue(terms.stream().allMatch(term -> term.getUserId().equals(7L)));
+        assertEquals(
+                Set.of("380501", "80501", "0501", "501", "01", "1", "067", "67", "7"),
+                terms(terms, UserSearchTerm.SearchField.PHONE)
+        );
+        assertTrue(terms(terms, UserSearchTerm.SearchField.EMAIL).containsAll(Set.of("ann@mail.com", "mail.com", "m")));
+    }
+
+    @Test
+    void testBuildTerms_marksUserWithoutPhonesAndEmailsAsIndexed() {
+        User user = new User();
+        user.setId(8L);
+
+        List<UserSearchTerm> terms = UserSearchService.buildTerms(user);
+
+        assertEquals(1, terms.size());
+        assertEquals(UserSearchTerm.SearchField.INDEXED, terms.get(0).getSearchField());
+        assertEquals("", terms.get(0).getTerm());
+    }
+
+    @Test
+    void testFindByEmail_searchesEscapedLowerCasePrefix() {
+        User first = new User();
+        first.setId(1L);
+        User second = new User();
+        second.setId(2L);
+
+        when(userSearchTermRepository.findUserIdsByTermPrefix(eq(UserSearchTerm.SearchField.EMAIL), eq("first!_name%"), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(second, first));
+
+        List<User> users = service.findByEmail(" First_Name ");
+
+        assertEquals(List.of(first, second), users);
+    }
+
+    @Test
+    void testFindByPhone_withoutDigits() {
+        assertTrue(service.findByPhone("abc").isEmpty());
+        verifyNoInteractions(userSearchTermRepository);
+    }
+
+    @Test
+    void testIndexMissingUsers_continuesAfterLastBatch() {
+        when(userSearchTermRepository.findUserIdsWithoutTerms(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(userSearchTermRepository.findUserIdsWithoutTerms(eq(2L), any(Pageable.class))).thenReturn(List.of(3L));
+
+        service.indexMissingUsers();
+
+        verify(userSearchTermRepository).deleteByUserId(1L);
+        verify(userSearchTermRepository).deleteByUserId(2L);
+        verify(userSearchTermRepository).deleteByUserId(3L);
+        verify(userRepository, times(3)).findById(anyLong());
+    }
+
+    private static Set<String> terms(List<UserSearchTerm> terms, UserSearchTerm.SearchField searchField) {
+        return terms.stream()
+                .filter(term -> term.getSearchField() == searchField)
+                .map(UserSearchTerm::getTerm)
+                .collect(Collectors.toSet());
+    }
+
+}
@@ -1,5 +1,7 @@
 package academy.prog.julia.services;
 
+import academy.prog.julia.components.ChatPrincipalCache;
+import academy.prog.julia.dto.ChatPrincipalDTO;
 import academy.prog.julia.dto.StudentDTO;
 import academy.prog.julia.dto.UserDTO;
 import academy.prog.julia.dto.UserFromAnswerTaskDTO;
@@ -22,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.lang.reflect.Method;
@@ -60,6 +63,10 @@ class UserServiceTest {
     private RestTemplate restTemplate;
     @Mock
     private SessionRepository2 sessionRepository;
+    @Mock
+    private UserSearchService userSearchService;
+    @Mock
+    private ChatPrincipalCache chatPrincipalCache;
 
     @InjectMocks
     private UserService userService;
@@ -114,9 +121,12 @@ class UserServiceTest {
     void saveUser() {
         User userToSave = createUser(1);
 
+        when(userRepository.save(userToSave)).thenReturn(userToSave);
+
         userService.saveUser(userToSave);
 
         verify(userRepository, times(1)).save(userToSave);
+        verify(userSearchService, times(1)).indexUser(userToSave.getId());
     }
 
     @Test
@@ -249,14 +259,14 @@ class UserServiceTest {
         List<User> usersExpected = Arrays.asList(createUser(1), createUser(2));
         String phone = "380";
 
-        when(userRepository.findByPhoneLike(phone)).thenReturn(usersExpected);
+        when(userSearchService.findByPhone(phone)).thenReturn(usersExpected);
 
         List<User> result = userService.findByPhoneOrEmailLike(phone, null);
 
 
         assertEquals(usersExpected, result);
-        verify(userRepository, times(1)).findByPhoneLike(phone);
-        verify(userRepository, never()).findByEmailLike(phone);
+        verify(userSearchService, times(1)).findByPhone(phone);
+        verify(userSearchService, never()).findByEmail(phone);
 
     }
 
@@ -265,13 +275,13 @@ class UserServiceTest {
         List<User> usersExpected = Arrays.asList(createUser(1), createUser(2));
         String email = "email@gmail.com";
 
-        when(userRepository.findByEmailLike(email)).thenReturn(usersExpected);
+        when(userSearchService.findByEmail(email)).thenReturn(usersExpected);
 
         List<User> result = userService.findByPhoneOrEmailLike(null, email);
 
 
         assertEquals(usersExpected, result);
-        verify(userRepository, times(1)).findByEmailLike(email);
+        verify(userSearchService, times(1)).findByEmail(email);
     }
 
     @Test
@@ -295,6 +305,51 @@ class UserServiceTest {
 
 
         verify(userRepository, times(1)).save(user);
+        verify(chatPrincipalCache).evictChatAfterCompletion(newUniqueId);
+        verify(chatPrincipalCache).evictUserAfterCompletion(user.getId());
+    }
+
+    @Test
+    void findPrincipalByChatId_Cached() {
+        ChatPrincipalDTO principal = new ChatPrincipalDTO(1L, UserRole.STUDENT, false, true);
+        when(chatPrincipalCache.get("12345")).thenReturn(principal);
+
+        assertEquals(Optional.of(principal), userService.findPrincipalByChatId("12345"));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findPrincipalByChatId_NotTransactional() throws NoSuchMethodException {
+        // A cache hit must not check out a connection for an empty transaction
+        Method method = UserService.class.getMethod("findPrincipalByChatId", String.class);
+
+        assertNull(method.getAnnotation(Transactional.class));
+        assertNull(UserService.class.getAnnotation(Transactional.class));
+    }
+
+    @Test
+    void findPrincipalByChatId_LoadedAndCached() {
+        User user = createUser(1);
+        user.setBannedStatus(true);
+        when(userRepository.findByTelegramChatId("12345")).thenReturn(Optional.of(user));
+
+        Optional<ChatPrincipalDTO> principal = userService.findPrincipalByChatId("12345");
+
+        assertTrue(principal.isPresent());
+        assertEquals(user.getId(), principal.get().id());
+        assertEquals(UserRole.STUDENT, principal.get().role());
+        assertTrue(principal.get().banned());
+        verify(chatPrincipalCache).put("12345", principal.get());
+    }
+
+    @Test
+    void findPrincipalByChatId_NotFoundIsNotCached() {
+        when(userRepository.findByTelegramChatId("12345")).thenReturn(Optional.empty());
+
+        assertTrue(userService.findPrincipalByChatId("12345").isEmpty());
+
+        verify(chatPrincipalCache, never()).put(anyString(), any());
     }
 
     @Test
@@ -734,6 +789,7 @@ class UserServiceTest {
         assertTrue(user.getBannedStatus());
 
         verify(userRepository).findById(1L);
+        verify(chatPrincipalCache).evictUserAfterCompletion(1L);
     }
     @Test
     void unblockUser() {
@@ -747,6 +803,7 @@ class UserServiceTest {
         assertFalse(user.getBannedStatus());
 
         verify(userRepository).findById(1L);
+        verify(chatPrincipalCache).evictUserAfterCompletion(1L);
     }
 
 
@@ -803,7 +860,7 @@ class UserServiceTest {
         student2.addGroup(group2);
         student1.addGroup(group);
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(student1, student2, admin, teacher));
+        when(userRepository.findAllWithGroupsBy()).thenReturn(Arrays.asList(student1, student2, admin, teacher));
 
 
         List<StudentDTO> result = userService.findAllStudents();
@@ -881,14 +938,14 @@ class UserServiceTest {
     @Test
     void findByPhone() {
         User user = createUser(1);
-        when(userRepository.findByPhoneLike("123")).thenReturn(List.of(user));
+        when(userSearchService.findByPhone("123")).thenReturn(List.of(user));
 
         List<User> result = userService.findByPhone("123");
         assertEquals(1, result.size());
         assertEquals(user, result.get(0));
 
 
-        when(userRepository.findByPhoneLike("nonexist")).thenReturn(Collections.emptyList());
+        when(userSearchService.findByPhone("nonexist")).thenReturn(Collections.emptyList());
         result = userService.findByPhone("nonexist");
         assertNotNull(result);
         assertTrue(result.isEmpty());
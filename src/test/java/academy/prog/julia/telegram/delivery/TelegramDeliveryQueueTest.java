@@ -0,0 +1,238 @@
+package academy.prog.julia.telegram.delivery;
+
+import academy.prog.julia.model.TelegramDeadLetter;
+import academy.prog.julia.repos.TelegramDeadLetterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TelegramDeliveryQueueTest {
+
+    private TelegramDeadLetterRepository telegramDeadLetterRepository;
+    private TelegramDeliveryQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        telegramDeadLetterRepository = mock(TelegramDeadLetterRepository.class);
+        queue = new TelegramDeliveryQueue(telegramDeadLetterRepository, 2, 1000, 1000, 10, 3, 10, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.stop();
+    }
+
+    @Test
+    void testEnqueue_deliversMessagesOfChatInOrder() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        queue.start(message -> sent.add(message.getChatId() + ":" + message.getText()));
+
+        queue.enqueue(getMessage(1L, "first"));
+        queue.enqueue(getMessage(2L, "other"));
+        queue.enqueue(getMessage(1L, "second"));
+
+        awaitDelivery();
+
+        assertEquals(3, sent.size());
+        assertTrue(sent.indexOf("1:first") < sent.indexOf("1:second"));
+        verifyNoInteractions(telegramDeadLetterRepository);
+    }
+
+    @Test
+    void testEnqueue_retriesTransientError() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        TelegramApiException networkError = new TelegramApiException("Connection reset");
+        MessageSender sender = mock(MessageSender.class);
+        doThrow(networkError).doAnswer(invocation -> {
+            sent.add(((SendMessage) invocation.getArgument(0)).getText());
+            return null;
+        }).when(sender).send(any(SendMessage.class));
+        queue.start(sender);
+
+        queue.enqueue(getMessage(1L, "hello"));
+
+        awaitDelivery();
+
+        assertEquals(List.of("hello"), sent);
+        verify(sender, times(2)).send(any(SendMessage.class));
+        verifyNoInteractions(telegramDeadLetterRepository);
+    }
+
+    @Test
+    void testEnqueue_storesPermanentFailureAsDeadLetter() throws Exception {
+        TelegramApiRequestException forbidden = mock(TelegramApiRequestException.class);
+        when(forbidden.getErrorCode()).thenReturn(403);
+        when(forbidden.getMessage()).thenReturn("Forbidden: bot was blocked by the user");
+        MessageSender sender = mock(MessageSender.class);
+        doThrow(forbidden).when(sender).send(any(SendMessage.class));
+        queue.start(sender);
+
+        queue.enqueue(getMessage(5L, "hello"));
+
+        awaitDelivery();
+
+        ArgumentCaptor<TelegramDeadLetter> captor = ArgumentCaptor.forClass(TelegramDeadLetter.class);
+        verify(telegramDeadLetterRepository).save(captor.capture());
+        assertEquals(5L, captor.getValue().getChatId());
+        assertEquals("hello", captor.getValue().getText());
+        assertEquals(403, captor.getValue().getErrorCode());
+        assertEquals(1, captor.getValue().getAttempts());
+        verify(sender, times(1)).send(any(SendMessage.class));
+    }
+
+    @Test
+    void testEnqueue_storesDeadLetterAfterMaxAttempts() throws Exception {
+        MessageSender sender = mock(MessageSender.class);
+        doThrow(new TelegramApiException("Connection reset")).when(sender).send(any(SendMessage.class));
+        queue.start(sender);
+
+        queue.enqueue(getMessage(5L, "hello"));
+
+        awaitDelivery();
+
+        verify(sender, times(3)).send(any(SendMessage.class));
+        verify(telegramDeadLetterRepository).save(any(TelegramDeadLetter.class));
+    }
+
+    @Test
+    void testEnqueue_tooManyRequestsPausesAllChats() throws Exception {
+        TelegramApiRequestException tooManyRequests = mock(TelegramApiRequestException.class);
+        ResponseParameters parameters = mock(ResponseParameters.class);
+        when(parameters.getRetryAfter()).thenReturn(1);
+        when(tooManyRequests.getErrorCode()).thenReturn(429);
+        when(tooManyRequests.getParameters()).thenReturn(parameters);
+
+        AtomicLong limitedAt = new AtomicLong();
+        AtomicLong otherChatSentAt = new AtomicLong();
+        CountDownLatch limited = new CountDownLatch(1);
+        MessageSender sender = mock(MessageSender.class);
+        doAnswer(invocation -> {
+            SendMessage message = invocation.getArgument(0);
+
+            if (message.getChatId().equals("2")) {
+                otherChatSentAt.set(System.nanoTime());
+            } else if (limitedAt.compareAndSet(0, System.nanoTime())) {
+                limited.countDown();
+                throw tooManyRequests;
+            }
+            return null;
+        }).when(sender).send(any(SendMessage.class));
+        queue.start(sender);
+
+        queue.enqueue(getMessage(1L, "limited"));
+        assertTrue(limited.await(5, TimeUnit.SECONDS));
+        queue.enqueue(getMessage(2L, "other"));
+
+        awaitDelivery();
+
+        assertTrue(otherChatSentAt.get() - limitedAt.get() >= TimeUnit.MILLISECONDS.toNanos(900));
+        verifyNoInteractions(telegramDeadLetterRepository);
+    }
+
+    @Test
+    void testEnqueue_rejectsInvalidChatId() {
+        SendMessage message = new SendMessage();
+        message.setChatId("@channel");
+        message.setText("hello");
+
+        assertFalse(queue.enqueue(message));
+        assertEquals(0, queue.getPendingCount());
+        assertNull(TelegramDeliveryQueue.parseChatId(null));
+        assertEquals(42L, TelegramDeliveryQueue.parseChatId("42"));
+    }
+
+    @Test
+    void testStop_deliversQueuedMessagesFirst() {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        queue.start(message -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(message.getText());
+        });
+
+        queue.enqueue(getMessage(1L, "first"));
+        queue.enqueue(getMessage(1L, "second"));
+        queue.enqueue(getMessage(2L, "other"));
+        queue.stop();
+
+        assertEquals(3, sent.size());
+        assertEquals(0, queue.getPendingCount());
+        verifyNoInteractions(telegramDeadLetterRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testStop_storesUndeliveredMessagesAsDeadLetters() {
+        // Never started, so nothing is delivered before the stop
+        queue.enqueue(getMessage(1L, "first"));
+        queue.enqueue(getMessage(2L, "other"));
+
+        queue.stop();
+
+        ArgumentCaptor<List<TelegramDeadLetter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(telegramDeadLetterRepository).saveAll(captor.capture());
+        assertEquals(List.of("first", "other"), captor.getValue().stream().map(TelegramDeadLetter::getText).sorted().toList());
+        assertEquals(0, queue.getPendingCount());
+
+        assertFalse(queue.enqueue(getMessage(3L, "late")));
+        ArgumentCaptor<TelegramDeadLetter> lateCaptor = ArgumentCaptor.forClass(TelegramDeadLetter.class);
+        verify(telegramDeadLetterRepository).save(lateCaptor.capture());
+        assertEquals(3L, lateCaptor.getValue().getChatId());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    void testGetRetryDelayMillis_honoursRetryAfter() {
+        TelegramApiRequestException tooManyRequests = mock(TelegramApiRequestException.class);
+        ResponseParameters parameters = mock(ResponseParameters.class);
+        when(parameters.getRetryAfter()).thenReturn(7);
+        when(tooManyRequests.getParameters()).thenReturn(parameters);
+
+        assertEquals(7000, queue.getRetryDelayMillis(tooManyRequests, 1));
+        assertEquals(40, queue.getRetryDelayMillis(new TelegramApiException("error"), 3));
+    }
+
+    @Test
+    void testIsRetryable() {
+        assertTrue(TelegramDeliveryQueue.isRetryable(null));
+        assertTrue(TelegramDeliveryQueue.isRetryable(429));
+        assertTrue(TelegramDeliveryQueue.isRetryable(502));
+        assertFalse(TelegramDeliveryQueue.isRetryable(400));
+        assertFalse(TelegramDeliveryQueue.isRetryable(403));
+    }
+
+    private void awaitDelivery() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (queue.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    private static SendMessage getMessage(Long chatId, String text) {
+        SendMessage message = new SendMessage();
+        message.setChatId(chatId);
+        message.setText(text);
+        return message;
+    }
+
+}
@@ -0,0 +1,52 @@
+package academy.prog.julia.telegram.delivery;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testTryConsume_allowsBurstThenLimitsRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        long wait = bucket.tryConsume(0);
+        assertTrue(wait > 0 && wait <= SECOND);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+    }
+
+    @Test
+    void testIsFull_afterRefill() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void testPauseUntil_noTokensBeforeResume() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        bucket.pauseUntil(0, 2 * SECOND);
+
+        long wait = bucket.tryConsume(SECOND);
+        assertTrue(wait > SECOND && wait <= 2 * SECOND);
+        assertTrue(bucket.tryConsume(2 * SECOND) > 0);
+        assertEquals(0, bucket.tryConsume(3 * SECOND));
+    }
+
+    @Test
+    void testConstructor_withInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+
+}
@@ -0,0 +1,80 @@
+package academy.prog.julia.telegram.executor;
+
+import academy.prog.julia.telegram.commands.Command;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryActiveCommandStoreTest {
+
+    private static final long TIMEOUT = 20 * 60_000;
+    private static final long TICK = 30_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private InMemoryActiveCommandStore store;
+    private ActiveCommand activeCommand;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryActiveCommandStore(TIMEOUT, TICK, now::get);
+        activeCommand = new ActiveCommand(mock(Command.class));
+    }
+
+    @Test
+    void testPutAndGet() {
+        store.put(1L, activeCommand);
+
+        assertSame(activeCommand, store.get(1L));
+        assertNull(store.get(2L));
+    }
+
+    @Test
+    void testExpire_removesInactiveCommands() {
+        store.put(1L, activeCommand);
+
+        now.addAndGet(TIMEOUT - TICK);
+        assertEquals(0, store.expire());
+
+        now.addAndGet(2 * TICK);
+        assertEquals(1, store.expire());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testGet_extendsLifetime() {
+        store.put(1L, activeCommand);
+
+        now.addAndGet(TIMEOUT / 2);
+        assertSame(activeCommand, store.get(1L));
+
+        now.addAndGet(TIMEOUT / 2 + TICK);
+        assertEquals(0, store.expire());
+        assertSame(activeCommand, store.get(1L));
+
+        now.addAndGet(TIMEOUT + TICK);
+        assertEquals(1, store.expire());
+    }
+
+    @Test
+    void testGet_doesNotReturnExpiredCommandBeforeSweep() {
+        store.put(1L, activeCommand);
+
+        now.addAndGet(TIMEOUT + 1);
+
+        assertNull(store.get(1L));
+    }
+
+    @Test
+    void testRemove() {
+        store.put(1L, activeCommand);
+
+        assertTrue(store.remove(1L));
+        assertFalse(store.remove(1L));
+        assertNull(store.get(1L));
+    }
+
+}
@@ -0,0 +1,88 @@
+package academy.prog.julia.telegram.executor;
+
+import academy.prog.julia.telegram.commands.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JdbcActiveCommandStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcActiveCommandStore store;
+    private Command command;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:active_commands;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("""
+                CREATE TABLE telegram_active_command (
+                    chat_id BIGINT NOT NULL PRIMARY KEY,
+                    command_name VARCHAR(255) NOT NULL,
+                    state_index INTEGER NOT NULL,
+                    attributes BLOB,
+                    expires_at BIGINT NOT NULL
+                )""");
+
+        command = mock(Command.class);
+        when(command.getName()).thenReturn("/set_email");
+
+        store = new JdbcActiveCommandStore(jdbcTemplate, new CommandRegistry(Set.of(command)), 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE telegram_active_command");
+    }
+
+    @Test
+    void testPutAndGet_restoresStateAndAttributes() {
+        ActiveCommand activeCommand = new ActiveCommand(command, 2);
+        activeCommand.getAttributes().put("email", "user@example.com");
+        activeCommand.getAttributes().put("id", 5);
+
+        store.put(1L, activeCommand);
+        ActiveCommand restored = store.get(1L);
+
+        assertNotNull(restored);
+        assertSame(command, restored.getCommand());
+        assertEquals(2, restored.getStateIndex());
+        assertEquals("user@example.com", restored.getAttributes().get("email"));
+        assertEquals(5, restored.getAttributes().get("id"));
+    }
+
+    @Test
+    void testPut_updatesExistingCommand() {
+        store.put(1L, new ActiveCommand(command, 0));
+        store.put(1L, new ActiveCommand(command, 1));
+
+        assertEquals(1, store.get(1L).getStateIndex());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM telegram_active_command", Integer.class));
+    }
+
+    @Test
+    void testExpire_removesOnlyExpiredCommands() {
+        store.put(1L, new ActiveCommand(command));
+        store.put(2L, new ActiveCommand(command));
+        jdbcTemplate.update("UPDATE telegram_active_command SET expires_at = 0 WHERE chat_id = 1");
+
+        assertNull(store.get(1L));
+        assertEquals(1, store.expire());
+        assertNotNull(store.get(2L));
+    }
+
+    @Test
+    void testRemove() {
+        store.put(1L, new ActiveCommand(command));
+
+        assertTrue(store.remove(1L));
+        assertNull(store.get(1L));
+    }
+
+}
@@ -0,0 +1,54 @@
+package academy.prog.julia.telegram.executor;
+
+import academy.prog.julia.dto.TaskDeadlineNotificationDTO;
+import academy.prog.julia.services.TaskService;
+import academy.prog.julia.telegram.MainBot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotifyTaskDeadlineTest {
+
+    private NotifyTaskDeadline notifyTaskDeadline;
+
+    @BeforeEach
+    void setUp() {
+        notifyTaskDeadline = new NotifyTaskDeadline(mock(MainBot.class), mock(TaskService.class));
+    }
+
+    @Test
+    void testPlanMessages_groupsTasksByChat() {
+        List<TaskDeadlineNotificationDTO> notifications = List.of(
+                new TaskDeadlineNotificationDTO(1L, "100", 10L, "Task 1", "Lesson 1", "Group A"),
+                new TaskDeadlineNotificationDTO(1L, "100", 10L, "Task 1", "Lesson 1", "Group B"),
+                new TaskDeadlineNotificationDTO(1L, "100", 11L, "Task 2", "Lesson 2", "Group A"),
+                new TaskDeadlineNotificationDTO(2L, "200", 10L, "Task 1", "Lesson 1", "Group A")
+        );
+
+        Map<String, String> messages = notifyTaskDeadline.planMessages(notifications);
+
+        assertEquals(2, messages.size());
+        assertEquals(
+                "You haven't sent next home task(s): \n" +
+                        "Group: Group A,Group: Group B;\nLesson: Lesson 1;\nTask: Task 1.\n\n" +
+                        "Group: Group A;\nLesson: Lesson 2;\nTask: Task 2.\n\n",
+                messages.get("100")
+        );
+        assertEquals(
+                "You haven't sent next home task(s): \n" +
+                        "Group: Group A;\nLesson: Lesson 1;\nTask: Task 1.\n\n",
+                messages.get("200")
+        );
+    }
+
+    @Test
+    void testPlanMessages_whenNoNotifications() {
+        assertTrue(notifyTaskDeadline.planMessages(List.of()).isEmpty());
+    }
+
+}
@@ -1,12 +1,16 @@
 package academy.prog.julia.telegram.executor;
 
+import academy.prog.julia.dto.ChatPrincipalDTO;
 import academy.prog.julia.model.User;
+import academy.prog.julia.model.UserRole;
 import academy.prog.julia.services.*;
 import academy.prog.julia.telegram.MainBot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
@@ -81,6 +85,34 @@ class StateExecutionContextTest {
     }
 
 
+    @Test
+    void testPrincipalConstructor_loadsUserOnFirstUse() {
+        ChatPrincipalDTO principal = new ChatPrincipalDTO(7L, UserRole.TEACHER, false, true);
+        when(userServiceMock.findById(7L)).thenReturn(Optional.of(userMock));
+
+        StateExecutionContext context = new StateExecutionContext(
+                mainBotMock,
+                userServiceMock,
+                certificateServiceMock,
+                groupServiceMock,
+                docsSheetsServiceMock,
+                taskServiceMock,
+                principal,
+                12345L,
+                "test message",
+                new String[]{"command"},
+                updateMock
+        );
+
+        assertEquals(UserRole.TEACHER, context.getUserRole());
+        verify(userServiceMock, never()).findById(anyLong());
+
+        assertEquals(userMock, context.getUser());
+        assertEquals(userMock, context.getUser());
+        verify(userServiceMock, times(1)).findById(7L);
+    }
+
+
     @Test
     void testSendMessage_Positive() {
         context.sendMessage("Hello, World!");
@@ -484,7 +516,7 @@ class StateExecutionContextTest {
 
 
     @Test
-    void testSendTextWithMarkup_Positive() throws TelegramApiException {
+    void testSendTextWithMarkup_Positive() {
         ReplyKeyboardMarkup replyKeyboardMarkupMock = mock(ReplyKeyboardMarkup.class);
 
         context.sendTextWithMarkup(
@@ -494,13 +526,15 @@ class StateExecutionContextTest {
                 replyKeyboardMarkupMock
         );
 
-        verify(mainBotMock).execute(any(SendMessage.class));
+        ArgumentCaptor<SendMessage> captor = ArgumentCaptor.forClass(SendMessage.class);
+        verify(mainBotMock).sendMessage(captor.capture());
+        assertEquals("Test message", captor.getValue().getText());
+        assertEquals("Markdown", captor.getValue().getParseMode());
+        assertInstanceOf(InlineKeyboardMarkup.class, captor.getValue().getReplyMarkup());
     }
 
     @Test
-    void testSendTextWithMarkup_Negative_TelegramApiException() throws TelegramApiException {
-        doThrow(new TelegramApiException("Simulated exception")).when(mainBotMock).execute(any(SendMessage.class));
-
+    void testSendTextWithMarkup_QueuedWithoutCallingTelegram() throws TelegramApiException {
         assertDoesNotThrow(() -> {
             context.sendTextWithMarkup(
                     "Test message",
@@ -510,7 +544,8 @@ class StateExecutionContextTest {
             );
         });
 
-        verify(mainBotMock).execute(any(SendMessage.class));
+        verify(mainBotMock).sendMessage(any(SendMessage.class));
+        verify(mainBotMock, never()).execute(any(SendMessage.class));
     }
 
     @Test
@@ -526,7 +561,7 @@ class StateExecutionContextTest {
     }
 
     @Test
-    void testSendTextWithMarkup_WithoutReplyKeyboard() throws TelegramApiException {
+    void testSendTextWithMarkup_WithoutReplyKeyboard() {
         context.sendTextWithMarkup(
                 "Test message",
                 "https://example.com",
@@ -534,7 +569,7 @@ class StateExecutionContextTest {
                 null
         );
 
-        verify(mainBotMock).execute(any(SendMessage.class));
+        verify(mainBotMock).sendMessage(any(SendMessage.class));
     }
 
-}
\ No newline at end of file
+}
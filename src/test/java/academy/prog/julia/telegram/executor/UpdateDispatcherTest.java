@@ -0,0 +1,86 @@
+package academy.prog.julia.telegram.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateDispatcherTest {
+
+    private UpdateDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new UpdateDispatcher(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatch_keepsOrderWithinChat() throws InterruptedException {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            int number = i;
+            dispatcher.dispatch(1L, () -> {
+                handled.add(number);
+                done.countDown();
+                return "/test";
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, handled.get(i));
+        }
+    }
+
+    @Test
+    void testDispatch_slowChatDoesNotBlockOtherChats() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherChatHandled = new CountDownLatch(1);
+
+        dispatcher.dispatch(1L, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "/slow";
+        });
+        dispatcher.dispatch(2L, () -> {
+            otherChatHandled.countDown();
+            return "/fast";
+        });
+
+        assertTrue(otherChatHandled.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_recordsHandlingTimeAndSurvivesFailures() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.dispatch(1L, () -> {
+            throw new IllegalStateException("Simulated failure");
+        });
+        dispatcher.dispatch(1L, () -> {
+            done.countDown();
+            return "/help";
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(1, dispatcher.getCommandStats().get("/help").getCount());
+        assertEquals(1, dispatcher.getCommandStats().get("unknown").getCount());
+    }
+
+}
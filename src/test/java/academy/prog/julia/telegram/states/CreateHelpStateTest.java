@@ -2,7 +2,6 @@ package academy.prog.julia.telegram.states;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import academy.prog.julia.model.User;
 import academy.prog.julia.telegram.executor.CommandRegistry;
 import academy.prog.julia.telegram.executor.StateExecutionContext;
 import academy.prog.julia.telegram.commands.Command;
@@ -33,9 +32,6 @@ class CreateHelpStateTest {
     @Mock
     private Command command1, command2, restrictedCommand;
 
-    @Mock
-    private User user;
-
 
     @BeforeEach
     void setUp() {
@@ -43,7 +39,6 @@ class CreateHelpStateTest {
         state = new CreateHelpState("helpResult");
 
         when(context.getCommandRegistry()).thenReturn(commandRegistry);
-        when(context.getUser()).thenReturn(user);
 
         when(command1.getName()).thenReturn("start");
         when(command1.getDescription()).thenReturn("Starts the bot");
@@ -63,7 +58,7 @@ class CreateHelpStateTest {
     void testEnter_AllCommandsForRegularUser() {
         // Given
         when(commandRegistry.getAll()).thenReturn(List.of(command1, command2, restrictedCommand));
-        when(context.getUser().getRole()).thenReturn(UserRole.STUDENT);
+        when(context.getUserRole()).thenReturn(UserRole.STUDENT);
 
         // When
         state.enter(context);
@@ -86,7 +81,7 @@ class CreateHelpStateTest {
     void testEnter_AllCommandsForAdminUser() {
         // Given
         when(commandRegistry.getAll()).thenReturn(List.of(command1, command2, restrictedCommand));
-        when(context.getUser().getRole()).thenReturn(UserRole.ADMIN);
+        when(context.getUserRole()).thenReturn(UserRole.ADMIN);
 
         // When
         state.enter(context);
@@ -108,7 +103,7 @@ class CreateHelpStateTest {
     @Test
     void testEnter_WrongCommandsForStudentUser() {
         // Given
-        when(context.getUser().getRole()).thenReturn(UserRole.ADMIN);
+        when(context.getUserRole()).thenReturn(UserRole.ADMIN);
 
         // When
         state.enter(context);
@@ -229,7 +224,7 @@ class CreateHelpStateTest {
         when(context.getCommandRegistry().getAll()).thenReturn(List.of(multiRoleCommand));
 
         // Test for user with one of required roles
-        when(context.getUser().getRole()).thenReturn(UserRole.MENTOR);
+        when(context.getUserRole()).thenReturn(UserRole.MENTOR);
 
         // When
         state.enter(context);